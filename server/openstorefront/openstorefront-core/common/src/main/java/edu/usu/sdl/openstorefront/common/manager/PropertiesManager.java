@@ -64,17 +64,44 @@ public class PropertiesManager
 	public static final String KEY_ELASTIC_HOST = "elastic.server.host";
 	public static final String KEY_ELASTIC_PORT = "elastic.server.port";
 	public static final String KEY_MAX_AGE_TRACKING_RECORDS = "trackingrecords.max.age.days";
+	public static final String KEY_TRACKING_QUEUE_SIZE = "tracking.queue.size";
+	public static final String KEY_TRACKING_BATCH_SIZE = "tracking.batch.size";
+	public static final String KEY_TRACKING_BATCH_MAX_WAIT = "tracking.batch.maxwaitms";
+	public static final String KEY_TRACKING_COUNTER_FLUSH = "tracking.counter.flushseconds";
+	public static final String KEY_IMPORT_PROGRESS_RECORDS = "import.progress.records";
+	public static final String KEY_IMPORT_PROGRESS_INTERVAL = "import.progress.intervalms";
+	public static final String KEY_IMPORT_PIPELINE = "import.pipeline.enabled";
+	public static final String KEY_IMPORT_PIPELINE_WORKERS = "import.pipeline.workers";
+	public static final String KEY_IMPORT_PIPELINE_QUEUE_SIZE = "import.pipeline.queue.size";
+	public static final String KEY_IMPORT_BULK_BATCH_SIZE = "import.bulk.batchsize";
+	public static final String KEY_METRICS_ENABLED = "metrics.enabled";
+	public static final String KEY_CACHE_REGION_PREFIX = "cache.";
+	public static final String KEY_CACHE_JMX = "cache.jmx.enabled";
+	public static final String KEY_CACHE_INVALIDATION_TRANSPORT = "cache.invalidation.transport";
+	public static final String KEY_CACHE_INVALIDATION_BATCH_MAX_WAIT = "cache.invalidation.batch.maxwaitms";
+	public static final String KEY_CACHE_INVALIDATION_POLL = "cache.invalidation.poll.ms";
+	public static final String KEY_CACHE_INVALIDATION_POLL_OVERLAP = "cache.invalidation.poll.overlap.seconds";
+	public static final String KEY_CACHE_INVALIDATION_RETAIN = "cache.invalidation.retain.minutes";
 	public static final String KEY_EXTERNAL_USER_MANAGER = "external.usermanager";
 	public static final String KEY_EXTERNAL_SYNC_ACTIVATE = "external.sync.activate";
 	public static final String KEY_DBLOG_MAX_RECORD = "dblog.maxrecords";
 	public static final String KEY_DBLOG_ON = "dblog.on";
 	public static final String KEY_DBLOG_LOG_SECURITY = "dblog.logSecurityFilter";
+	public static final String KEY_DBLOG_BUFFER_SIZE = "dblog.buffer.size";
+	public static final String KEY_DBLOG_BATCH_SIZE = "dblog.batch.size";
+	public static final String KEY_DBLOG_BATCH_MAX_WAIT = "dblog.batch.maxwaitms";
+	public static final String KEY_DBLOG_OVERFLOW_POLICY = "dblog.overflow.policy";
+	public static final String KEY_DBLOG_OVERFLOW_LEVEL = "dblog.overflow.level";
 	public static final String KEY_ALLOW_JIRA_FEEDBACK = "jirafeedback.show";
 	public static final String KEY_FILE_HISTORY_KEEP_DAYS = "filehistory.max.days";
 	public static final String KEY_NOTIFICATION_MAX_DAYS = "notification.max.days";
 	public static final String TEMPORARY_MEDIA_KEEP_DAYS = "temporary.media.keep.days";
 	public static final String KEY_TEST_EMAIL = "test.email";
 	public static final String KEY_SYSTEM_ARCHIVE_MAX_PROCESSMINTUES = "system.archive.maxprocessminutes";
+	public static final String KEY_MEDIA_CACHE_CONTROL = "media.cachecontrol";
+	public static final String KEY_LINKCHECK_THREADS = "report.linkcheck.threads";
+	public static final String KEY_LINKCHECK_PER_HOST = "report.linkcheck.perhost";
+	public static final String KEY_LINKCHECK_CACHE_HOURS = "report.linkcheck.cache.hours";
 
 	public static final String KEY_UI_IDLETIMEOUT_MINUTES = "ui.idletimeout.minutes";
 	public static final String KEY_UI_IDLETIMEGRACE_MINUTES = "ui.idlegraceperiod.minutes";
@@ -124,6 +151,8 @@ public class PropertiesManager
 	public static final String KEY_MAX_TASK_POOL_SIZE = "task.pool.size";
 	public static final String KEY_MAX_TASK_COMPLETE_EXPIRE = "task.complete.expireminutes";
 	public static final String KEY_MAX_TASK_ERROR_EXPIRE = "task.error.expireminutes";
+	public static final String KEY_SEARCH_HANDLER_POOL_SIZE = "search.handler.pool.size";
+	public static final String KEY_SEARCH_VIEW_SNAPSHOT = "search.view.snapshot";
 
 	public static final String KEY_LDAP_MANAGER_URL = "ldapmanager.url";
 	public static final String KEY_LDAP_MANAGER_USER_DN_TEMPLATE = "ldapmanager.userDnTemplate";
@@ -259,11 +288,38 @@ public class PropertiesManager
 			defaults.put(KEY_EXTERNAL_HOST_URL, "http://localhost:8080/openstorefront");
 			defaults.put(KEY_DBLOG_MAX_RECORD, "50000");
 			defaults.put(KEY_DBLOG_ON, "false");
+			defaults.put(KEY_TRACKING_QUEUE_SIZE, "20000");
+			defaults.put(KEY_TRACKING_BATCH_SIZE, "500");
+			defaults.put(KEY_TRACKING_BATCH_MAX_WAIT, "1000");
+			defaults.put(KEY_TRACKING_COUNTER_FLUSH, "60");
+			defaults.put(KEY_IMPORT_PROGRESS_RECORDS, "1000");
+			defaults.put(KEY_IMPORT_PROGRESS_INTERVAL, "500");
+			defaults.put(KEY_IMPORT_PIPELINE, "false");
+			defaults.put(KEY_IMPORT_PIPELINE_WORKERS, "4");
+			defaults.put(KEY_IMPORT_PIPELINE_QUEUE_SIZE, "500");
+			defaults.put(KEY_IMPORT_BULK_BATCH_SIZE, "200");
+			defaults.put(KEY_METRICS_ENABLED, "false");
+			defaults.put(KEY_CACHE_JMX, "true");
+			defaults.put(KEY_CACHE_INVALIDATION_TRANSPORT, "LOCAL");
+			defaults.put(KEY_CACHE_INVALIDATION_BATCH_MAX_WAIT, "200");
+			defaults.put(KEY_CACHE_INVALIDATION_POLL, "2000");
+			defaults.put(KEY_CACHE_INVALIDATION_POLL_OVERLAP, "30");
+			defaults.put(KEY_CACHE_INVALIDATION_RETAIN, "60");
+			defaults.put(KEY_DBLOG_BUFFER_SIZE, "10000");
+			defaults.put(KEY_DBLOG_BATCH_SIZE, "200");
+			defaults.put(KEY_DBLOG_BATCH_MAX_WAIT, "500");
+			defaults.put(KEY_DBLOG_OVERFLOW_POLICY, "DROP_OLDEST");
+			defaults.put(KEY_DBLOG_OVERFLOW_LEVEL, "WARNING");
 			defaults.put(KEY_ALLOW_JIRA_FEEDBACK, "true");
 			defaults.put(KEY_JIRA_FEEDBACK_PROJECT, "STORE");
 			defaults.put(KEY_JIRA_FEEDBACK_ISSUETYPE, "Help Desk Ticket");
 			defaults.put(TEMPORARY_MEDIA_KEEP_DAYS, "1");
 			defaults.put(KEY_SYSTEM_ARCHIVE_MAX_PROCESSMINTUES, "60");
+			defaults.put(KEY_MEDIA_CACHE_CONTROL, "private, no-cache");
+			defaults.put(KEY_LINKCHECK_THREADS, "20");
+			defaults.put(KEY_LINKCHECK_PER_HOST, "4");
+			defaults.put(KEY_LINKCHECK_CACHE_HOURS, "24");
+			defaults.put(KEY_SEARCH_HANDLER_POOL_SIZE, "8");
 
 			String propertiesFilename = FileSystemManager.getConfig("openstorefront.properties").getPath();
 			
@@ -55,6 +55,7 @@ import edu.usu.sdl.openstorefront.core.view.RequiredForComponent;
 import edu.usu.sdl.openstorefront.core.view.statistic.ComponentRecordStatistic;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -392,6 +393,15 @@ public interface ComponentService
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public void saveComponentTracking(ComponentTracking tracking);
 
+	/**
+	 * Inserts a batch of new tracking records (already populated) in one
+	 * transaction.
+	 *
+	 * @param trackings
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public void saveComponentTrackings(List<ComponentTracking> trackings);
+
 	/**
 	 * This will save the component (skipping duplication checking)
 	 *
@@ -453,6 +463,27 @@ public interface ComponentService
 	 */
 	public void importComponents(List<ComponentAll> components, FileHistoryOption options);
 
+	/**
+	 * Saves a batch of full components in one transaction (meant for bulk
+	 * loads such as restoring an archive). The update queue, watches, search
+	 * indexing and cache invalidation are skipped; call finishBulkImport with
+	 * the returned ids once all of the batches are saved.
+	 *
+	 * @param components
+	 * @param options
+	 * @return ids of the components that changed
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public List<String> bulkImportComponents(List<ComponentAll> components, FileHistoryOption options);
+
+	/**
+	 * Applies the deferred work for the bulk imported components (last
+	 * activity, watches, search index and caches) in one pass.
+	 *
+	 * @param componentIds
+	 */
+	public void finishBulkImport(Collection<String> componentIds);
+
 	/**
 	 * Deletes the component and all related entities
 	 *
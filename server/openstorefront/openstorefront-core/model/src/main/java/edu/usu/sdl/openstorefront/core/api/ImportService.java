@@ -23,6 +23,7 @@ import edu.usu.sdl.openstorefront.core.model.DataMapModel;
 import edu.usu.sdl.openstorefront.core.model.FileFormatCheck;
 import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
 import edu.usu.sdl.openstorefront.core.model.ImportContext;
+import edu.usu.sdl.openstorefront.core.model.ImportProgress;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.FieldDefinition;
 import java.io.InputStream;
 import java.util.List;
@@ -73,6 +74,28 @@ public interface ImportService
 
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public void updateImportProgress(FileHistoryAll fileHistoryAll);
+
+	/**
+	 * Registers the live progress of a running import
+	 *
+	 * @param importProgress
+	 */
+	public void trackImportProgress(ImportProgress importProgress);
+
+	/**
+	 * Removes the live progress once the import is done
+	 *
+	 * @param fileHistoryId
+	 */
+	public void removeImportProgress(String fileHistoryId);
+
+	/**
+	 * Gets the live progress of a running import
+	 *
+	 * @param fileHistoryId
+	 * @return progress or null if the import is not running
+	 */
+	public ImportProgress getImportProgress(String fileHistoryId);
 	
 	/**
 	 * Deletes a file history record and any associated data
@@ -19,6 +19,7 @@ import edu.usu.sdl.openstorefront.core.entity.NotificationEvent;
 import edu.usu.sdl.openstorefront.core.spi.NotificationEventListerner;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.NotificationEventWrapper;
+import java.util.List;
 
 /**
  * Handles Notification Events.
@@ -38,6 +39,15 @@ public interface NotificationService
 	 */
 	public NotificationEventWrapper getAllEventsForUser(String username, FilterQueryParams queryParams);
 
+	/**
+	 * Unread user and global notifications for a user; kept in memory so
+	 * this doesn't hit the database once the user is loaded.
+	 *
+	 * @param username (required)
+	 * @return unread count
+	 */
+	public long getUnreadCount(String username);
+
 	/**
 	 * Adds a new Listener to be able to handle events
 	 *
@@ -54,6 +64,16 @@ public interface NotificationService
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public NotificationEvent postEvent(NotificationEvent notificationEvent);
 
+	/**
+	 * Saves a batch of new Notification events in one transaction and then
+	 * notifies the Listeners
+	 *
+	 * @param notificationEvents
+	 * @return NotificationEvents posted
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public List<NotificationEvent> postEvents(List<NotificationEvent> notificationEvents);
+
 	/**
 	 * Remove an event from the system
 	 *
@@ -8,6 +8,7 @@ package edu.usu.sdl.openstorefront.core.api;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
 import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +19,16 @@ import java.util.Map;
 public interface PersistenceService
 {
 
+	/**
+	 * Runs the action once the current transaction commits; it is dropped if
+	 * the transaction rolls back. Outside of a transaction it runs right away.
+	 * Use it for work that must not see (or publish) uncommitted changes such
+	 * as cache updates and queued writes.
+	 *
+	 * @param action
+	 */
+	void afterCommit(Runnable action);
+
 	void begin();
 
 	void commit();
@@ -45,6 +56,17 @@ public interface PersistenceService
 
 	int deleteByQuery(Class entityClass, String whereClause, Map<String, Object> queryParams);
 
+	/**
+	 * Removes the records older than the cutoff in chunks walking the date
+	 * field index. This should be called outside of a transaction.
+	 *
+	 * @param entityClass
+	 * @param dateField (should be indexed)
+	 * @param cutoff records before this are removed
+	 * @return number of records removed
+	 */
+	long deleteOlderThan(Class<?> entityClass, String dateField, Date cutoff);
+
 	/**
 	 * Detaches and removes the proxy object
 	 *
@@ -234,10 +234,20 @@ public interface SystemService
 	 */
 	public void addLogRecord(DBLogRecord logRecord);
 
+	/**
+	 * Inserts a batch of log records in one transaction.
+	 *
+	 * @param logRecords
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public void addLogRecords(List<DBLogRecord> logRecords);
+
 	/**
 	 * This enforces max log records kept in the DB.
+	 *
+	 * @return number of records removed
 	 */
-	public void cleanUpOldLogRecords();
+	public long cleanUpOldLogRecords();
 
 	/**
 	 * This active/deactivates database logging
@@ -24,6 +24,7 @@ import java.util.logging.Logger;
  *
  * @author dshurtleff
  */
+@StatelessInterceptor
 public class TransactionInterceptor
 		implements ProxyInterceptor
 {
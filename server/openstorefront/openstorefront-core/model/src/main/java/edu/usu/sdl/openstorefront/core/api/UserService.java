@@ -159,6 +159,15 @@ public interface UserService
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public UserTracking saveUserTracking(UserTracking tracking);
 
+	/**
+	 * Inserts a batch of new tracking records (already populated) in one
+	 * transaction.
+	 *
+	 * @param trackings
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public void saveUserTrackings(List<UserTracking> trackings);
+
 	/**
 	 * This is called on login to pull the user info It will check for an
 	 * existing user based on the user name. If the user doesn't exist it will
@@ -197,6 +206,15 @@ public interface UserService
 	 */
 	public void checkComponentWatches(Component component);
 
+	/**
+	 * Batch version of checkComponentWatches. Loads the watches for all of the
+	 * components in one query and queues the messages and notifications in a
+	 * batch.
+	 *
+	 * @param components
+	 */
+	public void checkComponentWatches(List<Component> components);
+
 	/**
 	 * Queue messaged will be delayed thus allowing for duplicate handling and
 	 * reduce spam.
@@ -206,6 +224,15 @@ public interface UserService
 	@ServiceInterceptor(TransactionInterceptor.class)
 	public void queueUserMessage(UserMessage userMessage);
 
+	/**
+	 * Queues a batch of messages in one transaction; duplicates (in the batch
+	 * or already queued) are dropped the same way as queueUserMessage.
+	 *
+	 * @param userMessages
+	 */
+	@ServiceInterceptor(TransactionInterceptor.class)
+	public void queueUserMessages(List<UserMessage> userMessages);
+
 	/**
 	 * This will inactivate a user message
 	 *
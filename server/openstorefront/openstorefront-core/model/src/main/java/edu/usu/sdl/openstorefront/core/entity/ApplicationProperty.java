@@ -49,6 +49,8 @@ public class ApplicationProperty
 	public static final String HELP_SYNC = "HELPSYNC";
 	public static final String PLUGIN_LAST_LOAD_MAP = "PLUGINLASTDTS";
 	public static final String APPLICATION_CRYPT_KEY = "APPCRYPTKEY";
+	public static final String TRACKING_COUNTER_EPOCH = "TRACKCOUNTEREPOCH";
+	public static final String TRACKING_COUNTER_BACKFILL_DTS = "TRACKCOUNTERBACKFILLDTS";
 
 	public ApplicationProperty()
 	{
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.entity;
+
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.annotation.PK;
+import javax.validation.constraints.NotNull;
+
+/**
+ *
+ * @author dshurtleff
+ */
+@APIDescription("A batch of cache invalidations published by a node for the other nodes to apply")
+public class CacheInvalidationEvent
+		extends StandardEntity<CacheInvalidationEvent>
+{
+
+	@PK(generated = true)
+	@NotNull
+	private String eventId;
+
+	@NotNull
+	@APIDescription("Node that published the invalidations")
+	private String nodeId;
+
+	@NotNull
+	@APIDescription("Invalidations (JSON)")
+	private String invalidations;
+
+	public CacheInvalidationEvent()
+	{
+	}
+
+	public String getEventId()
+	{
+		return eventId;
+	}
+
+	public void setEventId(String eventId)
+	{
+		this.eventId = eventId;
+	}
+
+	public String getNodeId()
+	{
+		return nodeId;
+	}
+
+	public void setNodeId(String nodeId)
+	{
+		this.nodeId = nodeId;
+	}
+
+	public String getInvalidations()
+	{
+		return invalidations;
+	}
+
+	public void setInvalidations(String invalidations)
+	{
+		this.invalidations = invalidations;
+	}
+
+}
@@ -19,6 +19,7 @@ import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
 import edu.usu.sdl.openstorefront.core.annotation.FK;
 import edu.usu.sdl.openstorefront.core.annotation.PK;
 import edu.usu.sdl.openstorefront.core.annotation.ValidValueType;
+import java.util.Collection;
 import javax.validation.constraints.NotNull;
 
 /**
@@ -89,6 +90,19 @@ public class FileHistoryError
 		this.errorMessage = errorMessage;
 	}
 
+	/**
+	 * Warnings are kept with the errors but don't count as errors.
+	 *
+	 * @param errors
+	 * @return number of warnings
+	 */
+	public static long countWarnings(Collection<FileHistoryError> errors)
+	{
+		return errors.stream()
+				.filter(error -> FileHistoryErrorType.WARNING.equals(error.getFileHistoryErrorType()))
+				.count();
+	}
+
 	public String getFileHistoryErrorType()
 	{
 		return fileHistoryErrorType;
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.entity;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.annotation.PK;
+import java.util.Date;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ *
+ * @author dshurtleff
+ */
+@APIDescription("Last result of checking an external link; reused until it goes stale")
+public class LinkCheckResult
+		extends StandardEntity<LinkCheckResult>
+{
+
+	public static final String FIELD_CHECKED_DTS = "checkedDts";
+
+	@PK
+	@NotNull
+	@APIDescription("Hash of the link")
+	private String linkCheckId;
+
+	@NotNull
+	@Size(min = 1, max = OpenStorefrontConstant.FIELD_SIZE_URL)
+	private String link;
+
+	private String httpStatus;
+
+	private String status;
+
+	private String checkResults;
+
+	@NotNull
+	private Date checkedDts;
+
+	public LinkCheckResult()
+	{
+	}
+
+	public String getLinkCheckId()
+	{
+		return linkCheckId;
+	}
+
+	public void setLinkCheckId(String linkCheckId)
+	{
+		this.linkCheckId = linkCheckId;
+	}
+
+	public String getLink()
+	{
+		return link;
+	}
+
+	public void setLink(String link)
+	{
+		this.link = link;
+	}
+
+	public String getHttpStatus()
+	{
+		return httpStatus;
+	}
+
+	public void setHttpStatus(String httpStatus)
+	{
+		this.httpStatus = httpStatus;
+	}
+
+	public String getStatus()
+	{
+		return status;
+	}
+
+	public void setStatus(String status)
+	{
+		this.status = status;
+	}
+
+	public String getCheckResults()
+	{
+		return checkResults;
+	}
+
+	public void setCheckResults(String checkResults)
+	{
+		this.checkResults = checkResults;
+	}
+
+	public Date getCheckedDts()
+	{
+		return checkedDts;
+	}
+
+	public void setCheckedDts(Date checkedDts)
+	{
+		this.checkedDts = checkedDts;
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package edu.usu.sdl.openstorefront.core.entity;
 
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
 import edu.usu.sdl.openstorefront.core.annotation.SystemTable;
 import static edu.usu.sdl.openstorefront.core.entity.LookupEntity.newLookup;
@@ -35,6 +36,7 @@ public class ReportFormat
 	public static final String XLSX = "application-xlsx";
 	public static final String PDF = "application-pdf";
 	public static final String HTML = "text-html";
+	public static final String CSV_GZIP = "application-gzip";
 
 	public ReportFormat()
 	{
@@ -45,6 +47,14 @@ public class ReportFormat
 		return formatCode.replace("-", "/");
 	}
 
+	public static String fileExtension(String formatCode)
+	{
+		if (CSV_GZIP.equals(formatCode)) {
+			return ".csv.gz";
+		}
+		return OpenStorefrontConstant.getFileExtensionForMime(mimeType(formatCode));
+	}
+
 	@Override
 	protected Map<String, LookupEntity> systemCodeMap()
 	{
@@ -53,6 +63,7 @@ public class ReportFormat
 		codeMap.put(XLSX, newLookup(ReportFormat.class, XLSX, "Excel"));
 		codeMap.put(PDF, newLookup(ReportFormat.class, PDF, "Portable Document Format"));
 		codeMap.put(HTML, newLookup(ReportFormat.class, HTML, "HTML"));
+		codeMap.put(CSV_GZIP, newLookup(ReportFormat.class, CSV_GZIP, "Comma-Separated Values (gzip)"));
 		return codeMap;
 	}
 
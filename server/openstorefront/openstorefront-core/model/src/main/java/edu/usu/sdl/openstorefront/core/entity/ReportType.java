@@ -84,6 +84,7 @@ public class ReportType
 		//Add  formats
 		for (LookupEntity lookupEntity : codeMap.values()) {
 			((ReportType) lookupEntity).getSupportedFormats().add(ReportFormat.CSV);
+			((ReportType) lookupEntity).getSupportedFormats().add(ReportFormat.CSV_GZIP);
 		}
 		((ReportType) codeMap.get(COMPONENT_DETAIL)).getSupportedFormats().add(ReportFormat.HTML);
 
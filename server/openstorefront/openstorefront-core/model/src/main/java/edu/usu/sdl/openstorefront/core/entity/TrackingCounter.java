@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.entity;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+import edu.usu.sdl.openstorefront.core.annotation.FK;
+import edu.usu.sdl.openstorefront.core.annotation.PK;
+import edu.usu.sdl.openstorefront.core.annotation.ValidValueType;
+import java.util.Date;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ *
+ * @author dshurtleff
+ */
+@APIDescription("Daily count of tracking events by event type, component and user")
+public class TrackingCounter
+		extends StandardEntity<TrackingCounter>
+{
+
+	public static final String FIELD_COMPONENT_ID = "componentId";
+	public static final String FIELD_USERNAME = "username";
+
+	@PK
+	@NotNull
+	@APIDescription("Source, event type, day, component and user")
+	private String counterId;
+
+	@NotNull
+	@Size(min = 1, max = OpenStorefrontConstant.FIELD_SIZE_CODE)
+	@ValidValueType(value = {}, lookupClass = TrackEventCode.class)
+	@FK(TrackEventCode.class)
+	private String trackEventTypeCode;
+
+	@APIDescription("Component the events are on (none for user events)")
+	private String componentId;
+
+	@APIDescription("User that triggered the events")
+	private String username;
+
+	@NotNull
+	@APIDescription("Beginning of the day the events are counted for")
+	private Date counterDate;
+
+	@NotNull
+	private Long eventCount;
+
+	public TrackingCounter()
+	{
+	}
+
+	public String getCounterId()
+	{
+		return counterId;
+	}
+
+	public void setCounterId(String counterId)
+	{
+		this.counterId = counterId;
+	}
+
+	public String getTrackEventTypeCode()
+	{
+		return trackEventTypeCode;
+	}
+
+	public void setTrackEventTypeCode(String trackEventTypeCode)
+	{
+		this.trackEventTypeCode = trackEventTypeCode;
+	}
+
+	public String getComponentId()
+	{
+		return componentId;
+	}
+
+	public void setComponentId(String componentId)
+	{
+		this.componentId = componentId;
+	}
+
+	public String getUsername()
+	{
+		return username;
+	}
+
+	public void setUsername(String username)
+	{
+		this.username = username;
+	}
+
+	public Date getCounterDate()
+	{
+		return counterDate;
+	}
+
+	public void setCounterDate(Date counterDate)
+	{
+		this.counterDate = counterDate;
+	}
+
+	public Long getEventCount()
+	{
+		return eventCount;
+	}
+
+	public void setEventCount(Long eventCount)
+	{
+		this.eventCount = eventCount;
+	}
+
+}
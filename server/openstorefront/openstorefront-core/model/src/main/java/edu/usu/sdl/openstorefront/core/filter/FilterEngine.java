@@ -212,6 +212,33 @@ public class FilterEngine
 		return keepData;
 	}
 
+	/**
+	 * Checks a component's data source and sensitivity in memory; applying the
+	 * same rules as queryComponentRestriction.
+	 *
+	 * @param userContext (null means there is no restriction)
+	 * @param dataSource
+	 * @param dataSensitivity
+	 * @return true if the component should be kept
+	 */
+	public static boolean keepComponentRestriction(UserContext userContext, String dataSource, String dataSensitivity)
+	{
+		if (userContext == null) {
+			return true;
+		}
+		return matchesRestriction(dataSensitivity, userContext.allowUnspecifiedDataSensitivty(), userContext.dataSensitivity())
+				&& matchesRestriction(dataSource, userContext.allowUnspecifiedDataSources(), userContext.dataSources());
+	}
+
+	private static boolean matchesRestriction(String value, boolean allowUnspecified, Set<String> acceptedValues)
+	{
+		if (allowUnspecified) {
+			return value == null || acceptedValues.contains(value);
+		} else {
+			return value != null && (acceptedValues.isEmpty() || acceptedValues.contains(value));
+		}
+	}
+
 	/**
 	 * Data is filterable if the following conditions are met: _Not Null _User
 	 * is Logged in _Is a Standard Entity
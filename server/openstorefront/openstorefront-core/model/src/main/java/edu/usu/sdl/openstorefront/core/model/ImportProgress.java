@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.model;
+
+import java.util.Date;
+
+/**
+ * Live counts for an import that is running. The parser updates this on every
+ * record; the file history record is only saved on an interval.
+ *
+ * @author dshurtleff
+ */
+public class ImportProgress
+{
+
+	private String fileHistoryId;
+	private volatile Integer numberRecords;
+	private volatile int recordsProcessed;
+	private volatile int recordsStored;
+	private volatile int errorsCount;
+	private volatile int warningsCount;
+	private volatile boolean running;
+	private volatile Date lastPublishDts;
+
+	public ImportProgress()
+	{
+	}
+
+	public ImportProgress(String fileHistoryId)
+	{
+		this.fileHistoryId = fileHistoryId;
+	}
+
+	public String getFileHistoryId()
+	{
+		return fileHistoryId;
+	}
+
+	public void setFileHistoryId(String fileHistoryId)
+	{
+		this.fileHistoryId = fileHistoryId;
+	}
+
+	public Integer getNumberRecords()
+	{
+		return numberRecords;
+	}
+
+	public void setNumberRecords(Integer numberRecords)
+	{
+		this.numberRecords = numberRecords;
+	}
+
+	public int getRecordsProcessed()
+	{
+		return recordsProcessed;
+	}
+
+	public void setRecordsProcessed(int recordsProcessed)
+	{
+		this.recordsProcessed = recordsProcessed;
+	}
+
+	public int getRecordsStored()
+	{
+		return recordsStored;
+	}
+
+	public void setRecordsStored(int recordsStored)
+	{
+		this.recordsStored = recordsStored;
+	}
+
+	public int getErrorsCount()
+	{
+		return errorsCount;
+	}
+
+	public void setErrorsCount(int errorsCount)
+	{
+		this.errorsCount = errorsCount;
+	}
+
+	public int getWarningsCount()
+	{
+		return warningsCount;
+	}
+
+	public void setWarningsCount(int warningsCount)
+	{
+		this.warningsCount = warningsCount;
+	}
+
+	public boolean getRunning()
+	{
+		return running;
+	}
+
+	public void setRunning(boolean running)
+	{
+		this.running = running;
+	}
+
+	public Date getLastPublishDts()
+	{
+		return lastPublishDts;
+	}
+
+	public void setLastPublishDts(Date lastPublishDts)
+	{
+		this.lastPublishDts = lastPublishDts;
+	}
+
+}
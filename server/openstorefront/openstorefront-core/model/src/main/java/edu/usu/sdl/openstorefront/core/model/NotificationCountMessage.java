@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.core.annotation.DataType;
+import edu.usu.sdl.openstorefront.core.view.NotificationUnreadView;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes a change in a user's unread count to the client (same shape as
+ * NotificationMessage)
+ *
+ * @author dshurtleff
+ */
+public class NotificationCountMessage
+{
+
+	public static final String NAME = "UNREAD_COUNT";
+
+	private String name = NAME;
+
+	@DataType(NotificationUnreadView.class)
+	private List<NotificationUnreadView> args = new ArrayList<>();
+
+	public NotificationCountMessage()
+	{
+	}
+
+	public static NotificationCountMessage toMessage(String username, long unreadCount)
+	{
+		NotificationCountMessage message = new NotificationCountMessage();
+		message.getArgs().add(NotificationUnreadView.toView(username, unreadCount));
+		return message;
+	}
+
+	public String messageToJson()
+	{
+		String message = null;
+		try {
+			message = StringProcessor.defaultObjectMapper().writeValueAsString(this);
+		} catch (JsonProcessingException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to convert message to json", ex);
+		}
+		return message;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	public List<NotificationUnreadView> getArgs()
+	{
+		return args;
+	}
+
+	public void setArgs(List<NotificationUnreadView> args)
+	{
+		this.args = args;
+	}
+
+}
@@ -31,6 +31,7 @@ public class AdvanceSearchResult
 	private ValidationResult validationResult = new ValidationResult();
 	private long totalNumber;
 	private List<ResultTypeStat> resultTypeStats = new ArrayList<>();
+	private List<SearchHandlerTiming> handlerTimings = new ArrayList<>();
 
 	public AdvanceSearchResult()
 	{
@@ -76,4 +77,14 @@ public class AdvanceSearchResult
 		this.resultTypeStats = resultTypeStats;
 	}
 
+	public List<SearchHandlerTiming> getHandlerTimings()
+	{
+		return handlerTimings;
+	}
+
+	public void setHandlerTimings(List<SearchHandlerTiming> handlerTimings)
+	{
+		this.handlerTimings = handlerTimings;
+	}
+
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.model.search;
+
+/**
+ * Debug timing for a single search handler of an advance search
+ *
+ * @author dshurtleff
+ */
+public class SearchHandlerTiming
+{
+
+	private String searchType;
+	private int elementCount;
+	private long estimatedCount;
+	private long resultCount;
+	private long queueTime;
+	private long executionTime;
+	private boolean skipped;
+
+	public SearchHandlerTiming()
+	{
+	}
+
+	public String getSearchType()
+	{
+		return searchType;
+	}
+
+	public void setSearchType(String searchType)
+	{
+		this.searchType = searchType;
+	}
+
+	public int getElementCount()
+	{
+		return elementCount;
+	}
+
+	public void setElementCount(int elementCount)
+	{
+		this.elementCount = elementCount;
+	}
+
+	public long getEstimatedCount()
+	{
+		return estimatedCount;
+	}
+
+	public void setEstimatedCount(long estimatedCount)
+	{
+		this.estimatedCount = estimatedCount;
+	}
+
+	public long getResultCount()
+	{
+		return resultCount;
+	}
+
+	public void setResultCount(long resultCount)
+	{
+		this.resultCount = resultCount;
+	}
+
+	public long getQueueTime()
+	{
+		return queueTime;
+	}
+
+	public void setQueueTime(long queueTime)
+	{
+		this.queueTime = queueTime;
+	}
+
+	public long getExecutionTime()
+	{
+		return executionTime;
+	}
+
+	public void setExecutionTime(long executionTime)
+	{
+		this.executionTime = executionTime;
+	}
+
+	public boolean getSkipped()
+	{
+		return skipped;
+	}
+
+	public void setSkipped(boolean skipped)
+	{
+		this.skipped = skipped;
+	}
+
+}
@@ -35,6 +35,7 @@ public class SearchModel
 	private int startOffset;
 	private int max = Integer.MAX_VALUE;
 	private String userSessionKey;
+	private boolean debug;
 
 	@ConsumeField
 	@DataType(SearchElement.class)
@@ -57,7 +58,7 @@ public class SearchModel
 	@Override
 	public String toString()
 	{
-		return "SearchModel{" + "sortField=" + sortField + ", sortDirection=" + sortDirection + ", startOffset=" + startOffset + ", max=" + max + '}';
+		return "SearchModel{" + "sortField=" + sortField + ", sortDirection=" + sortDirection + ", startOffset=" + startOffset + ", max=" + max + ", debug=" + debug + '}';
 	}
 
 	public String getSortField()
@@ -120,4 +121,20 @@ public class SearchModel
 		this.userSessionKey = userSessionKey;
 	}
 
+	public boolean getDebug()
+	{
+		return debug;
+	}
+
+	/**
+	 * Debug searches skip the search cache and return the handler timings
+	 * (only honored for users with the search admin permission)
+	 *
+	 * @param debug
+	 */
+	public void setDebug(boolean debug)
+	{
+		this.debug = debug;
+	}
+
 }
@@ -33,4 +33,15 @@ public interface NotificationEventListerner
 	 */
 	public boolean processEvent(NotificationEvent notificationEvent);
 
+	/**
+	 * Called when a user's unread count changes (read/unread, new or removed
+	 * user events)
+	 *
+	 * @param username
+	 * @param unreadCount
+	 */
+	default void processUnreadCount(String username, long unreadCount)
+	{
+	}
+
 }
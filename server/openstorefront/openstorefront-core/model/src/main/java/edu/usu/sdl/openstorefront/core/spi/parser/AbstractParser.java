@@ -18,6 +18,8 @@ package edu.usu.sdl.openstorefront.core.spi.parser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.api.Service;
 import edu.usu.sdl.openstorefront.core.api.ServiceProxyFactory;
@@ -51,6 +53,10 @@ public abstract class AbstractParser<T>
 
 	protected FileHistoryAll fileHistoryAll;
 	protected int currentRecordNumber;
+	protected ImportProgressReporter progressReporter;
+
+	//record being parsed when running in the pipeline
+	private ImportPipeline.PipelineRecord pipelineRecord;
 	protected Service service = ServiceProxyFactory.getServiceProxy();
 
 	public AbstractParser()
@@ -76,6 +82,8 @@ public abstract class AbstractParser<T>
 		LOG.log(Level.FINEST, "Get Reader");
 		Path path = fileHistoryAll.getFileHistory().pathToFileName();
 		if (path != null) {
+			progressReporter = new ImportProgressReporter(fileHistoryAll, this::updateFileHistoryStats);
+			service.getImportService().trackImportProgress(progressReporter.getProgress());
 			try (GenericReader reader = getReader(new FileInputStream(path.toFile()))) {
 				reader.preProcess();
 
@@ -84,28 +92,32 @@ public abstract class AbstractParser<T>
 					fileHistoryAll.getFileHistory().setNumberRecords(reader.getTotalRecords());
 				}
 
-				Object record = reader.nextRecord();
-				while (record != null) {
-					currentRecordNumber = reader.getCurrentRecordNumber();
-					try {
-
-						Object parsed = parseRecord(record);
-
-						if (parsed != null) {
-							if (validateRecord(parsed)) {
-								addRecordToStorage(parsed);
+				if (usePipeline()) {
+					LOG.log(Level.FINEST, "Using import pipeline");
+					new ImportPipeline(this,
+							Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_PIPELINE_WORKERS)),
+							Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_PIPELINE_QUEUE_SIZE))
+					).run(reader);
+				} else {
+					Object record = reader.nextRecord();
+					while (record != null) {
+						currentRecordNumber = reader.getCurrentRecordNumber();
+						try {
+
+							Object parsed = parseRecord(record);
+
+							if (parsed != null) {
+								if (validateRecord(parsed)) {
+									addRecordToStorage(parsed);
+								}
 							}
+						} catch (Exception e) {
+							addParseError(e);
 						}
-					} catch (Exception e) {
-						StringWriter stringWriter = new StringWriter();
-						PrintWriter printWriter = new PrintWriter(stringWriter);
-						e.printStackTrace(printWriter);
-						fileHistoryAll.addError(FileHistoryErrorType.PARSE, "Unable to parse record.  Trace: <br> " + stringWriter.toString(), currentRecordNumber);
-					}
-					fileHistoryAll.getFileHistory().setRecordsProcessed(currentRecordNumber);
-					updateFileHistoryStats();
+						progressReporter.recordProcessed(currentRecordNumber);
 
-					record = reader.nextRecord();
+						record = reader.nextRecord();
+					}
 				}
 				//flush any remaining records
 				flushRecordsToStorage();
@@ -118,6 +130,10 @@ public abstract class AbstractParser<T>
 				e.printStackTrace(printWriter);
 
 				fileHistoryAll.addError(FileHistoryErrorType.SYSTEM, "Unable to process all of the records;  Failed reading the data. <br> Error Trace: <br>" + stringWriter.toString());
+			} finally {
+				//final stats are saved once by the import
+				progressReporter.finish();
+				service.getImportService().removeImportProgress(fileHistoryAll.getFileHistory().getFileHistoryId());
 			}
 
 			LOG.log(Level.INFO, MessageFormat.format("Results for processing: {0}", fileHistoryAll.getFileHistory().getOriginalFilename()));
@@ -135,8 +151,75 @@ public abstract class AbstractParser<T>
 		}
 	}
 
+	/**
+	 * Pipelined imports validate on a worker pool and store in record order.
+	 * Parsers that support it still parse on the import thread so they can
+	 * keep state between records.
+	 *
+	 * @return true if the parser can be run in the pipeline
+	 */
+	protected boolean supportsPipeline()
+	{
+		return false;
+	}
+
+	private boolean usePipeline()
+	{
+		return supportsPipeline()
+				&& Convert.toBoolean(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_PIPELINE));
+	}
+
+	void parsePipelineRecord(ImportPipeline.PipelineRecord record)
+	{
+		currentRecordNumber = record.recordNumber;
+		pipelineRecord = record;
+		try {
+			Object parsed = parseRecord(record.rawRecord);
+			if (parsed != null) {
+				record.add(parsed, true);
+			}
+		} catch (Exception e) {
+			addParseError(e);
+		} finally {
+			pipelineRecord = null;
+		}
+	}
+
+	void storePipelineRecord(ImportPipeline.PipelineRecord record)
+	{
+		currentRecordNumber = record.recordNumber;
+		if (record.failure != null) {
+			addParseError(record.failure);
+		} else {
+			for (ImportPipeline.ParsedRecord parsedRecord : record.parsedRecords) {
+				if (parsedRecord.validate == false
+						|| parsedRecord.validationResult.valid()) {
+					storeRecord(parsedRecord.record);
+				} else {
+					fileHistoryAll.addError(FileHistoryErrorType.VALIDATION, parsedRecord.validationResult.toHtmlString(), currentRecordNumber);
+				}
+			}
+		}
+		progressReporter.recordProcessed(currentRecordNumber);
+	}
+
+	private void addParseError(Throwable e)
+	{
+		StringWriter stringWriter = new StringWriter();
+		PrintWriter printWriter = new PrintWriter(stringWriter);
+		e.printStackTrace(printWriter);
+		fileHistoryAll.addError(FileHistoryErrorType.PARSE, "Unable to parse record.  Trace: <br> " + stringWriter.toString(), currentRecordNumber);
+	}
+
 	protected <T> void addMultipleRecords(List<T> records)
 	{
+		if (pipelineRecord != null) {
+			for (T record : records) {
+				pipelineRecord.add(record, true);
+			}
+			return;
+		}
+
 		for (T record : records) {
 			if (validateRecord(record)) {
 				addRecordToStorage(record);
@@ -219,17 +302,37 @@ public abstract class AbstractParser<T>
 
 	protected <T> boolean validateRecord(T record)
 	{
-
-		ValidationModel validationModel = new ValidationModel(record);
-		validationModel.setConsumeFieldsOnly(true);
-		ValidationResult validationResult = ValidationUtil.validate(validationModel);
+		ValidationResult validationResult = validate(record);
 		if (validationResult.valid() == false) {
 			fileHistoryAll.addError(FileHistoryErrorType.VALIDATION, validationResult.toHtmlString(), currentRecordNumber);
 		}
 		return validationResult.valid();
 	}
 
+	/**
+	 * Validates without recording errors (this may run on a pipeline worker)
+	 *
+	 * @param <T>
+	 * @param record
+	 * @return result
+	 */
+	protected <T> ValidationResult validate(T record)
+	{
+		ValidationModel validationModel = new ValidationModel(record);
+		validationModel.setConsumeFieldsOnly(true);
+		return ValidationUtil.validate(validationModel);
+	}
+
 	protected <T> void addRecordToStorage(T record)
+	{
+		if (pipelineRecord != null) {
+			pipelineRecord.add(record, false);
+			return;
+		}
+		storeRecord(record);
+	}
+
+	private <T> void storeRecord(T record)
 	{
 		getStorageBucket().add(record);
 
@@ -251,7 +354,11 @@ public abstract class AbstractParser<T>
 				fileHistoryAll.getFileHistory().setRecordsStored(0);
 			}
 			fileHistoryAll.getFileHistory().setRecordsStored(fileHistoryAll.getFileHistory().getRecordsStored() + getStorageBucket().size());
-			updateFileHistoryStats();
+			if (progressReporter != null) {
+				progressReporter.recordsStored();
+			} else {
+				updateFileHistoryStats();
+			}
 		}
 	}
 
@@ -47,6 +47,12 @@ public abstract class BaseAttributeParser
 		return attributeAll;
 	}
 
+	@Override
+	protected boolean supportsPipeline()
+	{
+		return true;
+	}
+
 	@Override
 	protected List<AttributeAll> getStorageBucket()
 	{
@@ -177,6 +177,12 @@ public abstract class BaseComponentParser
 		}
 	}
 
+	@Override
+	protected boolean supportsPipeline()
+	{
+		return true;
+	}
+
 	@Override
 	protected List<ComponentAll> getStorageBucket()
 	{
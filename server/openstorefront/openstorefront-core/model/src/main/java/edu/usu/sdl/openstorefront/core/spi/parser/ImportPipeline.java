@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.GenericReader;
+import edu.usu.sdl.openstorefront.validation.ValidationResult;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.shiro.SecurityUtils;
+
+/**
+ * Runs an import as a pipeline. A reader thread fills a bounded queue, records
+ * are parsed in order on the import thread (parsers keep state and create
+ * missing lookups as they go), validation runs on a worker pool and the
+ * results are stored in record order on the import thread.
+ *
+ * @author dshurtleff
+ */
+class ImportPipeline
+{
+
+	private static final Logger LOG = Logger.getLogger(ImportPipeline.class.getName());
+
+	private static final Object END_OF_RECORDS = new Object();
+	private static final long OFFER_WAIT_MILLIS = 200;
+
+	private final AbstractParser<?> parser;
+	private final int workers;
+	private final int queueSize;
+	private final BlockingQueue<Object> readQueue;
+	private volatile boolean stopped;
+
+	ImportPipeline(AbstractParser<?> parser, int workers, int queueSize)
+	{
+		this.parser = parser;
+		this.workers = Math.max(workers, 1);
+		this.queueSize = Math.max(queueSize, 1);
+		this.readQueue = new ArrayBlockingQueue<>(this.queueSize);
+	}
+
+	void run(GenericReader<?> reader) throws InterruptedException
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService validationPool = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, "import-validate-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		Thread readerThread = new Thread(() -> readRecords(reader), "import-reader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+		Deque<PipelineRecord> inFlight = new ArrayDeque<>();
+		try {
+			Object item = readQueue.take();
+			while (item != END_OF_RECORDS) {
+				if (item instanceof Throwable) {
+					throw new OpenStorefrontRuntimeException("Unable to read the records.", "Check file and format", (Throwable) item);
+				}
+				PipelineRecord pipelineRecord = (PipelineRecord) item;
+				parser.parsePipelineRecord(pipelineRecord);
+				submitValidation(validationPool, pipelineRecord);
+				inFlight.add(pipelineRecord);
+
+				//store what is done in order; wait on the oldest when too far ahead
+				while (inFlight.isEmpty() == false
+						&& (inFlight.peek().validation.isDone() || inFlight.size() > queueSize)) {
+					complete(inFlight.poll());
+				}
+				item = readQueue.take();
+			}
+			while (inFlight.isEmpty() == false) {
+				complete(inFlight.poll());
+			}
+		} finally {
+			stopped = true;
+			readerThread.interrupt();
+			readerThread.join();
+			validationPool.shutdownNow();
+		}
+	}
+
+	private void readRecords(GenericReader<?> reader)
+	{
+		try {
+			Object record = reader.nextRecord();
+			while (record != null && stopped == false) {
+				put(new PipelineRecord(reader.getCurrentRecordNumber(), record));
+				record = reader.nextRecord();
+			}
+			put(END_OF_RECORDS);
+		} catch (InterruptedException e) {
+			LOG.log(Level.FINE, "Import reader stopped");
+		} catch (Exception e) {
+			try {
+				put(e);
+			} catch (InterruptedException ie) {
+				LOG.log(Level.FINE, "Import reader stopped", e);
+			}
+		}
+	}
+
+	private void put(Object item) throws InterruptedException
+	{
+		while (readQueue.offer(item, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS) == false) {
+			if (stopped) {
+				throw new InterruptedException("Import stopped");
+			}
+		}
+	}
+
+	private void submitValidation(ExecutorService validationPool, PipelineRecord pipelineRecord)
+	{
+		Callable<Void> task = () -> {
+			for (ParsedRecord parsedRecord : pipelineRecord.parsedRecords) {
+				if (parsedRecord.validate) {
+					parsedRecord.validationResult = parser.validate(parsedRecord.record);
+				}
+			}
+			return null;
+		};
+		try {
+			//validation may look up references so keep the user's security context
+			task = SecurityUtils.getSubject().associateWith(task);
+		} catch (Exception e) {
+			LOG.log(Level.FINEST, "No subject to associate with the validation", e);
+		}
+		pipelineRecord.validation = validationPool.submit(task);
+	}
+
+	private void complete(PipelineRecord pipelineRecord) throws InterruptedException
+	{
+		try {
+			pipelineRecord.validation.get();
+		} catch (ExecutionException e) {
+			pipelineRecord.failure = e.getCause();
+		}
+		parser.storePipelineRecord(pipelineRecord);
+	}
+
+	/**
+	 * A record read from the file and what was parsed from it
+	 */
+	static class PipelineRecord
+	{
+
+		final int recordNumber;
+		final Object rawRecord;
+		final List<ParsedRecord> parsedRecords = new ArrayList<>();
+		Future<Void> validation;
+		Throwable failure;
+
+		PipelineRecord(int recordNumber, Object rawRecord)
+		{
+			this.recordNumber = recordNumber;
+			this.rawRecord = rawRecord;
+		}
+
+		void add(Object record, boolean validate)
+		{
+			parsedRecords.add(new ParsedRecord(record, validate));
+		}
+
+	}
+
+	static class ParsedRecord
+	{
+
+		final Object record;
+		final boolean validate;
+		ValidationResult validationResult;
+
+		ParsedRecord(Object record, boolean validate)
+		{
+			this.record = record;
+			this.validate = validate;
+		}
+
+	}
+
+}
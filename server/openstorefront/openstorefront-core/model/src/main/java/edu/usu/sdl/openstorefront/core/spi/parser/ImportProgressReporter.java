@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.entity.FileHistory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import edu.usu.sdl.openstorefront.core.model.ImportProgress;
+import java.util.List;
+
+/**
+ * Keeps the live progress for an import and only publishes (saves the file
+ * history) every so many records or milliseconds. The final stats are saved
+ * once by the import when the parser finishes.
+ *
+ * @author dshurtleff
+ */
+public class ImportProgressReporter
+{
+
+	private final FileHistoryAll fileHistoryAll;
+	private final ImportProgress progress;
+	private final Runnable publisher;
+	private final int recordInterval;
+	private final long timeInterval;
+
+	private int lastPublishedRecord;
+	private long lastPublishTime;
+
+	//errors only get appended, so only the new ones are checked for warnings
+	private List<FileHistoryError> countedErrors;
+	private int countedErrorSize;
+	private int warningsCount;
+
+	public ImportProgressReporter(FileHistoryAll fileHistoryAll, Runnable publisher)
+	{
+		this(fileHistoryAll,
+				publisher,
+				Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_PROGRESS_RECORDS)),
+				Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_PROGRESS_INTERVAL))
+		);
+	}
+
+	public ImportProgressReporter(FileHistoryAll fileHistoryAll, Runnable publisher, int recordInterval, long timeInterval)
+	{
+		this.fileHistoryAll = fileHistoryAll;
+		this.publisher = publisher;
+		this.recordInterval = Math.max(recordInterval, 1);
+		this.timeInterval = Math.max(timeInterval, 0);
+		this.progress = new ImportProgress(fileHistoryAll.getFileHistory().getFileHistoryId());
+		this.progress.setRunning(true);
+		this.lastPublishTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Updates the counts for the processed record and publishes when due.
+	 *
+	 * @param recordNumber
+	 */
+	public void recordProcessed(int recordNumber)
+	{
+		fileHistoryAll.getFileHistory().setRecordsProcessed(recordNumber);
+		updateProgress();
+
+		if (recordNumber - lastPublishedRecord >= recordInterval
+				|| System.currentTimeMillis() - lastPublishTime >= timeInterval) {
+			publish();
+		}
+	}
+
+	/**
+	 * Updates the live counts after records are stored (the store is already a
+	 * batch so this does not publish)
+	 */
+	public void recordsStored()
+	{
+		updateProgress();
+	}
+
+	public void publish()
+	{
+		updateProgress();
+		publisher.run();
+		lastPublishedRecord = progress.getRecordsProcessed();
+		lastPublishTime = System.currentTimeMillis();
+		progress.setLastPublishDts(TimeUtil.currentDate());
+	}
+
+	/**
+	 * Marks the import done; the caller saves the final stats.
+	 */
+	public void finish()
+	{
+		updateProgress();
+		progress.setRunning(false);
+	}
+
+	private void updateProgress()
+	{
+		FileHistory fileHistory = fileHistoryAll.getFileHistory();
+		progress.setNumberRecords(fileHistory.getNumberRecords());
+		progress.setRecordsProcessed(count(fileHistory.getRecordsProcessed()));
+		progress.setRecordsStored(count(fileHistory.getRecordsStored()));
+		countNewErrors();
+		progress.setWarningsCount(warningsCount);
+		progress.setErrorsCount(countedErrorSize - warningsCount);
+	}
+
+	private void countNewErrors()
+	{
+		List<FileHistoryError> errors = fileHistoryAll.getErrors();
+		if (errors != countedErrors || errors.size() < countedErrorSize) {
+			countedErrors = errors;
+			countedErrorSize = 0;
+			warningsCount = 0;
+		}
+		int size = errors.size();
+		if (size > countedErrorSize) {
+			warningsCount += FileHistoryError.countWarnings(errors.subList(countedErrorSize, size));
+			countedErrorSize = size;
+		}
+	}
+
+	private int count(Integer value)
+	{
+		if (value == null) {
+			return 0;
+		}
+		return value;
+	}
+
+	public ImportProgress getProgress()
+	{
+		return progress;
+	}
+
+}
@@ -45,7 +45,7 @@ public abstract class BaseMapper<T>
 	protected Map<String, DataMapper> dataMappers;
 	protected AttributeDataMapper attributeDataMapper;
 
-	protected Service serviceProxy = ServiceProxyFactory.getServiceProxy();
+	private Service serviceProxy;
 
 	public BaseMapper(DataTemplateEntity<T> templateFactory, FileHistoryAll fileHistoryAll, Map<String, DataMapper> dataMappers, AttributeDataMapper attributeDataMapper)
 	{
@@ -80,6 +80,20 @@ public abstract class BaseMapper<T>
 
 	}
 
+	/**
+	 * Looked up on first use so mapping that never creates attributes does
+	 * not require a running service context.
+	 *
+	 * @return the service proxy
+	 */
+	protected Service getServiceProxy()
+	{
+		if (serviceProxy == null) {
+			serviceProxy = ServiceProxyFactory.getServiceProxy();
+		}
+		return serviceProxy;
+	}
+
 	public abstract List<T> multiMapData(MapModel input);
 
 	public abstract T singleMapData(MapModel input);
@@ -103,7 +117,7 @@ public abstract class BaseMapper<T>
 		attributeType.setCreateUser(fileHistoryAll.getFileHistory().getCreateUser());
 		attributeType.setUpdateUser(fileHistoryAll.getFileHistory().getCreateUser());
 
-		serviceProxy.getAttributeService().saveAttributeType(attributeType);
+		getServiceProxy().getAttributeService().saveAttributeType(attributeType);
 		return attributeType;
 	}
 
@@ -123,7 +137,7 @@ public abstract class BaseMapper<T>
 		attributeCodeFound.setCreateUser(fileHistoryAll.getFileHistory().getCreateUser());
 		attributeCodeFound.setUpdateUser(fileHistoryAll.getFileHistory().getCreateUser());
 
-		serviceProxy.getAttributeService().saveAttributeCode(attributeCodeFound, false);
+		getServiceProxy().getAttributeService().saveAttributeCode(attributeCodeFound, false);
 		return attributeCodeFound;
 	}
 
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the first sheet of a xlsx file a row at a time straight from the sheet
+ * xml so the workbook is never loaded. Records are the same as ExcelMapReader
+ * (COLUMN-n fields) and the first row is kept as the headers.
+ *
+ * Older (xls) files are not xml so they fall back to ExcelMapReader.
+ *
+ * @author dshurtleff
+ */
+//close() is declared to throw Exception by GenericReader
+@SuppressWarnings("try")
+public class ExcelStreamingMapReader
+		extends ExcelMapReader
+{
+
+	private static final Logger LOG = Logger.getLogger(ExcelStreamingMapReader.class.getName());
+
+	private Path workbookFile;
+	private OPCPackage opcPackage;
+	private ReadOnlySharedStringsTable sharedStrings;
+	private InputStream sheetStream;
+	private XMLStreamReader sheetReader;
+	private boolean streaming;
+	private boolean finished;
+	private int nextRow = 1;
+	private List<String> headers;
+
+	public ExcelStreamingMapReader(InputStream in)
+	{
+		super(in);
+	}
+
+	@Override
+	public void preProcess()
+	{
+		in = new BufferedInputStream(in);
+		try {
+			if (POIXMLDocument.hasOOXMLHeader(in) == false) {
+				super.preProcess();
+				return;
+			}
+			streaming = true;
+
+			//the package needs random access; a file keeps the parts out of memory
+			workbookFile = Files.createTempFile(FileSystemManager.getDir(FileSystemManager.SYSTEM_TEMP_DIR).toPath(), "import-", ".xlsx");
+			try (InputStream workbookStream = in) {
+				Files.copy(workbookStream, workbookFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			opcPackage = OPCPackage.open(workbookFile.toFile(), PackageAccess.READ);
+			sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+			XSSFReader xssfReader = new XSSFReader(opcPackage);
+			Iterator<InputStream> sheets = xssfReader.getSheetsData();
+			if (sheets.hasNext() == false) {
+				finished = true;
+				return;
+			}
+			sheetStream = sheets.next();
+
+			XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			sheetReader = inputFactory.createXMLStreamReader(sheetStream);
+			readDimension();
+		} catch (IOException | OpenXML4JException | SAXException | XMLStreamException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to open excel file.", " Check file and format", ex);
+		}
+	}
+
+	/**
+	 * The dimension is before the sheet data so the row count is known without
+	 * reading the rows.
+	 */
+	private void readDimension() throws XMLStreamException
+	{
+		while (sheetReader.hasNext()) {
+			if (sheetReader.next() == XMLStreamConstants.START_ELEMENT) {
+				String name = sheetReader.getLocalName();
+				if ("dimension".equals(name)) {
+					//a single cell (A1) is also what is written when the range is not tracked so it is not trusted
+					String ref = sheetReader.getAttributeValue(null, "ref");
+					if (StringUtils.isNotBlank(ref) && ref.contains(":")) {
+						String lastCell = ref.substring(ref.indexOf(':') + 1);
+						totalRecords = new CellReference(lastCell).getRow() + 1;
+					}
+				} else if ("sheetData".equals(name)) {
+					return;
+				}
+			}
+		}
+		finished = true;
+	}
+
+	@Override
+	public MapModel nextRecord()
+	{
+		if (streaming == false) {
+			return super.nextRecord();
+		}
+
+		currentRecordNumber++;
+		if (finished) {
+			return null;
+		}
+
+		try {
+			while (sheetReader.hasNext()) {
+				int event = sheetReader.next();
+				if (event == XMLStreamConstants.START_ELEMENT
+						&& "row".equals(sheetReader.getLocalName())) {
+					String rowNumber = sheetReader.getAttributeValue(null, "r");
+					int row = StringUtils.isNotBlank(rowNumber) ? Integer.parseInt(rowNumber) : nextRow;
+
+					//like the usermodel reader a missing row ends the data
+					if (row != nextRow) {
+						break;
+					}
+					nextRow++;
+					return readRow();
+				} else if (event == XMLStreamConstants.END_ELEMENT
+						&& "sheetData".equals(sheetReader.getLocalName())) {
+					break;
+				}
+			}
+		} catch (XMLStreamException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to read excel row.", " Check file and format. Row: " + nextRow, ex);
+		}
+		finished = true;
+		return null;
+	}
+
+	private MapModel readRow() throws XMLStreamException
+	{
+		MapModel mapModel = new MapModel();
+		mapModel.setName("root");
+
+		int columnNumber = 0;
+		boolean gap = false;
+		while (sheetReader.hasNext()) {
+			int event = sheetReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT
+					&& "c".equals(sheetReader.getLocalName())) {
+				String ref = sheetReader.getAttributeValue(null, "r");
+				int column = StringUtils.isNotBlank(ref) ? new CellReference(ref).getCol() : columnNumber;
+				String value = readCell(sheetReader.getAttributeValue(null, "t"));
+
+				//like the usermodel reader a missing cell ends the row
+				if (gap == false && column == columnNumber) {
+					MapField mapField = new MapField();
+					mapField.setName("COLUMN-" + (columnNumber + 1));
+					mapField.setValue(value);
+					mapModel.getMapFields().add(mapField);
+					columnNumber++;
+				} else {
+					gap = true;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT
+					&& "row".equals(sheetReader.getLocalName())) {
+				break;
+			}
+		}
+
+		if (headers == null) {
+			headers = new ArrayList<>();
+			for (MapField mapField : mapModel.getMapFields()) {
+				headers.add(mapField.getValue());
+			}
+		}
+		return mapModel;
+	}
+
+	private String readCell(String type) throws XMLStreamException
+	{
+		String rawValue = null;
+		StringBuilder inlineText = new StringBuilder();
+		while (sheetReader.hasNext()) {
+			int event = sheetReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				String name = sheetReader.getLocalName();
+				if ("v".equals(name)) {
+					rawValue = sheetReader.getElementText();
+				} else if ("t".equals(name)) {
+					inlineText.append(sheetReader.getElementText());
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT
+					&& "c".equals(sheetReader.getLocalName())) {
+				break;
+			}
+		}
+
+		if ("inlineStr".equals(type)) {
+			return inlineText.toString();
+		}
+		if (StringUtils.isBlank(rawValue)) {
+			return "";
+		}
+		if (type == null || "n".equals(type)) {
+			return "" + Double.parseDouble(rawValue);
+		}
+		switch (type) {
+			case "s":
+				return sharedStrings.getEntryAt(Integer.parseInt(rawValue.trim()));
+			case "b":
+				return "" + "1".equals(rawValue.trim());
+			case "str":
+				return rawValue;
+			default:
+				return "";
+		}
+	}
+
+	/**
+	 * @return values of the first row (available once it has been read)
+	 */
+	public List<String> getHeaders()
+	{
+		if (headers == null) {
+			return Collections.emptyList();
+		}
+		return headers;
+	}
+
+	@Override
+	public MapModel findFields(InputStream in)
+	{
+		preProcess();
+
+		//read first row
+		MapModel mapModel = nextRecord();
+		if (mapModel == null) {
+			mapModel = new MapModel();
+		}
+		return mapModel;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (sheetReader != null) {
+			try {
+				sheetReader.close();
+			} catch (XMLStreamException e) {
+				LOG.log(Level.WARNING, "Unable to close sheet reader. (Continuing)", e);
+			}
+		}
+		if (sheetStream != null) {
+			try {
+				sheetStream.close();
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Unable to close sheet. (Continuing)", e);
+			}
+		}
+		if (opcPackage != null) {
+			opcPackage.revert();
+		}
+		if (workbookFile != null) {
+			try {
+				Files.deleteIfExists(workbookFile);
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Unable to remove temporary workbook: " + workbookFile, e);
+			}
+		}
+		super.close();
+	}
+
+}
@@ -94,7 +94,7 @@ public class JSONMapReader
 		return mapModel;
 	}
 
-	private void parseTree(JsonNode root, MapModel mapModel, String parent)
+	protected void parseTree(JsonNode root, MapModel mapModel, String parent)
 	{
 		if (root == null) {
 			return;
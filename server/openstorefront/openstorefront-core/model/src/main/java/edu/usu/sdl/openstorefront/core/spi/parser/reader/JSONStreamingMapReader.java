@@ -0,0 +1,256 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads json one record at a time instead of loading the whole document.
+ *
+ * Each element of a top-level array (or of an array that is a field of the
+ * top-level object) is returned as its own "root" record. The field names are
+ * the same as JSONMapReader produces so existing data mappings still apply.
+ * Object fields of the top-level object are returned as their own record and
+ * its simple fields are added to every record (JSONMapReader has them on the
+ * same root).
+ *
+ * File input is scanned once up front (no tree is built) for the record
+ * count and the simple top-level fields; otherwise simple fields that come
+ * after the arrays are returned as a record of their own.
+ *
+ * @author dshurtleff
+ */
+//close() is declared to throw Exception by GenericReader
+@SuppressWarnings("try")
+public class JSONStreamingMapReader
+		extends JSONMapReader
+{
+
+	private static final Logger LOG = Logger.getLogger(JSONStreamingMapReader.class.getName());
+
+	private static final String ROOT_NAME = "root";
+
+	private ObjectMapper objectMapper;
+	private JsonParser jsonParser;
+	private boolean topLevelObject;
+	private boolean inArray;
+	private String arrayParent = "";
+	private boolean scanned;
+	private final List<MapField> ancestorFields = new ArrayList<>();
+	private final List<MapField> unattachedFields = new ArrayList<>();
+
+	public JSONStreamingMapReader(InputStream in)
+	{
+		super(in);
+	}
+
+	@Override
+	public void preProcess()
+	{
+		objectMapper = StringProcessor.defaultObjectMapper();
+		try {
+			if (in instanceof FileInputStream) {
+				scan((FileInputStream) in);
+			}
+			jsonParser = objectMapper.getFactory().createParser(in);
+			JsonToken token = jsonParser.nextToken();
+			if (token == JsonToken.START_ARRAY) {
+				inArray = true;
+			} else if (token == JsonToken.START_OBJECT) {
+				topLevelObject = true;
+			}
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to open json file.", " Check file and format", ex);
+		}
+	}
+
+	/**
+	 * Counts the records and collects the simple top-level fields; then
+	 * rewinds the file.
+	 */
+	private void scan(FileInputStream fileIn) throws IOException
+	{
+		int records = 0;
+		JsonParser scanParser = objectMapper.getFactory().createParser(fileIn);
+		scanParser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		JsonToken token = scanParser.nextToken();
+		if (token == JsonToken.START_ARRAY) {
+			records = countElements(scanParser);
+		} else if (token == JsonToken.START_OBJECT) {
+			while (scanParser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = scanParser.getCurrentName();
+				token = scanParser.nextToken();
+				if (token == JsonToken.START_ARRAY) {
+					records += countElements(scanParser);
+				} else if (token == JsonToken.START_OBJECT) {
+					records++;
+					scanParser.skipChildren();
+				} else {
+					addAncestorField(fieldName, objectMapper.readTree(scanParser));
+				}
+			}
+		}
+		scanParser.close();
+		fileIn.getChannel().position(0);
+
+		totalRecords = records;
+		scanned = true;
+	}
+
+	private int countElements(JsonParser parser) throws IOException
+	{
+		int elements = 0;
+		JsonToken token = parser.nextToken();
+		while (token != null && token != JsonToken.END_ARRAY) {
+			elements++;
+			parser.skipChildren();
+			token = parser.nextToken();
+		}
+		return elements;
+	}
+
+	private void addAncestorField(String fieldName, JsonNode value)
+	{
+		//Same as JSONMapReader.parseTree for a simple value
+		MapField mapField = new MapField();
+		mapField.setName(fieldName);
+		mapField.setValue(value != null ? value.asText() : null);
+		ancestorFields.add(mapField);
+		unattachedFields.add(mapField);
+	}
+
+	@Override
+	public MapModel nextRecord()
+	{
+		try {
+			MapModel record = null;
+			while (record == null) {
+				if (inArray) {
+					JsonToken token = jsonParser.nextToken();
+					if (token == null || token == JsonToken.END_ARRAY) {
+						inArray = false;
+						if (topLevelObject == false) {
+							return endOfRecords();
+						}
+					} else {
+						JsonNode element = objectMapper.readTree(jsonParser);
+						record = toRecord(element, arrayParent);
+					}
+				} else if (topLevelObject) {
+					JsonToken token = jsonParser.nextToken();
+					if (token != JsonToken.FIELD_NAME) {
+						topLevelObject = false;
+						if (unattachedFields.isEmpty()) {
+							return endOfRecords();
+						}
+						record = fieldsRecord(unattachedFields);
+						unattachedFields.clear();
+					} else {
+						String fieldName = jsonParser.getCurrentName();
+						token = jsonParser.nextToken();
+						if (token == JsonToken.START_ARRAY) {
+							inArray = true;
+							arrayParent = fieldName;
+						} else if (token == JsonToken.START_OBJECT) {
+							ObjectNode wrapper = objectMapper.createObjectNode();
+							wrapper.set(fieldName, objectMapper.readTree(jsonParser));
+							record = toRecord(wrapper, "");
+						} else {
+							JsonNode value = objectMapper.readTree(jsonParser);
+							if (scanned == false) {
+								addAncestorField(fieldName, value);
+							}
+						}
+					}
+				} else {
+					return endOfRecords();
+				}
+			}
+			currentRecordNumber++;
+			return record;
+		} catch (IOException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to read json record.", " Check file and format. Record: " + (currentRecordNumber + 1), ex);
+		}
+	}
+
+	private MapModel endOfRecords()
+	{
+		totalRecords = currentRecordNumber;
+		return null;
+	}
+
+	private MapModel toRecord(JsonNode node, String parent)
+	{
+		MapModel record = new MapModel();
+		record.setName(ROOT_NAME);
+		parseTree(node, record, parent);
+		if (record.getMapFields().isEmpty() && record.getArrayFields().isEmpty()) {
+			return null;
+		}
+		record.getMapFields().addAll(0, copyFields(ancestorFields));
+		unattachedFields.clear();
+		return record;
+	}
+
+	private MapModel fieldsRecord(List<MapField> fields)
+	{
+		MapModel record = new MapModel();
+		record.setName(ROOT_NAME);
+		record.getMapFields().addAll(copyFields(fields));
+		return record;
+	}
+
+	private List<MapField> copyFields(List<MapField> fields)
+	{
+		List<MapField> copies = new ArrayList<>(fields.size());
+		for (MapField field : fields) {
+			MapField copy = new MapField();
+			copy.setName(field.getName());
+			copy.setValue(field.getValue());
+			copies.add(copy);
+		}
+		return copies;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (jsonParser != null) {
+			try {
+				jsonParser.close();
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Unable to close json parser. (Continuing)", e);
+			}
+		}
+		super.close();
+	}
+
+}
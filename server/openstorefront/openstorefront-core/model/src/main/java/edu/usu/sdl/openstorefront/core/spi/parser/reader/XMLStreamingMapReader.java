@@ -0,0 +1,332 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads xml one record at a time (StAX) instead of building the whole
+ * document.
+ *
+ * A record is a child of the root element (or every element with the record
+ * element name when one is given). Each record is returned wrapped in its
+ * ancestor elements so the field paths match what XMLMapReader produces and
+ * existing data mappings still apply. Attributes and simple values on the
+ * ancestors are added to every record under them (XMLMapReader has them on
+ * the same model); ancestor values that come after the last record are
+ * returned as a record of their own when the ancestor closes.
+ *
+ * File input is scanned once up front (no tree is built) for the record
+ * count.
+ *
+ * @author dshurtleff
+ */
+//close() is declared to throw Exception by GenericReader
+@SuppressWarnings("try")
+public class XMLStreamingMapReader
+		extends XMLMapReader
+{
+
+	private static final Logger LOG = Logger.getLogger(XMLStreamingMapReader.class.getName());
+
+	private final String recordElement;
+	private XMLStreamReader xmlReader;
+	private final Deque<ElementFrame> ancestors = new ArrayDeque<>();
+
+	public XMLStreamingMapReader(InputStream in)
+	{
+		this(in, null);
+	}
+
+	/**
+	 * @param in
+	 * @param recordElement name of the repeating element; null for the
+	 * children of the root
+	 */
+	public XMLStreamingMapReader(InputStream in, String recordElement)
+	{
+		super(in);
+		this.recordElement = recordElement;
+	}
+
+	@Override
+	public void preProcess()
+	{
+		XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		try {
+			if (in instanceof FileInputStream) {
+				totalRecords = countRecords(inputFactory, (FileInputStream) in);
+			}
+			xmlReader = inputFactory.createXMLStreamReader(in);
+		} catch (XMLStreamException | IOException ex) {
+			throw new OpenStorefrontRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Counts the record elements; then rewinds the file.
+	 */
+	private int countRecords(XMLInputFactory inputFactory, FileInputStream fileIn) throws XMLStreamException, IOException
+	{
+		int records = 0;
+		int depth = 0;
+		int recordDepth = -1;
+		//the parser closes its input at the end of the document; keep the file open for the real pass
+		XMLStreamReader scanReader = inputFactory.createXMLStreamReader(new FilterInputStream(fileIn)
+		{
+			@Override
+			public void close()
+			{
+			}
+		});
+		while (scanReader.hasNext()) {
+			int event = scanReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				//records aren't looked for inside of a record (same as nextRecord)
+				if (recordDepth == -1 && depth > 1) {
+					if ((recordElement != null && recordElement.equals(scanReader.getLocalName()))
+							|| (recordElement == null && depth == 2)) {
+						records++;
+						recordDepth = depth;
+					}
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (depth == recordDepth) {
+					recordDepth = -1;
+				}
+				depth--;
+			}
+		}
+		scanReader.close();
+		fileIn.getChannel().position(0);
+		return records;
+	}
+
+	@Override
+	public MapModel nextRecord()
+	{
+		try {
+			while (xmlReader.hasNext()) {
+				int event = xmlReader.next();
+				switch (event) {
+					case XMLStreamConstants.START_ELEMENT:
+						ElementFrame parent = ancestors.peek();
+						if (parent != null) {
+							parent.hasChildren = true;
+						}
+						ElementFrame frame = startElement();
+						if (isRecord(frame)) {
+							readElement(frame);
+							if (frame.hasChildren) {
+								currentRecordNumber++;
+								return wrap(frame.model);
+							} else {
+								parent.model.getMapFields().add(frame.toField());
+							}
+						} else {
+							ancestors.push(frame);
+						}
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						//skip the whitespace between records so it does not build up on the ancestors
+						ElementFrame current = ancestors.peek();
+						if (current != null && (current.hasChildren == false || xmlReader.isWhiteSpace() == false)) {
+							current.text.append(xmlReader.getText());
+						}
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						ElementFrame closed = ancestors.pop();
+						if (closed.hasChildren || ancestors.isEmpty()) {
+							MapModel unattached = closed.unattached();
+							if (unattached.getMapFields().isEmpty() == false) {
+								currentRecordNumber++;
+								return wrap(unattached);
+							}
+						} else {
+							ancestors.peek().model.getMapFields().add(closed.toField());
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		} catch (XMLStreamException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to read xml record.", "Check file and format. Record: " + (currentRecordNumber + 1), ex);
+		}
+		totalRecords = currentRecordNumber;
+		return null;
+	}
+
+	private boolean isRecord(ElementFrame frame)
+	{
+		if (ancestors.isEmpty()) {
+			return false;
+		}
+		if (recordElement != null) {
+			return recordElement.equals(frame.model.getName());
+		}
+		return ancestors.size() == 1;
+	}
+
+	private ElementFrame startElement()
+	{
+		ElementFrame frame = new ElementFrame();
+		frame.model.setName(xmlReader.getLocalName());
+		for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+			MapField field = new MapField();
+			field.setName(xmlReader.getAttributeLocalName(i));
+			field.setValue(xmlReader.getAttributeValue(i));
+			frame.model.getMapFields().add(field);
+		}
+		frame.attributeCount = frame.model.getMapFields().size();
+		return frame;
+	}
+
+	/**
+	 * Reads the rest of the element (same structure as XMLMapReader)
+	 */
+	private void readElement(ElementFrame frame) throws XMLStreamException
+	{
+		while (xmlReader.hasNext()) {
+			int event = xmlReader.next();
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					frame.hasChildren = true;
+					ElementFrame child = startElement();
+					readElement(child);
+					if (child.hasChildren) {
+						frame.model.getArrayFields().add(child.model);
+					} else {
+						frame.model.getMapFields().add(child.toField());
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					frame.text.append(xmlReader.getText());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if (frame.hasChildren) {
+						frame.finish();
+					}
+					return;
+				default:
+					break;
+			}
+		}
+	}
+
+	private MapModel wrap(MapModel model)
+	{
+		MapModel record = model;
+		Iterator<ElementFrame> iterator = ancestors.iterator();
+		while (iterator.hasNext()) {
+			ElementFrame ancestor = iterator.next();
+			MapModel shell = new MapModel();
+			shell.setName(ancestor.model.getName());
+			for (MapField field : ancestor.model.getMapFields()) {
+				MapField copy = new MapField();
+				copy.setName(field.getName());
+				copy.setValue(field.getValue());
+				shell.getMapFields().add(copy);
+			}
+			ancestor.attachedCount = ancestor.model.getMapFields().size();
+			shell.getArrayFields().add(record);
+			record = shell;
+		}
+		return record;
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (xmlReader != null) {
+			try {
+				xmlReader.close();
+			} catch (XMLStreamException e) {
+				LOG.log(Level.WARNING, "Unable to close xml reader. (Continuing)", e);
+			}
+		}
+		super.close();
+	}
+
+	private static class ElementFrame
+	{
+
+		private final MapModel model = new MapModel();
+		private final StringBuilder text = new StringBuilder();
+		private int attributeCount;
+		private int attachedCount;
+		private boolean hasChildren;
+
+		private MapField toField()
+		{
+			MapField field = new MapField();
+			field.setName(model.getName());
+			field.setValue(text.toString());
+			return field;
+		}
+
+		private void finish()
+		{
+			if (StringUtils.isNotBlank(text)) {
+				model.getMapFields().add(attributeCount, toField());
+			}
+		}
+
+		/**
+		 * @return the fields not yet added to a record (all of them when no
+		 * record was read under this element)
+		 */
+		private MapModel unattached()
+		{
+			if (attachedCount == 0) {
+				finish();
+				return model;
+			}
+			MapModel unattached = new MapModel();
+			unattached.setName(model.getName());
+			unattached.getMapFields().addAll(model.getMapFields().subList(attachedCount, model.getMapFields().size()));
+			if (StringUtils.isNotBlank(text)) {
+				unattached.getMapFields().add(toField());
+			}
+			return unattached;
+		}
+
+	}
+
+}
@@ -26,6 +26,15 @@ public class CacheView
 	private double hitRatio;
 	private long missCount;
 	private long roughCount;
+	private long evictedCount;
+	private long expiredCount;
+	private long loadCount;
+	private double averageLoadMillis;
+	private long maxEntries;
+	private String maxBytesLocalHeap;
+	private long timeToLiveSeconds;
+	private long coalescedLoadCount;
+	private long refreshCount;
 
 	public CacheView()
 	{
@@ -80,5 +89,95 @@ public class CacheView
 	{
 		this.roughCount = roughCount;
 	}
-	
+
+	public long getEvictedCount()
+	{
+		return evictedCount;
+	}
+
+	public void setEvictedCount(long evictedCount)
+	{
+		this.evictedCount = evictedCount;
+	}
+
+	public long getExpiredCount()
+	{
+		return expiredCount;
+	}
+
+	public void setExpiredCount(long expiredCount)
+	{
+		this.expiredCount = expiredCount;
+	}
+
+	public long getLoadCount()
+	{
+		return loadCount;
+	}
+
+	public void setLoadCount(long loadCount)
+	{
+		this.loadCount = loadCount;
+	}
+
+	public double getAverageLoadMillis()
+	{
+		return averageLoadMillis;
+	}
+
+	public void setAverageLoadMillis(double averageLoadMillis)
+	{
+		this.averageLoadMillis = averageLoadMillis;
+	}
+
+	public long getMaxEntries()
+	{
+		return maxEntries;
+	}
+
+	public void setMaxEntries(long maxEntries)
+	{
+		this.maxEntries = maxEntries;
+	}
+
+	public String getMaxBytesLocalHeap()
+	{
+		return maxBytesLocalHeap;
+	}
+
+	public void setMaxBytesLocalHeap(String maxBytesLocalHeap)
+	{
+		this.maxBytesLocalHeap = maxBytesLocalHeap;
+	}
+
+	public long getTimeToLiveSeconds()
+	{
+		return timeToLiveSeconds;
+	}
+
+	public void setTimeToLiveSeconds(long timeToLiveSeconds)
+	{
+		this.timeToLiveSeconds = timeToLiveSeconds;
+	}
+
+	public long getCoalescedLoadCount()
+	{
+		return coalescedLoadCount;
+	}
+
+	public void setCoalescedLoadCount(long coalescedLoadCount)
+	{
+		this.coalescedLoadCount = coalescedLoadCount;
+	}
+
+	public long getRefreshCount()
+	{
+		return refreshCount;
+	}
+
+	public void setRefreshCount(long refreshCount)
+	{
+		this.refreshCount = refreshCount;
+	}
+
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.view;
+
+import edu.usu.sdl.openstorefront.core.annotation.APIDescription;
+
+/**
+ * Unread notification count for a user
+ *
+ * @author dshurtleff
+ */
+public class NotificationUnreadView
+{
+
+	private String username;
+
+	@APIDescription("Unread user and global notifications")
+	private long unreadCount;
+
+	public NotificationUnreadView()
+	{
+	}
+
+	public static NotificationUnreadView toView(String username, long unreadCount)
+	{
+		NotificationUnreadView view = new NotificationUnreadView();
+		view.setUsername(username);
+		view.setUnreadCount(unreadCount);
+		return view;
+	}
+
+	public String getUsername()
+	{
+		return username;
+	}
+
+	public void setUsername(String username)
+	{
+		this.username = username;
+	}
+
+	public long getUnreadCount()
+	{
+		return unreadCount;
+	}
+
+	public void setUnreadCount(long unreadCount)
+	{
+		this.unreadCount = unreadCount;
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.filter;
+
+import edu.usu.sdl.openstorefront.core.entity.SecurityRole;
+import edu.usu.sdl.openstorefront.core.entity.SecurityRoleData;
+import edu.usu.sdl.openstorefront.security.UserContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class FilterEngineTest
+{
+
+	/**
+	 * Test of keepComponentRestriction method, of class FilterEngine.
+	 */
+	@Test
+	public void testKeepComponentRestriction()
+	{
+		assertTrue(FilterEngine.keepComponentRestriction(null, "DI2E", "PUBLIC"));
+
+		UserContext restricted = userContext(false, false, "DI2E", "PUBLIC");
+		assertTrue(FilterEngine.keepComponentRestriction(restricted, "DI2E", "PUBLIC"));
+		assertFalse(FilterEngine.keepComponentRestriction(restricted, null, "PUBLIC"));
+		assertFalse(FilterEngine.keepComponentRestriction(restricted, "DI2E", null));
+		assertFalse(FilterEngine.keepComponentRestriction(restricted, "OTHER", "PUBLIC"));
+		assertFalse(FilterEngine.keepComponentRestriction(restricted, "DI2E", "SECRET"));
+
+		UserContext unspecified = userContext(true, true, "DI2E", "PUBLIC");
+		assertTrue(FilterEngine.keepComponentRestriction(unspecified, null, null));
+		assertTrue(FilterEngine.keepComponentRestriction(unspecified, "DI2E", "PUBLIC"));
+		assertFalse(FilterEngine.keepComponentRestriction(unspecified, "OTHER", null));
+	}
+
+	private UserContext userContext(boolean allowUnspecifiedSource, boolean allowUnspecifiedSensitivity, String dataSource, String dataSensitivity)
+	{
+		SecurityRoleData roleData = new SecurityRoleData();
+		roleData.setDataSource(dataSource);
+		roleData.setDataSensitivity(dataSensitivity);
+
+		SecurityRole role = new SecurityRole();
+		role.setAllowUnspecifiedDataSource(allowUnspecifiedSource);
+		role.setAllowUnspecifiedDataSensitivity(allowUnspecifiedSensitivity);
+		role.setDataSecurity(new ArrayList<>(Arrays.asList(roleData)));
+
+		UserContext userContext = new UserContext();
+		userContext.setRoles(new ArrayList<>(Arrays.asList(role)));
+		return userContext;
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.core.api.ServiceProxyFactory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.TextReader;
+import edu.usu.sdl.openstorefront.validation.RuleResult;
+import edu.usu.sdl.openstorefront.validation.ValidationResult;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ImportPipelineTest
+{
+
+	private static final int RECORDS = 300;
+
+	@BeforeClass
+	public static void setup()
+	{
+		//parsers look up the service on creation; the pipeline doesn't use it
+		ServiceProxyFactory.setContext((BundleContext) Proxy.newProxyInstance(
+				ImportPipelineTest.class.getClassLoader(),
+				new Class<?>[]{BundleContext.class},
+				(proxy, method, args) -> null));
+	}
+
+	@AfterClass
+	public static void cleanup()
+	{
+		ServiceProxyFactory.setContext(null);
+	}
+
+	@Test
+	public void testRecordOrderWithWorkers() throws Exception
+	{
+		TestParser parser = new TestParser();
+		try (TextReader reader = new TextReader(records())) {
+			reader.preProcess();
+			new ImportPipeline(parser, 4, 8).run(reader);
+		}
+		parser.flushRecordsToStorage();
+
+		List<String> expectedStored = new ArrayList<>();
+		List<Integer> expectedParseErrors = new ArrayList<>();
+		List<Integer> expectedValidationErrors = new ArrayList<>();
+		for (int i = 1; i <= RECORDS; i++) {
+			if (i % 17 == 0) {
+				expectedParseErrors.add(i);
+			} else if (i % 13 == 0) {
+				expectedValidationErrors.add(i);
+			} else if (i % 5 == 0) {
+				expectedStored.addAll(Arrays.asList(i + "-a", i + "-b"));
+			} else {
+				expectedStored.add(Integer.toString(i));
+			}
+		}
+		assertEquals(expectedStored, parser.stored);
+
+		List<Integer> parseErrors = new ArrayList<>();
+		List<Integer> validationErrors = new ArrayList<>();
+		for (FileHistoryError error : parser.fileHistoryAll.getErrors()) {
+			if (FileHistoryErrorType.PARSE.equals(error.getFileHistoryErrorType())) {
+				parseErrors.add(error.getRecordNumber());
+				assertTrue(error.getErrorMessage().contains("Bad record " + error.getRecordNumber()));
+			} else {
+				assertEquals(FileHistoryErrorType.VALIDATION, error.getFileHistoryErrorType());
+				validationErrors.add(error.getRecordNumber());
+				assertTrue(error.getErrorMessage().contains("Invalid record " + error.getRecordNumber()));
+			}
+		}
+		assertEquals(expectedParseErrors, parseErrors);
+		assertEquals(expectedValidationErrors, validationErrors);
+
+		assertEquals(RECORDS, parser.processed);
+		assertEquals(RECORDS, parser.progressReporter.getProgress().getRecordsProcessed());
+	}
+
+	private InputStream records()
+	{
+		StringBuilder data = new StringBuilder();
+		for (int i = 1; i <= RECORDS; i++) {
+			data.append(i).append("\n");
+		}
+		return new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static class TestParser
+			extends AbstractParser<String>
+	{
+
+		private final List<String> stored = new ArrayList<>();
+		private final List<String> bucket = new ArrayList<>();
+		private int processed;
+
+		TestParser()
+		{
+			FileHistory fileHistory = new FileHistory();
+			fileHistory.setFileHistoryId("TEST");
+			fileHistoryAll = new FileHistoryAll();
+			fileHistoryAll.setFileHistory(fileHistory);
+			progressReporter = new ImportProgressReporter(fileHistoryAll, () -> {
+			});
+		}
+
+		@Override
+		public String checkFormat(String mimeType, InputStream input)
+		{
+			return null;
+		}
+
+		@Override
+		protected <T> Object parseRecord(T record)
+		{
+			int recordNumber = Integer.parseInt(record.toString());
+			processed++;
+			assertEquals(currentRecordNumber, recordNumber);
+			if (recordNumber % 17 == 0) {
+				throw new IllegalStateException("Bad record " + recordNumber);
+			}
+			if (recordNumber % 5 == 0 && recordNumber % 13 != 0) {
+				addMultipleRecords(Arrays.asList(recordNumber + "-a", recordNumber + "-b"));
+				return null;
+			}
+			return record.toString();
+		}
+
+		@Override
+		protected <T> ValidationResult validate(T record)
+		{
+			//finish out of order
+			try {
+				TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextInt(3));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			ValidationResult validationResult = new ValidationResult();
+			String value = record.toString();
+			if (value.contains("-") == false && Integer.parseInt(value) % 13 == 0) {
+				RuleResult ruleResult = new RuleResult();
+				ruleResult.setMessage("Invalid record " + value);
+				validationResult.getRuleResults().add(ruleResult);
+			}
+			return validationResult;
+		}
+
+		@Override
+		protected List<String> getStorageBucket()
+		{
+			return bucket;
+		}
+
+		@Override
+		protected int getMaxBucketSize()
+		{
+			return 10;
+		}
+
+		@Override
+		protected void performStorage()
+		{
+			stored.addAll(bucket);
+		}
+
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser;
+
+import edu.usu.sdl.openstorefront.core.entity.FileHistory;
+import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ImportProgressReporterTest
+{
+
+	@Test
+	public void testPublishCadence()
+	{
+		FileHistory fileHistory = new FileHistory();
+		fileHistory.setFileHistoryId("TEST");
+		FileHistoryAll fileHistoryAll = new FileHistoryAll();
+		fileHistoryAll.setFileHistory(fileHistory);
+
+		AtomicInteger publishCount = new AtomicInteger();
+		ImportProgressReporter reporter = new ImportProgressReporter(fileHistoryAll, publishCount::incrementAndGet, 1000, Long.MAX_VALUE);
+		for (int i = 1; i <= 5500; i++) {
+			reporter.recordProcessed(i);
+		}
+		assertEquals(5, publishCount.get());
+		assertEquals(5500, reporter.getProgress().getRecordsProcessed());
+		assertEquals(Integer.valueOf(5500), fileHistory.getRecordsProcessed());
+
+		fileHistory.setRecordsStored(5000);
+		reporter.recordsStored();
+		assertEquals(5000, reporter.getProgress().getRecordsStored());
+		assertEquals(5, publishCount.get());
+
+		fileHistoryAll.addError(FileHistoryErrorType.VALIDATION, "Invalid", 10);
+		fileHistoryAll.addError(FileHistoryErrorType.WARNING, "Check", 11);
+		reporter.recordsStored();
+		assertEquals(1, reporter.getProgress().getErrorsCount());
+		assertEquals(1, reporter.getProgress().getWarningsCount());
+
+		fileHistoryAll.addError(FileHistoryErrorType.PARSE, "Bad record", 12);
+		fileHistoryAll.addError(FileHistoryErrorType.WARNING, "Check", 13);
+		fileHistoryAll.addError(FileHistoryErrorType.WARNING, "Check", 14);
+		reporter.finish();
+		assertFalse(reporter.getProgress().getRunning());
+		assertEquals(2, reporter.getProgress().getErrorsCount());
+		assertEquals(3, reporter.getProgress().getWarningsCount());
+		assertEquals(5, publishCount.get());
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapField;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ExcelStreamingMapReaderTest
+{
+
+	@Test
+	public void testXlsx() throws Exception
+	{
+		byte[] workbook = setDimension(createWorkbook(new XSSFWorkbook()), "A1:C5");
+		try (ExcelStreamingMapReader reader = new ExcelStreamingMapReader(new ByteArrayInputStream(workbook))) {
+			reader.preProcess();
+			assertEquals(Integer.valueOf(5), reader.getTotalRecords());
+
+			List<String> records = readAll(reader);
+			assertEquals(Arrays.asList("Name", "Count", "Active"), reader.getHeaders());
+			assertEquals(readUsermodel(workbook), records);
+			assertEquals(3, records.size());
+		}
+	}
+
+	@Test
+	public void testXls() throws Exception
+	{
+		byte[] workbook = createWorkbook(new HSSFWorkbook());
+		try (ExcelStreamingMapReader reader = new ExcelStreamingMapReader(new ByteArrayInputStream(workbook))) {
+			reader.preProcess();
+			assertEquals(readUsermodel(workbook), readAll(reader));
+		}
+	}
+
+	private byte[] createWorkbook(Workbook workbook) throws Exception
+	{
+		Sheet sheet = workbook.createSheet();
+		Row header = sheet.createRow(0);
+		header.createCell(0).setCellValue("Name");
+		header.createCell(1).setCellValue("Count");
+		header.createCell(2).setCellValue("Active");
+
+		Row row = sheet.createRow(1);
+		row.createCell(0).setCellValue("Component A");
+		row.createCell(1).setCellValue(12);
+		row.createCell(2).setCellValue(true);
+
+		//gap in the columns ends the row
+		row = sheet.createRow(2);
+		row.createCell(0).setCellValue("Component B");
+		row.createCell(2).setCellValue(false);
+
+		//gap in the rows ends the data
+		row = sheet.createRow(4);
+		row.createCell(0).setCellValue("Not read");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		workbook.write(out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * POI does not keep the sheet dimension up to date (Excel does)
+	 */
+	private byte[] setDimension(byte[] workbook, String ref) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(workbook));
+				ZipOutputStream zipOut = new ZipOutputStream(out)) {
+			ZipEntry entry = zipIn.getNextEntry();
+			while (entry != null) {
+				byte[] data = IOUtils.toByteArray(zipIn);
+				if (entry.getName().startsWith("xl/worksheets/")) {
+					data = new String(data, StandardCharsets.UTF_8)
+							.replaceFirst("<dimension ref=\"[^\"]*\"", "<dimension ref=\"" + ref + "\"")
+							.getBytes(StandardCharsets.UTF_8);
+				}
+				zipOut.putNextEntry(new ZipEntry(entry.getName()));
+				zipOut.write(data);
+				zipOut.closeEntry();
+				entry = zipIn.getNextEntry();
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private List<String> readUsermodel(byte[] workbook) throws Exception
+	{
+		try (ExcelMapReader reader = new ExcelMapReader(new ByteArrayInputStream(workbook))) {
+			reader.preProcess();
+			return readAll(reader);
+		}
+	}
+
+	private List<String> readAll(ExcelMapReader reader)
+	{
+		List<String> records = new ArrayList<>();
+		MapModel mapModel = reader.nextRecord();
+		while (mapModel != null) {
+			StringBuilder record = new StringBuilder();
+			for (MapField mapField : mapModel.getMapFields()) {
+				record.append(mapField.getName()).append("=").append(mapField.getValue()).append(";");
+			}
+			records.add(record.toString());
+			mapModel = reader.nextRecord();
+		}
+		return records;
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.core.spi.parser.reader;
+
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.model.ComponentAll;
+import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.ComponentMapper;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.DataMapper;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.FieldDefinition;
+import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class StreamingMapReaderTest
+{
+
+	private static final String JSON_ARRAY = "[{\"name\":\"A\",\"vendor\":{\"name\":\"V1\"},\"tags\":[{\"text\":\"t1\"},{\"text\":\"t2\"}]},"
+			+ "{\"name\":\"B\",\"vendor\":{\"name\":\"V2\"}},"
+			+ "{\"name\":\"C\"}]";
+
+	private static final String JSON_OBJECT = "{\"source\":\"feed\",\"components\":[{\"name\":\"A\",\"vendor\":{\"name\":\"V1\"}},{\"name\":\"B\"}]}";
+
+	private static final String XML = "<?xml version=\"1.0\"?>"
+			+ "<catalog version=\"2\">\n"
+			+ "  <title>Feed</title>\n"
+			+ "  <component id=\"1\"><name>A</name><vendor><name>V1</name></vendor></component>\n"
+			+ "  <component id=\"2\"><name>B</name><![CDATA[<b>]]></component>\n"
+			+ "  <component id=\"3\"><name>C</name></component>\n"
+			+ "</catalog>";
+
+	@Test
+	public void testJsonArray() throws Exception
+	{
+		try (JSONStreamingMapReader reader = new JSONStreamingMapReader(stream(JSON_ARRAY))) {
+			reader.preProcess();
+			Set<String> fields = readAll(reader, 3);
+			assertEquals(3, reader.getCurrentRecordNumber());
+			assertEquals(domFields(new JSONMapReader(stream(JSON_ARRAY))), fields);
+		}
+	}
+
+	@Test
+	public void testJsonObject() throws Exception
+	{
+		try (JSONStreamingMapReader reader = new JSONStreamingMapReader(stream(JSON_OBJECT))) {
+			reader.preProcess();
+			//source is carried on each component record
+			Set<String> fields = readAll(reader, 2);
+			assertEquals(domFields(new JSONMapReader(stream(JSON_OBJECT))), fields);
+		}
+	}
+
+	@Test
+	public void testXml() throws Exception
+	{
+		try (XMLStreamingMapReader reader = new XMLStreamingMapReader(stream(XML))) {
+			reader.preProcess();
+
+			MapModel record = reader.nextRecord();
+			assertEquals("catalog", record.getName());
+			assertEquals(1, record.getArrayFields().size());
+			assertEquals("component", record.getArrayFields().get(0).getName());
+			assertEquals("id", record.getArrayFields().get(0).getMapFields().get(0).getName());
+			assertEquals(2, record.getMapFields().size());
+
+			Set<String> fields = new TreeSet<>();
+			addFields(fields, record);
+			fields.addAll(readAll(reader, 2));
+			assertEquals(domFields(new XMLMapReader(stream(XML))), fields);
+		}
+	}
+
+	@Test
+	public void testXmlRecordElement() throws Exception
+	{
+		String xml = "<catalog><components><component><name>A</name><vendor><name>V1</name></vendor></component>"
+				+ "<component><name>B</name><vendor><name>V2</name></vendor></component></components></catalog>";
+		try (XMLStreamingMapReader reader = new XMLStreamingMapReader(stream(xml), "component")) {
+			reader.preProcess();
+			Set<String> fields = readAll(reader, 2);
+			assertEquals(domFields(new XMLMapReader(stream(xml))), fields);
+		}
+	}
+
+	@Test
+	public void testJsonMappingMatchesDom() throws Exception
+	{
+		Map<String, DataMapper> dataMappers = new HashMap<>();
+		addMapper(dataMappers, "root", ComponentAll.class, null);
+		addMapper(dataMappers, "root.source", Component.class, "organization");
+		addMapper(dataMappers, "root.components.name", Component.class, Component.FIELD_NAME);
+		addMapper(dataMappers, "root.components.description", Component.class, "description");
+
+		File file = tempFile("{\"source\":\"feed\",\"components\":[{\"name\":\"A\",\"description\":\"a\"}]}", ".json");
+		List<String> domComponents;
+		try (JSONMapReader reader = new JSONMapReader(new FileInputStream(file))) {
+			domComponents = mapAll(reader, dataMappers);
+		}
+		try (JSONStreamingMapReader reader = new JSONStreamingMapReader(new FileInputStream(file))) {
+			assertEquals(domComponents, mapAll(reader, dataMappers));
+			assertEquals(Integer.valueOf(1), reader.getTotalRecords());
+		}
+
+		file = tempFile("{\"source\":\"feed\",\"components\":[{\"name\":\"A\"},{\"name\":\"B\"}]}", ".json");
+		try (JSONStreamingMapReader reader = new JSONStreamingMapReader(new FileInputStream(file))) {
+			assertEquals(Arrays.asList("A|feed|null", "B|feed|null"), mapAll(reader, dataMappers));
+			assertEquals(Integer.valueOf(2), reader.getTotalRecords());
+		}
+	}
+
+	@Test
+	public void testXmlMappingMatchesDom() throws Exception
+	{
+		Map<String, DataMapper> dataMappers = new HashMap<>();
+		addMapper(dataMappers, "catalog", ComponentAll.class, null);
+		addMapper(dataMappers, "catalog.title", Component.class, "organization");
+		addMapper(dataMappers, "catalog.component", Component.class, null);
+		addMapper(dataMappers, "catalog.component.name", Component.class, Component.FIELD_NAME);
+		addMapper(dataMappers, "catalog.component.description", Component.class, "description");
+
+		File file = tempFile("<catalog version=\"2\"><title>Feed</title>"
+				+ "<component id=\"1\"><name>A</name><description>a</description></component></catalog>", ".xml");
+		List<String> domComponents;
+		try (XMLMapReader reader = new XMLMapReader(new FileInputStream(file))) {
+			domComponents = mapAll(reader, dataMappers);
+		}
+		try (XMLStreamingMapReader reader = new XMLStreamingMapReader(new FileInputStream(file))) {
+			assertEquals(domComponents, mapAll(reader, dataMappers));
+			assertEquals(Integer.valueOf(1), reader.getTotalRecords());
+		}
+
+		file = tempFile("<catalog><title>Feed</title>"
+				+ "<component><name>A</name></component><component><name>B</name></component></catalog>", ".xml");
+		try (XMLStreamingMapReader reader = new XMLStreamingMapReader(new FileInputStream(file))) {
+			assertEquals(Arrays.asList("A|Feed|null", "B|Feed|null"), mapAll(reader, dataMappers));
+			assertEquals(Integer.valueOf(2), reader.getTotalRecords());
+		}
+	}
+
+	private List<String> mapAll(GenericReader<MapModel> reader, Map<String, DataMapper> dataMappers)
+	{
+		ComponentMapper componentMapper = new ComponentMapper(() -> {
+			ComponentAll componentAll = new ComponentAll();
+			componentAll.setComponent(new Component());
+			return componentAll;
+		}, new FileHistoryAll(), dataMappers, null);
+
+		reader.preProcess();
+		List<String> components = new ArrayList<>();
+		MapModel record = reader.nextRecord();
+		while (record != null) {
+			for (ComponentAll componentAll : componentMapper.multiMapData(record)) {
+				Component component = componentAll.getComponent();
+				components.add(component.getName() + "|" + component.getOrganization() + "|" + component.getDescription());
+			}
+			record = reader.nextRecord();
+		}
+		Collections.sort(components);
+		return components;
+	}
+
+	private void addMapper(Map<String, DataMapper> dataMappers, String field, Class entityClass, String entityField)
+	{
+		DataMapper dataMapper = new DataMapper();
+		dataMapper.setField(field);
+		dataMapper.setEntityClass(entityClass);
+		dataMapper.setEntityField(entityField);
+		dataMappers.put(field, dataMapper);
+	}
+
+	private File tempFile(String data, String suffix) throws IOException
+	{
+		File file = File.createTempFile("streaming-reader", suffix);
+		file.deleteOnExit();
+		Files.write(file.toPath(), data.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private Set<String> readAll(GenericReader<MapModel> reader, int expectedRecords)
+	{
+		Set<String> fields = new TreeSet<>();
+		int records = 0;
+		MapModel record = reader.nextRecord();
+		while (record != null) {
+			records++;
+			addFields(fields, record);
+			record = reader.nextRecord();
+		}
+		assertEquals(expectedRecords, records);
+		assertNull(reader.nextRecord());
+		return fields;
+	}
+
+	private void addFields(Set<String> fields, MapModel record)
+	{
+		for (FieldDefinition fieldDefinition : record.getUniqueFields()) {
+			fields.add(fieldDefinition.getField());
+		}
+	}
+
+	private Set<String> domFields(MappableReader reader) throws Exception
+	{
+		try (MappableReader domReader = reader) {
+			domReader.preProcess();
+			Set<String> fields = new TreeSet<>();
+			addFields(fields, domReader.nextRecord());
+			return fields;
+		}
+	}
+
+	private InputStream stream(String data)
+	{
+		return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
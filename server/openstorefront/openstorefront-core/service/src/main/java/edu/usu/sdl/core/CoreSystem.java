@@ -25,6 +25,7 @@ import edu.usu.sdl.openstorefront.core.view.SystemStatusView;
 import edu.usu.sdl.openstorefront.service.io.HelpImporter;
 import edu.usu.sdl.openstorefront.service.io.LookupImporter;
 import edu.usu.sdl.openstorefront.service.manager.AsyncTaskManager;
+import edu.usu.sdl.openstorefront.service.manager.CacheInvalidationManager;
 import edu.usu.sdl.openstorefront.service.manager.ConfluenceManager;
 import edu.usu.sdl.openstorefront.service.manager.DBLogManager;
 import edu.usu.sdl.openstorefront.service.manager.DBManager;
@@ -32,12 +33,15 @@ import edu.usu.sdl.openstorefront.service.manager.JiraManager;
 import edu.usu.sdl.openstorefront.service.manager.JobManager;
 import edu.usu.sdl.openstorefront.service.manager.LDAPManager;
 import edu.usu.sdl.openstorefront.service.manager.MailManager;
+import edu.usu.sdl.openstorefront.service.manager.MetricsManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
 import edu.usu.sdl.openstorefront.service.manager.OsgiManager;
 import edu.usu.sdl.openstorefront.service.manager.PluginManager;
 import edu.usu.sdl.openstorefront.service.manager.ReportManager;
 import edu.usu.sdl.openstorefront.service.manager.SearchServerManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.service.manager.UserAgentManager;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -76,6 +80,8 @@ public class CoreSystem
 			new DBManager(),
 			new SearchServerManager(),
 			new OSFCacheManager(),
+			new MetricsManager(),
+			new ComponentSearchViewStore(),
 			new JiraManager(),
 			new ConfluenceManager(),
 			new LookupImporter(),
@@ -83,6 +89,8 @@ public class CoreSystem
 			new JobManager(),
 			new UserAgentManager(),
 			new AsyncTaskManager(),
+			new TrackingManager(),
+			new CacheInvalidationManager(),
 			new ReportManager(),
 			new LDAPManager(),
 			new HelpImporter(),
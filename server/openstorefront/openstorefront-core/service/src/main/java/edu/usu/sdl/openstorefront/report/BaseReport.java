@@ -16,15 +16,28 @@
 package edu.usu.sdl.openstorefront.report;
 
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.core.api.model.TaskFuture;
+import edu.usu.sdl.openstorefront.core.api.model.TaskRequest;
+import edu.usu.sdl.openstorefront.core.entity.BaseComponent;
 import edu.usu.sdl.openstorefront.core.entity.Branding;
+import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ErrorTypeCode;
 import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.ReportOption;
 import edu.usu.sdl.openstorefront.core.entity.ReportType;
 import edu.usu.sdl.openstorefront.report.generator.BaseGenerator;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.AsyncTaskManager;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -33,6 +46,8 @@ import java.util.Objects;
 public abstract class BaseReport
 {
 
+	protected static final int COMPONENT_CHUNK_SIZE = 200;
+
 	protected Report report;
 	protected BaseGenerator generator;
 	protected ServiceProxy service = ServiceProxy.getProxy();
@@ -122,6 +137,79 @@ public abstract class BaseReport
 		}
 	}
 
+	/**
+	 * Updates the details of the background task running this report (if
+	 * any) so progress shows up in the task status.
+	 *
+	 * @param details
+	 */
+	protected void updateTaskDetails(String details)
+	{
+		for (TaskFuture taskFuture : AsyncTaskManager.getTasksByName(TaskRequest.TASKNAME_REPORT)) {
+			if (report.getReportId() != null
+					&& report.getReportId().equals(taskFuture.getTaskData().get(TaskRequest.DATAKEY_REPORT_ID))) {
+				taskFuture.setDetails(details);
+			}
+		}
+	}
+
+	/**
+	 * Walks the components a chunk at a time; the loader is called with each
+	 * chunk before its first component is returned so only the related
+	 * records for that chunk need to be held.
+	 *
+	 * @param components
+	 * @param chunkLoader
+	 * @return components in the original order
+	 */
+	protected Iterable<Component> inChunks(List<Component> components, Consumer<List<Component>> chunkLoader)
+	{
+		return () -> new Iterator<Component>()
+		{
+			private int index = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return index < components.size();
+			}
+
+			@Override
+			public Component next()
+			{
+				if (hasNext() == false) {
+					throw new NoSuchElementException();
+				}
+				if (index % COMPONENT_CHUNK_SIZE == 0) {
+					chunkLoader.accept(components.subList(index, Math.min(index + COMPONENT_CHUNK_SIZE, components.size())));
+				}
+				return components.get(index++);
+			}
+		};
+	}
+
+	/**
+	 * Finds the active records of a component child type for the given
+	 * components
+	 *
+	 * @param <T>
+	 * @param entityClass
+	 * @param components
+	 * @return records grouped by component id
+	 */
+	protected <T extends BaseComponent<T>> Map<String, List<T>> findForComponents(Class<T> entityClass, List<Component> components)
+	{
+		List<String> componentIds = new ArrayList<>(components.size());
+		components.forEach(component -> componentIds.add(component.getComponentId()));
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("activeStatusParam", BaseComponent.ACTIVE_STATUS);
+		params.put("componentIdsParam", componentIds);
+		List<T> records = service.getPersistenceService().query("select from " + entityClass.getSimpleName()
+				+ " where activeStatus = :activeStatusParam and componentId in :componentIdsParam", params, true);
+		return records.stream().collect(Collectors.groupingBy(T::getComponentId));
+	}
+
 	protected abstract void gatherData();
 
 	protected abstract void writeReport();
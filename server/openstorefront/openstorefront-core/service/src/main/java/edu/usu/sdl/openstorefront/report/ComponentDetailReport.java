@@ -70,47 +70,6 @@ public class ComponentDetailReport
 	@Override
 	protected void gatherData()
 	{
-		//Grab all active attributes
-		ComponentAttribute componentAttributeExample = new ComponentAttribute();
-		componentAttributeExample.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
-		List<ComponentAttribute> allCodes = componentAttributeExample.findByExample();
-
-		allCodes.forEach(attribute -> {
-			if (codeToComponent.containsKey(attribute.getComponentId())) {
-				if (codeToComponent.get(attribute.getComponentId()).containsKey(attribute.getComponentAttributePk().getAttributeType())) {
-					codeToComponent.get(attribute.getComponentId()).get(attribute.getComponentAttributePk().getAttributeType()).add(attribute);
-				} else {
-					List<ComponentAttribute> attributeList = new ArrayList<>();
-					attributeList.add(attribute);
-					codeToComponent.get(attribute.getComponentId()).put(attribute.getComponentAttributePk().getAttributeType(), attributeList);
-				}
-			} else {
-				Map<String, List<ComponentAttribute>> temp = new HashMap<>();
-				List<ComponentAttribute> attributeList = new ArrayList<>();
-				attributeList.add(attribute);
-				temp.put(attribute.getComponentAttributePk().getAttributeType(), attributeList);
-				codeToComponent.put(attribute.getComponentId(), temp);
-			}
-		});
-
-		//Grab all metadata
-		ComponentMetadata metadata = new ComponentMetadata();
-		metadata.setActiveStatus(ComponentMetadata.ACTIVE_STATUS);
-		List<ComponentMetadata> allMetadata = metadata.findByExample();
-		metaDataMap = allMetadata.stream().collect(Collectors.groupingBy(ComponentMetadata::getComponentId));
-
-		//Contacts
-		ComponentContact componentContact = new ComponentContact();
-		componentContact.setActiveStatus(ComponentContact.ACTIVE_STATUS);
-		List<ComponentContact> allContacts = componentContact.findByExample();
-		contactMap = allContacts.stream().collect(Collectors.groupingBy(ComponentContact::getComponentId));
-
-		//Resources
-		ComponentResource componentResource = new ComponentResource();
-		componentResource.setActiveStatus(ComponentResource.ACTIVE_STATUS);
-		List<ComponentResource> allResources = componentResource.findByExample();
-		resourceMap = allResources.stream().collect(Collectors.groupingBy(ComponentResource::getComponentId));
-
 		//Grab all components
 		Component componentExample = new Component();
 		componentExample.setActiveStatus(Component.ACTIVE_STATUS);
@@ -124,10 +83,27 @@ public class ComponentDetailReport
 		components.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_ASCENDING, Component.FIELD_NAME));	
 	}
 
+	/**
+	 * Loads the details for a chunk of components; replaces the previous
+	 * chunk so the whole data set is never held at once.
+	 */
+	private void loadDetails(List<Component> chunk)
+	{
+		codeToComponent.clear();
+		Map<String, List<ComponentAttribute>> attributeMap = findForComponents(ComponentAttribute.class, chunk);
+		attributeMap.forEach((componentId, attributes) -> {
+			codeToComponent.put(componentId, attributes.stream().collect(Collectors.groupingBy(attribute -> attribute.getComponentAttributePk().getAttributeType())));
+		});
+
+		metaDataMap = findForComponents(ComponentMetadata.class, chunk);
+		contactMap = findForComponents(ComponentContact.class, chunk);
+		resourceMap = findForComponents(ComponentResource.class, chunk);
+	}
+
 	@Override
 	protected void writeReport()
 	{
-		if (ReportFormat.CSV.equals(report.getReportFormat())) {
+		if (generator instanceof CSVGenerator) {
 			generateCSV();
 		} else if (ReportFormat.HTML.equals(report.getReportFormat())) {
 			generateHtml();
@@ -152,7 +128,7 @@ public class ComponentDetailReport
 		}		
 		cvsGenerator.addLine(header.toArray());		
 
-		for (Component component : components) {
+		for (Component component : inChunks(components, this::loadDetails)) {
 
 			List<String> data = new ArrayList<>();
 			data.add(component.getName());
@@ -368,7 +344,7 @@ public class ComponentDetailReport
 		htmlGenerator.addLine("Entries (" + components.size() + ")");
 		htmlGenerator.addRuleLine();
 
-		for (Component component : components) {
+		for (Component component : inChunks(components, this::loadDetails)) {
 
 			String securityMarking = "";
 			if (getBranding().getAllowSecurityMarkingsFlg()) {
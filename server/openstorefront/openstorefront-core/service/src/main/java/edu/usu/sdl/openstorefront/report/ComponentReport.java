@@ -32,6 +32,7 @@ import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -101,14 +102,8 @@ public class ComponentReport
 		//write Body
 		for (Component component : components) {
 
-			ComponentTracking componentTrackingExample = new ComponentTracking();
-			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-			componentTrackingExample.setComponentId(component.getComponentId());
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-			long views = service.getPersistenceService().countByExample(componentTrackingExample);
-
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.EXTERNAL_LINK_CLICK);
-			long resourcesClicked = service.getPersistenceService().countByExample(componentTrackingExample);
+			long views = TrackingManager.getComponentCount(component.getComponentId(), TrackEventCode.VIEW);
+			long resourcesClicked = TrackingManager.getComponentCount(component.getComponentId(), TrackEventCode.EXTERNAL_LINK_CLICK);
 
 			ComponentReview componentReviewExample = new ComponentReview();
 			componentReviewExample.setComponentId(component.getComponentId());
@@ -130,7 +125,7 @@ public class ComponentReport
 			componentQuestionResponseExample.setActiveStatus(ComponentReview.ACTIVE_STATUS);
 			long questionResponse = service.getPersistenceService().countByExample(componentQuestionResponseExample);
 
-			componentTrackingExample = new ComponentTracking();
+			ComponentTracking componentTrackingExample = new ComponentTracking();
 			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
 			componentTrackingExample.setComponentId(component.getComponentId());
 			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
@@ -15,33 +15,25 @@
  */
 package edu.usu.sdl.openstorefront.report;
 
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
 import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentResource;
+import edu.usu.sdl.openstorefront.core.entity.LinkCheckResult;
 import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.ResourceType;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
 import edu.usu.sdl.openstorefront.report.model.LinkCheckModel;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLConnection;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import javax.net.ssl.SSLHandshakeException;
 import org.apache.commons.lang3.StringUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -56,14 +48,11 @@ public class ExternalLinkValidationReport
 		extends BaseReport
 {
 
-	private static final Logger log = Logger.getLogger(ExternalLinkValidationReport.class.getName());
-
 	private static final String SIPR_LINIK = "smil.mil";
 	private static final String JWICS_LINIK = "ic.gov";
 	private static final String NETWORK_SIPR = "SIPR";
 	private static final String NETWORK_JWICS = "JWICS";
 
-	private static final int MAX_CHECKPOOL_SIZE = 20;
 	private static final int MAX_CONNECTION_TIME_MILLIS = 5000;
 
 	private List<LinkCheckModel> links = new ArrayList<>();
@@ -104,8 +93,14 @@ public class ExternalLinkValidationReport
 		long linkCountId = 1;
 		for (Component component : componentMap.values()) {
 
-			Document doc = Jsoup.parseBodyFragment(component.getDescription());
-			Elements elements = doc.select("a");
+			Document doc;
+			Elements elements;
+			if (StringUtils.containsIgnoreCase(component.getDescription(), "<a")) {
+				doc = Jsoup.parseBodyFragment(component.getDescription());
+				elements = doc.select("a");
+			} else {
+				elements = new Elements();
+			}
 
 			for (Element element : elements) {
 				String link = element.attr("href");
@@ -208,117 +203,44 @@ public class ExternalLinkValidationReport
 			}
 		}
 
-		ForkJoinPool forkJoinPool = new ForkJoinPool(MAX_CHECKPOOL_SIZE);
-
-		Map<String, LinkCheckModel> linkMap = new HashMap();
-		List<ForkJoinTask<LinkCheckModel>> tasks = new ArrayList<>();
-		for (LinkCheckModel link : links) {
-			linkMap.put(link.getId(), link);
-			tasks.add(forkJoinPool.submit(new CheckLinkTask(link, timeOutTime)));
+		List<String> linksToCheck = new ArrayList<>();
+		for (LinkCheckModel checkModel : links) {
+			if (StringUtils.isNotBlank(checkModel.getNetworkOfLink())) {
+				checkModel.setCheckResults("Not checked");
+				checkModel.setStatus(OpenStorefrontConstant.NOT_AVAILABLE);
+			} else {
+				linksToCheck.add(linkKey(checkModel));
+			}
 		}
 
-		int completedCount = 0;
-		for (ForkJoinTask<LinkCheckModel> task : tasks) {
-			try {
-				LinkCheckModel processed;
-				try {
-					processed = task.get(timeOutTime, TimeUnit.MILLISECONDS);
-					if (processed != null) {
-						LinkCheckModel reportModel = linkMap.get(processed.getId());
-						reportModel.setStatus(processed.getStatus());
-						reportModel.setCheckResults(processed.getCheckResults());
-						reportModel.setHttpStatus(processed.getHttpStatus());
-					} else {
-						//This shouldn't occur, however if it does at least show a message.
-						log.log(Level.WARNING, MessageFormat.format("A link check task failed to return results.  Status at Completed Abnormally? {0}", task.isCompletedAbnormally()));
-					}
-				} catch (TimeoutException e) {
-					task.cancel(true);
-				}
+		LinkValidator linkValidator = new LinkValidator(service.getPersistenceService(),
+				timeOutTime,
+				Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_LINKCHECK_THREADS)),
+				Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_LINKCHECK_PER_HOST)),
+				TimeUnit.HOURS.toMillis(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_LINKCHECK_CACHE_HOURS))));
 
-				completedCount++;
-			} catch (InterruptedException | ExecutionException ex) {
-				log.log(Level.WARNING, "Check task  was interrupted.  Report results may be not complete.", ex);
-			}
-			log.log(Level.FINE, MessageFormat.format("Complete Checking Link Count: {0} out of {1}", new Object[]{completedCount, links.size()}));
-		}
+		Map<String, LinkCheckResult> results = linkValidator.validate(linksToCheck, (checked, total) -> {
+			updateTaskDetails(MessageFormat.format("Checked {0} of {1} unique links", checked, total));
+		});
 
 		for (LinkCheckModel checkModel : links) {
+			if (StringUtils.isBlank(checkModel.getNetworkOfLink())) {
+				LinkCheckResult result = results.get(linkKey(checkModel));
+				if (result != null) {
+					checkModel.setStatus(result.getStatus());
+					checkModel.setCheckResults(result.getCheckResults());
+					checkModel.setHttpStatus(result.getHttpStatus());
+				}
+			}
 			if (StringUtils.isBlank(checkModel.getStatus())) {
-				checkModel.setStatus("Unable to verify.  Timed out while waiting.");
+				checkModel.setStatus(LinkValidator.STATUS_TIMED_OUT);
 			}
 		}
-
-		forkJoinPool.shutdownNow();
-		try {
-			forkJoinPool.awaitTermination(1000, TimeUnit.MILLISECONDS);
-		} catch (InterruptedException ex) {
-			log.log(Level.WARNING, "Check task shutdown was interrupted.  The application will recover and continue.", ex);
-		}
 	}
 
-	private class CheckLinkTask
-			implements Callable<LinkCheckModel>
+	private String linkKey(LinkCheckModel checkModel)
 	{
-
-		private final LinkCheckModel modelToCheck;
-		private int timeOutTime;
-
-		public CheckLinkTask(LinkCheckModel modelToCheck, int timeOutTime)
-		{
-			this.modelToCheck = modelToCheck;
-			this.timeOutTime = timeOutTime;
-		}
-
-		@Override
-		public LinkCheckModel call() throws Exception
-		{
-			LinkCheckModel linkCheckModel = new LinkCheckModel();
-			linkCheckModel.setId(modelToCheck.getId());
-
-			long startTime = System.currentTimeMillis();
-			log.log(Level.FINEST, MessageFormat.format("Checking link: {0}", modelToCheck.getLink()));
-
-			if (StringUtils.isNotBlank(modelToCheck.getNetworkOfLink())) {
-				linkCheckModel.setCheckResults("Not checked");
-				linkCheckModel.setStatus(OpenStorefrontConstant.NOT_AVAILABLE);
-			} else {
-				try {
-					URL url = new URL(modelToCheck.getLink());
-					URLConnection connection = url.openConnection();
-					connection.setConnectTimeout(timeOutTime);
-					connection.setReadTimeout(timeOutTime);
-					connection.setUseCaches(false);
-
-					HttpURLConnection httpConnection = (HttpURLConnection) url.openConnection();
-					httpConnection.setInstanceFollowRedirects(true);
-
-					try {
-						connection.connect();
-						linkCheckModel.setHttpStatus(Integer.toString(httpConnection.getResponseCode()));
-						linkCheckModel.setStatus(httpConnection.getResponseMessage());
-						if (StringUtils.isNotBlank(linkCheckModel.getStatus())
-								&& "OK".equalsIgnoreCase(linkCheckModel.getStatus().trim()) == false) {
-							linkCheckModel.setCheckResults("Bad Link or it is restricted. (See HTTP Status Code)");
-						}
-					} catch (SSLHandshakeException e) {
-						linkCheckModel.setStatus("Certificate Request/Error");
-						linkCheckModel.setCheckResults("Client Certificate Requested (CAC) or Server Certificate Error.  Actual error Message: " + e.getMessage());
-					} catch (Exception e) {
-						log.log(Level.FINER, "Actual connection error: ", e);
-						linkCheckModel.setStatus("Timeout/Error Connecting");
-						linkCheckModel.setCheckResults("Error occur when trying to connect.  This may be a temporary case or the link may be bad. Actual error Message: " + e.getMessage());
-					}
-				} catch (Exception e) {
-					linkCheckModel.setStatus("URL is bad");
-					linkCheckModel.setCheckResults("Check link to make sure it's properly formatted");
-				}
-			}
-			log.log(Level.FINEST, MessageFormat.format("Finish checking link: {0} Check Time: {1} ms", modelToCheck.getLink(), System.currentTimeMillis() - startTime));
-
-			return linkCheckModel;
-		}
-
+		return StringUtils.trimToEmpty(checkModel.getLink());
 	}
 
 }
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.report;
+
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.LinkCheckResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.net.ssl.SSLHandshakeException;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Checks a set of external links. Each distinct link is checked once; hosts
+ * are limited to a few requests in flight so a slow or large host can't tie
+ * up the whole pool; results with an HTTP answer are saved and reused until
+ * they are older than the cache time.
+ *
+ * @author dshurtleff
+ */
+public class LinkValidator
+{
+
+	private static final Logger LOG = Logger.getLogger(LinkValidator.class.getName());
+
+	public static final String STATUS_TIMED_OUT = "Unable to verify.  Timed out while waiting.";
+
+	private final PersistenceService persistenceService;
+	private final int timeOutMillis;
+	private final int maxThreads;
+	private final int maxPerHost;
+	private final long cacheMillis;
+
+	public LinkValidator(PersistenceService persistenceService, int timeOutMillis, int maxThreads, int maxPerHost, long cacheMillis)
+	{
+		this.persistenceService = persistenceService;
+		this.timeOutMillis = timeOutMillis;
+		this.maxThreads = Math.max(1, maxThreads);
+		this.maxPerHost = Math.max(1, maxPerHost);
+		this.cacheMillis = cacheMillis;
+	}
+
+	/**
+	 * Checks the links
+	 *
+	 * @param links (duplicates are checked once)
+	 * @param progress called with (checked, total) as links finish
+	 * @return result per link
+	 */
+	public Map<String, LinkCheckResult> validate(Collection<String> links, BiConsumer<Integer, Integer> progress)
+	{
+		Set<String> uniqueLinks = new LinkedHashSet<>(links);
+		Map<String, LinkCheckResult> results = new HashMap<>();
+
+		Map<String, LinkCheckResult> saved = loadSaved();
+		Date staleDts = new Date(TimeUtil.currentDate().getTime() - cacheMillis);
+
+		Map<String, Deque<String>> hostQueues = new LinkedHashMap<>();
+		for (String link : uniqueLinks) {
+			LinkCheckResult savedResult = saved.get(linkCheckId(link));
+			if (savedResult != null && savedResult.getCheckedDts().after(staleDts)) {
+				results.put(link, savedResult);
+			} else {
+				hostQueues.computeIfAbsent(hostOf(link), host -> new ArrayDeque<>()).add(link);
+			}
+		}
+		int total = uniqueLinks.size();
+		progress.accept(results.size(), total);
+
+		if (hostQueues.isEmpty() == false) {
+			checkAll(hostQueues, results, total, progress);
+
+			for (String link : uniqueLinks) {
+				LinkCheckResult result = results.get(link);
+				if (result == null) {
+					result = new LinkCheckResult();
+					result.setLink(link);
+					result.setStatus(STATUS_TIMED_OUT);
+					results.put(link, result);
+				} else if (result.getCheckedDts() == null) {
+					save(result, saved.get(linkCheckId(link)));
+				}
+			}
+
+			//anything still stale is for a link that is gone or couldn't be rechecked
+			Map<String, Object> params = new HashMap<>();
+			params.put("staleDtsParam", staleDts);
+			persistenceService.deleteByQuery(LinkCheckResult.class, LinkCheckResult.FIELD_CHECKED_DTS + " < :staleDtsParam", params);
+		}
+		return results;
+	}
+
+	private void checkAll(Map<String, Deque<String>> hostQueues, Map<String, LinkCheckResult> results, int total, BiConsumer<Integer, Integer> progress)
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(maxThreads);
+		CompletionService<LinkCheckResult> completionService = new ExecutorCompletionService<>(executor);
+		Map<Future<LinkCheckResult>, String> inFlight = new HashMap<>();
+		try {
+			for (Map.Entry<String, Deque<String>> entry : hostQueues.entrySet()) {
+				for (int i = 0; i < maxPerHost && entry.getValue().isEmpty() == false; i++) {
+					submit(completionService, inFlight, entry.getKey(), entry.getValue().poll());
+				}
+			}
+
+			//a check is a HEAD and maybe a GET; each with a connect and read timeout
+			long stallMillis = timeOutMillis * 4L + 1000;
+			while (inFlight.isEmpty() == false) {
+				Future<LinkCheckResult> done = completionService.poll(stallMillis, TimeUnit.MILLISECONDS);
+				if (done == null) {
+					LOG.log(Level.WARNING, MessageFormat.format("Link checks stopped responding; {0} link(s) will be reported as timed out.", inFlight.size()));
+					break;
+				}
+				String host = inFlight.remove(done);
+				try {
+					LinkCheckResult result = done.get();
+					results.put(result.getLink(), result);
+				} catch (ExecutionException ex) {
+					LOG.log(Level.WARNING, "Link check failed unexpectedly.", ex);
+				}
+				String next = hostQueues.get(host).poll();
+				if (next != null) {
+					submit(completionService, inFlight, host, next);
+				}
+				progress.accept(results.size(), total);
+			}
+		} catch (InterruptedException ex) {
+			LOG.log(Level.WARNING, "Link checking was interrupted.  Report results may be not complete.", ex);
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void submit(CompletionService<LinkCheckResult> completionService, Map<Future<LinkCheckResult>, String> inFlight, String host, String link)
+	{
+		inFlight.put(completionService.submit(new CheckLinkTask(link)), host);
+	}
+
+	private Map<String, LinkCheckResult> loadSaved()
+	{
+		Map<String, LinkCheckResult> saved = new HashMap<>();
+		List<LinkCheckResult> results = persistenceService.query("select from " + LinkCheckResult.class.getSimpleName(), null, true);
+		for (LinkCheckResult result : results) {
+			saved.put(result.getLinkCheckId(), result);
+		}
+		return saved;
+	}
+
+	private void save(LinkCheckResult result, LinkCheckResult existing)
+	{
+		result.setCheckedDts(TimeUtil.currentDate());
+
+		//Only answers from the server are kept; connection problems may be temporary.
+		if (StringUtils.isBlank(result.getHttpStatus())) {
+			return;
+		}
+		try {
+			LinkCheckResult managed = null;
+			if (existing != null) {
+				managed = persistenceService.findById(LinkCheckResult.class, existing.getLinkCheckId());
+			}
+			if (managed == null) {
+				managed = new LinkCheckResult();
+				managed.setLinkCheckId(linkCheckId(result.getLink()));
+				managed.setLink(StringUtils.left(result.getLink(), OpenStorefrontConstant.FIELD_SIZE_URL));
+				managed.setActiveStatus(LinkCheckResult.ACTIVE_STATUS);
+				managed.populateBaseCreateFields();
+			} else {
+				managed.populateBaseUpdateFields();
+			}
+			managed.setHttpStatus(result.getHttpStatus());
+			managed.setStatus(result.getStatus());
+			managed.setCheckResults(result.getCheckResults());
+			managed.setCheckedDts(result.getCheckedDts());
+			persistenceService.persist(managed);
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, "Unable to save link check result for: " + result.getLink(), e);
+		}
+	}
+
+	private static String linkCheckId(String link)
+	{
+		return DigestUtils.sha1Hex(link);
+	}
+
+	private static String hostOf(String link)
+	{
+		try {
+			return new URL(link).getHost().toLowerCase();
+		} catch (IOException e) {
+			return "";
+		}
+	}
+
+	private class CheckLinkTask
+			implements Callable<LinkCheckResult>
+	{
+
+		private final String link;
+
+		public CheckLinkTask(String link)
+		{
+			this.link = link;
+		}
+
+		@Override
+		public LinkCheckResult call() throws Exception
+		{
+			LinkCheckResult result = new LinkCheckResult();
+			result.setLink(link);
+
+			long startTime = System.currentTimeMillis();
+			URL url;
+			try {
+				url = new URL(link);
+				if (url.getProtocol().startsWith("http") == false) {
+					throw new IOException("Not an http link");
+				}
+			} catch (IOException e) {
+				result.setStatus("URL is bad");
+				result.setCheckResults("Check link to make sure it's properly formatted");
+				return result;
+			}
+
+			try {
+				//Some servers refuse or mishandle HEAD so anything but OK gets a second try with GET
+				HttpURLConnection connection = request(url, "HEAD");
+				if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+					release(connection);
+					connection = request(url, "GET");
+				}
+				result.setHttpStatus(Integer.toString(connection.getResponseCode()));
+				result.setStatus(connection.getResponseMessage());
+				if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+					result.setCheckResults("Bad Link or it is restricted. (See HTTP Status Code)");
+				}
+				release(connection);
+			} catch (SSLHandshakeException e) {
+				result.setStatus("Certificate Request/Error");
+				result.setCheckResults("Client Certificate Requested (CAC) or Server Certificate Error.  Actual error Message: " + e.getMessage());
+			} catch (Exception e) {
+				LOG.log(Level.FINER, "Actual connection error: ", e);
+				result.setStatus("Timeout/Error Connecting");
+				result.setCheckResults("Error occur when trying to connect.  This may be a temporary case or the link may be bad. Actual error Message: " + e.getMessage());
+			}
+			LOG.log(Level.FINEST, MessageFormat.format("Finish checking link: {0} Check Time: {1} ms", link, System.currentTimeMillis() - startTime));
+			return result;
+		}
+
+		private HttpURLConnection request(URL url, String method) throws IOException
+		{
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			connection.setRequestMethod(method);
+			connection.setConnectTimeout(timeOutMillis);
+			connection.setReadTimeout(timeOutMillis);
+			connection.setUseCaches(false);
+			connection.setInstanceFollowRedirects(true);
+			return connection;
+		}
+
+		/**
+		 * Closes the response stream (rather than disconnecting) so the
+		 * connection goes back to the keep-alive pool for the next link on
+		 * the host.
+		 */
+		private void release(HttpURLConnection connection)
+		{
+			try {
+				InputStream in = connection.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST ? connection.getErrorStream() : connection.getInputStream();
+				if (in != null) {
+					in.close();
+				}
+			} catch (IOException e) {
+				LOG.log(Level.FINEST, "Unable to release connection", e);
+			}
+		}
+
+	}
+
+}
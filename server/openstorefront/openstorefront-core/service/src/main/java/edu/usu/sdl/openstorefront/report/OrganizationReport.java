@@ -20,12 +20,11 @@ import edu.usu.sdl.openstorefront.common.util.TimeUtil;
 import edu.usu.sdl.openstorefront.core.entity.ComponentQuestion;
 import edu.usu.sdl.openstorefront.core.entity.ComponentQuestionResponse;
 import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
-import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
 import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.entity.UserProfile;
-import edu.usu.sdl.openstorefront.core.entity.UserTracking;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -96,14 +95,18 @@ public class OrganizationReport
 			}
 		}
 
+		Map<String, Long> viewMap = TrackingManager.getUserCounts(TrackEventCode.VIEW, null, null);
+		Map<String, Long> resourceClickMap = TrackingManager.getUserCounts(TrackEventCode.EXTERNAL_LINK_CLICK, null, null);
+		Map<String, Long> loginMap = TrackingManager.getUserCounts(TrackEventCode.LOGIN, null, null);
+
 		for (String org : orgMap.keySet()) {
 
 			long reviews = getRecordCounts(ComponentReview.class, orgMap.get(org), null);
 			long questions = getRecordCounts(ComponentQuestion.class, orgMap.get(org), null);
 			long response = getRecordCounts(ComponentQuestionResponse.class, orgMap.get(org), null);
-			long componentViews = getRecordCounts(ComponentTracking.class, orgMap.get(org), TrackEventCode.VIEW);
-			long componentResourceClick = getRecordCounts(ComponentTracking.class, orgMap.get(org), TrackEventCode.EXTERNAL_LINK_CLICK);
-			long logins = getRecordCounts(UserTracking.class, orgMap.get(org), TrackEventCode.LOGIN);
+			long componentViews = sumUserCounts(viewMap, orgMap.get(org));
+			long componentResourceClick = sumUserCounts(resourceClickMap, orgMap.get(org));
+			long logins = sumUserCounts(loginMap, orgMap.get(org));
 
 			cvsGenerator.addLine(
 					org,
@@ -120,6 +123,15 @@ public class OrganizationReport
 
 	}
 
+	private long sumUserCounts(Map<String, Long> userCounts, List<UserProfile> userProfiles)
+	{
+		long count = 0;
+		for (UserProfile userProfile : userProfiles) {
+			count += userCounts.getOrDefault(userProfile.getUsername(), 0L);
+		}
+		return count;
+	}
+
 	private long getRecordCounts(Class recordClass, List<UserProfile> userProfiles, String trackCodeType)
 	{
 		long count = 0;
@@ -15,10 +15,8 @@
  */
 package edu.usu.sdl.openstorefront.report;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import edu.usu.sdl.openstorefront.common.util.TimeUtil;
-import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
-import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
-import edu.usu.sdl.openstorefront.core.api.query.SpecialOperatorModel;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
 import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
@@ -30,13 +28,17 @@ import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
+ * Logins, views and resource clicks per user for a time range. The counts
+ * come from one grouped query per tracking class and the user profiles are
+ * pulled in chunks as the rows are written.
  *
  * @author dshurtleff
  */
@@ -44,7 +46,9 @@ public class UsageReport
 		extends BaseReport
 {
 
-	private List<String> userTrackingUsers = new ArrayList<>();
+	private static final int PROFILE_CHUNK_SIZE = 500;
+
+	private final Map<String, UserUsage> userUsage = new TreeMap<>();
 
 	public UsageReport(Report report)
 	{
@@ -56,34 +60,30 @@ public class UsageReport
 	{
 		updateReportTimeRange();
 
-		UserTracking userTrackingExample = new UserTracking();
-		userTrackingExample.setActiveStatus(UserTracking.ACTIVE_STATUS);
-		userTrackingExample.setTrackEventTypeCode(TrackEventCode.LOGIN);
-
-		UserTracking userTrackingStartExample = new UserTracking();
-		userTrackingStartExample.setEventDts(report.getReportOption().getStartDts());
-
-		UserTracking userTrackingEndExample = new UserTracking();
-		userTrackingEndExample.setEventDts(report.getReportOption().getEndDts());
-
-		QueryByExample queryByExample = new QueryByExample(userTrackingExample);
-		SpecialOperatorModel specialOperatorModel = new SpecialOperatorModel();
-		specialOperatorModel.setExample(userTrackingStartExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_GREATER_THAN_EQUAL);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		specialOperatorModel = new SpecialOperatorModel();
-		specialOperatorModel.setExample(userTrackingEndExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_LESS_THAN_EQUAL);
-		specialOperatorModel.getGenerateStatementOption().setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_END_RANGE);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		List<UserTracking> userTrackings = service.getPersistenceService().queryByExample(queryByExample);
-		for (UserTracking userTracking : userTrackings) {
-			userTrackingUsers.add(userTracking.getCreateUser());
+		String query = "select createUser, count(*) as events from " + UserTracking.class.getSimpleName()
+				+ " where activeStatus = :activeStatusParam and trackEventTypeCode = :trackEventTypeCodeParam"
+				+ " and eventDts >= :startDtsParam and eventDts <= :endDtsParam group by createUser";
+		Map<String, Object> paramMap = rangeParams();
+		paramMap.put("activeStatusParam", UserTracking.ACTIVE_STATUS);
+		paramMap.put("trackEventTypeCodeParam", TrackEventCode.LOGIN);
+
+		List<ODocument> documents = service.getPersistenceService().query(query, paramMap);
+		for (ODocument document : documents) {
+			String username = document.field("createUser");
+			if (username != null) {
+				userUsage.computeIfAbsent(username, key -> new UserUsage()).logins += document.<Number>field("events").longValue();
+			}
 		}
 	}
 
+	private Map<String, Object> rangeParams()
+	{
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("startDtsParam", report.getReportOption().getStartDts());
+		paramMap.put("endDtsParam", report.getReportOption().getEndDts());
+		return paramMap;
+	}
+
 	private void updateReportTimeRange()
 	{
 		if (report.getReportOption().getPreviousDays() != null) {
@@ -103,6 +103,44 @@ public class UsageReport
 
 	}
 
+	/**
+	 * Counts the views and resource clicks per user; totals are across all
+	 * users (not just the ones that logged in).
+	 *
+	 * @return total views and clicks
+	 */
+	private UserUsage gatherComponentUsage()
+	{
+		String query = "select createUser, trackEventTypeCode, count(*) as events from " + ComponentTracking.class.getSimpleName()
+				+ " where activeStatus = :activeStatusParam and trackEventTypeCode in :trackEventTypeCodeParam"
+				+ " and eventDts >= :startDtsParam and eventDts <= :endDtsParam group by createUser, trackEventTypeCode";
+		Map<String, Object> paramMap = rangeParams();
+		paramMap.put("activeStatusParam", ComponentTracking.ACTIVE_STATUS);
+		paramMap.put("trackEventTypeCodeParam", Arrays.asList(TrackEventCode.VIEW, TrackEventCode.EXTERNAL_LINK_CLICK));
+
+		UserUsage totals = new UserUsage();
+		List<ODocument> documents = service.getPersistenceService().query(query, paramMap);
+		for (ODocument document : documents) {
+			long events = document.<Number>field("events").longValue();
+			boolean view = TrackEventCode.VIEW.equals(document.field("trackEventTypeCode"));
+
+			//Only users that logged in during the range are in the details
+			UserUsage usage = userUsage.get(document.<String>field("createUser"));
+			if (view) {
+				totals.views += events;
+				if (usage != null) {
+					usage.views += events;
+				}
+			} else {
+				totals.resourceClicks += events;
+				if (usage != null) {
+					usage.resourceClicks += events;
+				}
+			}
+		}
+		return totals;
+	}
+
 	@Override
 	protected void writeReport()
 	{
@@ -123,39 +161,14 @@ public class UsageReport
 		userWatchExample.setActiveStatus(UserWatch.ACTIVE_STATUS);
 		long activeWatches = service.getPersistenceService().countByExample(userWatchExample);
 
-		ComponentTracking componentTrackingExample = new ComponentTracking();
-		componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-		componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-
-		ComponentTracking componentTrackingStartExample = new ComponentTracking();
-		componentTrackingStartExample.setEventDts(report.getReportOption().getStartDts());
-
-		ComponentTracking componentTrackingEndExample = new ComponentTracking();
-		componentTrackingEndExample.setEventDts(report.getReportOption().getEndDts());
-
-		QueryByExample queryByExample = new QueryByExample(componentTrackingExample);
-		SpecialOperatorModel specialOperatorModel = new SpecialOperatorModel();
-		specialOperatorModel.setExample(componentTrackingStartExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_GREATER_THAN_EQUAL);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		specialOperatorModel = new SpecialOperatorModel();
-		specialOperatorModel.setExample(componentTrackingEndExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_LESS_THAN_EQUAL);
-		specialOperatorModel.getGenerateStatementOption().setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_END_RANGE);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		long componentViews = service.getPersistenceService().countByExample(queryByExample);
-
-		componentTrackingExample.setTrackEventTypeCode(TrackEventCode.EXTERNAL_LINK_CLICK);
-		long componentLinkClicks = service.getPersistenceService().countByExample(queryByExample);
-
+		UserUsage totals = gatherComponentUsage();
+		long logins = userUsage.values().stream().mapToLong(usage -> usage.logins).sum();
 
 		cvsGenerator.addLine(
-				userTrackingUsers.size(),
+				logins,
 				activeWatches,
-				componentViews,
-				componentLinkClicks
+				totals.views,
+				totals.resourceClicks
 		);
 
 		cvsGenerator.addLine("Details");
@@ -170,64 +183,53 @@ public class UsageReport
 				"Component Resources Clicked"
 		);
 
-		UserProfile userProfileExample = new UserProfile();
-		List<UserProfile> allUsers = service.getPersistenceService().queryByExample(userProfileExample);
-		Map<String, UserProfile> userMap = new HashMap<>();
-		allUsers.forEach(user -> {
-			userMap.put(user.getUsername(), user);
-		});
-
-		Map<String, Long> trackMap = new HashMap<>();
-		userTrackingUsers.forEach(username -> {
-			if (trackMap.containsKey(username)) {
-				trackMap.put(username, trackMap.get(username) + 1);
-			} else {
-				trackMap.put(username, 1L);
+		String[] usernames = userUsage.keySet().toArray(new String[0]);
+		for (int start = 0; start < usernames.length; start += PROFILE_CHUNK_SIZE) {
+			List<String> chunk = Arrays.asList(usernames).subList(start, Math.min(start + PROFILE_CHUNK_SIZE, usernames.length));
+
+			Map<String, Object> paramMap = new HashMap<>();
+			paramMap.put("usernameListParam", chunk);
+			List<UserProfile> userProfiles = service.getPersistenceService().query("select from " + UserProfile.class.getSimpleName() + " where username in :usernameListParam", paramMap);
+			Map<String, UserProfile> userMap = new HashMap<>();
+			userProfiles.forEach(user -> userMap.put(user.getUsername(), user));
+
+			for (String username : chunk) {
+				UserUsage usage = userUsage.get(username);
+				UserProfile userProfile = userMap.get(username);
+				if (userProfile != null) {
+					cvsGenerator.addLine(
+							userProfile.getUsername(),
+							userProfile.getExternalGuid() != null ? userProfile.getExternalGuid() : userProfile.getInternalGuid(),
+							userProfile.getOrganization(),
+							TranslateUtil.translate(UserTypeCode.class, userProfile.getUserTypeCode()),
+							userProfile.getEmail(),
+							usage.logins,
+							usage.views,
+							usage.resourceClicks
+					);
+				} else {
+					cvsGenerator.addLine(
+							username,
+							"",
+							"",
+							"",
+							"",
+							usage.logins,
+							usage.views,
+							usage.resourceClicks
+					);
+				}
 			}
-		});
-
-		for (String username : trackMap.keySet()) {
-			UserProfile userProfile = userMap.get(username);
-
-			componentTrackingExample = new ComponentTracking();
-			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-			componentTrackingExample.setCreateUser(username);
-
-			componentTrackingStartExample = new ComponentTracking();
-			componentTrackingStartExample.setEventDts(report.getReportOption().getStartDts());
-			componentTrackingEndExample = new ComponentTracking();
-			componentTrackingEndExample.setEventDts(report.getReportOption().getEndDts());
-
-			queryByExample = new QueryByExample(componentTrackingExample);
-			specialOperatorModel = new SpecialOperatorModel();
-			specialOperatorModel.setExample(componentTrackingStartExample);
-			specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_GREATER_THAN_EQUAL);
-			queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-			specialOperatorModel = new SpecialOperatorModel();
-			specialOperatorModel.setExample(componentTrackingEndExample);
-			specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_LESS_THAN_EQUAL);
-			specialOperatorModel.getGenerateStatementOption().setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_END_RANGE);
-			queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-			long userComponentViews = service.getPersistenceService().countByExample(queryByExample);
-
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.EXTERNAL_LINK_CLICK);
-			long userComponentLinkClicks = service.getPersistenceService().countByExample(queryByExample);
-
-			cvsGenerator.addLine(
-					userProfile.getUsername(),
-					userProfile.getExternalGuid() != null ? userProfile.getExternalGuid() : userProfile.getInternalGuid(),
-					userProfile.getOrganization(),
-					TranslateUtil.translate(UserTypeCode.class, userProfile.getUserTypeCode()),
-					userProfile.getEmail(),
-					trackMap.get(username),
-					userComponentViews,
-					userComponentLinkClicks
-			);
 		}
 
 	}
 
+	private static class UserUsage
+	{
+
+		private long logins;
+		private long views;
+		private long resourceClicks;
+	}
+
 }
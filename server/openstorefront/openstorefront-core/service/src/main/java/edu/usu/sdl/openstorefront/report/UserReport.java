@@ -20,7 +20,6 @@ import edu.usu.sdl.openstorefront.core.entity.ComponentQuestion;
 import edu.usu.sdl.openstorefront.core.entity.ComponentQuestionResponse;
 import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
-import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
 import edu.usu.sdl.openstorefront.core.entity.Report;
 import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.entity.UserProfile;
@@ -28,6 +27,7 @@ import edu.usu.sdl.openstorefront.core.entity.UserTypeCode;
 import edu.usu.sdl.openstorefront.core.entity.UserWatch;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.report.generator.CSVGenerator;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +82,7 @@ public class UserReport
 
 		//write Body
 		Map<String, Date> loginMap = service.getUserService().getLastLogin(userProfiles);
+		Map<String, Long> viewMap = TrackingManager.getUserCounts(TrackEventCode.VIEW, null, null);
 		for (UserProfile userProfile : userProfiles) {
 
 			UserWatch watchExample = new UserWatch();
@@ -114,11 +115,7 @@ public class UserReport
 				lastLogin = sdf.format(loginMap.get(userProfile.getUsername()));
 			}
 
-			ComponentTracking componentTrackingExample = new ComponentTracking();
-			componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-			componentTrackingExample.setCreateUser(userProfile.getUsername());
-			componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-			long componentView = service.getPersistenceService().countByExample(componentTrackingExample);
+			long componentView = viewMap.getOrDefault(userProfile.getUsername(), 0L);
 
 			cvsGenerator.addLine(
 					userProfile.getUsername(),
@@ -45,6 +45,7 @@ public abstract class BaseGenerator
 		BaseGenerator generator = null;
 		switch (report.getReportFormat()) {
 			case ReportFormat.CSV:
+			case ReportFormat.CSV_GZIP:
 				generator = new CSVGenerator(report);
 				break;
 			case ReportFormat.HTML:
@@ -18,13 +18,14 @@ package edu.usu.sdl.openstorefront.report.generator;
 import au.com.bytecode.opencsv.CSVWriter;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.core.entity.Report;
-import java.io.FileNotFoundException;
+import edu.usu.sdl.openstorefront.core.entity.ReportFormat;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 
 /**
  *
@@ -36,6 +37,9 @@ public class CSVGenerator
 
 	private CSVWriter writer;
 
+	//CSVWriter writes the row out immediately so a row array of each width can be reused
+	private String[][] rowBuffers = new String[16][];
+
 	public CSVGenerator(Report report)
 	{
 		super(report);
@@ -47,24 +51,39 @@ public class CSVGenerator
 		Objects.requireNonNull(report, "The generator requires the report to exist.");
 		Objects.requireNonNull(report.getReportId(), "The report id is required.");
 		try {
-			writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(report.pathToReport().toFile())));
-		} catch (FileNotFoundException ex) {
+			OutputStream out = new BufferedOutputStream(new FileOutputStream(report.pathToReport().toFile()));
+			if (ReportFormat.CSV_GZIP.equals(report.getReportFormat())) {
+				out = new GZIPOutputStream(out);
+			}
+			writer = new CSVWriter(new OutputStreamWriter(out));
+		} catch (IOException ex) {
 			throw new OpenStorefrontRuntimeException("Unable to open file to write report.", "Check file system permissions", ex);
 		}
 	}
 
 	public void addLine(Object... data)
 	{
-		List<String> processedData = new ArrayList<>();
-		for (Object dataItem : data) {
-			if (dataItem == null) {
-				processedData.add("");
+		String[] row = rowBuffer(data.length);
+		for (int i = 0; i < data.length; i++) {
+			if (data[i] == null) {
+				row[i] = "";
 			} else {
-				processedData.add(dataItem.toString());
+				row[i] = data[i].toString();
 			}
 		}
 
-		writer.writeNext((String[]) processedData.toArray(new String[0]));
+		writer.writeNext(row);
+	}
+
+	private String[] rowBuffer(int size)
+	{
+		if (size >= rowBuffers.length) {
+			return new String[size];
+		}
+		if (rowBuffers[size] == null) {
+			rowBuffers[size] = new String[size];
+		}
+		return rowBuffers[size];
 	}
 
 	@Override
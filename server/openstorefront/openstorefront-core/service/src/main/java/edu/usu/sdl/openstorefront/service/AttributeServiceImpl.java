@@ -48,6 +48,7 @@ import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.api.AttributeServicePrivate;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -202,9 +203,10 @@ public class AttributeServiceImpl
     }
 
     private void cleanCaches(String attributeType) {
-        OSFCacheManager.getAttributeCache().remove(attributeType);
-        OSFCacheManager.getAttributeTypeCache().remove(attributeType);
-        OSFCacheManager.getAttributeCodeAllCache().removeAll();
+        OSFCacheManager.invalidateKey(OSFCacheManager.getAttributeCache(), attributeType);
+        OSFCacheManager.invalidateKey(OSFCacheManager.getAttributeTypeCache(), attributeType);
+        OSFCacheManager.invalidateRegion(OSFCacheManager.getAttributeCodeAllCache());
+        ComponentSearchViewStore.clear();
     }
 
     @Override
@@ -540,9 +542,10 @@ public class AttributeServiceImpl
             }
         }
         //Clear cache
-        OSFCacheManager.getAttributeTypeCache().removeAll();
-        OSFCacheManager.getAttributeCache().removeAll();
-        OSFCacheManager.getAttributeCodeAllCache().removeAll();
+        OSFCacheManager.invalidateRegion(OSFCacheManager.getAttributeTypeCache());
+        OSFCacheManager.invalidateRegion(OSFCacheManager.getAttributeCache());
+        OSFCacheManager.invalidateRegion(OSFCacheManager.getAttributeCodeAllCache());
+        ComponentSearchViewStore.clear();
 
         getSearchService().saveAll();
     }
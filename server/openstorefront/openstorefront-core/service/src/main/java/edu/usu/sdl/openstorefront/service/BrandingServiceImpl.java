@@ -217,7 +217,7 @@ public class BrandingServiceImpl
 			branding.populateBaseUpdateFields();
 			persistenceService.persist(branding);
 		}
-		OSFCacheManager.getApplicationCache().remove(CURRENT_BRANDING);
+		OSFCacheManager.invalidateKey(OSFCacheManager.getApplicationCache(), CURRENT_BRANDING);
 	}
 
 	@Override
@@ -243,7 +243,7 @@ public class BrandingServiceImpl
 			branding.setActiveStatus(Branding.INACTIVE_STATUS);
 			branding = persistenceService.persist(branding);
 		}
-		OSFCacheManager.getApplicationCache().remove(CURRENT_BRANDING);
+		OSFCacheManager.invalidateKey(OSFCacheManager.getApplicationCache(), CURRENT_BRANDING);
 
 		return branding;
 	}
@@ -256,7 +256,7 @@ public class BrandingServiceImpl
 		if (branding != null) {
 			persistenceService.delete(branding);
 		}
-		OSFCacheManager.getApplicationCache().remove(CURRENT_BRANDING);
+		OSFCacheManager.invalidateKey(OSFCacheManager.getApplicationCache(), CURRENT_BRANDING);
 	}
 
 }
@@ -96,7 +96,7 @@ public class ChecklistServiceImpl
 			questionExisting = persistenceService.persist(checklistQuestion);
 		}
 
-		OSFCacheManager.getChecklistQuestionCache().removeAll();
+		OSFCacheManager.invalidateRegion(OSFCacheManager.getChecklistQuestionCache());
 		return questionExisting;
 	}
 
@@ -150,7 +150,7 @@ public class ChecklistServiceImpl
 			ChecklistQuestion questionExisting = persistenceService.findById(ChecklistQuestion.class, questionId);
 			if (questionExisting != null) {
 				persistenceService.delete(questionExisting);
-				OSFCacheManager.getChecklistQuestionCache().remove(questionExisting.getQuestionId());
+				OSFCacheManager.invalidateKey(OSFCacheManager.getChecklistQuestionCache(), questionExisting.getQuestionId());
 			}
 		}
 	}
@@ -62,6 +62,7 @@ import edu.usu.sdl.openstorefront.service.component.IntegrationComponentServiceI
 import edu.usu.sdl.openstorefront.service.component.SubComponentServiceImpl;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -82,6 +83,7 @@ public class ComponentServiceImpl
 	private CoreComponentServiceImpl core;
 	private SubComponentServiceImpl sub;
 	private IntegrationComponentServiceImpl integration;
+	private boolean bulkImport;
 
 	public ComponentServiceImpl()
 	{
@@ -310,6 +312,12 @@ public class ComponentServiceImpl
 		core.saveComponentTracking(tracking);
 	}
 
+	@Override
+	public void saveComponentTrackings(List<ComponentTracking> trackings)
+	{
+		core.saveComponentTrackings(trackings);
+	}
+
 	@Override
 	public RequiredForComponent saveComponent(RequiredForComponent component)
 	{
@@ -334,6 +342,18 @@ public class ComponentServiceImpl
 		core.importComponents(components, options);
 	}
 
+	@Override
+	public List<String> bulkImportComponents(List<ComponentAll> components, FileHistoryOption options)
+	{
+		return core.bulkImportComponents(components, options);
+	}
+
+	@Override
+	public void finishBulkImport(Collection<String> componentIds)
+	{
+		core.finishBulkImport(componentIds);
+	}
+
 	@Override
 	public ComponentAll saveFullComponent(ComponentAll componentAll)
 	{
@@ -571,6 +591,22 @@ public class ComponentServiceImpl
 		return integration;
 	}
 
+	/**
+	 * While set, the per-entity last activity and cache work is deferred to
+	 * finishBulkImport
+	 *
+	 * @return
+	 */
+	public boolean isBulkImport()
+	{
+		return bulkImport;
+	}
+
+	public void setBulkImport(boolean bulkImport)
+	{
+		this.bulkImport = bulkImport;
+	}
+
 	@Override
 	public ComponentType saveComponentType(ComponentType componentType)
 	{
@@ -105,7 +105,7 @@ public class ContactServiceImpl
 			contact.populateBaseCreateFields();
 			contact = persistenceService.persist(contact);
 		}
-		OSFCacheManager.getContactCache().remove(contact.getContactId());
+		OSFCacheManager.invalidateKey(OSFCacheManager.getContactCache(), contact.getContactId());
 
 		return contact;
 	}
@@ -121,7 +121,7 @@ public class ContactServiceImpl
 			} else {
 				throw new OpenStorefrontRuntimeException("Unable to delete contact; references attached. Contact: " + contact.getFirstName() + " " + contact.getLastName(), "Remove reference and try again.");
 			}
-			OSFCacheManager.getContactCache().remove(contactId);
+			OSFCacheManager.invalidateKey(OSFCacheManager.getContactCache(), contactId);
 		}
 	}
 
@@ -155,7 +155,7 @@ public class ContactServiceImpl
 					}
 				}
 			}
-			OSFCacheManager.getContactCache().remove(contactId);
+			OSFCacheManager.invalidateKey(OSFCacheManager.getContactCache(), contactId);
 
 		} else {
 			throw new OpenStorefrontRuntimeException("Unable to find contact", "Check input; id not set or doesn't exist. Id: " + contactId);
@@ -185,8 +185,8 @@ public class ContactServiceImpl
 
 					persistenceService.delete(merge);
 
-					OSFCacheManager.getContactCache().remove(targetContactId);
-					OSFCacheManager.getContactCache().remove(mergeContactId);
+					OSFCacheManager.invalidateKey(OSFCacheManager.getContactCache(), targetContactId);
+					OSFCacheManager.invalidateKey(OSFCacheManager.getContactCache(), mergeContactId);
 				} else {
 					throw new OpenStorefrontRuntimeException("Target and Merge Contact are the same. Unable to merge contact to itself.", "Check data. Merge Id: " + mergeContactId);
 				}
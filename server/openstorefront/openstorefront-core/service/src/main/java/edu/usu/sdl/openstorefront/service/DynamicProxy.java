@@ -19,11 +19,16 @@ import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeExceptio
 import edu.usu.sdl.openstorefront.core.api.ProxyContext;
 import edu.usu.sdl.openstorefront.core.api.ProxyInterceptor;
 import edu.usu.sdl.openstorefront.core.api.ServiceInterceptor;
+import edu.usu.sdl.openstorefront.core.api.StatelessInterceptor;
+import edu.usu.sdl.openstorefront.service.manager.MetricsManager;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,6 +43,9 @@ public class DynamicProxy<T>
 
 	private static final Logger LOG = Logger.getLogger(DynamicProxy.class.getName());
 
+	//Interceptors declared on a method only need to be looked up once
+	private static final ConcurrentMap<Method, InterceptorChain> CHAINS = new ConcurrentHashMap<>();
+
 	private final T originalObject;
 
 	public static <T> T newInstance(T obj)
@@ -55,23 +63,23 @@ public class DynamicProxy<T>
 	public Object invoke(Object proxy, Method m, Object[] args) throws Throwable
 	{
 		Object result = null;
-		List<ProxyInterceptor> proxyInterceptors = new ArrayList<>();
-
-		//populate Interceptors
-		ServiceInterceptor interceptors[] = m.getAnnotationsByType(ServiceInterceptor.class);
-		if (interceptors != null) {
-			for (ServiceInterceptor interceptor : interceptors) {
-				proxyInterceptors.add((ProxyInterceptor) interceptor.value().newInstance());
-			}
-		}
-
-		long startTime = System.currentTimeMillis();
-		if (LOG.isLoggable(Level.FINEST)) {
+		InterceptorChain interceptorChain = CHAINS.computeIfAbsent(m, InterceptorChain::new);
+		List<ProxyInterceptor> proxyInterceptors = interceptorChain.interceptors();
+
+		boolean timed = MetricsManager.isEnabled();
+		long startNanos = timed ? System.nanoTime() : 0;
+		boolean logDetails = LOG.isLoggable(Level.FINEST);
+		long startTime = 0;
+		if (logDetails) {
+			startTime = System.currentTimeMillis();
 			LOG.log(Level.FINEST, "Calling Method: {0} on {1}", new Object[]{m.getName(), proxy.getClass().getName()});
 		}
 
-		ProxyContext proxyContext = new ProxyContext();
-		proxyContext.setPersistenceService(((ServiceProxy) originalObject).getPersistenceService());
+		ProxyContext proxyContext = null;
+		if (proxyInterceptors.isEmpty() == false) {
+			proxyContext = new ProxyContext();
+			proxyContext.setPersistenceService(((ServiceProxy) originalObject).getPersistenceService());
+		}
 		try {
 
 			boolean runMethod = true;
@@ -79,7 +87,7 @@ public class DynamicProxy<T>
 				boolean skip = proxyInterceptor.before(proxy, m, args, proxyContext);
 				if (skip) {
 					runMethod = false;
-					if (LOG.isLoggable(Level.FINEST)) {
+					if (logDetails) {
 						LOG.log(Level.FINEST, "Interceptor: {0} Aborted method: {1} call.", new Object[]{proxyInterceptor.getClass().getName(), m.getName()});
 					}
 				}
@@ -93,7 +101,7 @@ public class DynamicProxy<T>
 				proxyInterceptor.after(proxy, m, args, proxyContext);
 			}
 
-			if (LOG.isLoggable(Level.FINEST)) {
+			if (logDetails) {
 				LOG.log(Level.FINEST, "Completed Method: {0} on {1} time: {2}", new Object[]{m.getName(), proxy.getClass().getName(), System.currentTimeMillis() - startTime});
 			}
 
@@ -101,7 +109,7 @@ public class DynamicProxy<T>
 			for (ProxyInterceptor proxyInterceptor : proxyInterceptors) {
 				proxyInterceptor.handleException(proxy, m, args, proxyContext);
 			}
-			if (LOG.isLoggable(Level.FINEST)) {
+			if (logDetails) {
 				LOG.log(Level.FINEST, "Call Method FAILED: {0} on {1} time: {2}", new Object[]{m.getName(), proxy.getClass().getName(), System.currentTimeMillis() - startTime});
 			}
 			throw e.getTargetException();
@@ -111,8 +119,80 @@ public class DynamicProxy<T>
 			for (ProxyInterceptor proxyInterceptor : proxyInterceptors) {
 				proxyInterceptor.requiredAfterRun(proxy, m, args, proxyContext);
 			}
+			if (timed) {
+				MetricsManager.recordService(interceptorChain.metricName, System.nanoTime() - startNanos);
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * The interceptors (and metric name) for a method. Stateless interceptors are
+	 * created once and shared; others get a new instance per call.
+	 */
+	private static class InterceptorChain
+	{
+
+		private final String metricName;
+		private final Class<? extends ProxyInterceptor>[] interceptorClasses;
+		private final ProxyInterceptor[] sharedInterceptors;
+		private final List<ProxyInterceptor> sharedChain;
+
+		@SuppressWarnings("unchecked")
+		public InterceptorChain(Method method)
+		{
+			metricName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+			ServiceInterceptor interceptors[] = method.getAnnotationsByType(ServiceInterceptor.class);
+			interceptorClasses = (Class<? extends ProxyInterceptor>[]) new Class<?>[interceptors.length];
+			sharedInterceptors = new ProxyInterceptor[interceptors.length];
+
+			boolean allShared = true;
+			for (int i = 0; i < interceptors.length; i++) {
+				interceptorClasses[i] = interceptors[i].value();
+				if (interceptorClasses[i].isAnnotationPresent(StatelessInterceptor.class)) {
+					sharedInterceptors[i] = create(interceptorClasses[i]);
+				} else {
+					allShared = false;
+				}
+			}
+
+			if (interceptors.length == 0) {
+				sharedChain = Collections.emptyList();
+			} else if (allShared) {
+				List<ProxyInterceptor> chain = new ArrayList<>(interceptors.length);
+				Collections.addAll(chain, sharedInterceptors);
+				sharedChain = Collections.unmodifiableList(chain);
+			} else {
+				sharedChain = null;
+			}
+		}
+
+		public List<ProxyInterceptor> interceptors()
+		{
+			if (sharedChain != null) {
+				return sharedChain;
+			}
+			List<ProxyInterceptor> chain = new ArrayList<>(interceptorClasses.length);
+			for (int i = 0; i < interceptorClasses.length; i++) {
+				if (sharedInterceptors[i] != null) {
+					chain.add(sharedInterceptors[i]);
+				} else {
+					chain.add(create(interceptorClasses[i]));
+				}
+			}
+			return chain;
+		}
+
+		private static ProxyInterceptor create(Class<? extends ProxyInterceptor> interceptorClass)
+		{
+			try {
+				return interceptorClass.newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new OpenStorefrontRuntimeException("Unable to create service interceptor: " + interceptorClass.getName(), "Check the interceptor has a public no-arg constructor", e);
+			}
+		}
+
+	}
+
 }
@@ -42,6 +42,7 @@ import edu.usu.sdl.openstorefront.core.model.ExternalFormat;
 import edu.usu.sdl.openstorefront.core.model.FileFormatCheck;
 import edu.usu.sdl.openstorefront.core.model.FileHistoryAll;
 import edu.usu.sdl.openstorefront.core.model.ImportContext;
+import edu.usu.sdl.openstorefront.core.model.ImportProgress;
 import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
 import edu.usu.sdl.openstorefront.core.sort.LookupComparator;
 import edu.usu.sdl.openstorefront.core.spi.parser.AbstractParser;
@@ -67,6 +68,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -86,6 +88,8 @@ public class ImportServiceImpl
 
 	private static final String FORMATS_KEY = "ADDITIONAL-FILEFORMATS";
 
+	private static final Map<String, ImportProgress> ACTIVE_IMPORTS = new ConcurrentHashMap<>();
+
 	@Override
 	public String importData(ImportContext importContext)
 	{
@@ -631,6 +635,32 @@ public class ImportServiceImpl
 		}
 	}
 
+	@Override
+	public void trackImportProgress(ImportProgress importProgress)
+	{
+		Objects.requireNonNull(importProgress);
+		Objects.requireNonNull(importProgress.getFileHistoryId());
+
+		ACTIVE_IMPORTS.put(importProgress.getFileHistoryId(), importProgress);
+	}
+
+	@Override
+	public void removeImportProgress(String fileHistoryId)
+	{
+		if (fileHistoryId != null) {
+			ACTIVE_IMPORTS.remove(fileHistoryId);
+		}
+	}
+
+	@Override
+	public ImportProgress getImportProgress(String fileHistoryId)
+	{
+		if (fileHistoryId == null) {
+			return null;
+		}
+		return ACTIVE_IMPORTS.get(fileHistoryId);
+	}
+
 	@Override
 	public String previewMapData(String fileFormatCode, String fileDataMapId, InputStream in, String filename)
 	{
@@ -124,7 +124,7 @@ public class LookupServiceImpl
 			lookupEntity.populateBaseCreateFields();
 			persistenceService.persist(lookupEntity);
 		}
-		OSFCacheManager.getLookupCache().remove((Object) lookupEntity.getClass().getName());
+		OSFCacheManager.invalidateKey(OSFCacheManager.getLookupCache(), lookupEntity.getClass().getName());
 	}
 
 	@Override
@@ -190,7 +190,7 @@ public class LookupServiceImpl
 			lookupEntity.setUpdateUser(SecurityUtil.getCurrentUserName());
 			persistenceService.persist(lookupEntity);
 
-			OSFCacheManager.getLookupCache().remove((Object) lookupEntity.getClass().getName());
+			OSFCacheManager.invalidateKey(OSFCacheManager.getLookupCache(), lookupEntity.getClass().getName());
 		}
 	}
 
@@ -299,7 +299,7 @@ public class LookupServiceImpl
 			lookupEntityFound.setUpdateUser(SecurityUtil.getCurrentUserName());
 			persistenceService.persist(lookupEntityFound);
 
-			OSFCacheManager.getLookupCache().remove((Object) lookupEntityFound.getClass().getName());
+			OSFCacheManager.invalidateKey(OSFCacheManager.getLookupCache(), lookupEntityFound.getClass().getName());
 		}
 	}
 
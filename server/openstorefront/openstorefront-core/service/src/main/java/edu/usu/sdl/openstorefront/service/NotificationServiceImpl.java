@@ -19,7 +19,10 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.core.api.NotificationService;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
 import edu.usu.sdl.openstorefront.core.api.query.SpecialOperatorModel;
@@ -29,12 +32,17 @@ import edu.usu.sdl.openstorefront.core.spi.NotificationEventListerner;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.NotificationEventView;
 import edu.usu.sdl.openstorefront.core.view.NotificationEventWrapper;
+import edu.usu.sdl.openstorefront.service.manager.CacheInvalidationManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.notification.UserNotifications;
+import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,7 +50,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 import org.apache.commons.lang3.StringUtils;
 
@@ -57,111 +67,180 @@ public class NotificationServiceImpl
 {
 
 	private static final String LISTENER_KEY = "NOTIFICATION_LISTENERS";
+	private static final String GLOBAL_KEY = "#GLOBAL";
 
 	@Override
 	public NotificationEventWrapper getAllEventsForUser(String username, FilterQueryParams queryParams)
 	{
-		// Initialize Response Object
+		if (username == null) {
+			return getAllEvents(queryParams);
+		}
+
 		NotificationEventWrapper notificationEventWrapper = new NotificationEventWrapper();
 
-		// Initialize Notification Event Query
-		String eventQuery = "SELECT FROM " + NotificationEvent.class.getSimpleName() + " WHERE activeStatus = '" + NotificationEvent.ACTIVE_STATUS + "'";
+		//served from memory; the read filter is applied before paging so the page sizes are right
+		UserNotifications userNotifications = userNotifications(username);
+		Set<String> readSet = userNotifications.getReadEventIds();
+		boolean all = Convert.toBoolean(queryParams.getAll());
 
-		// Check For Username
-		if (username != null) {
+		List<NotificationEvent> notificationEvents = new ArrayList<>();
+		for (NotificationEvent notificationEvent : userNotifications.getEvents()) {
+			if (all || readSet.contains(notificationEvent.getEventId()) == false) {
+				notificationEvents.add(notificationEvent);
+			}
+		}
+		for (NotificationEvent notificationEvent : globalNotifications().getEvents()) {
+			if (all || readSet.contains(notificationEvent.getEventId()) == false) {
+				notificationEvents.add(notificationEvent);
+			}
+		}
+		notificationEventWrapper.setTotalNumber(notificationEvents.size());
 
-			// Add User-Specific Filtering To Query
-			eventQuery += " AND (username = '" + username + "' OR (username IS NULL AND roleGroup IS NULL))";
+		List<NotificationEventView> views = NotificationEventView.toView(queryParams.filter(notificationEvents));
+		for (NotificationEventView view : views) {
+			view.setReadMessage(readSet.contains(view.getEventId()));
 		}
+		notificationEventWrapper.setResults(views.size());
+		notificationEventWrapper.setData(views);
 
-		/////////////////////
-		// Get Total Count //
-		/////////////////////
-		// Modify Query To Get Count
-		String eventCountQuery = eventQuery.replace("SELECT FROM", "SELECT COUNT(*) FROM");
+		return notificationEventWrapper;
+	}
 
-		// Request Count
-		List<ODocument> countDocuments = persistenceService.query(eventCountQuery, null);
+	/**
+	 * All active events (all users); no read status
+	 */
+	private NotificationEventWrapper getAllEvents(FilterQueryParams queryParams)
+	{
+		NotificationEventWrapper notificationEventWrapper = new NotificationEventWrapper();
 
-		// Initialize Count Variable
-		Long totalCount;
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("activeStatusParam", NotificationEvent.ACTIVE_STATUS);
+		String whereClause = " WHERE activeStatus = :activeStatusParam";
 
-		// Check For Count Results
+		List<ODocument> countDocuments = persistenceService.query("SELECT COUNT(*) FROM " + NotificationEvent.class.getSimpleName() + whereClause, paramMap);
+		Long totalCount = 0L;
 		if (!countDocuments.isEmpty()) {
-
-			// Set Total Count
 			totalCount = countDocuments.get(0).field("COUNT");
-		} else {
-
-			// Set Total Count To Zero
-			// (Something Happened)
-			totalCount = 0L;
 		}
-
-		// Set Total Count On Response Object
 		notificationEventWrapper.setTotalNumber(totalCount);
 
-		/////////////////////
-		// End Total Count //
-		/////////////////////
-		//////////////////////
-		// Sorting & Offset //
-		//////////////////////
-		// Handle Sorting (In Query)
-		eventQuery += " ORDER BY " + queryParams.getSortField() + " " + queryParams.getSortOrder();
+		StringBuilder eventQuery = new StringBuilder();
+		eventQuery.append("SELECT FROM ").append(NotificationEvent.class.getSimpleName()).append(whereClause);
 
-		// Handle Offset (In Query)
-		eventQuery += " SKIP " + queryParams.getOffset();
+		//only sort on a real field
+		Field sortField = ReflectionUtil.getField(new NotificationEvent(), queryParams.getSortField());
+		if (sortField != null) {
+			eventQuery.append(" ORDER BY ").append(sortField.getName());
+			eventQuery.append(OpenStorefrontConstant.SORT_DESCENDING.equalsIgnoreCase(queryParams.getSortOrder()) ? " DESC" : " ASC");
+		}
+		eventQuery.append(" SKIP ").append(queryParams.getOffset());
+		eventQuery.append(" LIMIT ").append(queryParams.getMax());
 
-		// Handle Limit (In Query)
-		eventQuery += " LIMIT " + queryParams.getMax();
+		List<NotificationEvent> notificationEvents = persistenceService.query(eventQuery.toString(), paramMap);
+		notificationEventWrapper.setResults(notificationEvents.size());
+		notificationEventWrapper.setData(NotificationEventView.toView(notificationEvents));
 
-		//////////////////////////
-		// End Sorting & Offset //
-		//////////////////////////
-		// Request Notification Events
-		List<NotificationEvent> notificationEvents = persistenceService.query(eventQuery, null);
+		return notificationEventWrapper;
+	}
 
-		// Set Result Set Size In Response Object
-		notificationEventWrapper.setResults(notificationEvents.size());
+	@Override
+	public long getUnreadCount(String username)
+	{
+		Objects.requireNonNull(username);
 
-		// Set Returned Notification Events In Response Object
-		notificationEventWrapper.setData(NotificationEventView.toView(notificationEvents));
+		return userNotifications(username).unreadCount(globalNotifications().getEvents());
+	}
 
-		//mark read flag
-		Set<String> eventIds = new HashSet<>();
-		for (NotificationEventView view : notificationEventWrapper.getData()) {
-			eventIds.add(view.getEventId());
-		}
+	/**
+	 * Loads the user's active events and read statuses on first use. Loaded
+	 * outside of the caller's transaction (committed data only); a change
+	 * applied while it loads keeps it from being cached.
+	 */
+	private UserNotifications userNotifications(String username)
+	{
+		return OSFCacheManager.get(OSFCacheManager.getNotificationCache(), username, () -> {
+			PersistenceService loadService = getNewPersistenceService();
 
-		if (eventIds.isEmpty() == false) {
-			String query = "select from " + NotificationEventReadStatus.class.getSimpleName() + " where username = :usernameParam and eventId in :eventIdSetParam ";
-			Map<String, Object> paramMap = new HashMap<>();
-			paramMap.put("usernameParam", username);
-			paramMap.put("eventIdSetParam", eventIds);
+			NotificationEvent notificationEventExample = new NotificationEvent();
+			notificationEventExample.setUsername(username);
+			notificationEventExample.setActiveStatus(NotificationEvent.ACTIVE_STATUS);
+			List<NotificationEvent> notificationEvents = loadService.queryByExample(notificationEventExample);
 
-			List<NotificationEventReadStatus> readStatuses = persistenceService.query(query, paramMap);
+			NotificationEventReadStatus readStatusExample = new NotificationEventReadStatus();
+			readStatusExample.setUsername(username);
+			List<NotificationEventReadStatus> readStatuses = loadService.queryByExample(readStatusExample);
+			Set<String> readSet = readStatuses.stream()
+					.map(NotificationEventReadStatus::getEventId)
+					.collect(Collectors.toSet());
 
-			Set<String> readSet = new HashSet<>();
-			for (NotificationEventReadStatus readStatus : readStatuses) {
-				readSet.add(readStatus.getEventId());
-			}
+			return new UserNotifications(notificationEvents, readSet);
+		});
+	}
 
-			for (NotificationEventView view : notificationEventWrapper.getData()) {
-				if (readSet.contains(view.getEventId())) {
-					view.setReadMessage(true);
-				}
-			}
+	/**
+	 * Events with no user or role group (shown to every user)
+	 */
+	private UserNotifications globalNotifications()
+	{
+		return OSFCacheManager.get(OSFCacheManager.getNotificationCache(), GLOBAL_KEY, () -> {
+			String query = "select from " + NotificationEvent.class.getSimpleName() + " where activeStatus = :activeStatusParam and username is null and roleGroup is null";
+			Map<String, Object> paramMap = new HashMap<>();
+			paramMap.put("activeStatusParam", NotificationEvent.ACTIVE_STATUS);
+			List<NotificationEvent> notificationEvents = getNewPersistenceService().query(query, paramMap, true);
 
+			return new UserNotifications(notificationEvents, Collections.emptySet());
+		});
+	}
+
+	/**
+	 * @return the cache key holding the event or null if the event isn't
+	 * shown in the user lists (role group events)
+	 */
+	private String notificationKey(NotificationEvent notificationEvent)
+	{
+		if (StringUtils.isNotBlank(notificationEvent.getUsername())) {
+			return notificationEvent.getUsername();
+		} else if (StringUtils.isBlank(notificationEvent.getRoleGroup())) {
+			return GLOBAL_KEY;
 		}
+		return null;
+	}
 
-		//apply read filter
-		if (Convert.toBoolean(queryParams.getAll()) == false) {
-			notificationEventWrapper.setData(notificationEventWrapper.getData().stream().filter(r -> r.getReadMessage() == false).collect(Collectors.toList()));
+	/**
+	 * Once the transaction commits the local copy is updated in place and the
+	 * other nodes drop theirs and reload; nothing changes on a rollback.
+	 */
+	private void changeAfterCommit(String key, Consumer<UserNotifications> change)
+	{
+		persistenceService.afterCommit(() -> {
+			OSFCacheManager.updateLocal(OSFCacheManager.getNotificationCache(), key, value -> change.accept((UserNotifications) value));
+			CacheInvalidationManager.publishKey(OSFCacheManager.getNotificationCache().getName(), key);
+		});
+	}
+
+	private List<NotificationEventListerner> getListeners()
+	{
+		Element element = OSFCacheManager.getApplicationCache().get(LISTENER_KEY);
+		if (element != null) {
+			return (List<NotificationEventListerner>) element.getObjectValue();
 		}
+		return Collections.emptyList();
+	}
 
-		// Return Response
-		return notificationEventWrapper;
+	/**
+	 * Sends the count after the commit (the cached state is updated then)
+	 */
+	private void notifyUnreadCount(String username)
+	{
+		persistenceService.afterCommit(() -> {
+			List<NotificationEventListerner> listerners = getListeners();
+			if (listerners.isEmpty() == false) {
+				long unreadCount = getUnreadCount(username);
+				for (NotificationEventListerner listerner : listerners) {
+					listerner.processUnreadCount(username, unreadCount);
+				}
+			}
+		});
 	}
 
 	@Override
@@ -179,18 +258,67 @@ public class NotificationServiceImpl
 	@Override
 	public NotificationEvent postEvent(NotificationEvent notificationEvent)
 	{
-		notificationEvent.setEventId(persistenceService.generateId());
-		notificationEvent.populateBaseCreateFields();
-		notificationEvent = persistenceService.persist(notificationEvent);
+		return postEvents(Arrays.asList(notificationEvent)).get(0);
+	}
 
-		Element element = OSFCacheManager.getApplicationCache().get(LISTENER_KEY);
-		if (element != null) {
-			List<NotificationEventListerner> listerners = (List<NotificationEventListerner>) element.getObjectValue();
-			for (NotificationEventListerner listerner : listerners) {
-				listerner.processEvent(persistenceService.deattachAll(notificationEvent));
+	@Override
+	public List<NotificationEvent> postEvents(List<NotificationEvent> notificationEvents)
+	{
+		List<NotificationEvent> posted = new ArrayList<>(notificationEvents.size());
+		List<NotificationEvent> detachedEvents = new ArrayList<>(notificationEvents.size());
+		for (NotificationEvent notificationEvent : notificationEvents) {
+			notificationEvent.setEventId(persistenceService.generateId());
+			notificationEvent.populateBaseCreateFields();
+			notificationEvent = persistenceService.persist(notificationEvent);
+			posted.add(notificationEvent);
+			detachedEvents.add(persistenceService.deattachAll(notificationEvent));
+		}
+
+		Map<String, List<NotificationEvent>> keyEvents = new HashMap<>();
+		Set<String> usernames = new HashSet<>();
+		for (NotificationEvent detached : detachedEvents) {
+			String key = notificationKey(detached);
+			if (key != null) {
+				keyEvents.computeIfAbsent(key, k -> new ArrayList<>()).add(detached);
+			}
+			if (StringUtils.isNotBlank(detached.getUsername())) {
+				usernames.add(detached.getUsername());
+			}
+		}
+		keyEvents.forEach((key, events) -> changeAfterCommit(key, userNotifications -> events.forEach(userNotifications::addEvent)));
+
+		persistenceService.afterCommit(() -> {
+			List<NotificationEventListerner> listerners = getListeners();
+			for (NotificationEvent detached : detachedEvents) {
+				for (NotificationEventListerner listerner : listerners) {
+					listerner.processEvent(detached);
+				}
+			}
+			notifyCachedUnreadCounts(listerners, usernames);
+		});
+		return posted;
+	}
+
+	/**
+	 * Only users with their state in the cache get a count; a batch may reach
+	 * many users that aren't around and their counts would need a load each.
+	 * Call after the commit.
+	 */
+	private void notifyCachedUnreadCounts(List<NotificationEventListerner> listerners, Set<String> usernames)
+	{
+		if (listerners.isEmpty()) {
+			return;
+		}
+		Cache cache = OSFCacheManager.getNotificationCache();
+		for (String username : usernames) {
+			Element element = cache.getQuiet(username);
+			if (element != null && element.getObjectValue() != null) {
+				long unreadCount = getUnreadCount(username);
+				for (NotificationEventListerner listerner : listerners) {
+					listerner.processUnreadCount(username, unreadCount);
+				}
 			}
 		}
-		return notificationEvent;
 	}
 
 	@Override
@@ -198,12 +326,21 @@ public class NotificationServiceImpl
 	{
 		NotificationEvent notificationEvent = persistenceService.findById(NotificationEvent.class, eventId);
 		if (notificationEvent != null) {
+			String key = notificationKey(notificationEvent);
+			String username = notificationEvent.getUsername();
 
 			NotificationEventReadStatus notificationEventReadStatus = new NotificationEventReadStatus();
 			notificationEventReadStatus.setEventId(eventId);
 			persistenceService.deleteByExample(notificationEventReadStatus);
 
 			persistenceService.delete(notificationEvent);
+
+			if (key != null) {
+				changeAfterCommit(key, userNotifications -> userNotifications.removeEvent(eventId));
+			}
+			if (StringUtils.isNotBlank(username)) {
+				notifyUnreadCount(username);
+			}
 		}
 	}
 
@@ -224,6 +361,7 @@ public class NotificationServiceImpl
 		queryParams.put("maxUpdateDts", archiveDts);
 
 		persistenceService.deleteByQuery(NotificationEvent.class, deleteQuery, queryParams);
+		OSFCacheManager.invalidateRegion(OSFCacheManager.getNotificationCache());
 	}
 
 	@Override
@@ -232,12 +370,30 @@ public class NotificationServiceImpl
 		Objects.requireNonNull(eventId);
 		Objects.requireNonNull(username);
 
+		if (markRead(eventId, username)) {
+			notifyUnreadCount(username);
+		}
+	}
+
+	/**
+	 * @return true if the event wasn't already read
+	 */
+	private boolean markRead(String eventId, String username)
+	{
+		UserNotifications userNotifications = userNotifications(username);
+		if (userNotifications.getReadEventIds().contains(eventId)) {
+			return false;
+		}
+
 		NotificationEventReadStatus notificationEventReadStatus = new NotificationEventReadStatus();
 		notificationEventReadStatus.setReadStatusId(persistenceService.generateId());
 		notificationEventReadStatus.setEventId(eventId);
 		notificationEventReadStatus.setUsername(username);
 
 		persistenceService.persist(notificationEventReadStatus);
+
+		changeAfterCommit(username, notifications -> notifications.markRead(eventId));
+		return true;
 	}
 
 	@Override
@@ -253,6 +409,9 @@ public class NotificationServiceImpl
 		NotificationEventReadStatus temp = notificationEventReadStatus.findProxy();
 
 		persistenceService.delete(temp);
+
+		changeAfterCommit(username, userNotifications -> userNotifications.markUnread(eventId));
+		notifyUnreadCount(username);
 	}
 
 	@Override
@@ -273,13 +432,16 @@ public class NotificationServiceImpl
 
 			List<NotificationEvent> notificationEvents = persistenceService.queryByExample(queryByExample);
 			for (NotificationEvent notificationEvent : notificationEvents) {
-				markEventAsRead(notificationEvent.getEventId(), username);
+				markRead(notificationEvent.getEventId(), username);
 			}
 
 			//delete user events
 			NotificationEvent notificationEvent = new NotificationEvent();
 			notificationEvent.setUsername(username);
 			persistenceService.deleteByExample(notificationEvent);
+
+			OSFCacheManager.invalidateKey(OSFCacheManager.getNotificationCache(), username);
+			notifyUnreadCount(username);
 		} else {
 			throw new OpenStorefrontRuntimeException("Username is required.", "Check data passed in.");
 		}
@@ -41,6 +41,7 @@ import edu.usu.sdl.openstorefront.core.entity.UserProfile;
 import edu.usu.sdl.openstorefront.core.model.OrgReference;
 import edu.usu.sdl.openstorefront.core.util.TranslateUtil;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -115,7 +116,7 @@ public class OrganizationServiceImpl
 				updateOrganizationOnEntity(new ComponentReview(), organizationExisting.getName(), organization);
 				updateOrganizationOnEntity(new ComponentQuestion(), organizationExisting.getName(), organization);
 				updateOrganizationOnEntity(new ComponentQuestionResponse(), organizationExisting.getName(), organization);
-				clearOrganizationCaches();
+				clearOrganizationCaches(organization.getName());
 			}
 
 			organizationExisting.updateFields(organization);
@@ -153,11 +154,21 @@ public class OrganizationServiceImpl
 		}
 	}
 
-	private void clearOrganizationCaches()
+	private void clearOrganizationCaches(String organizationName)
 	{
-		OSFCacheManager.getContactCache().removeAll();
-		OSFCacheManager.getComponentCache().removeAll();
-		OSFCacheManager.getSearchCache().removeAll();
+		OSFCacheManager.invalidateRegion(OSFCacheManager.getContactCache());
+
+		Component componentExample = new Component();
+		componentExample.setOrganization(organizationName);
+		List<Component> components = persistenceService.queryByExample(componentExample);
+		List<String> componentIds = components.stream()
+				.map(Component::getComponentId)
+				.collect(Collectors.toList());
+		OSFCacheManager.invalidateComponents(componentIds);
+		componentIds.forEach(ComponentSearchViewStore::remove);
+
+		//organization is searchable so the matches may have changed
+		OSFCacheManager.invalidateSearchResults();
 	}
 
 	@Override
@@ -211,7 +222,7 @@ public class OrganizationServiceImpl
 				updateOrganizationOnEntity(new ComponentReview(), organizationMerge.getName(), organizationTarget);
 				updateOrganizationOnEntity(new ComponentQuestion(), organizationMerge.getName(), organizationTarget);
 				updateOrganizationOnEntity(new ComponentQuestionResponse(), organizationMerge.getName(), organizationTarget);
-				clearOrganizationCaches();
+				clearOrganizationCaches(organizationTarget.getName());
 
 				persistenceService.delete(organizationMerge);
 
@@ -25,7 +25,6 @@ import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.annotation.PK;
 import edu.usu.sdl.openstorefront.core.api.PersistenceService;
-import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
 import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOptionBuilder;
 import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
@@ -39,6 +38,9 @@ import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
 import edu.usu.sdl.openstorefront.core.util.EntityUtil;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.manager.DBManager;
+import edu.usu.sdl.openstorefront.service.manager.MetricsManager;
+import edu.usu.sdl.openstorefront.service.query.ExampleStatement;
+import edu.usu.sdl.openstorefront.service.query.ExampleStatementCompiler;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -46,8 +48,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,7 +61,6 @@ import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javassist.util.proxy.Proxy;
-import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -70,8 +74,13 @@ public class OrientPersistenceService
 
 	private static final Logger LOG = Logger.getLogger(OrientPersistenceService.class.getName());
 	private static final String PARAM_NAME_SEPARATOR = "1";
+	private static final int DELETE_CHUNK_SIZE = 5000;
+
+	//Each service has its own transaction; these are the ones open on the thread (innermost first)
+	private static final ThreadLocal<Deque<OrientPersistenceService>> THREAD_TRANSACTIONS = new ThreadLocal<>();
 
 	private OObjectDatabaseTx transaction;
+	private final List<Runnable> afterCommitActions = new ArrayList<>();
 
 	public OrientPersistenceService()
 	{
@@ -109,6 +118,12 @@ public class OrientPersistenceService
 		if (transaction == null) {
 			transaction = DBManager.getConnection();
 			transaction.begin();
+			Deque<OrientPersistenceService> transactions = THREAD_TRANSACTIONS.get();
+			if (transactions == null) {
+				transactions = new ArrayDeque<>();
+				THREAD_TRANSACTIONS.set(transactions);
+			}
+			transactions.push(this);
 		} else {
 			throw new OpenStorefrontRuntimeException("Already in a Transaction", "Commit or rollback transaction action before beginning a new one.");
 		}
@@ -121,6 +136,60 @@ public class OrientPersistenceService
 			throw new OpenStorefrontRuntimeException("Not in a transaction", "Begin a new one.");
 		} else {
 			transaction.commit();
+			runAfterCommitActions();
+		}
+	}
+
+	@Override
+	public void afterCommit(Runnable action)
+	{
+		if (isTransactionActive()) {
+			afterCommitActions.add(action);
+		} else {
+			runAction(action);
+		}
+	}
+
+	/**
+	 * Runs the action once the innermost transaction open on this thread
+	 * commits (right away when there is none). For code that doesn't have the
+	 * service's persistence service, such as the cache invalidation.
+	 *
+	 * @param action
+	 */
+	public static void afterThreadCommit(Runnable action)
+	{
+		Deque<OrientPersistenceService> transactions = THREAD_TRANSACTIONS.get();
+		if (transactions == null || transactions.isEmpty()) {
+			action.run();
+		} else {
+			transactions.peek().afterCommit(action);
+		}
+	}
+
+	/**
+	 * @return true if a service on this thread has a transaction open
+	 */
+	public static boolean isThreadTransactionActive()
+	{
+		Deque<OrientPersistenceService> transactions = THREAD_TRANSACTIONS.get();
+		return transactions != null && transactions.stream().anyMatch(OrientPersistenceService::isTransactionActive);
+	}
+
+	private void runAfterCommitActions()
+	{
+		List<Runnable> actions = new ArrayList<>(afterCommitActions);
+		afterCommitActions.clear();
+		actions.forEach(this::runAction);
+	}
+
+	private void runAction(Runnable action)
+	{
+		//The data is already committed; a failed action shouldn't fail the caller
+		try {
+			action.run();
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, "Unable to run the after commit action", e);
 		}
 	}
 
@@ -130,6 +199,7 @@ public class OrientPersistenceService
 		if (transaction == null) {
 			throw new OpenStorefrontRuntimeException("Not in a transaction", "Begin a new one.");
 		} else {
+			afterCommitActions.clear();
 			transaction.rollback();
 		}
 	}
@@ -137,9 +207,18 @@ public class OrientPersistenceService
 	@Override
 	public void endTransaction()
 	{
+		afterCommitActions.clear();
 		if (transaction != null) {
 			transaction.close();
 			transaction = null;
+
+			Deque<OrientPersistenceService> transactions = THREAD_TRANSACTIONS.get();
+			if (transactions != null) {
+				transactions.remove(this);
+				if (transactions.isEmpty()) {
+					THREAD_TRANSACTIONS.remove();
+				}
+			}
 		}
 	}
 
@@ -359,18 +438,18 @@ public class OrientPersistenceService
 		queryString.append("delete from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleStatementCompiler.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), fieldOptions(queryByExample));
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleStatementCompiler.whereClause(special.getExample(), special.getGenerateStatementOption(), fieldOptions(queryByExample));
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -408,6 +487,32 @@ public class OrientPersistenceService
 		return deleteCount;
 	}
 
+	@Override
+	public long deleteOlderThan(Class<?> entityClass, String dateField, Date cutoff)
+	{
+		if (transaction != null) {
+			throw new OpenStorefrontRuntimeException("Unable to delete old records in a transaction.", "Call outside of a transaction; each chunk is committed on its own.");
+		}
+
+		long deleteCount = 0;
+		OObjectDatabaseTx db = getConnection();
+		try {
+			//The limit keeps each delete to a short walk of the low end of the index range
+			String deleteQuery = "delete from " + entityClass.getSimpleName() + " where " + dateField + " < :cutoff limit " + DELETE_CHUNK_SIZE;
+			Map<String, Object> queryParams = new HashMap<>();
+			queryParams.put("cutoff", cutoff);
+
+			int chunkCount;
+			do {
+				chunkCount = db.command(new OCommandSQL(deleteQuery)).execute(queryParams);
+				deleteCount += chunkCount;
+			} while (chunkCount >= DELETE_CHUNK_SIZE);
+		} finally {
+			closeConnection(db);
+		}
+		return deleteCount;
+	}
+
 	@Override
 	public <T> int updateByExample(Class<T> entityClass, T exampleSet, T exampleWhere)
 	{
@@ -418,21 +523,21 @@ public class OrientPersistenceService
 		GenerateStatementOption generateStatementOption = new GenerateStatementOptionBuilder().build();
 		generateStatementOption.setCondition(GenerateStatementOption.CONDITION_COMMA);
 		generateStatementOption.setParameterSuffix(GenerateStatementOption.PARAMETER_SUFFIX_SET);
-		String setQuery = generateWhereClause(exampleSet, new ComplexFieldStack(), generateStatementOption, new HashMap<>());
-		if (StringUtils.isNotBlank(setQuery)) {
-			queryString.append(" set ").append(setQuery);
+		ExampleStatement setStatement = ExampleStatementCompiler.whereClause(exampleSet, generateStatementOption, null);
+		if (StringUtils.isNotBlank(setStatement.getClause())) {
+			queryString.append(" set ").append(setStatement.getClause());
 		} else {
 			throw new OpenStorefrontRuntimeException("Update query requires a SET clause.", "Make sure to set the example set");
 		}
 
-		String whereClause = generateWhereClause(exampleWhere);
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(generateWhereClause(exampleWhere));
+		ExampleStatement whereStatement = ExampleStatementCompiler.whereClause(exampleWhere, new GenerateStatementOptionBuilder().build(), null);
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
 		}
 
 		Map<String, Object> queryParams = new HashMap<>();
-		queryParams.putAll(mapParameters(exampleSet, new ComplexFieldStack(), generateStatementOption, new HashMap<>()));
-		queryParams.putAll(mapParameters(exampleWhere));
+		queryParams.putAll(setStatement.getParameters());
+		queryParams.putAll(whereStatement.getParameters());
 
 		OObjectDatabaseTx db = getConnection();
 		try {
@@ -485,18 +590,18 @@ public class OrientPersistenceService
 		queryString.append("from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleStatementCompiler.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), fieldOptions(queryByExample));
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleStatementCompiler.whereClause(special.getExample(), special.getGenerateStatementOption(), fieldOptions(queryByExample));
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -557,24 +662,24 @@ public class OrientPersistenceService
 		queryString.append(" from ").append(queryByExample.getExample().getClass().getSimpleName());
 
 		Map<String, Object> mappedParams = new HashMap<>();
-		String whereClause = generateWhereClause(queryByExample.getExample(), new ComplexFieldStack(), queryByExample.getExampleOption(), queryByExample.getFieldOptions());
-		if (StringUtils.isNotBlank(whereClause)) {
-			queryString.append(" where ").append(whereClause);
-			mappedParams.putAll(mapParameters(queryByExample.getExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getExampleOption(), queryByExample.getFieldOptions()));
+		ExampleStatement whereStatement = ExampleStatementCompiler.whereClause(queryByExample.getExample(), queryByExample.getExampleOption(), fieldOptions(queryByExample));
+		if (StringUtils.isNotBlank(whereStatement.getClause())) {
+			queryString.append(" where ").append(whereStatement.getClause());
+			mappedParams.putAll(whereStatement.getParameters());
 		}
 		if (queryByExample.getLikeExample() != null) {
-			String likeClause = generateWhereClause(queryByExample.getLikeExample(), new ComplexFieldStack(), queryByExample.getLikeExampleOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(likeClause)) {
-				appendToWhere(queryString, likeClause);
-				mappedParams.putAll(mapParameters(queryByExample.getLikeExample(), new ComplexFieldStack(PARAM_NAME_SEPARATOR), queryByExample.getLikeExampleOption(), queryByExample.getFieldOptions()));
+			ExampleStatement likeStatement = ExampleStatementCompiler.whereClause(queryByExample.getLikeExample(), queryByExample.getLikeExampleOption(), fieldOptions(queryByExample));
+			if (StringUtils.isNotBlank(likeStatement.getClause())) {
+				appendToWhere(queryString, likeStatement.getClause());
+				mappedParams.putAll(likeStatement.getParameters());
 			}
 		}
 		queryByExample.getExtraWhereCauses().forEach(item -> {
 			SpecialOperatorModel special = (SpecialOperatorModel) item;
-			String extraWhere = generateWhereClause(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions());
-			if (StringUtils.isNotBlank(extraWhere)) {
-				appendToWhere(queryString, extraWhere);
-				mappedParams.putAll(mapParameters(special.getExample(), new ComplexFieldStack(), special.getGenerateStatementOption(), queryByExample.getFieldOptions()));
+			ExampleStatement extraStatement = ExampleStatementCompiler.whereClause(special.getExample(), special.getGenerateStatementOption(), fieldOptions(queryByExample));
+			if (StringUtils.isNotBlank(extraStatement.getClause())) {
+				appendToWhere(queryString, extraStatement.getClause());
+				mappedParams.putAll(extraStatement.getParameters());
 			}
 		});
 
@@ -583,13 +688,13 @@ public class OrientPersistenceService
 		}
 
 		if (queryByExample.getGroupBy() != null) {
-			String names = generateExampleNames(queryByExample.getGroupBy());
+			String names = ExampleStatementCompiler.exampleNames(queryByExample.getGroupBy());
 			if (StringUtils.isNotBlank(names)) {
 				queryString.append(" group by ").append(names);
 			}
 		}
 		if (queryByExample.getOrderBy() != null) {
-			String names = generateExampleNames(queryByExample.getOrderBy());
+			String names = ExampleStatementCompiler.exampleNames(queryByExample.getOrderBy());
 			if (StringUtils.isNotBlank(names)) {
 				queryString.append(" order by ").append(names).append(" ").append(queryByExample.getSortDirection());
 			}
@@ -611,6 +716,15 @@ public class OrientPersistenceService
 		return results;
 	}
 
+	/**
+	 * Reads the field options through a wildcard so callers holding a raw
+	 * QueryByExample still get the typed map.
+	 */
+	private static Map<String, GenerateStatementOption> fieldOptions(QueryByExample<?> queryByExample)
+	{
+		return queryByExample.getFieldOptions();
+	}
+
 	private void appendToWhere(StringBuilder queryString, String conditionClause)
 	{
 		if (queryString.indexOf(" where ") != -1) {
@@ -621,166 +735,6 @@ public class OrientPersistenceService
 		queryString.append(conditionClause);
 	}
 
-	private <T> String generateWhereClause(T example)
-	{
-		return generateWhereClause(example, new ComplexFieldStack(), new GenerateStatementOptionBuilder().build(), new HashMap<>());
-	}
-
-	private <T> String generateWhereClause(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
-	{
-		StringBuilder where = new StringBuilder();
-
-		try {
-			Map fieldMap = BeanUtils.describe(example);
-			boolean addAnd = false;
-			for (Object field : fieldMap.keySet()) {
-
-				if ("class".equalsIgnoreCase(field.toString()) == false) {
-					Object value = fieldMap.get(field);
-					if (value != null) {
-						GenerateStatementOption fieldOperation = generateStatementOption;
-						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
-							fieldOperation = fieldOptions.get(field.toString());
-						}
-
-						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
-						Object returnObj = method.invoke(example, (Object[]) null);
-						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
-							complexFieldStack.getFieldStack().push(field.toString());
-							if (addAnd) {
-								where.append(fieldOperation.getCondition());
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							where.append(generateWhereClause(returnObj, complexFieldStack, generateStatementOption, fieldOptions));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-
-							if (addAnd) {
-								where.append(fieldOperation.getCondition());
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							String fieldName = complexFieldStack.getQueryFieldName() + field.toString() + fieldOperation.getMethod();
-							String fieldParamName = complexFieldStack.getQueryFieldName() + field.toString();
-							where.append(fieldName)
-									.append(" ").append(fieldOperation.getOperation());
-
-							boolean addParameter = true;
-							if (GenerateStatementOption.OPERATION_NULL.equals(fieldOperation.getOperation())
-									|| GenerateStatementOption.OPERATION_NOT_NULL.equals(fieldOperation.getOperation())) {
-								addParameter = false;
-							}
-
-							if (addParameter) {
-								where.append(" :")
-										.append(fieldParamName.replace(".", PARAM_NAME_SEPARATOR))
-										.append(fieldOperation.getParameterSuffix());
-							}
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-			throw new OpenStorefrontRuntimeException(ex);
-		}
-		return where.toString();
-	}
-
-	private <T> String generateExampleNames(T example)
-	{
-		return generateExampleNames(example, new ComplexFieldStack());
-	}
-
-	private <T> String generateExampleNames(T example, ComplexFieldStack complexFieldStack)
-	{
-		StringBuilder where = new StringBuilder();
-
-		try {
-			Map fieldMap = BeanUtils.describe(example);
-			boolean addAnd = false;
-			for (Object field : fieldMap.keySet()) {
-
-				if ("class".equalsIgnoreCase(field.toString()) == false) {
-					Object value = fieldMap.get(field);
-					if (value != null) {
-
-						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
-						Object returnObj = method.invoke(example, (Object[]) null);
-						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
-							complexFieldStack.getFieldStack().push(field.toString());
-							if (addAnd) {
-								where.append(",");
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-
-							where.append(generateExampleNames(returnObj, complexFieldStack));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-							if (addAnd) {
-								where.append(",");
-							} else {
-								addAnd = true;
-								where.append(" ");
-							}
-							String fieldName = complexFieldStack.getQueryFieldName() + field.toString();
-
-							where.append(fieldName);
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-			throw new OpenStorefrontRuntimeException(ex);
-		}
-		return where.toString();
-	}
-
-	private <T> Map<String, Object> mapParameters(T example)
-	{
-		return mapParameters(example, new ComplexFieldStack(PARAM_NAME_SEPARATOR), new GenerateStatementOptionBuilder().build(), new HashMap<>());
-	}
-
-	private <T> Map<String, Object> mapParameters(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
-	{
-		Map<String, Object> parameterMap = new HashMap<>();
-		try {
-			List<Field> fields = ReflectionUtil.getAllFields(example.getClass());
-			for (Field field : fields) {
-
-				if ("class".equalsIgnoreCase(field.getName()) == false) {
-					field.setAccessible(true);
-					//Note: this may not work for proxy object....they may need to be call through a get method
-					Object value = field.get(example);
-					if (value != null) {
-						GenerateStatementOption fieldOperation = generateStatementOption;
-						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
-							fieldOperation = fieldOptions.get(field.toString());
-						}
-
-						if (ReflectionUtil.isComplexClass(value.getClass())) {
-							complexFieldStack.getFieldStack().push(field.getName());
-							parameterMap.putAll(mapParameters(value, complexFieldStack, generateStatementOption, fieldOptions));
-							complexFieldStack.getFieldStack().pop();
-						} else {
-							String fieldName = complexFieldStack.getQueryFieldName() + field.getName();
-							parameterMap.put(fieldName + fieldOperation.getParameterSuffix(), value);
-						}
-					}
-				}
-			}
-		} catch (IllegalAccessException ex) {
-			throw new RuntimeException(ex);
-		}
-		return parameterMap;
-	}
-
 	/**
 	 * This just returns one result. Typically the query results in only one
 	 * entity.
@@ -849,7 +803,12 @@ public class OrientPersistenceService
 				}
 			}
 
+			boolean timed = MetricsManager.isEnabled();
+			long startTime = timed ? System.nanoTime() : 0;
 			results = db.query(new OSQLSynchQuery<>(query), parameterMap);
+			if (timed) {
+				MetricsManager.recordQuery(query, System.nanoTime() - startTime, results.size());
+			}
 			if (unwrap) {
 				results = unwrapProxy(db, results);
 			}
@@ -25,15 +25,13 @@ import edu.usu.sdl.openstorefront.core.entity.AttributeCode;
 import edu.usu.sdl.openstorefront.core.entity.AttributeCodePk;
 import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
-import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.entity.SystemSearch;
 import edu.usu.sdl.openstorefront.core.filter.FilterEngine;
 import edu.usu.sdl.openstorefront.core.model.search.AdvanceSearchResult;
 import edu.usu.sdl.openstorefront.core.model.search.ResultTypeStat;
 import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchModel;
-import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
-import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.SearchType;
 import edu.usu.sdl.openstorefront.core.model.search.SearchSuggestion;
 import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
@@ -42,6 +40,7 @@ import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchWrapper;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.SearchQuery;
+import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.api.SearchServicePrivate;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
 import edu.usu.sdl.openstorefront.service.manager.SearchServerManager;
@@ -49,6 +48,8 @@ import edu.usu.sdl.openstorefront.service.search.ArchitectureSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.AttributeSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.AttributeSetSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.BaseSearchHandler;
+import edu.usu.sdl.openstorefront.service.search.ComponentIdSet;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import edu.usu.sdl.openstorefront.service.search.ComponentSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.ContactSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.EvaluationScoreSearchHandler;
@@ -59,6 +60,8 @@ import edu.usu.sdl.openstorefront.service.search.QuestionResponseSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.QuestionSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.ReviewProConSeatchHandler;
 import edu.usu.sdl.openstorefront.service.search.ReviewSearchHandler;
+import edu.usu.sdl.openstorefront.service.search.SearchExecutionPlanner;
+import edu.usu.sdl.openstorefront.service.search.SearchSelectivity;
 import edu.usu.sdl.openstorefront.service.search.TagSearchHandler;
 import edu.usu.sdl.openstorefront.service.search.UserRatingSearchHandler;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
@@ -112,7 +115,8 @@ public class SearchServiceImpl
 	{
 		if (!components.isEmpty()) {
 			SearchServerManager.getSearchServer().index(components);
-			OSFCacheManager.getSearchCache().removeAll();
+			OSFCacheManager.invalidateSearchResults();
+			SearchSelectivity.invalidate();
 		}
 	}
 
@@ -182,28 +186,33 @@ public class SearchServiceImpl
 	public void deleteById(String id)
 	{
 		SearchServerManager.getSearchServer().deleteById(id);
-		OSFCacheManager.getSearchCache().removeAll();
+		OSFCacheManager.invalidateSearchResults(id);
+		SearchSelectivity.invalidate();
 	}
 
 	@Override
 	public void deleteAll()
 	{
 		SearchServerManager.getSearchServer().deleteAll();
-		OSFCacheManager.getSearchCache().removeAll();
+		OSFCacheManager.invalidateSearchResults();
+		SearchSelectivity.invalidate();
 	}
 
 	@Override
 	public void saveAll()
 	{
 		SearchServerManager.getSearchServer().saveAll();
-		OSFCacheManager.getSearchCache().removeAll();
+		OSFCacheManager.invalidateSearchResults();
+		SearchSelectivity.invalidate();
+		ComponentSearchViewStore.clear();
 	}
 
 	@Override
 	public void resetIndexer()
 	{
 		SearchServerManager.getSearchServer().resetIndexer();
-		OSFCacheManager.getSearchCache().removeAll();
+		OSFCacheManager.invalidateSearchResults();
+		ComponentSearchViewStore.clear();
 	}
 
 	@Override
@@ -213,14 +222,21 @@ public class SearchServiceImpl
 
 		AdvanceSearchResult searchResult = new AdvanceSearchResult();
 
+		//plan details (and skipping the cache) are for search admins only
+		if (searchModel.getDebug() && SecurityUtil.hasPermission(SecurityPermission.ADMIN_SEARCH) == false) {
+			searchModel.setDebug(false);
+		}
+
 		//each user may get different results depending on security roles
-		if (StringUtils.isNotBlank(searchModel.getUserSessionKey())) {
+		if (StringUtils.isNotBlank(searchModel.getUserSessionKey()) && searchModel.getDebug() == false) {
 			Element element = OSFCacheManager.getSearchCache().get(searchModel.getUserSessionKey() + searchModel.searchKey());
 			if (element != null) {
 				return searchResult = (AdvanceSearchResult) element.getObjectValue();
 			}
 		}
 
+		long loadStart = System.nanoTime();
+
 		//group
 		Map<SearchType, List<SearchElement>> searchGroup = new HashMap<>();
 		for (SearchElement searchElement : searchModel.getSearchElements()) {
@@ -296,21 +312,15 @@ public class SearchServiceImpl
 
 		if (validationResultMain.valid()) {
 			//process groups and aggergate
-			List<String> componentIds = new ArrayList<>();
-			MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
-			for (BaseSearchHandler handler : handlers) {
-				List<String> foundIds = handler.processSearch();
-
-				componentIds = mergeCondition.apply(componentIds, foundIds);
-
-				//merge
-				mergeCondition = handler.getNextMergeCondition();
+			SearchExecutionPlanner executionPlanner = new SearchExecutionPlanner(handlers, searchModel.getDebug());
+			ComponentIdSet componentIds = executionPlanner.execute(SearchServerManager.getHandlerPool());
+			if (searchModel.getDebug()) {
+				searchResult.getHandlerTimings().addAll(executionPlanner.getTimings());
 			}
-			Set<String> masterResults = new HashSet<>();
-			masterResults.addAll(componentIds);
 
 			//get intermediate Results
-			if (!masterResults.isEmpty()) {
+			if (!componentIds.isEmpty()) {
+				List<String> masterResults = componentIds.toComponentIds();
 				String dataFilterRestriction = FilterEngine.queryComponentRestriction();
 				if (StringUtils.isNotBlank(dataFilterRestriction)) {
 					dataFilterRestriction += " and ";
@@ -341,13 +351,9 @@ public class SearchServiceImpl
 				searchResult.setTotalNumber(resultMap.size());
 
 				//get review average
-				query = "select componentId, avg(rating) as rating from " + ComponentReview.class.getSimpleName() + " group by componentId ";
-				List<ODocument> resultsRatings = persistenceService.query(query, new HashMap<>());
-				for (ODocument doc : resultsRatings) {
-					ComponentSearchView view = resultMap.get(doc.field("componentId").toString());
-					if (view != null) {
-						view.setAverageRating(doc.field("rating"));
-					}
+				Map<String, Integer> averageRatings = ComponentSearchViewStore.getAverageRatings(resultMap.keySet());
+				for (Map.Entry<String, Integer> rating : averageRatings.entrySet()) {
+					resultMap.get(rating.getKey()).setAverageRating(rating.getValue());
 				}
 
 				//gather stats
@@ -408,9 +414,10 @@ public class SearchServiceImpl
 		}
 		searchResult.setValidationResult(validationResultMain);
 
-		if (StringUtils.isNotBlank(searchModel.getUserSessionKey())) {
+		if (StringUtils.isNotBlank(searchModel.getUserSessionKey()) && searchModel.getDebug() == false) {
 			Element element = new Element(searchModel.getUserSessionKey() + searchModel.searchKey(), searchResult);
 			OSFCacheManager.getSearchCache().put(element);
+			OSFCacheManager.recordLoad(OSFCacheManager.getSearchCache(), loadStart);
 		}
 		return searchResult;
 	}
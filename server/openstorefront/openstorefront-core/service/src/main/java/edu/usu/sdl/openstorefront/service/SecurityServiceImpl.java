@@ -139,7 +139,7 @@ public class SecurityServiceImpl
 		//Make sure we have a copy as we may cache it.
 		SecurityPolicy securityPolicyNew = securityPolicy.copy();
 
-		OSFCacheManager.getApplicationCache().remove(CURRENT_SECURITY_POLICY);
+		OSFCacheManager.invalidateKey(OSFCacheManager.getApplicationCache(), CURRENT_SECURITY_POLICY);
 		LOG.log(Level.INFO, MessageFormat.format("Security Policy was update by: {0}", SecurityUtil.getCurrentUserName()));
 		return securityPolicyNew;
 	}
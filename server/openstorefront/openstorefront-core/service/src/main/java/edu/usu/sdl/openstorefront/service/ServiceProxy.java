@@ -61,6 +61,8 @@ public class ServiceProxy
 		implements Service
 {
 
+	private static final ThreadLocal<ThreadScope> THREAD_SCOPE = new ThreadLocal<>();
+
 	private String modificationType = ModificationType.API;
 
 	protected PersistenceService persistenceService = new OrientPersistenceService();
@@ -113,6 +115,42 @@ public class ServiceProxy
 		return new ServiceProxy();
 	}
 
+	/**
+	 * Gets the proxy shared by the thread scope (see openThreadScope) or a new
+	 * one outside of a scope. A new one is also returned while a service on
+	 * this thread has a transaction open, as the shared services may be the
+	 * ones in that transaction.
+	 *
+	 * @return proxy
+	 */
+	public static ServiceProxy getThreadProxy()
+	{
+		ThreadScope threadScope = THREAD_SCOPE.get();
+		if (threadScope != null && OrientPersistenceService.isThreadTransactionActive() == false) {
+			return threadScope.getProxy();
+		}
+		return new ServiceProxy();
+	}
+
+	/**
+	 * Opens a scope where getThreadProxy() calls on this thread share one
+	 * proxy (created on first use) instead of each building their own. Only
+	 * use it around work that stays on the current thread and close it when
+	 * done (try-with-resources). Nested scopes join the outer one.
+	 *
+	 * @return scope to close
+	 */
+	public static ThreadScope openThreadScope()
+	{
+		ThreadScope threadScope = THREAD_SCOPE.get();
+		if (threadScope != null) {
+			return new ThreadScope(false);
+		}
+		threadScope = new ThreadScope(true);
+		THREAD_SCOPE.set(threadScope);
+		return threadScope;
+	}
+
 	public static ServiceProxy getProxy(String modificationType)
 	{
 		return new ServiceProxy(modificationType);
@@ -410,4 +448,37 @@ public class ServiceProxy
 		return systemArchiveServicePrivate;
 	}
 
+	/**
+	 * Shares a proxy on a thread; see openThreadScope
+	 */
+	public static class ThreadScope
+			implements AutoCloseable
+	{
+
+		private final boolean owner;
+		private ServiceProxy serviceProxy;
+
+		private ThreadScope(boolean owner)
+		{
+			this.owner = owner;
+		}
+
+		private ServiceProxy getProxy()
+		{
+			if (serviceProxy == null) {
+				serviceProxy = new ServiceProxy();
+			}
+			return serviceProxy;
+		}
+
+		@Override
+		public void close()
+		{
+			if (owner) {
+				THREAD_SCOPE.remove();
+			}
+		}
+
+	}
+
 }
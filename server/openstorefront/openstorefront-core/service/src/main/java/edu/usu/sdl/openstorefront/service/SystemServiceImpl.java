@@ -15,6 +15,7 @@
  */
 package edu.usu.sdl.openstorefront.service;
 
+import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.usu.sdl.core.CoreSystem;
 import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
@@ -93,7 +94,6 @@ public class SystemServiceImpl
 	private static final Logger LOG = Logger.getLogger(SystemServiceImpl.class.getName());
 	private static final Logger ERRORLOG = Logger.getLogger(OpenStorefrontConstant.ERROR_LOGGER);
 
-	private static final int MAX_DB_CLEAN_AMOUNT = 1000;
 	private static final int MIN_DB_CLEAN_AMOUNT = 1000;
 
 	@Override
@@ -582,28 +582,33 @@ public class SystemServiceImpl
 	}
 
 	@Override
-	public void cleanUpOldLogRecords()
+	public void addLogRecords(List<DBLogRecord> logRecords)
 	{
+		for (DBLogRecord logRecord : logRecords) {
+			addLogRecord(logRecord);
+		}
+	}
+
+	@Override
+	public long cleanUpOldLogRecords()
+	{
+		long recordsRemoved = 0;
 		long count = persistenceService.countClass(DBLogRecord.class);
 		long max = DBLogManager.getMaxLogEntries();
 
 		if (count > max) {
 			LOG.log(Level.INFO, MessageFormat.format("Cleaning old log records:  {0}", count - max));
 
-			long limit = count - max + MIN_DB_CLEAN_AMOUNT;
-			if (limit > MAX_DB_CLEAN_AMOUNT) {
-				limit = MAX_DB_CLEAN_AMOUNT;
-			}
-			if (limit < 0) {
-				limit = 1;
+			//Find the oldest record to keep (walks the eventDts index) and range delete everything before it
+			long skip = Math.min(count - max + MIN_DB_CLEAN_AMOUNT, count - 1);
+			String query = "SELECT eventDts FROM DBLogRecord ORDER BY eventDts ASC SKIP " + skip + " LIMIT 1";
+			List<ODocument> documents = persistenceService.query(query, null);
+			if (documents.isEmpty() == false) {
+				Date cutoff = documents.get(0).field("eventDts");
+				recordsRemoved = persistenceService.deleteOlderThan(DBLogRecord.class, "eventDts", cutoff);
 			}
-			String query = "SELECT FROM DBLogRecord ORDER BY eventDts ASC LIMIT " + limit;
-			List<DBLogRecord> logRecords = persistenceService.query(query, null);
-			logRecords.stream().forEach((record)
-					-> {
-				persistenceService.delete(record);
-			});
 		}
+		return recordsRemoved;
 	}
 
 	@Override
@@ -61,6 +61,7 @@ import edu.usu.sdl.openstorefront.security.UserContext;
 import edu.usu.sdl.openstorefront.security.UserRecord;
 import edu.usu.sdl.openstorefront.service.api.UserServicePrivate;
 import edu.usu.sdl.openstorefront.service.manager.MailManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
 import edu.usu.sdl.openstorefront.service.manager.UserAgentManager;
 import edu.usu.sdl.openstorefront.service.message.ApprovalMessageGenerator;
 import edu.usu.sdl.openstorefront.service.message.BaseMessageGenerator;
@@ -85,6 +86,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -94,6 +96,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 import javax.mail.Message;
 import javax.servlet.http.HttpServletRequest;
 import net.sf.uadetector.ReadableUserAgent;
@@ -316,7 +319,10 @@ public class UserServiceImpl
 	@Override
 	public UserTracking saveUserTracking(UserTracking tracking)
 	{
-		UserTracking oldTracking = persistenceService.findById(UserTracking.class, tracking.getTrackingId());
+		UserTracking oldTracking = null;
+		if (tracking.getTrackingId() != null) {
+			oldTracking = persistenceService.findById(UserTracking.class, tracking.getTrackingId());
+		}
 		if (oldTracking != null) {
 			oldTracking.setActiveStatus(tracking.getActiveStatus());
 			oldTracking.setBrowser(tracking.getBrowser());
@@ -339,7 +345,16 @@ public class UserServiceImpl
 		tracking.setCreateDts(TimeUtil.currentDate());
 		tracking.setUpdateDts(TimeUtil.currentDate());
 		tracking.setTrackingId(persistenceService.generateId());
-		return persistenceService.persist(tracking);
+		TrackingManager.queueAfterCommit(persistenceService, tracking);
+		return tracking;
+	}
+
+	@Override
+	public void saveUserTrackings(List<UserTracking> trackings)
+	{
+		for (UserTracking tracking : trackings) {
+			persistenceService.persist(tracking);
+		}
 	}
 
 	@Override
@@ -485,17 +500,37 @@ public class UserServiceImpl
 	@Override
 	public void checkComponentWatches(Component component)
 	{
-		UserWatch userWatchExample = new UserWatch();
-		userWatchExample.setActiveStatus(UserMessage.ACTIVE_STATUS);
-		userWatchExample.setComponentId(component.getComponentId());
+		checkComponentWatches(Arrays.asList(component));
+	}
+
+	@Override
+	public void checkComponentWatches(List<Component> components)
+	{
+		if (components.isEmpty()) {
+			return;
+		}
+		Map<String, Component> componentMap = new HashMap<>();
+		for (Component component : components) {
+			componentMap.put(component.getComponentId(), component);
+		}
+
+		String query = "select from " + UserWatch.class.getSimpleName() + " where activeStatus = :activeStatusParam and componentId in :componentIdsParam";
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("activeStatusParam", UserWatch.ACTIVE_STATUS);
+		paramMap.put("componentIdsParam", componentMap.keySet());
+		List<UserWatch> userWatches = persistenceService.query(query, paramMap, true);
 
-		List<UserWatch> userWatches = persistenceService.queryByExample(userWatchExample);
+		//access doesn't depend on the watch; check each component once
+		Map<String, Boolean> accessMap = new HashMap<>();
+		List<UserMessage> userMessages = new ArrayList<>();
+		List<NotificationEvent> notificationEvents = new ArrayList<>();
 		for (UserWatch userWatch : userWatches) {
+			Component component = componentMap.get(userWatch.getComponentId());
 			if (component.getLastActivityDts().after(userWatch.getLastViewDts())) {
 
 				//make sure the user can still access the component
-				Component accessComponent = FilterEngine.filter(component);
-				if (accessComponent != null) {
+				boolean access = accessMap.computeIfAbsent(component.getComponentId(), componentId -> FilterEngine.filter(component) != null);
+				if (access) {
 					if (Convert.toBoolean(userWatch.getNotifyFlg())) {
 						UserMessage userMessage = new UserMessage();
 						userMessage.setUsername(userWatch.getUsername());
@@ -503,7 +538,7 @@ public class UserServiceImpl
 						userMessage.setUserMessageType(UserMessageType.COMPONENT_WATCH);
 						userMessage.setCreateUser(OpenStorefrontConstant.SYSTEM_USER);
 						userMessage.setUpdateUser(OpenStorefrontConstant.SYSTEM_USER);
-						getUserService().queueUserMessage(userMessage);
+						userMessages.add(userMessage);
 					}
 
 					NotificationEvent notificationEvent = new NotificationEvent();
@@ -512,12 +547,19 @@ public class UserServiceImpl
 					notificationEvent.setMessage("Component: " + component.getName() + " has been updated.");
 					notificationEvent.setEntityName(Component.class.getSimpleName());
 					notificationEvent.setEntityId(component.getComponentId());
-					getNotificationService().postEvent(notificationEvent);
+					notificationEvents.add(notificationEvent);
 				} else {
 					LOG.log(Level.FINE, MessageFormat.format("User can not access component. (User Watch) No message sent.  Component: {0}", component.getName()));
 				}
 			}
 		}
+
+		if (userMessages.isEmpty() == false) {
+			getUserService().queueUserMessages(userMessages);
+		}
+		if (notificationEvents.isEmpty() == false) {
+			getNotificationService().postEvents(notificationEvents);
+		}
 	}
 
 	@Override
@@ -541,6 +583,60 @@ public class UserServiceImpl
 		}
 	}
 
+	@Override
+	public void queueUserMessages(List<UserMessage> userMessages)
+	{
+		//load the queued messages for all of the users at once
+		Set<String> usernames = new HashSet<>();
+		for (UserMessage userMessage : userMessages) {
+			if (userMessage.getUsername() != null) {
+				usernames.add(userMessage.getUsername());
+			}
+		}
+		Map<String, List<UserMessage>> queuedMap = new HashMap<>();
+		if (usernames.isEmpty() == false) {
+			String query = "select from " + UserMessage.class.getSimpleName() + " where activeStatus = :activeStatusParam and username in :usernamesParam";
+			Map<String, Object> paramMap = new HashMap<>();
+			paramMap.put("activeStatusParam", UserMessage.ACTIVE_STATUS);
+			paramMap.put("usernamesParam", usernames);
+			List<UserMessage> queued = persistenceService.query(query, paramMap, true);
+			queuedMap = queued.stream().collect(Collectors.groupingBy(UserMessage::getUsername));
+		}
+
+		for (UserMessage userMessage : userMessages) {
+			if (userMessage.getUsername() == null) {
+				queueUserMessage(userMessage);
+			} else {
+				List<UserMessage> queued = queuedMap.computeIfAbsent(userMessage.getUsername(), username -> new ArrayList<>());
+				boolean duplicate = queued.stream().anyMatch(existing -> isDuplicateMessage(existing, userMessage));
+				if (duplicate == false) {
+					userMessage.setUserMessageId(persistenceService.generateId());
+					userMessage.setRetryCount(0);
+					userMessage.populateBaseCreateFields();
+					persistenceService.persist(userMessage);
+					queued.add(userMessage);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Same match as the queueUserMessage example query (only the fields set on
+	 * the new message are compared)
+	 */
+	private boolean isDuplicateMessage(UserMessage existing, UserMessage userMessage)
+	{
+		return matchesIfSet(userMessage.getComponentId(), existing.getComponentId())
+				&& matchesIfSet(userMessage.getUserMessageType(), existing.getUserMessageType())
+				&& matchesIfSet(userMessage.getAlertId(), existing.getAlertId())
+				&& matchesIfSet(userMessage.getEmailAddress(), existing.getEmailAddress());
+	}
+
+	private boolean matchesIfSet(String value, String existingValue)
+	{
+		return value == null || value.equals(existingValue);
+	}
+
 	@Override
 	public void cleanupOldUserMessages()
 	{
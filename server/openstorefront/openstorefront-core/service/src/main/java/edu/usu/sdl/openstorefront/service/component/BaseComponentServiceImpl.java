@@ -23,6 +23,7 @@ import edu.usu.sdl.openstorefront.core.entity.ComponentUpdateQueue;
 import edu.usu.sdl.openstorefront.core.model.AlertContext;
 import edu.usu.sdl.openstorefront.service.ComponentServiceImpl;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import java.util.Objects;
 
 /**
@@ -56,6 +57,11 @@ public abstract class BaseComponentServiceImpl
 	{
 		Objects.requireNonNull(componentId, "Component Id is required");
 
+		if (componentService.isBulkImport()) {
+			//handled by finishBulkImport
+			return;
+		}
+
 		cleanupCache(componentId);
 
 		ComponentUpdateQueue componentUpdateQueue = new ComponentUpdateQueue();
@@ -73,12 +79,12 @@ public abstract class BaseComponentServiceImpl
 	{
 		Objects.requireNonNull(componentId, "Component Id is required");
 
-		OSFCacheManager.getComponentCache().remove(componentId);
-		OSFCacheManager.getComponentLookupCache().remove(componentId);
-		OSFCacheManager.getComponentApprovalCache().remove(componentId);
-		OSFCacheManager.getComponentDataRestrictionCache().remove(componentId);
-		OSFCacheManager.getComponentIconCache().remove(componentId);
-		OSFCacheManager.getSearchCache().removeAll();
+		if (componentService.isBulkImport()) {
+			return;
+		}
+
+		OSFCacheManager.invalidateComponent(componentId);
+		ComponentSearchViewStore.remove(componentId);
 	}
 
 	protected void handleUserDataAlert(Object data)
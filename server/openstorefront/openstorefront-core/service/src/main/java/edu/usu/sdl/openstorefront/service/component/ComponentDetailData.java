@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.component;
+
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
+import edu.usu.sdl.openstorefront.core.entity.BaseComponent;
+import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import edu.usu.sdl.openstorefront.core.entity.ComponentContact;
+import edu.usu.sdl.openstorefront.core.entity.ComponentEvaluationSection;
+import edu.usu.sdl.openstorefront.core.entity.ComponentExternalDependency;
+import edu.usu.sdl.openstorefront.core.entity.ComponentMedia;
+import edu.usu.sdl.openstorefront.core.entity.ComponentMetadata;
+import edu.usu.sdl.openstorefront.core.entity.ComponentQuestion;
+import edu.usu.sdl.openstorefront.core.entity.ComponentQuestionResponse;
+import edu.usu.sdl.openstorefront.core.entity.ComponentRelationship;
+import edu.usu.sdl.openstorefront.core.entity.ComponentResource;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReviewCon;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReviewPro;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The user independent parts of the component details. These are the
+ * unfiltered entities (one query per child type) so the data restrictions and
+ * the user's pending records are applied per request.
+ *
+ * @author dshurtleff
+ */
+public class ComponentDetailData
+{
+
+	private Component component;
+	private List<ComponentRelationship> directRelationships;
+	private List<ComponentRelationship> indirectRelationships;
+	private List<ComponentAttribute> attributes;
+	private List<ComponentTag> tags;
+	private List<ComponentResource> resources;
+	private List<ComponentMetadata> metadata;
+	private List<ComponentMedia> media;
+	private List<ComponentExternalDependency> dependencies;
+	private List<ComponentContact> contacts;
+	private List<ComponentReview> reviews;
+	private Map<String, List<ComponentReviewPro>> prosByReview;
+	private Map<String, List<ComponentReviewCon>> consByReview;
+	private List<ComponentQuestion> questions;
+	private Map<String, List<ComponentQuestionResponse>> responsesByQuestion;
+	private List<ComponentEvaluationSection> evaluationSections;
+
+	private ComponentDetailData()
+	{
+	}
+
+	/**
+	 * @param persistenceService
+	 * @param componentId
+	 * @return data or null if the component doesn't exist
+	 */
+	public static ComponentDetailData load(PersistenceService persistenceService, String componentId)
+	{
+		Component component = persistenceService.findById(Component.class, componentId);
+		if (component == null) {
+			return null;
+		}
+
+		ComponentDetailData data = new ComponentDetailData();
+		data.component = component;
+
+		ComponentRelationship relationshipExample = new ComponentRelationship();
+		relationshipExample.setActiveStatus(ComponentRelationship.ACTIVE_STATUS);
+		relationshipExample.setComponentId(componentId);
+		data.directRelationships = query(persistenceService, relationshipExample);
+
+		relationshipExample = new ComponentRelationship();
+		relationshipExample.setActiveStatus(ComponentRelationship.ACTIVE_STATUS);
+		relationshipExample.setRelatedComponentId(componentId);
+		data.indirectRelationships = query(persistenceService, relationshipExample);
+
+		ComponentAttribute attributeExample = new ComponentAttribute();
+		ComponentAttributePk attributePk = new ComponentAttributePk();
+		attributePk.setComponentId(componentId);
+		attributeExample.setComponentAttributePk(attributePk);
+		attributeExample.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
+		data.attributes = query(persistenceService, attributeExample);
+
+		data.tags = queryActive(persistenceService, new ComponentTag(), componentId);
+		data.resources = queryActive(persistenceService, new ComponentResource(), componentId);
+		data.metadata = queryActive(persistenceService, new ComponentMetadata(), componentId);
+		data.media = queryActive(persistenceService, new ComponentMedia(), componentId);
+		data.dependencies = queryActive(persistenceService, new ComponentExternalDependency(), componentId);
+		data.contacts = queryActive(persistenceService, new ComponentContact(), componentId);
+		data.reviews = queryActive(persistenceService, new ComponentReview(), componentId);
+		data.questions = queryActive(persistenceService, new ComponentQuestion(), componentId);
+		data.evaluationSections = queryActive(persistenceService, new ComponentEvaluationSection(), componentId);
+
+		//Pros/cons and responses for all of the reviews/questions at once (pending records may be included)
+		ComponentReviewPro proExample = new ComponentReviewPro();
+		proExample.setComponentId(componentId);
+		data.prosByReview = group(query(persistenceService, proExample), pro -> pro.getComponentReviewProPk().getComponentReviewId());
+
+		ComponentReviewCon conExample = new ComponentReviewCon();
+		conExample.setComponentId(componentId);
+		data.consByReview = group(query(persistenceService, conExample), con -> con.getComponentReviewConPk().getComponentReviewId());
+
+		data.responsesByQuestion = group(queryActive(persistenceService, new ComponentQuestionResponse(), componentId), ComponentQuestionResponse::getQuestionId);
+
+		return data;
+	}
+
+	private static <T extends BaseComponent<T>> List<T> queryActive(PersistenceService persistenceService, T example, String componentId)
+	{
+		example.setComponentId(componentId);
+		example.setActiveStatus(BaseComponent.ACTIVE_STATUS);
+		return query(persistenceService, example);
+	}
+
+	private static <T extends BaseEntity<T>> List<T> query(PersistenceService persistenceService, T example)
+	{
+		List<T> records = persistenceService.queryByExample(new QueryByExample<>(example));
+		return Collections.unmodifiableList(records);
+	}
+
+	private static <T> Map<String, List<T>> group(List<T> records, Function<T, String> keyOf)
+	{
+		return Collections.unmodifiableMap(records.stream()
+				.filter(record -> keyOf.apply(record) != null)
+				.collect(Collectors.groupingBy(keyOf)));
+	}
+
+	/**
+	 * Used by the cache to find the entries to invalidate when a component
+	 * changes (a relationship shows the other component)
+	 *
+	 * @param value
+	 * @return component ids held by the value
+	 */
+	public static Collection<String> componentIdsOf(Object value)
+	{
+		if (value instanceof ComponentDetailData) {
+			ComponentDetailData data = (ComponentDetailData) value;
+			Set<String> componentIds = new HashSet<>();
+			data.directRelationships.forEach(relationship -> componentIds.add(relationship.getRelatedComponentId()));
+			data.indirectRelationships.forEach(relationship -> componentIds.add(relationship.getComponentId()));
+			componentIds.remove(null);
+			return componentIds;
+		}
+		return null;
+	}
+
+	public static <T> List<T> forKey(Map<String, List<T>> recordsByKey, String key)
+	{
+		List<T> records = recordsByKey.get(key);
+		if (records == null) {
+			return Collections.emptyList();
+		}
+		return records;
+	}
+
+	public Component getComponent()
+	{
+		return component;
+	}
+
+	public List<ComponentRelationship> getDirectRelationships()
+	{
+		return directRelationships;
+	}
+
+	public List<ComponentRelationship> getIndirectRelationships()
+	{
+		return indirectRelationships;
+	}
+
+	public List<ComponentAttribute> getAttributes()
+	{
+		return attributes;
+	}
+
+	public List<ComponentTag> getTags()
+	{
+		return tags;
+	}
+
+	public List<ComponentResource> getResources()
+	{
+		return resources;
+	}
+
+	public List<ComponentMetadata> getMetadata()
+	{
+		return metadata;
+	}
+
+	public List<ComponentMedia> getMedia()
+	{
+		return media;
+	}
+
+	public List<ComponentExternalDependency> getDependencies()
+	{
+		return dependencies;
+	}
+
+	public List<ComponentContact> getContacts()
+	{
+		return contacts;
+	}
+
+	public List<ComponentReview> getReviews()
+	{
+		return reviews;
+	}
+
+	public List<ComponentReviewPro> getPros(String componentReviewId)
+	{
+		return forKey(prosByReview, componentReviewId);
+	}
+
+	public List<ComponentReviewCon> getCons(String componentReviewId)
+	{
+		return forKey(consByReview, componentReviewId);
+	}
+
+	public List<ComponentQuestion> getQuestions()
+	{
+		return questions;
+	}
+
+	public List<ComponentQuestionResponse> getResponses(String questionId)
+	{
+		return forKey(responsesByQuestion, questionId);
+	}
+
+	public List<ComponentEvaluationSection> getEvaluationSections()
+	{
+		return evaluationSections;
+	}
+
+}
@@ -67,7 +67,6 @@ import edu.usu.sdl.openstorefront.core.entity.FileHistoryOption;
 import edu.usu.sdl.openstorefront.core.entity.ModificationType;
 import edu.usu.sdl.openstorefront.core.entity.TemplateBlock;
 import edu.usu.sdl.openstorefront.core.entity.TemporaryMedia;
-import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
 import edu.usu.sdl.openstorefront.core.entity.UserMessage;
 import edu.usu.sdl.openstorefront.core.entity.UserMessageType;
 import edu.usu.sdl.openstorefront.core.entity.UserWatch;
@@ -111,10 +110,14 @@ import edu.usu.sdl.openstorefront.core.view.RequiredForComponent;
 import edu.usu.sdl.openstorefront.core.view.SearchResultAttribute;
 import edu.usu.sdl.openstorefront.core.view.statistic.ComponentRecordStatistic;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
+import edu.usu.sdl.openstorefront.security.UserContext;
 import edu.usu.sdl.openstorefront.service.ComponentServiceImpl;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
 import edu.usu.sdl.openstorefront.service.manager.DBManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
+import edu.usu.sdl.openstorefront.service.search.ComponentIdDictionary;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -133,6 +136,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -166,6 +170,7 @@ public class CoreComponentServiceImpl
 	private static final Logger LOG = Logger.getLogger(CoreComponentServiceImpl.class.getName());
 
 	private static final String COPY_MARKER = "- COPY";
+	private static final int WATCH_CHECK_CHUNK_SIZE = 100;
 
 	public CoreComponentServiceImpl(ComponentServiceImpl componentService)
 	{
@@ -212,22 +217,17 @@ public class CoreComponentServiceImpl
 
 	public String getComponentName(String componentId)
 	{
-		String componentName = null;
-		Element element = OSFCacheManager.getComponentLookupCache().get(componentId);
-		if (element != null) {
-			componentName = (String) element.getObjectValue();
-		} else {
+		if (componentId == null) {
+			return null;
+		}
+		return OSFCacheManager.getOrLoadAll(OSFCacheManager.getComponentLookupCache(), componentId, () -> {
 			String query = "select componentId, name from " + Component.class.getSimpleName();
 			List<ODocument> documents = persistenceService.query(query, null);
 			for (ODocument document : documents) {
 				Element newElement = new Element(document.field("componentId"), document.field("name"));
-				if (document.field("componentId").equals(componentId)) {
-					componentName = (String) document.field("name");
-				}
 				OSFCacheManager.getComponentLookupCache().put(newElement);
 			}
-		}
-		return componentName;
+		});
 	}
 
 	public List<ComponentSearchView> getComponents()
@@ -289,10 +289,17 @@ public class CoreComponentServiceImpl
 
 	public ComponentDetailView getComponentDetails(String componentId)
 	{
+		//The shared (user independent) part is cached; restrictions and the user's pending records are applied per request
+		//(loaded outside of this service's transaction as the loader may run on the refresh thread)
+		ComponentDetailData detailData = OSFCacheManager.get(OSFCacheManager.getComponentDetailCache(), componentId, ()
+				-> ComponentDetailData.load(componentService.getNewPersistenceService(), componentId)
+		);
+		if (detailData == null) {
+			return null;
+		}
 
 		ComponentDetailView result = new ComponentDetailView();
-		Component tempComponent = persistenceService.findById(Component.class, componentId);
-		tempComponent = FilterEngine.filter(tempComponent);
+		Component tempComponent = FilterEngine.filter(detailData.getComponent());
 
 		if (tempComponent == null) {
 			return null;
@@ -301,42 +308,33 @@ public class CoreComponentServiceImpl
 		result.setApprovalState(tempComponent.getApprovalState());
 
 		//Pull relationships direct relationships
-		ComponentRelationship componentRelationshipExample = new ComponentRelationship();
-		componentRelationshipExample.setActiveStatus(ComponentRelationship.ACTIVE_STATUS);
-		componentRelationshipExample.setComponentId(componentId);
-		List<ComponentRelationship> directRelationships = componentRelationshipExample.findByExample();
-		directRelationships = FilterEngine.filter(directRelationships, true);
+		List<ComponentRelationship> directRelationships = FilterEngine.filter(detailData.getDirectRelationships(), true);
 
 		result.getRelationships().addAll(ComponentRelationshipView.toViewList(directRelationships));
 		result.setRelationships(result.getRelationships().stream().filter(r -> r.getTargetApproved()).collect(Collectors.toList()));
 
 		//Pull indirect
-		componentRelationshipExample = new ComponentRelationship();
-		componentRelationshipExample.setActiveStatus(ComponentRelationship.ACTIVE_STATUS);
-		componentRelationshipExample.setRelatedComponentId(componentId);
-
-		List<ComponentRelationship> inDirectRelationships = componentRelationshipExample.findByExample();
-		inDirectRelationships = FilterEngine.filter(inDirectRelationships, true);
+		List<ComponentRelationship> inDirectRelationships = FilterEngine.filter(detailData.getIndirectRelationships(), true);
 
 		List<ComponentRelationshipView> relationshipViews = ComponentRelationshipView.toViewList(inDirectRelationships);
 		relationshipViews = relationshipViews.stream().filter(r -> r.getOwnerApproved()).collect(Collectors.toList());
 		result.getRelationships().addAll(relationshipViews);
 
+		String currentUser = SecurityUtil.getCurrentUserName();
 		UserWatch tempWatch = new UserWatch();
-		tempWatch.setUsername(SecurityUtil.getCurrentUserName());
+		tempWatch.setUsername(currentUser);
 		tempWatch.setActiveStatus(UserWatch.ACTIVE_STATUS);
 		tempWatch.setComponentId(componentId);
 		UserWatch tempUserWatch = persistenceService.queryOneByExample(new QueryByExample(tempWatch));
 		if (tempUserWatch != null) {
 			result.setLastViewedDts(tempUserWatch.getLastViewDts());
 		}
-		List<ComponentAttribute> attributes = componentService.getAttributesByComponentId(componentId);
-		result.setAttributes(ComponentAttributeView.toViewList(attributes));
+		result.setAttributes(ComponentAttributeView.toViewList(detailData.getAttributes()));
 
 		result.setComponentId(componentId);
-		result.setTags(componentService.getBaseComponent(ComponentTag.class, componentId));
+		result.setTags(new ArrayList<>(FilterEngine.filter(detailData.getTags())));
 
-		List<ComponentResource> componentResources = componentService.getBaseComponent(ComponentResource.class, componentId);
+		List<ComponentResource> componentResources = FilterEngine.filter(detailData.getResources());
 
 		componentResources = SortUtil.sortComponentResource(componentResources);
 		componentResources.forEach(resource
@@ -344,104 +342,65 @@ public class CoreComponentServiceImpl
 			result.getResources().add(ComponentResourceView.toView(resource));
 		});
 
-		List<ComponentMetadata> componentMetadata = componentService.getBaseComponent(ComponentMetadata.class, componentId);
+		List<ComponentMetadata> componentMetadata = FilterEngine.filter(detailData.getMetadata());
 		componentMetadata.forEach(metadata
 				-> {
 			result.getMetadata().add(ComponentMetadataView.toView(metadata));
 		});
 
-		List<ComponentMedia> componentMedia = componentService.getBaseComponent(ComponentMedia.class, componentId);
+		List<ComponentMedia> componentMedia = FilterEngine.filter(detailData.getMedia());
 		componentMedia.forEach(media
 				-> {
 			result.getComponentMedia().add(ComponentMediaView.toView(media));
 		});
 
-		List<ComponentExternalDependency> componentDependency = componentService.getBaseComponent(ComponentExternalDependency.class, componentId);
+		List<ComponentExternalDependency> componentDependency = FilterEngine.filter(detailData.getDependencies());
 		componentDependency.forEach(dependency
 				-> {
 			result.getDependencies().add(ComponentExternalDependencyView.toView(dependency));
 		});
 
-		List<ComponentContact> componentContact = componentService.getBaseComponent(ComponentContact.class, componentId);
+		List<ComponentContact> componentContact = FilterEngine.filter(detailData.getContacts());
 		componentContact.forEach(contact
 				-> {
 			result.getContacts().add(ComponentContactView.toView(contact));
 		});
 
-		ComponentTracking componentTrackingExample = new ComponentTracking();
-		componentTrackingExample.setActiveStatus(ComponentTracking.ACTIVE_STATUS);
-		componentTrackingExample.setTrackEventTypeCode(TrackEventCode.VIEW);
-		componentTrackingExample.setComponentId(componentId);
-		result.setComponentViews(persistenceService.countByExample(componentTrackingExample));
+		result.setComponentViews(TrackingManager.getComponentViews(componentId));
 
-		List<ComponentReview> tempReviews = new ArrayList();
-		List<ComponentReview> tempApprovedReviews = componentService.getBaseComponent(ComponentReview.class, componentId);
-		List<ComponentReview> tempPendingReviews = componentService.getBaseComponent(ComponentReview.class, componentId, ComponentReview.PENDING_STATUS);
-		String currentUser = SecurityUtil.getCurrentUserName();
-		tempPendingReviews.forEach(review
-				-> {
-			if (review.getCreateUser().equals(currentUser)) {
-				tempReviews.add(review);
-			}
-		});
-		tempReviews.addAll(tempApprovedReviews);
-		List<ComponentReviewView> reviews = new ArrayList();
+		List<ComponentReview> tempReviews = new ArrayList<>(pendingForUser(new ComponentReview(), componentId, currentUser));
+		tempReviews.addAll(FilterEngine.filter(detailData.getReviews()));
+		List<ComponentReviewView> reviews = new ArrayList<>();
 		tempReviews.forEach(review
 				-> {
-			ComponentReviewPro tempPro = new ComponentReviewPro();
-			ComponentReviewProPk tempProPk = new ComponentReviewProPk();
-			ComponentReviewCon tempCon = new ComponentReviewCon();
-			ComponentReviewConPk tempConPk = new ComponentReviewConPk();
-
-			tempProPk.setComponentReviewId(review.getComponentReviewId());
-			tempConPk.setComponentReviewId(review.getComponentReviewId());
-
-			tempPro.setComponentReviewProPk(tempProPk);
-			tempCon.setComponentReviewConPk(tempConPk);
-
 			ComponentReviewView tempView = ComponentReviewView.toView(review);
-
-			tempView.setPros(ComponentReviewProCon.toViewListPro(persistenceService.queryByExample(new QueryByExample(tempPro))));
-			tempView.setCons(ComponentReviewProCon.toViewListCon(persistenceService.queryByExample(new QueryByExample(tempCon))));
-
+			tempView.setPros(ComponentReviewProCon.toViewListPro(detailData.getPros(review.getComponentReviewId())));
+			tempView.setCons(ComponentReviewProCon.toViewListCon(detailData.getCons(review.getComponentReviewId())));
 			reviews.add(tempView);
 		});
 		reviews.sort(new BeanComparator<>(OpenStorefrontConstant.SORT_DESCENDING, ComponentReviewView.UPDATE_DATE_FIELD));
 		result.setReviews(reviews);
 
-		// Here we grab the responses to each question
+		// Here we grab the responses to each question; the user's pending responses are pulled in one query
+		Map<String, List<ComponentQuestionResponse>> pendingResponses = pendingForUser(new ComponentQuestionResponse(), componentId, currentUser)
+				.stream()
+				.filter(response -> response.getQuestionId() != null)
+				.collect(Collectors.groupingBy(ComponentQuestionResponse::getQuestionId));
+
 		List<ComponentQuestionView> questionViews = new ArrayList<>();
-		List<ComponentQuestion> questions = componentService.getBaseComponent(ComponentQuestion.class, componentId);
-		List<ComponentQuestion> pendingQuestions = componentService.getBaseComponent(ComponentQuestion.class, componentId, ComponentQuestion.PENDING_STATUS);
-		pendingQuestions.forEach(question
+		List<ComponentQuestion> questions = new ArrayList<>(FilterEngine.filter(detailData.getQuestions()));
+		questions.addAll(pendingForUser(new ComponentQuestion(), componentId, currentUser));
+		questions.forEach(question
 				-> {
-			if (question.getCreateUser().equals(currentUser)) {
-				questions.add(question);
-			}
-		});
-		questions.stream().forEach((question)
-				-> {
-			ComponentQuestionResponse tempResponse = new ComponentQuestionResponse();
-			List<ComponentQuestionResponseView> responseViews;
-			tempResponse.setQuestionId(question.getQuestionId());
-			tempResponse.setActiveStatus(ComponentQuestionResponse.ACTIVE_STATUS);
-			List<ComponentQuestionResponse> activeResponses = tempResponse.findByExample();
-			activeResponses = FilterEngine.filter(activeResponses);
-
-			ComponentQuestionResponse tempPendingResponse = new ComponentQuestionResponse();
-			tempPendingResponse.setQuestionId(question.getQuestionId());
-			tempPendingResponse.setActiveStatus(ComponentQuestionResponse.PENDING_STATUS);
-			tempPendingResponse.setCreateUser(currentUser);
-
-			List<ComponentQuestionResponse> responses = FilterEngine.filter(tempPendingResponse.findByExample());
-			responses.addAll(activeResponses);
-
-			responseViews = ComponentQuestionResponseView.toViewList(responses);
+			List<ComponentQuestionResponse> responses = new ArrayList<>(ComponentDetailData.forKey(pendingResponses, question.getQuestionId()));
+			responses.addAll(FilterEngine.filter(detailData.getResponses(question.getQuestionId())));
+
+			List<ComponentQuestionResponseView> responseViews = ComponentQuestionResponseView.toViewList(responses);
 			questionViews.add(ComponentQuestionView.toView(question, responseViews));
 		});
 		result.setQuestions(questionViews);
 
-		List<ComponentEvaluationSection> evaluationSections = componentService.getBaseComponent(ComponentEvaluationSection.class, componentId);
+		List<ComponentEvaluationSection> evaluationSections = FilterEngine.filter(detailData.getEvaluationSections());
 		result.setEvaluation(ComponentEvaluationView.toViewFromStorage(evaluationSections));
 
 		List<EvaluationAll> publicEvaluations = componentService.getEvaluationService().getPublishEvaluations(componentId);
@@ -453,9 +412,21 @@ public class CoreComponentServiceImpl
 		return result;
 	}
 
+	private <T extends BaseComponent<T>> List<T> pendingForUser(T example, String componentId, String username)
+	{
+		example.setComponentId(componentId);
+		example.setActiveStatus(BaseComponent.PENDING_STATUS);
+		example.setCreateUser(username);
+		List<T> pending = persistenceService.queryByExample(new QueryByExample<>(example));
+		return FilterEngine.filter(pending);
+	}
+
 	public void saveComponentTracking(ComponentTracking tracking)
 	{
-		ComponentTracking oldTracking = persistenceService.findById(ComponentTracking.class, tracking.getComponentTrackingId());
+		ComponentTracking oldTracking = null;
+		if (tracking.getComponentTrackingId() != null) {
+			oldTracking = persistenceService.findById(ComponentTracking.class, tracking.getComponentTrackingId());
+		}
 		if (oldTracking != null) {
 			oldTracking.setClientIp(tracking.getClientIp());
 			oldTracking.setEventDts(tracking.getEventDts());
@@ -469,6 +440,13 @@ public class CoreComponentServiceImpl
 		} else {
 			tracking.populateBaseCreateFields();
 			tracking.setComponentTrackingId(persistenceService.generateId());
+			TrackingManager.queueAfterCommit(persistenceService, tracking);
+		}
+	}
+
+	public void saveComponentTrackings(List<ComponentTracking> trackings)
+	{
+		for (ComponentTracking tracking : trackings) {
 			persistenceService.persist(tracking);
 		}
 	}
@@ -600,6 +578,7 @@ public class CoreComponentServiceImpl
 
 				attachedComponent = persistenceService.persist(component.getComponent());
 				component.setComponentChanged(true);
+				ComponentIdDictionary.register(component.getComponent().getComponentId());
 
 				component.getAttributes().forEach(attribute
 						-> {
@@ -741,31 +720,107 @@ public class CoreComponentServiceImpl
 
 	public void importComponents(List<ComponentAll> components, FileHistoryOption options)
 	{
+		List<String> componentIds = new ArrayList<>();
+		componentService.setBulkImport(true);
+		try {
+			components.forEach(component
+					-> {
+				Component existing = findExistingComponent(component.getComponent());
+				if (existing != null) {
+					component.getComponent().setComponentId(existing.getComponentId());
+					snapshotVersion(component.getComponent().getComponentId(), component.getComponent().getFileHistoryId());
+				}
+				if (saveFullComponent(component, options, false)) {
+					componentIds.add(component.getComponent().getComponentId());
+				}
+			});
+		} finally {
+			componentService.setBulkImport(false);
+			//only what the caller's transaction (if any) actually commits
+			persistenceService.afterCommit(() -> finishBulkImport(componentIds));
+		}
+	}
+
+	public List<String> bulkImportComponents(List<ComponentAll> components, FileHistoryOption options)
+	{
+		List<String> componentIds = new ArrayList<>();
+		componentService.setBulkImport(true);
+		try {
+			for (ComponentAll component : components) {
+				if (saveFullComponent(component, options, false)) {
+					componentIds.add(component.getComponent().getComponentId());
+				}
+			}
+		} finally {
+			componentService.setBulkImport(false);
+		}
+		return componentIds;
+	}
+
+	public void finishBulkImport(Collection<String> componentIds)
+	{
+		Set<String> uniqueComponentIds = new LinkedHashSet<>(componentIds);
+		if (uniqueComponentIds.isEmpty()) {
+			return;
+		}
+
+		int batchSize = Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_BULK_BATCH_SIZE));
+		Date updateDts = TimeUtil.currentDate();
 		List<Component> componentsToIndex = new ArrayList<>();
-		components.forEach(component
-				-> {
-			Component existing = findExistingComponent(component.getComponent());
-			if (existing != null) {
-				component.getComponent().setComponentId(existing.getComponentId());
-				snapshotVersion(component.getComponent().getComponentId(), component.getComponent().getFileHistoryId());
+		for (String componentId : uniqueComponentIds) {
+			//critical block try each record separately
+			try {
+				Component component = persistenceService.findById(Component.class, componentId);
+				if (component != null) {
+					updateActivity(component, updateDts, componentService.getModificationType());
+					componentService.getUserService().checkComponentWatches(component);
+					componentsToIndex.add(component);
+				}
+			} catch (Exception e) {
+				LOG.log(Level.SEVERE, "Fail to update component.  Check data on component id: " + componentId, e);
 			}
-			saveFullComponent(component, options, false);
-			componentsToIndex.add(component.getComponent());
-		});
+
+			if (componentsToIndex.size() >= batchSize) {
+				componentService.getSearchService().indexComponents(componentsToIndex);
+				componentsToIndex.clear();
+			}
+		}
 		componentService.getSearchService().indexComponents(componentsToIndex);
+
+		OSFCacheManager.invalidateComponents(uniqueComponentIds);
+		ComponentSearchViewStore.refresh(uniqueComponentIds);
+	}
+
+	private void updateActivity(Component component, Date updateDts, String modificationType)
+	{
+		component.setLastActivityDts(updateDts);
+		component.setLastModificationType(modificationType);
+		Integer version = component.getRecordVersion();
+		if (version == null) {
+			version = 1;
+		} else {
+			version++;
+		}
+		component.setRecordVersion(version);
+		persistenceService.persist(component);
 	}
 
 	public ComponentAll saveFullComponent(ComponentAll componentAll)
 	{
-		return saveFullComponent(componentAll, new FileHistoryOption(), true);
+		saveFullComponent(componentAll, new FileHistoryOption(), true);
+		return componentAll;
 	}
 
 	public ComponentAll saveFullComponent(ComponentAll componentAll, FileHistoryOption options)
 	{
-		return saveFullComponent(componentAll, options, true);
+		saveFullComponent(componentAll, options, true);
+		return componentAll;
 	}
 
-	private ComponentAll saveFullComponent(ComponentAll componentAll, FileHistoryOption options, boolean updateIndex)
+	/**
+	 * @return true if anything on the component changed
+	 */
+	private boolean saveFullComponent(ComponentAll componentAll, FileHistoryOption options, boolean updateIndex)
 	{
 		LockSwitch lockSwitch = new LockSwitch();
 
@@ -910,7 +965,7 @@ public class CoreComponentServiceImpl
 			componentService.getSearchService().deleteById(component.getComponentId());
 		}
 
-		if (lockSwitch.isSwitched()) {
+		if (lockSwitch.isSwitched() && componentService.isBulkImport() == false) {
 			componentService.getUserService().checkComponentWatches(component);
 
 			if (updateIndex) {
@@ -920,7 +975,7 @@ public class CoreComponentServiceImpl
 			}
 		}
 
-		return componentAll;
+		return lockSwitch.isSwitched();
 	}
 
 	private <T extends BaseComponent> boolean handleBaseComponentSave(Class<T> baseComponentClass, List<T> baseComponents, String componentId)
@@ -1086,12 +1141,14 @@ public class CoreComponentServiceImpl
 
 		Component component = persistenceService.findById(Component.class, componentId);
 		persistenceService.delete(component);
+		ComponentIdDictionary.remove(componentId);
 
 		if (option.getRemoveWatches()) {
 			componentService.getUserService().removeAllWatchesForComponent(componentId);
 		}
 		componentService.getSearchService().deleteById(componentId);
 		cleanupCache(componentId);
+		TrackingManager.removeComponent(componentId);
 	}
 
 	private <T extends BaseComponent> void deleteBaseComponent(T example, String componentId)
@@ -1151,90 +1208,13 @@ public class CoreComponentServiceImpl
 	{
 		List<ComponentSearchView> componentSearchViews = new ArrayList<>();
 		if (componentIds.isEmpty() == false) {
-
-			String dataFilterRestriction = FilterEngine.queryComponentRestriction();
-			if (StringUtils.isNotBlank(dataFilterRestriction)) {
-				dataFilterRestriction += " and ";
-			}
-
-			//get all active data
-			StringBuilder componentQuery = new StringBuilder();
-			componentQuery.append("select from Component where activeStatus='")
-					.append(Component.ACTIVE_STATUS)
-					.append("'and approvalState='")
-					.append(ApprovalStatus.APPROVED)
-					.append("' and ")
-					.append(dataFilterRestriction)
-					.append(" componentId IN :componentIdsParams");
-
-			Map<String, Object> paramMap = new HashMap<>();
-			paramMap.put("componentIdsParams", componentIds);
-			List<Component> components = persistenceService.query(componentQuery.toString(), paramMap, true);
-
-			StringBuilder componentAttributeQuery = new StringBuilder();
-			componentAttributeQuery.append("select from ComponentAttribute where activeStatus='").append(Component.ACTIVE_STATUS).append("' and componentId IN :componentIdsParams");
-			List<ComponentAttribute> componentAttributes = persistenceService.query(componentAttributeQuery.toString(), paramMap, true);
-			Map<String, List<ComponentAttribute>> attributeMap = new HashMap<>();
-			for (ComponentAttribute componentAttribute : componentAttributes) {
-				if (attributeMap.containsKey(componentAttribute.getComponentId())) {
-					attributeMap.get(componentAttribute.getComponentId()).add(componentAttribute);
-				} else {
-					List<ComponentAttribute> attributes = new ArrayList<>();
-					attributes.add(componentAttribute);
-					attributeMap.put(componentAttribute.getComponentId(), attributes);
-				}
-			}
-
-			StringBuilder componentReviewQuery = new StringBuilder();
-			componentReviewQuery.append("select from ComponentReview where activeStatus='").append(Component.ACTIVE_STATUS).append("' and componentId IN :componentIdsParams");
-			List<ComponentReview> componentReviews = persistenceService.query(componentReviewQuery.toString(), paramMap, true);
-			Map<String, List<ComponentReview>> reviewMap = new HashMap<>();
-			for (ComponentReview componentReview : componentReviews) {
-				if (reviewMap.containsKey(componentReview.getComponentId())) {
-					reviewMap.get(componentReview.getComponentId()).add(componentReview);
-				} else {
-					List<ComponentReview> reviews = new ArrayList<>();
-					reviews.add(componentReview);
-					reviewMap.put(componentReview.getComponentId(), reviews);
+			UserContext userContext = SecurityUtil.getUserContext();
+			for (ComponentSearchView view : ComponentSearchViewStore.getViews(componentIds)) {
+				if (FilterEngine.keepComponentRestriction(userContext, view.getDataSource(), view.getDataSensitivity())) {
+					componentSearchViews.add(view);
 				}
 			}
-
-			StringBuilder componentTagQuery = new StringBuilder();
-			componentTagQuery.append("select from ComponentTag where activeStatus='").append(Component.ACTIVE_STATUS).append("' and componentId IN :componentIdsParams");
-			List<ComponentTag> componentTags = persistenceService.query(componentTagQuery.toString(), paramMap, true);
-			Map<String, List<ComponentTag>> tagMap = new HashMap<>();
-			for (ComponentTag componentTag : componentTags) {
-				if (tagMap.containsKey(componentTag.getComponentId())) {
-					tagMap.get(componentTag.getComponentId()).add(componentTag);
-				} else {
-					List<ComponentTag> tags = new ArrayList<>();
-					tags.add(componentTag);
-					tagMap.put(componentTag.getComponentId(), tags);
-				}
-			}
-
-			//group by component
-			for (Component component : components) {
-				List<ComponentAttribute> attributes = attributeMap.get(component.getComponentId());
-				if (attributes == null) {
-					attributes = new ArrayList<>();
-				}
-
-				List<ComponentReview> reviews = reviewMap.get(component.getComponentId());
-				if (reviews == null) {
-					reviews = new ArrayList<>();
-				}
-
-				List<ComponentTag> tags = tagMap.get(component.getComponentId());
-				if (tags == null) {
-					tags = new ArrayList<>();
-				}
-				ComponentSearchView componentSearchView = ComponentSearchView.toView(component, attributes, reviews, tags);
-				componentSearchViews.add(componentSearchView);
-			}
-
 		}
-
 		return componentSearchViews;
 	}
 
@@ -1242,85 +1222,8 @@ public class CoreComponentServiceImpl
 	{
 		ComponentAll componentAll = null;
 		if (StringUtils.isNotBlank(componentId)) {
-			Element element = OSFCacheManager.getComponentCache().get(componentId);
-			if (element != null) {
-				componentAll = (ComponentAll) element.getObjectValue();
-			} else {
-				componentAll = new ComponentAll();
-
-				Component componentExample = new Component();
-				componentExample.setComponentId(componentId);
-				componentAll.setComponent(persistenceService.queryOneByExample(componentExample));
-
-				if (componentAll.getComponent() != null) {
-					componentAll.setAttributes(sub.getAttributesByComponentId(componentId));
-					componentAll.setContacts(sub.getBaseComponent(ComponentContact.class, componentId));
-					componentAll.setEvaluationSections(sub.getBaseComponent(ComponentEvaluationSection.class, componentId));
-					componentAll.setExternalDependencies(sub.getBaseComponent(ComponentExternalDependency.class, componentId));
-					componentAll.setMedia(sub.getBaseComponent(ComponentMedia.class, componentId));
-					componentAll.setMetadata(sub.getBaseComponent(ComponentMetadata.class, componentId));
-					componentAll.setRelationships(sub.getBaseComponent(ComponentRelationship.class, componentId));
-					componentAll.setResources(sub.getBaseComponent(ComponentResource.class, componentId));
-					componentAll.setResources(SortUtil.sortComponentResource(componentAll.getResources()));
-
-					componentAll.setTags(sub.getBaseComponent(ComponentTag.class, componentId));
-
-					List<QuestionAll> allQuestions = new ArrayList<>();
-					List<ComponentQuestion> questions = sub.getBaseComponent(ComponentQuestion.class, componentId);
-					for (ComponentQuestion question : questions) {
-						QuestionAll questionAll = new QuestionAll();
-						questionAll.setQuestion(question);
-
-						ComponentQuestionResponse questionResponseExample = new ComponentQuestionResponse();
-						questionResponseExample.setActiveStatus(ComponentQuestionResponse.ACTIVE_STATUS);
-						questionResponseExample.setQuestionId(question.getQuestionId());
-						questionAll.setResponds(persistenceService.queryByExample(questionResponseExample));
-						allQuestions.add(questionAll);
-					}
-					componentAll.setQuestions(allQuestions);
-
-					List<ReviewAll> allReviews = new ArrayList<>();
-					List<ComponentReview> componentReviews = sub.getBaseComponent(ComponentReview.class, componentId);
-					for (ComponentReview componentReview : componentReviews) {
-						ReviewAll reviewAll = new ReviewAll();
-						reviewAll.setComponentReview(componentReview);
-
-						ComponentReviewPro componentReviewProExample = new ComponentReviewPro();
-						ComponentReviewProPk componentReviewProExamplePk = new ComponentReviewProPk();
-						componentReviewProExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
-						componentReviewProExample.setComponentReviewProPk(componentReviewProExamplePk);
-						reviewAll.setPros(persistenceService.queryByExample(componentReviewProExample));
-
-						ComponentReviewCon componentReviewConExample = new ComponentReviewCon();
-						ComponentReviewConPk componentReviewConExamplePk = new ComponentReviewConPk();
-						componentReviewConExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
-						componentReviewConExample.setComponentReviewConPk(componentReviewConExamplePk);
-						reviewAll.setCons(persistenceService.queryByExample(componentReviewConExample));
-
-						allReviews.add(reviewAll);
-					}
-					componentAll.setReviews(allReviews);
-
-					ComponentIntegration componentIntegrationExample = new ComponentIntegration();
-					componentIntegrationExample.setActiveStatus(ComponentIntegration.ACTIVE_STATUS);
-					componentIntegrationExample.setComponentId(componentId);
-
-					ComponentIntegration componentIntegration = persistenceService.queryOneByExample(componentIntegrationExample);
-					if (componentIntegration != null) {
-						IntegrationAll integrationAll = new IntegrationAll();
-						integrationAll.setIntegration(componentIntegration);
-
-						ComponentIntegrationConfig configExample = new ComponentIntegrationConfig();
-						configExample.setActiveStatus(ComponentIntegrationConfig.ACTIVE_STATUS);
-						configExample.setComponentId(componentId);
-						integrationAll.setConfigs(persistenceService.queryByExample(configExample));
-						componentAll.setIntegrationAll(integrationAll);
-					}
-
-					element = new Element(componentId, componentAll);
-					OSFCacheManager.getComponentCache().put(element);
-				}
-			}
+			//Load on a service of its own (no transaction); refresh-ahead runs the loader on another thread
+			componentAll = OSFCacheManager.get(OSFCacheManager.getComponentCache(), componentId, () -> new ComponentServiceImpl().getCore().loadFullComponent(componentId));
 		}
 
 		if (componentAll != null) {
@@ -1334,6 +1237,84 @@ public class CoreComponentServiceImpl
 		return componentAll;
 	}
 
+	private ComponentAll loadFullComponent(String componentId)
+	{
+		ComponentAll componentAll = new ComponentAll();
+
+		Component componentExample = new Component();
+		componentExample.setComponentId(componentId);
+		componentAll.setComponent(persistenceService.queryOneByExample(componentExample));
+
+		if (componentAll.getComponent() != null) {
+			componentAll.setAttributes(sub.getAttributesByComponentId(componentId));
+			componentAll.setContacts(sub.getBaseComponent(ComponentContact.class, componentId));
+			componentAll.setEvaluationSections(sub.getBaseComponent(ComponentEvaluationSection.class, componentId));
+			componentAll.setExternalDependencies(sub.getBaseComponent(ComponentExternalDependency.class, componentId));
+			componentAll.setMedia(sub.getBaseComponent(ComponentMedia.class, componentId));
+			componentAll.setMetadata(sub.getBaseComponent(ComponentMetadata.class, componentId));
+			componentAll.setRelationships(sub.getBaseComponent(ComponentRelationship.class, componentId));
+			componentAll.setResources(sub.getBaseComponent(ComponentResource.class, componentId));
+			componentAll.setResources(SortUtil.sortComponentResource(componentAll.getResources()));
+
+			componentAll.setTags(sub.getBaseComponent(ComponentTag.class, componentId));
+
+			List<QuestionAll> allQuestions = new ArrayList<>();
+			List<ComponentQuestion> questions = sub.getBaseComponent(ComponentQuestion.class, componentId);
+			for (ComponentQuestion question : questions) {
+				QuestionAll questionAll = new QuestionAll();
+				questionAll.setQuestion(question);
+
+				ComponentQuestionResponse questionResponseExample = new ComponentQuestionResponse();
+				questionResponseExample.setActiveStatus(ComponentQuestionResponse.ACTIVE_STATUS);
+				questionResponseExample.setQuestionId(question.getQuestionId());
+				questionAll.setResponds(persistenceService.queryByExample(questionResponseExample));
+				allQuestions.add(questionAll);
+			}
+			componentAll.setQuestions(allQuestions);
+
+			List<ReviewAll> allReviews = new ArrayList<>();
+			List<ComponentReview> componentReviews = sub.getBaseComponent(ComponentReview.class, componentId);
+			for (ComponentReview componentReview : componentReviews) {
+				ReviewAll reviewAll = new ReviewAll();
+				reviewAll.setComponentReview(componentReview);
+
+				ComponentReviewPro componentReviewProExample = new ComponentReviewPro();
+				ComponentReviewProPk componentReviewProExamplePk = new ComponentReviewProPk();
+				componentReviewProExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
+				componentReviewProExample.setComponentReviewProPk(componentReviewProExamplePk);
+				reviewAll.setPros(persistenceService.queryByExample(componentReviewProExample));
+
+				ComponentReviewCon componentReviewConExample = new ComponentReviewCon();
+				ComponentReviewConPk componentReviewConExamplePk = new ComponentReviewConPk();
+				componentReviewConExamplePk.setComponentReviewId(componentReview.getComponentReviewId());
+				componentReviewConExample.setComponentReviewConPk(componentReviewConExamplePk);
+				reviewAll.setCons(persistenceService.queryByExample(componentReviewConExample));
+
+				allReviews.add(reviewAll);
+			}
+			componentAll.setReviews(allReviews);
+
+			ComponentIntegration componentIntegrationExample = new ComponentIntegration();
+			componentIntegrationExample.setActiveStatus(ComponentIntegration.ACTIVE_STATUS);
+			componentIntegrationExample.setComponentId(componentId);
+
+			ComponentIntegration componentIntegration = persistenceService.queryOneByExample(componentIntegrationExample);
+			if (componentIntegration != null) {
+				IntegrationAll integrationAll = new IntegrationAll();
+				integrationAll.setIntegration(componentIntegration);
+
+				ComponentIntegrationConfig configExample = new ComponentIntegrationConfig();
+				configExample.setActiveStatus(ComponentIntegrationConfig.ACTIVE_STATUS);
+				configExample.setComponentId(componentId);
+				integrationAll.setConfigs(persistenceService.queryByExample(configExample));
+				componentAll.setIntegrationAll(integrationAll);
+			}
+
+			return componentAll;
+		}
+		return null;
+	}
+
 	public ComponentTrackingResult getComponentTracking(FilterQueryParams filter, String componentId)
 	{
 		ComponentTrackingResult result = new ComponentTrackingResult();
@@ -1628,17 +1609,8 @@ public class CoreComponentServiceImpl
 						try {
 							Component component = persistenceService.findById(Component.class, componentId);
 							if (component != null) {
-								component.setLastActivityDts(componentUpdate.getUpdateDts());
-								component.setLastModificationType(componentUpdate.getModificationType());
-								Integer version = component.getRecordVersion();
-								if (version == null) {
-									version = 1;
-								} else {
-									version++;
-								}
-								component.setRecordVersion(version);
-								persistenceService.persist(component);
-								componentService.getUserService().checkComponentWatches(component);
+								updateActivity(component, componentUpdate.getUpdateDts(), componentUpdate.getModificationType());
+								OSFCacheManager.invalidateKey(OSFCacheManager.getComponentDetailCache(), componentId);
 								componentsToIndex.add(component);
 							} else {
 								LOG.log(Level.FINE, MessageFormat.format("Component not found to update last Activity. Component may have been removed.  Check component id: {0}", componentId));
@@ -1647,15 +1619,19 @@ public class CoreComponentServiceImpl
 							LOG.log(Level.SEVERE, "Fail to update component.  Check data on component id: " + componentId, e);
 						}
 					}
+					checkWatches(componentsToIndex);
 					componentService.getSearchService().indexComponents(componentsToIndex);
+					ComponentSearchViewStore.refresh(componentMap.values().stream()
+							.map(ComponentUpdateQueue::getComponentId)
+							.collect(Collectors.toSet()));
 				} finally {
 					//remove processed records (must remove them to avoid looping when there are issues
-					for (ComponentUpdateQueue updateQueue : componentUpdateQueues) {
-						ComponentUpdateQueue componentUpdateQueue = persistenceService.findById(ComponentUpdateQueue.class, updateQueue.getUpdateId());
-						if (componentUpdateQueue != null) {
-							persistenceService.delete(componentUpdateQueue);
-						}
-					}
+					Set<String> processedUpdateIds = componentUpdateQueues.stream()
+							.map(ComponentUpdateQueue::getUpdateId)
+							.collect(Collectors.toSet());
+					Map<String, Object> deleteParams = new HashMap<>();
+					deleteParams.put("updateIdsParam", processedUpdateIds);
+					persistenceService.deleteByQuery(ComponentUpdateQueue.class, "updateId in :updateIdsParam", deleteParams);
 				}
 			}
 		} finally {
@@ -1664,6 +1640,31 @@ public class CoreComponentServiceImpl
 
 	}
 
+	/**
+	 * Checks the watches in chunks; a failed chunk is retried a component at
+	 * a time so one bad component doesn't hold back the rest. Components that
+	 * still fail are logged and skipped (their queue rows are removed like the
+	 * rest so a bad component isn't processed over and over).
+	 */
+	private void checkWatches(List<Component> components)
+	{
+		for (int start = 0; start < components.size(); start += WATCH_CHECK_CHUNK_SIZE) {
+			List<Component> chunk = components.subList(start, Math.min(start + WATCH_CHECK_CHUNK_SIZE, components.size()));
+			try {
+				componentService.getUserService().checkComponentWatches(chunk);
+			} catch (Exception chunkException) {
+				LOG.log(Level.FINE, "Component watch chunk failed; retrying components separately", chunkException);
+				for (Component component : chunk) {
+					try {
+						componentService.getUserService().checkComponentWatches(component);
+					} catch (Exception e) {
+						LOG.log(Level.SEVERE, "Fail to process component watches.  Check data on component id: " + component.getComponentId(), e);
+					}
+				}
+			}
+		}
+	}
+
 	public void checkComponentCancelStatus(String componentId, String newApprovalStatus)
 	{
 		checkCancelStatus(componentId, newApprovalStatus, AlertType.COMPONENT_SUBMISSION);
@@ -1713,14 +1714,10 @@ public class CoreComponentServiceImpl
 
 	public boolean checkComponentApproval(String componentId)
 	{
-		boolean approved = false;
-		Element element = OSFCacheManager.getComponentApprovalCache().get(componentId);
-		if (element != null) {
-			String approvalState = (String) element.getObjectValue();
-			if (StringUtils.isNotBlank(approvalState)) {
-				approved = true;
-			}
-		} else {
+		if (componentId == null) {
+			return false;
+		}
+		String approvalState = OSFCacheManager.getOrLoadAll(OSFCacheManager.getComponentApprovalCache(), componentId, () -> {
 			String query = "select componentId, approvalState from " + Component.class.getSimpleName() + " where approvalState = :approvalStateParam and activeStatus = :activeStatusParam";
 			Map<String, Object> parameters = new HashMap<>();
 			parameters.put("approvalStateParam", ApprovalStatus.APPROVED);
@@ -1728,47 +1725,37 @@ public class CoreComponentServiceImpl
 			List<ODocument> documents = persistenceService.query(query, parameters);
 			for (ODocument document : documents) {
 				Element newElement = new Element(document.field("componentId"), document.field("approvalState"));
-				if (document.field("componentId").equals(componentId)) {
-					String approvalState = (String) document.field("approvalState");
-					if (StringUtils.isNotBlank(approvalState)) {
-						approved = true;
-					}
-				}
 				OSFCacheManager.getComponentApprovalCache().put(newElement);
 			}
-		}
-		return approved;
+		});
+		return StringUtils.isNotBlank(approvalState);
 	}
 
 	public ComponentSensitivityModel getComponentSensitivity(String componentId)
 	{
-		ComponentSensitivityModel componentSensitivityModel = new ComponentSensitivityModel();
-		componentSensitivityModel.setComponentId(componentId);
-
-		Element element = OSFCacheManager.getComponentDataRestrictionCache().get(componentId);
-		if (element != null) {
-			componentSensitivityModel = (ComponentSensitivityModel) element.getObjectValue();
-		} else {
-			String query = "select componentId, dataSource, dataSensitivity from " + Component.class.getSimpleName() + " where dataSource IS NOT NULL OR dataSensitivity IS NOT NULL";
-			Map<String, Object> parameters = new HashMap<>();
-
-			List<ODocument> documents = persistenceService.query(query, parameters);
-			for (ODocument document : documents) {
-				ComponentSensitivityModel cacheSensitivityModel = new ComponentSensitivityModel();
-				cacheSensitivityModel.setComponentId(document.field("componentId"));
-				cacheSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
-				cacheSensitivityModel.setDataSource(document.field("dataSource"));
-
-				Element newElement = new Element(document.field("componentId"), cacheSensitivityModel);
-				if (document.field("componentId").equals(componentId)) {
-					componentSensitivityModel.setComponentId(document.field("componentId"));
-					componentSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
-					componentSensitivityModel.setDataSource(document.field("dataSource"));
+		ComponentSensitivityModel componentSensitivityModel = null;
+		if (componentId != null) {
+			componentSensitivityModel = OSFCacheManager.getOrLoadAll(OSFCacheManager.getComponentDataRestrictionCache(), componentId, () -> {
+				String query = "select componentId, dataSource, dataSensitivity from " + Component.class.getSimpleName() + " where dataSource IS NOT NULL OR dataSensitivity IS NOT NULL";
+				Map<String, Object> parameters = new HashMap<>();
+
+				List<ODocument> documents = persistenceService.query(query, parameters);
+				for (ODocument document : documents) {
+					ComponentSensitivityModel cacheSensitivityModel = new ComponentSensitivityModel();
+					cacheSensitivityModel.setComponentId(document.field("componentId"));
+					cacheSensitivityModel.setDataSensitivity(document.field("dataSensitivity"));
+					cacheSensitivityModel.setDataSource(document.field("dataSource"));
+
+					Element newElement = new Element(document.field("componentId"), cacheSensitivityModel);
+					OSFCacheManager.getComponentDataRestrictionCache().put(newElement);
 				}
-				OSFCacheManager.getComponentDataRestrictionCache().put(newElement);
-			}
+			});
 		}
 
+		if (componentSensitivityModel == null) {
+			componentSensitivityModel = new ComponentSensitivityModel();
+			componentSensitivityModel.setComponentId(componentId);
+		}
 		return componentSensitivityModel;
 	}
 
@@ -2274,6 +2261,7 @@ public class CoreComponentServiceImpl
 
 				cleanupCache(toMergeComponentId);
 				cleanupCache(targetComponentId);
+				TrackingManager.resetCounters();
 
 				//Re-pull
 				targetComponent = getFullComponent(targetComponentId);
@@ -2323,24 +2311,10 @@ public class CoreComponentServiceImpl
 
 	public List<ComponentRecordStatistic> findTopViewedComponents(Integer maxRecords)
 	{
-		List<ComponentRecordStatistic> recordStatistics = new ArrayList<>();
-
-		String limit = "";
-		if (maxRecords != null) {
-			limit = "LIMIT " + maxRecords;
-		}
-
-		String query = "select count(*) as views, componentId from " + ComponentTracking.class.getSimpleName() + " group by componentId order by views DESC " + limit;
-
-		List<ODocument> documents = persistenceService.query(query, null);
-		for (ODocument document : documents) {
-			ComponentRecordStatistic componentRecordStatistic = new ComponentRecordStatistic();
-			componentRecordStatistic.setComponentId(document.field("componentId"));
-			componentRecordStatistic.setViews(document.field("views"));
+		List<ComponentRecordStatistic> recordStatistics = TrackingManager.findTopComponentEvents(maxRecords);
+		for (ComponentRecordStatistic componentRecordStatistic : recordStatistics) {
 			componentRecordStatistic.setComponentName(getComponentName(componentRecordStatistic.getComponentId()));
-			recordStatistics.add(componentRecordStatistic);
 		}
-
 		return recordStatistics;
 	}
 
@@ -2370,7 +2344,7 @@ public class CoreComponentServiceImpl
 			componentType.populateBaseCreateFields();
 			componentType = persistenceService.persist(componentType);
 		}
-		OSFCacheManager.getComponentTypeCache().removeAll();
+		OSFCacheManager.invalidateKey(OSFCacheManager.getComponentTypeCache(), OSFCacheManager.ALLCODE_KEY);
 
 		return componentType;
 	}
@@ -2380,6 +2354,13 @@ public class CoreComponentServiceImpl
 		ComponentType componentTypeFound = persistenceService.findById(ComponentType.class, componentType);
 		if (componentTypeFound != null) {
 
+			Component componentTypeExample = new Component();
+			componentTypeExample.setComponentType(componentType);
+			List<Component> affectedComponents = persistenceService.queryByExample(componentTypeExample);
+			List<String> affectedComponentIds = affectedComponents.stream()
+					.map(Component::getComponentId)
+					.collect(Collectors.toList());
+
 			boolean inactivate = true;
 			if (StringUtils.isNotBlank(newComponentType)) {
 				ComponentType newType = persistenceService.findById(ComponentType.class, newComponentType);
@@ -2452,8 +2433,10 @@ public class CoreComponentServiceImpl
 				componentTypeFound.populateBaseUpdateFields();
 				persistenceService.persist(componentTypeFound);
 			}
-			OSFCacheManager.getComponentCache().removeAll();
-			OSFCacheManager.getComponentTypeCache().removeAll();
+			OSFCacheManager.invalidateComponents(affectedComponentIds);
+			OSFCacheManager.invalidateKey(OSFCacheManager.getComponentTypeCache(), OSFCacheManager.ALLCODE_KEY);
+			affectedComponentIds.forEach(ComponentSearchViewStore::remove);
+			OSFCacheManager.invalidateSearchResults();
 		}
 	}
 
@@ -2606,14 +2589,10 @@ public class CoreComponentServiceImpl
 
 	public String resolveComponentIcon(String componentId)
 	{
-		String iconMediaId = null;
-		Element element = OSFCacheManager.getComponentIconCache().get(componentId);
-		if (element != null) {
-			String componentMediaId = (String) element.getObjectValue();
-			if (StringUtils.isNotBlank(componentMediaId)) {
-				iconMediaId = componentMediaId;
-			}
-		} else {
+		if (componentId == null) {
+			return null;
+		}
+		String iconMediaId = OSFCacheManager.getOrLoadAll(OSFCacheManager.getComponentIconCache(), componentId, () -> {
 			ComponentMedia componentMediaExample = new ComponentMedia();
 			componentMediaExample.setActiveStatus(ComponentMedia.ACTIVE_STATUS);
 			componentMediaExample.setIconFlag(Boolean.TRUE);
@@ -2622,12 +2601,12 @@ public class CoreComponentServiceImpl
 			for (ComponentMedia componentMedia : allIconMedia) {
 				Element newElement = new Element(componentMedia.getComponentId(), componentMedia.getComponentMediaId());
 				OSFCacheManager.getComponentIconCache().put(newElement);
-				if (componentMedia.getComponentId().equals(componentId)) {
-					iconMediaId = componentMedia.getComponentMediaId();
-				}
 			}
+		});
+		if (StringUtils.isNotBlank(iconMediaId)) {
+			return iconMediaId;
 		}
-		return iconMediaId;
+		return null;
 	}
 
 	public String resolveComponentTypeIcon(String componentType)
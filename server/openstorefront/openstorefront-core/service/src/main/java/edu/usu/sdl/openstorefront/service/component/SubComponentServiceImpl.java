@@ -51,6 +51,7 @@ import edu.usu.sdl.openstorefront.core.view.ComponentReviewProCon;
 import edu.usu.sdl.openstorefront.core.view.ComponentReviewView;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.service.ComponentServiceImpl;
+import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
@@ -503,6 +504,10 @@ public class SubComponentServiceImpl
 			componentService.getChangeLogService().addEntityChange(componentRelationship);
 		}
 
+		//the related component shows the relationship as well
+		if (StringUtils.isNotBlank(componentRelationship.getRelatedComponentId())) {
+			OSFCacheManager.invalidateKey(OSFCacheManager.getComponentDetailCache(), componentRelationship.getRelatedComponentId());
+		}
 		if (updateLastActivity) {
 			updateComponentLastActivity(componentRelationship.getComponentId());
 		}
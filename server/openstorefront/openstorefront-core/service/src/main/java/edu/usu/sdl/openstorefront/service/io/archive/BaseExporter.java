@@ -32,7 +32,7 @@ public abstract class BaseExporter
 
 	private static final Logger LOG = Logger.getLogger(BaseExporter.class.getName());
 
-	protected ServiceProxy service = new ServiceProxy();
+	protected ServiceProxy service = ServiceProxy.getThreadProxy();
 	protected SystemArchive archive;
 	protected String archiveBasePath;
 	private boolean addedError = false;
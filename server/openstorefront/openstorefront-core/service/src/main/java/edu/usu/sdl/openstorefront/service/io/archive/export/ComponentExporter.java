@@ -16,6 +16,8 @@
 package edu.usu.sdl.openstorefront.service.io.archive.export;
 
 import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.common.util.StringProcessor;
 import edu.usu.sdl.openstorefront.core.entity.Component;
 import edu.usu.sdl.openstorefront.core.entity.ComponentMedia;
@@ -32,7 +34,12 @@ import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import net.java.truevfs.access.TFile;
@@ -169,28 +176,41 @@ public class ComponentExporter
 		File dataDir = new TFile(archiveBasePath + DATA_DIR);
 		File files[] = dataDir.listFiles();
 		if (files != null) {
-			for (File dataFile : files) {
-				if (dataFile.isFile()) {
-					try (InputStream in = new TFileInputStream(dataFile)) {
-						archive.setStatusDetails("Importing: " + dataFile.getName());
-						archive.save();
-
-						ComponentAll componentAll = StringProcessor.defaultObjectMapper().readValue(in, ComponentAll.class);
-
-						FileHistoryOption options = new FileHistoryOption();
-						options.setSkipRequiredAttributes(Boolean.TRUE);
-						service.getComponentService().saveFullComponent(componentAll, options);
-
-						archive.setRecordsProcessed(archive.getRecordsProcessed() + 1);
-						archive.save();
-
-					} catch (Exception ex) {
-						LOG.log(Level.WARNING, "Failed to Load searches", ex);
-						addError("Unable to load searches: " + dataFile.getName());
+			int batchSize = Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_IMPORT_BULK_BATCH_SIZE));
+			FileHistoryOption options = new FileHistoryOption();
+			options.setSkipRequiredAttributes(Boolean.TRUE);
+
+			long startTime = System.currentTimeMillis();
+			long imported = 0;
+			Set<String> changedComponentIds = new LinkedHashSet<>();
+			Map<File, ComponentAll> batch = new LinkedHashMap<>();
+			try {
+				for (File dataFile : files) {
+					if (dataFile.isFile()) {
+						try {
+							batch.put(dataFile, readEntry(dataFile));
+						} catch (Exception ex) {
+							LOG.log(Level.WARNING, "Failed to read entry", ex);
+							addError("Unable to read entry: " + dataFile.getName());
+						}
+
+						if (batch.size() >= batchSize) {
+							imported += importBatch(batch, options, changedComponentIds);
+							updateThroughput(imported, startTime);
+						}
 					}
 				}
+				imported += importBatch(batch, options, changedComponentIds);
+				updateThroughput(imported, startTime);
+			} finally {
+				//the committed batches still need their index and cache work
+				archive.setStatusDetails("Indexing " + changedComponentIds.size() + " updated entries");
+				archive.save();
+				service.getComponentService().finishBulkImport(changedComponentIds);
 			}
 
+			LOG.log(Level.INFO, MessageFormat.format("Imported {0} entries in {1} ms ({2} entries/s)", imported, System.currentTimeMillis() - startTime, entriesPerSecond(imported, startTime)));
+
 			archive.setStatusDetails("Importing entry media");
 			archive.save();
 
@@ -228,6 +248,59 @@ public class ComponentExporter
 
 	}
 
+	/**
+	 * Saves the batch in one transaction; if that fails the entries are
+	 * re-read and saved one at a time so only the bad entries are skipped.
+	 *
+	 * @return entries imported
+	 */
+	private long importBatch(Map<File, ComponentAll> batch, FileHistoryOption options, Set<String> changedComponentIds)
+	{
+		long imported = 0;
+		if (batch.isEmpty()) {
+			return imported;
+		}
+
+		try {
+			changedComponentIds.addAll(service.getComponentService().bulkImportComponents(new ArrayList<>(batch.values()), options));
+			imported = batch.size();
+		} catch (Exception batchException) {
+			LOG.log(Level.FINE, "Batch import failed; retrying entries separately", batchException);
+			for (File dataFile : batch.keySet()) {
+				try {
+					changedComponentIds.addAll(service.getComponentService().bulkImportComponents(Arrays.asList(readEntry(dataFile)), options));
+					imported++;
+				} catch (Exception ex) {
+					LOG.log(Level.WARNING, "Failed to import entry", ex);
+					addError("Unable to import entry: " + dataFile.getName());
+				}
+			}
+		}
+		batch.clear();
+
+		archive.setRecordsProcessed(archive.getRecordsProcessed() + imported);
+		return imported;
+	}
+
+	private ComponentAll readEntry(File dataFile) throws IOException
+	{
+		try (InputStream in = new TFileInputStream(dataFile)) {
+			return StringProcessor.defaultObjectMapper().readValue(in, ComponentAll.class);
+		}
+	}
+
+	private void updateThroughput(long imported, long startTime)
+	{
+		archive.setStatusDetails(MessageFormat.format("Imported {0} entries ({1} entries/s)", imported, entriesPerSecond(imported, startTime)));
+		archive.save();
+	}
+
+	private String entriesPerSecond(long imported, long startTime)
+	{
+		long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+		return String.format("%.1f", imported * 1000.0 / elapsed);
+	}
+
 	@Override
 	public long getTotalRecords()
 	{
@@ -20,7 +20,7 @@ import edu.usu.sdl.openstorefront.core.spi.parser.BaseAttributeParser;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.AttributeMapper;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
 import edu.usu.sdl.openstorefront.core.spi.parser.reader.GenericReader;
-import edu.usu.sdl.openstorefront.core.spi.parser.reader.JSONMapReader;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.JSONStreamingMapReader;
 import java.io.InputStream;
 import java.util.List;
 
@@ -49,7 +49,7 @@ public class AttributeMappedJsonParser
 	@Override
 	protected GenericReader getReader(InputStream in)
 	{
-		return new JSONMapReader(in);
+		return new JSONStreamingMapReader(in);
 	}
 
 	@Override
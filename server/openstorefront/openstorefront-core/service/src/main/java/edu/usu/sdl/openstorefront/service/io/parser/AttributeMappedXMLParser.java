@@ -20,7 +20,7 @@ import edu.usu.sdl.openstorefront.core.spi.parser.BaseAttributeParser;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.AttributeMapper;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
 import edu.usu.sdl.openstorefront.core.spi.parser.reader.GenericReader;
-import edu.usu.sdl.openstorefront.core.spi.parser.reader.XMLMapReader;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.XMLStreamingMapReader;
 import java.io.InputStream;
 import java.util.List;
 
@@ -49,7 +49,7 @@ public class AttributeMappedXMLParser
 	@Override
 	protected GenericReader getReader(InputStream in)
 	{
-		return new XMLMapReader(in);
+		return new XMLStreamingMapReader(in);
 	}
 
 	@Override
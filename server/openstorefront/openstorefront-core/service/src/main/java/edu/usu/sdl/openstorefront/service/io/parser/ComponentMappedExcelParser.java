@@ -19,7 +19,7 @@ import edu.usu.sdl.openstorefront.core.model.ComponentAll;
 import edu.usu.sdl.openstorefront.core.spi.parser.BaseComponentParser;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.ComponentMapper;
 import edu.usu.sdl.openstorefront.core.spi.parser.mapper.MapModel;
-import edu.usu.sdl.openstorefront.core.spi.parser.reader.ExcelMapReader;
+import edu.usu.sdl.openstorefront.core.spi.parser.reader.ExcelStreamingMapReader;
 import edu.usu.sdl.openstorefront.core.spi.parser.reader.GenericReader;
 import java.io.InputStream;
 
@@ -45,7 +45,7 @@ public class ComponentMappedExcelParser
 	@Override
 	protected GenericReader getReader(InputStream in)
 	{
-		ExcelMapReader reader = new ExcelMapReader(in);
+		ExcelStreamingMapReader reader = new ExcelStreamingMapReader(in);
 		return reader;
 	}
 
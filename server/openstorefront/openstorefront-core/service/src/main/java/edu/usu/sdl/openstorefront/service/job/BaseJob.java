@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.service.job;
 
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.JobManager;
 import java.text.MessageFormat;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -34,18 +35,32 @@ public abstract class BaseJob
     private static final Logger log = Logger.getLogger(BaseJob.class.getName());
 
     protected ServiceProxy service = new ServiceProxy();
+    private String runStatus;
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException
     {
+        long startTime = System.currentTimeMillis();
         try {
             log.log(Level.FINEST, MessageFormat.format("Running job: ", new Object[]{context.getJobDetail().getKey().getName()}));
             executeInternaljob(context);
+            JobManager.updateLastRunStatus(context.getJobDetail().getKey(), (runStatus != null ? runStatus + " " : "") + "(Completed in " + (System.currentTimeMillis() - startTime) + " ms)");
         } catch (Exception e) {
             //According the quartz best practise the job shouldn't throw an error.
             log.log(Level.SEVERE, "Job failed unexpectly to run", e);
+            JobManager.updateLastRunStatus(context.getJobDetail().getKey(), "Failed after " + (System.currentTimeMillis() - startTime) + " ms: " + e.getMessage());
         }
     }
 
     protected abstract void executeInternaljob(JobExecutionContext context);
+
+    /**
+     * Sets the summary reported in the job status for this run
+     *
+     * @param runStatus
+     */
+    protected void setRunStatus(String runStatus)
+    {
+        this.runStatus = runStatus;
+    }
 }
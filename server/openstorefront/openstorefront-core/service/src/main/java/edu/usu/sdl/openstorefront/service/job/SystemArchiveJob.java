@@ -23,6 +23,7 @@ import edu.usu.sdl.openstorefront.core.entity.SystemArchive;
 import edu.usu.sdl.openstorefront.core.entity.SystemArchiveType;
 import edu.usu.sdl.openstorefront.core.model.ErrorInfo;
 import edu.usu.sdl.openstorefront.core.view.SystemErrorModel;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
 import edu.usu.sdl.openstorefront.service.io.archive.AbstractArchiveHandler;
 import java.util.List;
 import java.util.logging.Logger;
@@ -42,6 +43,7 @@ public class SystemArchiveJob
 	private static final long DEFAULT_MAX_PROCESSING_MINUTES = 60L;
 
 	@Override
+	@SuppressWarnings("try")
 	protected void executeInternaljob(JobExecutionContext context)
 	{
 		//check for stuck working archives that exceed processing time limits
@@ -76,8 +78,8 @@ public class SystemArchiveJob
 
 		List<SystemArchive> pendingArchives = systemArchive.findByExample();
 		for (SystemArchive archive : pendingArchives) {
-			//critial loop
-			try {
+			//critial loop; the exporters all run on this thread so they can share a service proxy
+			try (ServiceProxy.ThreadScope threadScope = ServiceProxy.openThreadScope()) {
 				AbstractArchiveHandler.processArchive(archive);
 			} catch (Exception e) {
 				ErrorInfo errorInfo = new ErrorInfo(e, null);
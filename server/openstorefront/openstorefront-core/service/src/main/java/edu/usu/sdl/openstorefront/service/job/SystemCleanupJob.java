@@ -30,10 +30,12 @@ public class SystemCleanupJob
 	protected void executeInternaljob(JobExecutionContext context)
 	{
 		service.getSystemService().cleanupOldErrors();
-		service.getSystemService().cleanUpOldLogRecords();
+		long logRecordsRemoved = service.getSystemService().cleanUpOldLogRecords();
 		service.getSystemService().cleanUpOldTemporaryMedia();
 		service.getImportService().cleanupOldFileHistory();
 		service.getNotificationService().cleanupOldEvents();
+
+		setRunStatus("Log records removed: " + logRecordsRemoved);
 	}
 
 }
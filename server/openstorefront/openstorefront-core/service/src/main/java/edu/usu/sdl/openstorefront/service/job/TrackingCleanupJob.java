@@ -16,11 +16,10 @@
 package edu.usu.sdl.openstorefront.service.job;
 
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
-import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
-import edu.usu.sdl.openstorefront.core.api.query.QueryByExample;
-import edu.usu.sdl.openstorefront.core.api.query.SpecialOperatorModel;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
 import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
+import edu.usu.sdl.openstorefront.service.manager.resource.RetentionIndexes;
 import java.text.MessageFormat;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -39,6 +38,8 @@ public class TrackingCleanupJob
 
 	private static final Logger log = Logger.getLogger(TrackingCleanupJob.class.getName());
 
+	private static final Class<?>[] TRACKING_CLASSES = {UserTracking.class, ComponentTracking.class};
+
 	@Override
 	protected void executeInternaljob(JobExecutionContext context)
 	{
@@ -49,34 +50,20 @@ public class TrackingCleanupJob
 
 		log.log(Level.FINEST, MessageFormat.format("Deleting old tracking records.  Older than: {0}", maxInstant.toString()));
 
-		log.log(Level.FINEST, "Deleting User Tracking Records");
-		UserTracking userTrackingExample = new UserTracking();
-
-		UserTracking userTrackingEndExample = new UserTracking();
-		userTrackingEndExample.setEventDts(new Date(maxInstant.toEpochMilli()));
-
-		QueryByExample queryByExample = new QueryByExample(userTrackingExample);
-		SpecialOperatorModel specialOperatorModel = new SpecialOperatorModel(userTrackingEndExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_LESS_THAN);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		int recordsRemoved = service.getPersistenceService().deleteByExample(queryByExample);
-		log.log(Level.FINEST, MessageFormat.format("Records removed: {0}", recordsRemoved));
-
-		log.log(Level.FINEST, "Deleting Component Tracking Records");
-		ComponentTracking componentTrackingExample = new ComponentTracking();
-
-		ComponentTracking componentTrackingEndExample = new ComponentTracking();
-		componentTrackingEndExample.setEventDts(new Date(maxInstant.toEpochMilli()));
-
-		queryByExample = new QueryByExample(componentTrackingExample);
-		specialOperatorModel = new SpecialOperatorModel(componentTrackingEndExample);
-		specialOperatorModel.getGenerateStatementOption().setOperation(GenerateStatementOption.OPERATION_LESS_THAN);
-		queryByExample.getExtraWhereCauses().add(specialOperatorModel);
-
-		recordsRemoved = service.getPersistenceService().deleteByExample(queryByExample);
-		log.log(Level.FINEST, MessageFormat.format("Component records removed: {0}", recordsRemoved));
-
+		Date cutoff = new Date(maxInstant.toEpochMilli());
+		StringBuilder runStatus = new StringBuilder();
+		for (Class<?> trackingClass : TRACKING_CLASSES) {
+			long startTime = System.currentTimeMillis();
+			long recordsRemoved = service.getPersistenceService().deleteOlderThan(trackingClass, RetentionIndexes.DATE_FIELD, cutoff);
+			long time = System.currentTimeMillis() - startTime;
+
+			log.log(Level.FINEST, MessageFormat.format("{0} records removed: {1} in {2} ms", trackingClass.getSimpleName(), recordsRemoved, time));
+			runStatus.append(trackingClass.getSimpleName())
+					.append(" removed: ").append(recordsRemoved)
+					.append(" (").append(time).append(" ms) ");
+		}
+		TrackingManager.resetCounters();
+		setRunStatus(runStatus.toString().trim());
 	}
 
 }
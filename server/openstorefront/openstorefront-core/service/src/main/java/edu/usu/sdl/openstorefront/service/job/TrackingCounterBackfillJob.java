@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.job;
+
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.TrackingCounter;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
+import edu.usu.sdl.openstorefront.service.manager.resource.TrackingCounterStore;
+import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+
+/**
+ * Builds the daily tracking counters from the tracking records before the
+ * counter epoch (one grouped query per class per day). It only needs to run
+ * once; the counters are written as backfill rows so a failed run can simply
+ * be run again.
+ *
+ * @author dshurtleff
+ */
+@DisallowConcurrentExecution
+public class TrackingCounterBackfillJob
+		extends BaseJob
+{
+
+	private static final Logger log = Logger.getLogger(TrackingCounterBackfillJob.class.getName());
+
+	private static final Class<?>[] TRACKING_CLASSES = {ComponentTracking.class, UserTracking.class};
+
+	@Override
+	protected void executeInternaljob(JobExecutionContext context)
+	{
+		if (TrackingManager.isCounterBackfilled()) {
+			setRunStatus("Tracking counters are already backfilled");
+			return;
+		}
+
+		Date epoch = TrackingManager.getCounterEpoch();
+		long counterCount = 0;
+		for (Class<?> trackingClass : TRACKING_CLASSES) {
+			Date oldest = TrackingCounterStore.oldestEvent(service.getPersistenceService(), trackingClass);
+			if (oldest == null || oldest.before(epoch) == false) {
+				continue;
+			}
+
+			LocalDateTime day = TimeUtil.beginningOfDay(oldest).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+			Date dayStart = toDate(day);
+			while (dayStart.before(epoch)) {
+				Date dayEnd = toDate(day.plusDays(1));
+				if (dayEnd.after(epoch)) {
+					dayEnd = epoch;
+				}
+
+				List<TrackingCounter> counters = TrackingCounterStore.countEvents(service.getPersistenceService(), trackingClass, dayStart, dayEnd);
+				TrackingCounterStore.set(service.getPersistenceService(), counters);
+				counterCount += counters.size();
+
+				day = day.plusDays(1);
+				dayStart = toDate(day);
+			}
+			log.log(Level.INFO, MessageFormat.format("Backfilled tracking counters for {0} from {1}", trackingClass.getSimpleName(), oldest));
+		}
+
+		TrackingManager.completeBackfill();
+		setRunStatus(MessageFormat.format("Backfilled {0} tracking counters (events before {1})", counterCount, epoch));
+	}
+
+	private Date toDate(LocalDateTime dateTime)
+	{
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+}
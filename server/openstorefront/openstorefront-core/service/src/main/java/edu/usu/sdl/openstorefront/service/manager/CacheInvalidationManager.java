@@ -0,0 +1,238 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.service.OrientPersistenceService;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation.InvalidationType;
+import edu.usu.sdl.openstorefront.service.manager.resource.CacheInvalidationTransport;
+import edu.usu.sdl.openstorefront.service.manager.resource.DBCacheInvalidationTransport;
+import edu.usu.sdl.openstorefront.service.manager.resource.LocalCacheInvalidationTransport;
+import edu.usu.sdl.openstorefront.service.search.ComponentSearchViewStore;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends local cache invalidations to the other nodes and applies theirs.
+ *
+ * Invalidations are collected for a short window, de-duplicated and sent as
+ * one batch through the configured transport (LOCAL, DB or a transport class
+ * name). The local caches are always cleared right away; only the other nodes
+ * see the batch delay. Inside a transaction the invalidation is sent (and the
+ * local caches are cleared again) once the transaction commits so no node
+ * reloads the old data.
+ *
+ * @author dshurtleff
+ */
+public class CacheInvalidationManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(CacheInvalidationManager.class.getName());
+
+	public static final String TRANSPORT_LOCAL = "LOCAL";
+	public static final String TRANSPORT_DB = "DB";
+
+	private static final int MAX_BATCH = 1000;
+	private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+
+	private static final AtomicBoolean started = new AtomicBoolean(false);
+	private static volatile boolean running;
+	private static final BlockingQueue<CacheInvalidation> pending = new LinkedBlockingQueue<>();
+	private static CacheInvalidationTransport transport;
+	private static Thread publishThread;
+	private static long maxWaitMillis;
+
+	public static void init()
+	{
+		maxWaitMillis = Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_INVALIDATION_BATCH_MAX_WAIT)), 1);
+		transport = createTransport(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_INVALIDATION_TRANSPORT).trim());
+		transport.start(PropertiesManager.getNodeName(), CacheInvalidationManager::apply);
+
+		running = true;
+		publishThread = new Thread(CacheInvalidationManager::publishLoop, "CacheInvalidation-Publish");
+		publishThread.setDaemon(true);
+		publishThread.start();
+	}
+
+	private static CacheInvalidationTransport createTransport(String transportName)
+	{
+		if (TRANSPORT_LOCAL.equalsIgnoreCase(transportName)) {
+			return new LocalCacheInvalidationTransport();
+		} else if (TRANSPORT_DB.equalsIgnoreCase(transportName)) {
+			return new DBCacheInvalidationTransport();
+		}
+		try {
+			return (CacheInvalidationTransport) Class.forName(transportName).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | ClassCastException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to create cache invalidation transport: " + transportName, "Check the " + PropertiesManager.KEY_CACHE_INVALIDATION_TRANSPORT + " property", ex);
+		}
+	}
+
+	public static void cleanup()
+	{
+		running = false;
+		if (publishThread != null) {
+			try {
+				publishThread.join(SHUTDOWN_WAIT_MILLIS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			publishThread = null;
+		}
+		if (transport != null) {
+			transport.stop();
+			transport = null;
+		}
+		pending.clear();
+	}
+
+	/**
+	 * Runs the local invalidation and sends the invalidation to the other
+	 * nodes; after the commit when the thread is in a transaction.
+	 *
+	 * @param localInvalidation
+	 * @param invalidation
+	 */
+	public static void invalidate(Runnable localInvalidation, CacheInvalidation invalidation)
+	{
+		localInvalidation.run();
+		if (OrientPersistenceService.isThreadTransactionActive()) {
+			//Again after the commit; a load in between may have cached the old data
+			OrientPersistenceService.afterThreadCommit(() -> {
+				localInvalidation.run();
+				publish(invalidation);
+			});
+		} else {
+			publish(invalidation);
+		}
+	}
+
+	public static void publishKey(String cacheName, String key)
+	{
+		publish(new CacheInvalidation(InvalidationType.KEY, cacheName, key));
+	}
+
+	private static void publish(CacheInvalidation invalidation)
+	{
+		if (running) {
+			pending.offer(invalidation);
+		}
+	}
+
+	private static void publishLoop()
+	{
+		while (running || pending.isEmpty() == false) {
+			try {
+				CacheInvalidation first = pending.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				if (running) {
+					//collect what comes in over the window
+					Thread.sleep(maxWaitMillis);
+				}
+
+				List<CacheInvalidation> drained = new ArrayList<>();
+				drained.add(first);
+				pending.drainTo(drained, MAX_BATCH - 1);
+				List<CacheInvalidation> batch = collapse(drained);
+				try {
+					transport.publish(batch);
+				} catch (Exception e) {
+					LOG.log(Level.WARNING, MessageFormat.format("Unable to publish {0} cache invalidations; other nodes will rely on the cache TTL", batch.size()), e);
+				}
+			} catch (InterruptedException ex) {
+				LOG.log(Level.FINE, "Cache invalidation publish thread interrupted");
+			}
+		}
+	}
+
+	/**
+	 * Removes duplicates and anything covered by a region invalidation
+	 */
+	private static List<CacheInvalidation> collapse(List<CacheInvalidation> invalidations)
+	{
+		Set<String> regions = new LinkedHashSet<>();
+		for (CacheInvalidation invalidation : invalidations) {
+			if (InvalidationType.REGION.equals(invalidation.getType())) {
+				regions.add(invalidation.getCacheName());
+			}
+		}
+
+		Set<CacheInvalidation> batch = new LinkedHashSet<>();
+		for (CacheInvalidation invalidation : invalidations) {
+			if (InvalidationType.KEY.equals(invalidation.getType()) && regions.contains(invalidation.getCacheName())) {
+				continue;
+			}
+			batch.add(invalidation);
+		}
+		return new ArrayList<>(batch);
+	}
+
+	private static void apply(List<CacheInvalidation> invalidations)
+	{
+		for (CacheInvalidation invalidation : invalidations) {
+			try {
+				if (InvalidationType.REGION.equals(invalidation.getType())
+						&& ComponentSearchViewStore.VIEW_REGION.equals(invalidation.getCacheName())) {
+					ComponentSearchViewStore.clearLocal();
+				} else {
+					OSFCacheManager.applyInvalidation(invalidation);
+					if (InvalidationType.COMPONENT.equals(invalidation.getType())) {
+						ComponentSearchViewStore.removeLocal(invalidation.getKey());
+					}
+				}
+			} catch (Exception e) {
+				LOG.log(Level.WARNING, MessageFormat.format("Unable to apply cache invalidation: {0}", invalidation), e);
+			}
+		}
+	}
+
+	@Override
+	public void initialize()
+	{
+		CacheInvalidationManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		CacheInvalidationManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+}
@@ -18,6 +18,7 @@ package edu.usu.sdl.openstorefront.service.manager;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.service.manager.model.DBLogStatus;
 import edu.usu.sdl.openstorefront.service.manager.resource.DBLogHandler;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
@@ -66,6 +67,34 @@ public class DBLogManager
 		}
 	}
 
+	/**
+	 * Writes out any buffered records
+	 */
+	public static void flush()
+	{
+		DBLogHandler handler = logHandler;
+		if (handler != null) {
+			handler.flush();
+		}
+	}
+
+	public static DBLogStatus status()
+	{
+		DBLogStatus status = new DBLogStatus();
+		DBLogHandler handler = logHandler;
+		if (handler != null) {
+			status.setEnabled(true);
+			status.setBufferSize(handler.getBufferSize());
+			status.setBufferedCount(handler.getBufferedCount());
+			status.setOverflowPolicy(handler.getOverflowPolicy().name());
+			status.setAcceptedCount(handler.getAcceptedCount());
+			status.setWrittenCount(handler.getWrittenCount());
+			status.setDroppedCount(handler.getDroppedCount());
+			status.setFailedCount(handler.getFailedCount());
+		}
+		return status;
+	}
+
 	public static void cleanup()
 	{
 		Logger rootLogger = LogManager.getLogManager().getLogger("");
@@ -79,6 +108,7 @@ public class DBLogManager
 		}
 		if (logHandler != null) {
 			logHandler.close();
+			logHandler = null;
 		}
 	}
 
@@ -28,6 +28,8 @@ import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.service.manager.resource.RetentionIndexes;
+import edu.usu.sdl.openstorefront.service.manager.resource.TrackingCounterStore;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -99,8 +101,20 @@ public class DBManager
 
 			try (OObjectDatabaseTx db = getConnection()) {
 				db.getEntityManager().registerEntityClasses(ENTITY_MODEL_PACKAGE, BaseEntity.class.getClassLoader());
+				TrackingCounterStore.ensureSchema(db);
 			}
 
+			//index builds on existing large tables would hold up startup
+			Thread indexThread = new Thread(() -> {
+				try (OObjectDatabaseTx db = getConnection()) {
+					RetentionIndexes.ensureDateIndexes(db);
+				} catch (Exception e) {
+					LOG.log(Level.WARNING, "Unable to build the retention date indexes; retention deletes will scan.", e);
+				}
+			}, "Retention-IndexBuild");
+			indexThread.setDaemon(true);
+			indexThread.start();
+
 			started.set(true);
 			LOG.info("Finished.");
 		} catch (Exception ex) {
@@ -33,6 +33,7 @@ import edu.usu.sdl.openstorefront.service.job.ScheduledReportJob;
 import edu.usu.sdl.openstorefront.service.job.SystemArchiveJob;
 import edu.usu.sdl.openstorefront.service.job.SystemCleanupJob;
 import edu.usu.sdl.openstorefront.service.job.TrackingCleanupJob;
+import edu.usu.sdl.openstorefront.service.job.TrackingCounterBackfillJob;
 import edu.usu.sdl.openstorefront.service.job.UserProfileSyncJob;
 import edu.usu.sdl.openstorefront.service.manager.model.AddJobModel;
 import edu.usu.sdl.openstorefront.service.manager.model.JobModel;
@@ -40,12 +41,16 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 import static org.quartz.CronScheduleBuilder.cronSchedule;
+import org.quartz.DateBuilder;
+import static org.quartz.DateBuilder.futureDate;
 import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
@@ -76,6 +81,7 @@ public class JobManager
 	private static final String JOB_GROUP_SYSTEM = AddJobModel.JOB_GROUP_SYSTEM;
 	private static Scheduler scheduler;
 	private static AtomicBoolean started = new AtomicBoolean(false);
+	private static final Map<JobKey, String> LAST_RUN_STATUS = new ConcurrentHashMap<>();
 
 	public static void init()
 	{
@@ -98,6 +104,7 @@ public class JobManager
 
 		addCleanUpErrorsJob();
 		addTrackingCleanUpJob();
+		addTrackingCounterBackfillJob();
 		addNotificationJob();
 		addRecentChangeNotifyJob();
 		addScheduledReportJob();
@@ -322,6 +329,27 @@ public class JobManager
 		scheduler.scheduleJob(job, trigger);
 	}
 
+	private static void addTrackingCounterBackfillJob() throws SchedulerException
+	{
+		if (TrackingManager.isCounterBackfilled()) {
+			return;
+		}
+		LOG.log(Level.INFO, "Adding Tracking Counter Backfill Job");
+
+		JobDetail job = JobBuilder.newJob(TrackingCounterBackfillJob.class)
+				.withIdentity("TrackingCounterBackfillJob", JOB_GROUP_SYSTEM)
+				.withDescription("Builds the daily tracking counters from the existing tracking records (runs once)")
+				.build();
+
+		//Give startup a chance to finish first
+		Trigger trigger = newTrigger()
+				.withIdentity("TrackingCounterBackfillJobTrigger", JOB_GROUP_SYSTEM)
+				.startAt(futureDate(1, DateBuilder.IntervalUnit.MINUTE))
+				.build();
+
+		scheduler.scheduleJob(job, trigger);
+	}
+
 	public static void addJob(AddJobModel addjob)
 	{
 		LOG.log(Level.FINE, MessageFormat.format("Adding Job: {0}", addjob.getJobName()));
@@ -516,6 +544,17 @@ public class JobManager
 		return status;
 	}
 
+	/**
+	 * Records the outcome of the last run (shown with the job status)
+	 *
+	 * @param jobKey
+	 * @param status
+	 */
+	public static void updateLastRunStatus(JobKey jobKey, String status)
+	{
+		LAST_RUN_STATUS.put(jobKey, status);
+	}
+
 	public static List<JobModel> getAllJobs()
 	{
 		List<JobModel> jobs = new ArrayList<>();
@@ -538,6 +577,7 @@ public class JobManager
 					dataMap.append(dataKey).append(" : ").append(jobDetail.getJobDataMap().get(dataKey)).append(" | ");
 				}
 				jobModel.setJobData(dataMap.toString());
+				jobModel.setLastRunStatus(LAST_RUN_STATUS.get(jobKey));
 
 				List<Trigger> triggers = (List<Trigger>) scheduler.getTriggersOfJob(jobKey);
 				if (triggers.isEmpty() == false) {
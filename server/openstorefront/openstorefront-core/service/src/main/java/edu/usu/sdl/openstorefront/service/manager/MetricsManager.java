@@ -0,0 +1,267 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.service.manager.model.LatencyStat;
+import edu.usu.sdl.openstorefront.service.manager.model.MetricsStatus;
+import edu.usu.sdl.openstorefront.service.manager.resource.LatencyHistogram;
+import edu.usu.sdl.openstorefront.service.manager.resource.MetricsMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects latency histograms for REST resource methods, service methods and
+ * DB queries. Collection is off by default; when off the only cost to a call
+ * is checking the flag.
+ *
+ * @author dshurtleff
+ */
+public class MetricsManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(MetricsManager.class.getName());
+
+	private static final String JMX_NAME = "edu.usu.sdl.openstorefront:type=Metrics";
+
+	private static final AtomicBoolean started = new AtomicBoolean(false);
+	private static volatile boolean enabled;
+	private static volatile Date collectingSince = TimeUtil.currentDate();
+
+	private static final ConcurrentMap<String, LatencyHistogram> restMethods = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LatencyHistogram> serviceMethods = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<String, LatencyHistogram> queries = new ConcurrentHashMap<>();
+
+	public static void init()
+	{
+		enabled = Convert.toBoolean(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_METRICS_ENABLED));
+		registerMBean();
+	}
+
+	public static void cleanup()
+	{
+		enabled = false;
+		unregisterMBean();
+	}
+
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enable)
+	{
+		if (enable && enabled == false) {
+			reset();
+		}
+		enabled = enable;
+		LOG.log(Level.INFO, "Metrics collection {0}", enable ? "on" : "off");
+	}
+
+	public static void reset()
+	{
+		restMethods.clear();
+		serviceMethods.clear();
+		queries.clear();
+		collectingSince = TimeUtil.currentDate();
+	}
+
+	/**
+	 * @param name resource class and method
+	 * @param nanos elapsed time
+	 */
+	public static void recordRest(String name, long nanos)
+	{
+		restMethods.computeIfAbsent(name, key -> new LatencyHistogram()).recordNanos(nanos);
+	}
+
+	/**
+	 * @param name service interface and method
+	 * @param nanos elapsed time
+	 */
+	public static void recordService(String name, long nanos)
+	{
+		serviceMethods.computeIfAbsent(name, key -> new LatencyHistogram()).recordNanos(nanos);
+	}
+
+	/**
+	 * Queries are grouped by statement type and class (e.g. "select
+	 * Component") rather than the full text.
+	 *
+	 * @param query
+	 * @param nanos elapsed time
+	 * @param rows rows returned
+	 */
+	public static void recordQuery(String query, long nanos, int rows)
+	{
+		queries.computeIfAbsent(queryName(query), key -> new LatencyHistogram()).recordNanos(nanos, rows);
+	}
+
+	static String queryName(String query)
+	{
+		String trimmed = query.trim();
+		int verbEnd = 0;
+		while (verbEnd < trimmed.length() && Character.isLetter(trimmed.charAt(verbEnd))) {
+			verbEnd++;
+		}
+		String verb = trimmed.substring(0, verbEnd).toLowerCase();
+
+		int fromIndex = trimmed.toLowerCase().indexOf(" from ");
+		if (fromIndex == -1) {
+			return verb;
+		}
+		int start = fromIndex + " from ".length();
+		while (start < trimmed.length() && Character.isWhitespace(trimmed.charAt(start))) {
+			start++;
+		}
+		int end = start;
+		while (end < trimmed.length() && Character.isJavaIdentifierPart(trimmed.charAt(end))) {
+			end++;
+		}
+		if (end == start) {
+			return verb;
+		}
+		return verb + " " + trimmed.substring(start, end);
+	}
+
+	public static MetricsStatus status()
+	{
+		MetricsStatus status = new MetricsStatus();
+		status.setEnabled(enabled);
+		status.setCollectingSince(collectingSince);
+		status.setRestMethods(toStats(restMethods));
+		status.setServiceMethods(toStats(serviceMethods));
+		status.setQueries(toStats(queries));
+		status.setCaches(OSFCacheManager.getCacheViews());
+		status.setTaskPool(AsyncTaskManager.managerStatus());
+		return status;
+	}
+
+	private static List<LatencyStat> toStats(Map<String, LatencyHistogram> histograms)
+	{
+		List<LatencyStat> stats = new ArrayList<>(histograms.size());
+		histograms.forEach((name, histogram) -> stats.add(LatencyStat.toStat(name, histogram)));
+
+		//slowest overall first
+		stats.sort((a, b) -> Double.compare(b.getMeanMillis() * b.getCount(), a.getMeanMillis() * a.getCount()));
+		return stats;
+	}
+
+	private static void registerMBean()
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = new ObjectName(JMX_NAME);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+			mBeanServer.registerMBean(new Metrics(), objectName);
+		} catch (JMException ex) {
+			LOG.log(Level.WARNING, "Unable to register metrics MBean", ex);
+		}
+	}
+
+	private static void unregisterMBean()
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = new ObjectName(JMX_NAME);
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+		} catch (JMException ex) {
+			LOG.log(Level.FINE, "Unable to unregister metrics MBean", ex);
+		}
+	}
+
+	@Override
+	public void initialize()
+	{
+		MetricsManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		MetricsManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+	private static class Metrics
+			implements MetricsMXBean
+	{
+
+		@Override
+		public boolean isEnabled()
+		{
+			return MetricsManager.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled)
+		{
+			MetricsManager.setEnabled(enabled);
+		}
+
+		@Override
+		public List<LatencyStat> getRestMethods()
+		{
+			return toStats(restMethods);
+		}
+
+		@Override
+		public List<LatencyStat> getServiceMethods()
+		{
+			return toStats(serviceMethods);
+		}
+
+		@Override
+		public List<LatencyStat> getQueries()
+		{
+			return toStats(queries);
+		}
+
+		@Override
+		public void reset()
+		{
+			MetricsManager.reset();
+		}
+
+	}
+
+}
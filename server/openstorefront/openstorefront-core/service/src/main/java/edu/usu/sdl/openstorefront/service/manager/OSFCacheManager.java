@@ -16,9 +16,37 @@
 package edu.usu.sdl.openstorefront.service.manager;
 
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.core.model.search.AdvanceSearchResult;
+import edu.usu.sdl.openstorefront.core.view.CacheView;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.service.component.ComponentDetailData;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation.InvalidationType;
+import edu.usu.sdl.openstorefront.service.manager.resource.CacheRegion;
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.config.Configuration;
@@ -26,6 +54,11 @@ import net.sf.ehcache.config.Configuration;
 /**
  * Handling Application level caching
  *
+ * Region sizes and TTLs can be overridden in the properties (see
+ * CacheRegion) and each region is published to JMX. Invalidations made
+ * through this class are also sent to the other nodes (see
+ * CacheInvalidationManager).
+ *
  * @author dshurtleff
  */
 public class OSFCacheManager
@@ -35,6 +68,10 @@ public class OSFCacheManager
 	private static final Logger log = Logger.getLogger(OSFCacheManager.class.getName());
 
 	public static final String ALLCODE_KEY = "ALLCODES";
+	private static final String JMX_DOMAIN = "edu.usu.sdl.openstorefront";
+	private static final double DEFAULT_COMPONENT_REFRESH_AHEAD = 0.75;
+	private static final int REFRESH_THREADS = 2;
+	private static final int REFRESH_QUEUE_SIZE = 500;
 
 	private static Cache lookupCache;
 	private static Cache attributeCache;
@@ -51,6 +88,12 @@ public class OSFCacheManager
 	private static Cache contactCache;
 	private static Cache searchCache;
 	private static Cache checklistQuestionCache;
+	private static Cache searchStatCache;
+	private static Cache componentDetailCache;
+	private static Cache notificationCache;
+
+	private static final Map<String, CacheRegion> regions = new LinkedHashMap<>();
+	private static ThreadPoolExecutor refreshExecutor;
 
 	private static AtomicBoolean started = new AtomicBoolean(false);
 
@@ -65,80 +108,310 @@ public class OSFCacheManager
 			config.setName("Main");
 			CacheManager singletonManager = CacheManager.create(config);
 
-			Cache memoryOnlyCache = new Cache("lookupCache", 500, false, false, 600, 600);
-			singletonManager.addCache(memoryOnlyCache);
-			lookupCache = singletonManager.getCache("lookupCache");
+			regions.clear();
+			refreshExecutor = createRefreshExecutor();
+			lookupCache = addRegion(singletonManager, new CacheRegion("lookupCache", 500, 600, false, false, null));
+			attributeCache = addRegion(singletonManager, new CacheRegion("attributeCache", 500, 300, false, false, null));
+			attributeTypeCache = addRegion(singletonManager, new CacheRegion("attributeTypeCache", 500, 300, false, false, null));
+			attributeCodeAllCache = addRegion(singletonManager, new CacheRegion("attributeCodeAllCache", 1, 0, true, false, null));
+			userAgentCache = addRegion(singletonManager, new CacheRegion("userAgentCache", 100, 7200, false, false, null));
+			CacheRegion componentRegion = new CacheRegion("componentCache", 200, 300, false, true, null);
+			componentRegion.setDefaultRefreshAhead(DEFAULT_COMPONENT_REFRESH_AHEAD);
+			componentCache = addRegion(singletonManager, componentRegion);
+			componentLookupCache = addRegion(singletonManager, new CacheRegion("componentLookupCache", 50000, 300, false, true, null));
+			componentApprovalCache = addRegion(singletonManager, new CacheRegion("componentApprovalCache", 50000, 300, false, true, null));
+			componentIconCache = addRegion(singletonManager, new CacheRegion("componentIconCache", 50000, 300, false, true, null));
+			componentDataRestrictionCache = addRegion(singletonManager, new CacheRegion("componentDataRestrictionCache", 50000, 600, false, true, null));
+			componentTypeCache = addRegion(singletonManager, new CacheRegion("componentTypeCache", 1, 300, false, false, null));
+			applicationCache = addRegion(singletonManager, new CacheRegion("applicationCache", 100, 0, true, false, null));
+			contactCache = addRegion(singletonManager, new CacheRegion("contactCache", 5000, 1800, false, false, null));
+			searchCache = addRegion(singletonManager, new CacheRegion("searchCache", 250, 1800, false, false, OSFCacheManager::searchResultComponents));
+			checklistQuestionCache = addRegion(singletonManager, new CacheRegion("checklistQuestionCache", 1000, 300, false, false, null));
+			searchStatCache = addRegion(singletonManager, new CacheRegion("searchStatCache", 10, 300, false, false, null));
+			componentDetailCache = addRegion(singletonManager, new CacheRegion("componentDetailCache", 500, 300, false, true, ComponentDetailData::componentIdsOf));
+			notificationCache = addRegion(singletonManager, new CacheRegion("notificationCache", 5000, 1800, false, false, null));
+
+			if (Convert.toBoolean(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_JMX))) {
+				registerMBeans();
+			}
+		} finally {
+			LOCK.unlock();
+		}
 
-			memoryOnlyCache = new Cache("attributeCache", 500, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			attributeCache = singletonManager.getCache("attributeCache");
+	}
 
-			memoryOnlyCache = new Cache("attributeTypeCache", 500, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			attributeTypeCache = singletonManager.getCache("attributeTypeCache");
+	private static Cache addRegion(CacheManager cacheManager, CacheRegion region)
+	{
+		Cache cache = region.create(cacheManager, refreshExecutor);
+		regions.put(region.getName(), region);
+		return cache;
+	}
 
-			memoryOnlyCache = new Cache("attributeCodeAllCache", 1, false, true, 0, 0);
-			singletonManager.addCache(memoryOnlyCache);
-			attributeCodeAllCache = singletonManager.getCache("attributeCodeAllCache");
+	private static ThreadPoolExecutor createRefreshExecutor()
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				REFRESH_THREADS, REFRESH_THREADS,
+				60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE),
+				runnable -> {
+					Thread thread = new Thread(runnable, "CacheRefresh-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
 
-			memoryOnlyCache = new Cache("userAgentCache", 100, false, false, 7200, 7200);
-			singletonManager.addCache(memoryOnlyCache);
-			userAgentCache = singletonManager.getCache("userAgentCache");
+	private static Collection<String> searchResultComponents(Object value)
+	{
+		if (value instanceof AdvanceSearchResult) {
+			return ((AdvanceSearchResult) value).getResults().stream()
+					.map(ComponentSearchView::getComponentId)
+					.collect(Collectors.toSet());
+		}
+		return null;
+	}
 
-			memoryOnlyCache = new Cache("componentCache", 200, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			componentCache = singletonManager.getCache("componentCache");
+	private static ObjectName objectName(CacheRegion region) throws MalformedObjectNameException
+	{
+		return new ObjectName(JMX_DOMAIN + ":type=Cache,name=" + region.getName());
+	}
 
-			memoryOnlyCache = new Cache("componentLookupCache", 50000, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			componentLookupCache = singletonManager.getCache("componentLookupCache");
+	private static void registerMBeans()
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		for (CacheRegion region : regions.values()) {
+			try {
+				ObjectName objectName = objectName(region);
+				if (mBeanServer.isRegistered(objectName)) {
+					mBeanServer.unregisterMBean(objectName);
+				}
+				mBeanServer.registerMBean(region, objectName);
+			} catch (JMException ex) {
+				log.log(Level.WARNING, MessageFormat.format("Unable to register cache MBean for: {0}", region.getName()), ex);
+			}
+		}
+	}
 
-			memoryOnlyCache = new Cache("componentApprovalCache", 50000, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			componentApprovalCache = singletonManager.getCache("componentApprovalCache");
+	private static void unregisterMBeans()
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		for (CacheRegion region : regions.values()) {
+			try {
+				ObjectName objectName = objectName(region);
+				if (mBeanServer.isRegistered(objectName)) {
+					mBeanServer.unregisterMBean(objectName);
+				}
+			} catch (JMException ex) {
+				log.log(Level.FINE, MessageFormat.format("Unable to unregister cache MBean for: {0}", region.getName()), ex);
+			}
+		}
+	}
 
-			memoryOnlyCache = new Cache("componentIconCache", 50000, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			componentIconCache = singletonManager.getCache("componentIconCache");
+	public static CacheManager getCacheManager()
+	{
+		return CacheManager.getInstance();
+	}
 
-			memoryOnlyCache = new Cache("componentDataRestrictionCache", 50000, false, false, 600, 600);
-			singletonManager.addCache(memoryOnlyCache);
-			componentDataRestrictionCache = singletonManager.getCache("componentDataRestrictionCache");
+	public static void cleanUp()
+	{
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdownNow();
+			refreshExecutor = null;
+		}
+		unregisterMBeans();
+		CacheManager.getInstance().shutdown();
+	}
 
-			memoryOnlyCache = new Cache("componentTypeCache", 1, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			componentTypeCache = singletonManager.getCache("componentTypeCache");
+	public static CacheRegion getRegion(String cacheName)
+	{
+		return regions.get(cacheName);
+	}
 
-			memoryOnlyCache = new Cache("applicationCache", 100, false, true, 0, 0);
-			singletonManager.addCache(memoryOnlyCache);
-			applicationCache = singletonManager.getCache("applicationCache");
+	/**
+	 * @return stats for all of the regions
+	 */
+	public static List<CacheView> getCacheViews()
+	{
+		List<CacheView> cacheViews = new ArrayList<>();
+		for (CacheRegion region : regions.values()) {
+			cacheViews.add(region.toView());
+		}
+		return cacheViews;
+	}
 
-			memoryOnlyCache = new Cache("contactCache", 5000, false, false, 1800, 1800);
-			singletonManager.addCache(memoryOnlyCache);
-			contactCache = singletonManager.getCache("contactCache");
+	/**
+	 * Gets a value from the cache loading it on a miss. Only one thread loads
+	 * a key; the others wait for it. Null values are not cached.
+	 *
+	 * @param <T>
+	 * @param cache
+	 * @param key
+	 * @param loader
+	 * @return value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(Cache cache, Object key, Supplier<T> loader)
+	{
+		return (T) regions.get(cache.getName()).get(key, loader);
+	}
 
-			memoryOnlyCache = new Cache("searchCache", 250, false, false, 1800, 1800);
-			singletonManager.addCache(memoryOnlyCache);
-			searchCache = singletonManager.getCache("searchCache");
+	/**
+	 * Gets a value from a cache that is filled in bulk. On a miss the bulk
+	 * loader runs once (for all of the waiting threads) and a key that is
+	 * still missing is cached as null.
+	 *
+	 * @param <T>
+	 * @param cache
+	 * @param key
+	 * @param bulkLoader puts all of the entries in the cache
+	 * @return value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getOrLoadAll(Cache cache, Object key, Runnable bulkLoader)
+	{
+		return (T) regions.get(cache.getName()).getOrLoadAll(key, bulkLoader);
+	}
 
-			memoryOnlyCache = new Cache("checklistQuestionCache", 1000, false, false, 300, 300);
-			singletonManager.addCache(memoryOnlyCache);
-			checklistQuestionCache = singletonManager.getCache("checklistQuestionCache");
+	/**
+	 * Records the time taken to build a value for the cache
+	 *
+	 * @param cache
+	 * @param startNanos from System.nanoTime() before the load
+	 */
+	public static void recordLoad(Cache cache, long startNanos)
+	{
+		CacheRegion region = regions.get(cache.getName());
+		if (region != null) {
+			region.recordLoad(startNanos);
+		}
+	}
 
-		} finally {
-			LOCK.unlock();
+	/**
+	 * Removes the entries for the component from the component caches and the
+	 * cached search results that contain it (on all nodes).
+	 *
+	 * @param componentId
+	 */
+	public static void invalidateComponent(String componentId)
+	{
+		CacheInvalidationManager.invalidate(() -> invalidateComponentLocal(componentId), new CacheInvalidation(InvalidationType.COMPONENT, null, componentId));
+	}
+
+	private static void invalidateComponentLocal(String componentId)
+	{
+		for (CacheRegion region : regions.values()) {
+			region.invalidateComponent(componentId);
 		}
+	}
 
+	public static void invalidateComponents(Collection<String> componentIds)
+	{
+		for (String componentId : componentIds) {
+			invalidateComponent(componentId);
+		}
 	}
 
-	public static CacheManager getCacheManager()
+	/**
+	 * Use when the set of matching components may have changed (e.g. index
+	 * changes) as a cached result can't tell whether a new component would
+	 * now match.
+	 */
+	public static void invalidateSearchResults()
 	{
-		return CacheManager.getInstance();
+		invalidateRegion(searchCache);
 	}
 
-	public static void cleanUp()
+	/**
+	 * Removes the cached search results that contain the component
+	 *
+	 * @param componentId
+	 */
+	public static void invalidateSearchResults(String componentId)
 	{
-		CacheManager.getInstance().shutdown();
+		CacheInvalidationManager.invalidate(() -> {
+			CacheRegion region = regions.get(searchCache.getName());
+			if (region != null) {
+				region.invalidateComponent(componentId);
+			}
+		}, new CacheInvalidation(InvalidationType.COMPONENT, null, componentId));
+	}
+
+	/**
+	 * Removes a key (on all nodes)
+	 *
+	 * @param cache
+	 * @param key
+	 */
+	public static void invalidateKey(Cache cache, String key)
+	{
+		CacheInvalidationManager.invalidate(() -> removeLocal(cache, key), new CacheInvalidation(InvalidationType.KEY, cache.getName(), key));
+	}
+
+	/**
+	 * Clears a cache (on all nodes)
+	 *
+	 * @param cache
+	 */
+	public static void invalidateRegion(Cache cache)
+	{
+		CacheInvalidationManager.invalidate(() -> removeAllLocal(cache), new CacheInvalidation(InvalidationType.REGION, cache.getName(), null));
+	}
+
+	/**
+	 * Changes a cached value in place on this node only; use after the change
+	 * is committed and publish the key for the other nodes.
+	 *
+	 * @param cache
+	 * @param key
+	 * @param change
+	 */
+	public static void updateLocal(Cache cache, Object key, Consumer<Object> change)
+	{
+		regions.get(cache.getName()).update(key, change);
+	}
+
+	private static void removeLocal(Cache cache, Object key)
+	{
+		CacheRegion region = regions.get(cache.getName());
+		if (region != null) {
+			region.remove(key);
+		} else {
+			cache.remove(key);
+		}
+	}
+
+	private static void removeAllLocal(Cache cache)
+	{
+		CacheRegion region = regions.get(cache.getName());
+		if (region != null) {
+			region.removeAll();
+		} else {
+			cache.removeAll();
+		}
+	}
+
+	/**
+	 * Applies an invalidation from another node (not re-published)
+	 *
+	 * @param invalidation
+	 */
+	public static void applyInvalidation(CacheInvalidation invalidation)
+	{
+		if (InvalidationType.COMPONENT.equals(invalidation.getType())) {
+			invalidateComponentLocal(invalidation.getKey());
+		} else {
+			CacheRegion region = regions.get(invalidation.getCacheName());
+			if (region == null) {
+				log.log(Level.FINE, MessageFormat.format("Unknown cache for invalidation: {0}", invalidation.getCacheName()));
+			} else if (InvalidationType.KEY.equals(invalidation.getType())) {
+				region.remove(invalidation.getKey());
+			} else {
+				region.removeAll();
+			}
+		}
 	}
 
 	public static Cache getLookupCache()
@@ -221,6 +494,21 @@ public class OSFCacheManager
 		return componentIconCache;
 	}
 
+	public static Cache getSearchStatCache()
+	{
+		return searchStatCache;
+	}
+
+	public static Cache getComponentDetailCache()
+	{
+		return componentDetailCache;
+	}
+
+	public static Cache getNotificationCache()
+	{
+		return notificationCache;
+	}
+
 	@Override
 	public void initialize()
 	{
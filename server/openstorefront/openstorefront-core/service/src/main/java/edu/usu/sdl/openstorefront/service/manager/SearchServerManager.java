@@ -17,12 +17,20 @@ package edu.usu.sdl.openstorefront.service.manager;
 
 import edu.usu.sdl.openstorefront.common.manager.Initializable;
 import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
 import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
 import edu.usu.sdl.openstorefront.core.view.SearchResultAttribute;
 import edu.usu.sdl.openstorefront.service.search.SearchServer;
+import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.lang3.StringUtils;
 
@@ -37,14 +45,27 @@ public class SearchServerManager
 	
 	private static final String SOLR = "solr";
 	private static final String ELASTICSEARCH = "elasticsearch";
+	private static final int DEFAULT_HANDLER_POOL_SIZE = 8;
 	
 	private static AtomicBoolean started = new AtomicBoolean(false);
 	private static SearchServer searchServer;
+	private static ThreadPoolExecutor handlerPool;
 
 	public static SearchServer getSearchServer()
 	{
 		return searchServer;
 	}
+
+	/**
+	 * Pool used to run the advance search handlers; when the pool is
+	 * saturated the handler runs on the calling thread.
+	 *
+	 * @return pool or null if the manager hasn't started
+	 */
+	public static ExecutorService getHandlerPool()
+	{
+		return handlerPool;
+	}
 	
 	public static void init()
 	{	
@@ -68,6 +89,19 @@ public class SearchServerManager
 			}			
 		}
 		((Initializable)searchServer).initialize();
+
+		Integer poolSize = Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_SEARCH_HANDLER_POOL_SIZE));
+		if (poolSize == null || poolSize < 1) {
+			log.log(Level.WARNING, MessageFormat.format("Invalid {0}; using the default.", PropertiesManager.KEY_SEARCH_HANDLER_POOL_SIZE));
+			poolSize = DEFAULT_HANDLER_POOL_SIZE;
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		handlerPool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(poolSize * 10), (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "SearchHandler-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+		handlerPool.allowCoreThreadTimeOut(true);
 	}
 	
 	public static void cleanup()
@@ -75,6 +109,16 @@ public class SearchServerManager
 		if (searchServer != null) {
 			((Initializable)searchServer).shutdown();
 		}
+		if (handlerPool != null) {
+			handlerPool.shutdownNow();
+			try {
+				handlerPool.awaitTermination(5L, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				log.log(Level.WARNING, "Search handler pool was interrupted durning shutdown.");
+			}
+			handlerPool = null;
+		}
 	}	
 	
 	public static void updateSearchScore(String query, List<ComponentSearchView> views)
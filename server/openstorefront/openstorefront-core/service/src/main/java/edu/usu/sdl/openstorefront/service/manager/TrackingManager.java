@@ -0,0 +1,706 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.ApplicationProperty;
+import edu.usu.sdl.openstorefront.core.entity.BaseEntity;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
+import edu.usu.sdl.openstorefront.core.entity.TrackingCounter;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import edu.usu.sdl.openstorefront.core.view.statistic.ComponentRecordStatistic;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.model.TrackingStatus;
+import edu.usu.sdl.openstorefront.service.manager.resource.TrackingCounterStore;
+import edu.usu.sdl.openstorefront.validation.ValidationModel;
+import edu.usu.sdl.openstorefront.validation.ValidationResult;
+import edu.usu.sdl.openstorefront.validation.ValidationUtil;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Write-behind pipeline for new tracking records. Request threads queue the
+ * records once their transaction commits (bounded; when full the record is
+ * saved directly) and a single drain thread inserts them in batches. The
+ * drain thread also keeps the per-component event counters so view counts
+ * don't have to scan the tracking table, and the daily counters (event type,
+ * component, user and day) which are flushed to TrackingCounter periodically
+ * for time range queries. The component counters are (re)loaded on the drain
+ * thread and swapped in; readers never wait on the database.
+ *
+ * Daily counters are live for events at or after the counter epoch (set the
+ * first time the counters are used); earlier events are counted once by the
+ * TrackingCounterBackfillJob.
+ *
+ * @author dshurtleff
+ */
+public class TrackingManager
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(TrackingManager.class.getName());
+
+	private static final long SHUTDOWN_WAIT_MILLIS = 10000;
+
+	private static final AtomicBoolean started = new AtomicBoolean(false);
+	private static volatile boolean running;
+	private static BlockingQueue<BaseEntity<?>> queue;
+	private static Thread drainThread;
+	private static int batchSize;
+	private static long maxWaitMillis;
+	private static long counterFlushNanos;
+
+	private static final AtomicLong acceptedCount = new AtomicLong();
+	private static final AtomicLong writtenCount = new AtomicLong();
+	private static final AtomicLong lostCount = new AtomicLong();
+	private static final AtomicLong overflowCount = new AtomicLong();
+	private static final AtomicLong failedCount = new AtomicLong();
+
+	private static final Object COUNTER_LOCK = new Object();
+	private static final int COUNT_READ_ATTEMPTS = 3;
+	private static volatile Map<String, ComponentCounter> componentCounters;
+	private static final AtomicBoolean countersStale = new AtomicBoolean(true);
+
+	//Guarded by COUNTER_LOCK
+	private static Map<String, TrackingCounter> pendingCounters = new HashMap<>();
+	private static boolean flushRunning;
+	private static long flushGeneration;
+	private static volatile Date counterEpoch;
+	private static volatile Boolean counterBackfilled;
+
+	public static void init()
+	{
+		int queueSize = Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_TRACKING_QUEUE_SIZE));
+		batchSize = Math.max(Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_TRACKING_BATCH_SIZE)), 1);
+		maxWaitMillis = Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_TRACKING_BATCH_MAX_WAIT)), 1);
+		counterFlushNanos = TimeUnit.SECONDS.toNanos(Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_TRACKING_COUNTER_FLUSH)), 1));
+		getCounterEpoch();
+
+		queue = new ArrayBlockingQueue<>(Math.max(queueSize, 1));
+		running = true;
+		drainThread = new Thread(TrackingManager::drain, "TrackingManager-Drain");
+		drainThread.setDaemon(true);
+		drainThread.start();
+	}
+
+	/**
+	 * Waits for the queue to drain (shutdown hook)
+	 */
+	public static void cleanup()
+	{
+		running = false;
+		if (drainThread != null) {
+			try {
+				drainThread.join(SHUTDOWN_WAIT_MILLIS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			drainThread = null;
+		}
+
+		if (queue != null) {
+			int remaining = queue.size();
+			if (remaining > 0) {
+				lostCount.addAndGet(remaining);
+				queue.clear();
+			}
+			LOG.log(Level.INFO, MessageFormat.format("Tracking pipeline stopped. Written: {0} Lost: {1} Failed: {2}", writtenCount.get(), lostCount.get(), failedCount.get()));
+		}
+		flushCounters();
+	}
+
+	/**
+	 * Queues a new tracking record (ComponentTracking or UserTracking) once
+	 * the transaction of the persistence service commits (right away outside
+	 * of one). The record should be fully populated (id and create fields).
+	 * When the pipeline can't take it the record is saved directly.
+	 *
+	 * @param persistenceService of the calling service
+	 * @param tracking
+	 */
+	public static void queueAfterCommit(PersistenceService persistenceService, BaseEntity<?> tracking)
+	{
+		persistenceService.afterCommit(() -> {
+			if (queueTracking(tracking) == false) {
+				saveDirect(tracking);
+			}
+		});
+	}
+
+	/**
+	 * Queues a new tracking record to be inserted.
+	 *
+	 * @param tracking
+	 * @return false if the pipeline is not running or the queue is full
+	 * (caller should save it)
+	 */
+	public static boolean queueTracking(BaseEntity<?> tracking)
+	{
+		if (running == false) {
+			return false;
+		}
+
+		if (queue.offer(tracking)) {
+			acceptedCount.incrementAndGet();
+			return true;
+		}
+		if (overflowCount.incrementAndGet() % 1000 == 1) {
+			LOG.log(Level.WARNING, MessageFormat.format("Tracking queue is full; saving records directly. Overflowed so far: {0}", overflowCount.get()));
+		}
+		return false;
+	}
+
+	private static void saveDirect(BaseEntity<?> tracking)
+	{
+		ServiceProxy service = new ServiceProxy();
+		if (tracking instanceof ComponentTracking) {
+			List<ComponentTracking> componentTrackings = Collections.singletonList((ComponentTracking) tracking);
+			service.getComponentService().saveComponentTrackings(componentTrackings);
+			//A counter reload running right now may count this one twice until the next reload
+			countComponentTrackings(componentTrackings);
+		} else if (tracking instanceof UserTracking) {
+			List<UserTracking> userTrackings = Collections.singletonList((UserTracking) tracking);
+			service.getUserService().saveUserTrackings(userTrackings);
+			countUserTrackings(userTrackings);
+		}
+	}
+
+	private static void drain()
+	{
+		long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		List<BaseEntity<?>> batch = new ArrayList<>(batchSize);
+		long nextFlush = System.nanoTime() + counterFlushNanos;
+		while (running || queue.isEmpty() == false) {
+			try {
+				if (countersStale.compareAndSet(true, false)) {
+					reloadCounters();
+				}
+				if (System.nanoTime() - nextFlush >= 0) {
+					nextFlush = System.nanoTime() + counterFlushNanos;
+					flushCounters();
+				}
+
+				BaseEntity<?> first = queue.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+
+				long deadline = System.nanoTime() + maxWaitNanos;
+				while (batch.size() < batchSize) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= batchSize || running == false || remaining <= 0) {
+						break;
+					}
+					BaseEntity<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				writeBatch(batch);
+			} catch (InterruptedException ex) {
+				LOG.log(Level.FINE, "Tracking drain thread interrupted", ex);
+			} catch (Exception e) {
+				LOG.log(Level.SEVERE, "Unexpected error in the tracking drain thread", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private static void writeBatch(List<BaseEntity<?>> batch)
+	{
+		List<ComponentTracking> componentTrackings = new ArrayList<>();
+		List<UserTracking> userTrackings = new ArrayList<>();
+		for (BaseEntity<?> tracking : batch) {
+			//Skip bad records so they don't fail the rest of the batch
+			ValidationModel validationModel = new ValidationModel(tracking);
+			validationModel.setSantize(false);
+			ValidationResult validationResult = ValidationUtil.validate(validationModel);
+			if (validationResult.valid() == false) {
+				failedCount.incrementAndGet();
+				LOG.log(Level.WARNING, MessageFormat.format("Skipping invalid tracking record: {0}", validationResult.toString()));
+			} else if (tracking instanceof ComponentTracking) {
+				componentTrackings.add((ComponentTracking) tracking);
+			} else if (tracking instanceof UserTracking) {
+				userTrackings.add((UserTracking) tracking);
+			}
+		}
+
+		//Counters are only loaded on this thread so the saves don't need the counter lock
+		ServiceProxy service = new ServiceProxy();
+		if (componentTrackings.isEmpty() == false) {
+			try {
+				service.getComponentService().saveComponentTrackings(componentTrackings);
+				writtenCount.addAndGet(componentTrackings.size());
+				countComponentTrackings(componentTrackings);
+			} catch (Exception e) {
+				failedCount.addAndGet(componentTrackings.size());
+				LOG.log(Level.WARNING, MessageFormat.format("Unable to save component tracking batch of {0}", componentTrackings.size()), e);
+			}
+		}
+		if (userTrackings.isEmpty() == false) {
+			try {
+				service.getUserService().saveUserTrackings(userTrackings);
+				writtenCount.addAndGet(userTrackings.size());
+				countUserTrackings(userTrackings);
+			} catch (Exception e) {
+				failedCount.addAndGet(userTrackings.size());
+				LOG.log(Level.WARNING, MessageFormat.format("Unable to save user tracking batch of {0}", userTrackings.size()), e);
+			}
+		}
+	}
+
+	private static void countComponentTrackings(List<ComponentTracking> componentTrackings)
+	{
+		Map<String, ComponentCounter> counters = componentCounters;
+		if (counters != null) {
+			for (ComponentTracking tracking : componentTrackings) {
+				if (isCounted(tracking.getTrackEventTypeCode(), tracking.getActiveStatus()) && tracking.getComponentId() != null) {
+					counters.computeIfAbsent(tracking.getComponentId(), key -> new ComponentCounter())
+							.add(tracking.getTrackEventTypeCode(), 1);
+				}
+			}
+		}
+		synchronized (COUNTER_LOCK) {
+			for (ComponentTracking tracking : componentTrackings) {
+				addPending(tracking.getTrackEventTypeCode(), tracking.getActiveStatus(), tracking.getComponentId(), tracking.getCreateUser(), tracking.getEventDts());
+			}
+		}
+	}
+
+	private static void countUserTrackings(List<UserTracking> userTrackings)
+	{
+		synchronized (COUNTER_LOCK) {
+			for (UserTracking tracking : userTrackings) {
+				addPending(tracking.getTrackEventTypeCode(), tracking.getActiveStatus(), null, tracking.getCreateUser(), tracking.getEventDts());
+			}
+		}
+	}
+
+	private static boolean isCounted(String trackEventTypeCode, String activeStatus)
+	{
+		return trackEventTypeCode != null && ComponentTracking.ACTIVE_STATUS.equals(activeStatus);
+	}
+
+	private static void addPending(String trackEventTypeCode, String activeStatus, String componentId, String username, Date eventDts)
+	{
+		if (isCounted(trackEventTypeCode, activeStatus) == false) {
+			return;
+		}
+		//Earlier events belong to the backfill
+		if (eventDts != null && eventDts.before(getCounterEpoch())) {
+			return;
+		}
+		TrackingCounter counter = TrackingCounterStore.newCounter(TrackingCounterStore.SOURCE_LIVE, trackEventTypeCode, componentId, username, eventDts);
+		TrackingCounter pending = pendingCounters.putIfAbsent(counter.getCounterId(), counter);
+		if (pending == null) {
+			pending = counter;
+		}
+		pending.setEventCount(pending.getEventCount() + 1);
+	}
+
+	/**
+	 * Writes the pending daily counts; counts that were not written are kept
+	 * for the next flush. The pending counts are swapped out under the lock and
+	 * written without it.
+	 */
+	private static void flushCounters()
+	{
+		Map<String, TrackingCounter> flushing;
+		synchronized (COUNTER_LOCK) {
+			if (pendingCounters.isEmpty()) {
+				return;
+			}
+			flushing = pendingCounters;
+			pendingCounters = new HashMap<>();
+			flushRunning = true;
+			flushGeneration++;
+		}
+
+		try {
+			TrackingCounterStore.add(new ServiceProxy().getPersistenceService(), flushing.values());
+		} catch (Exception e) {
+			LOG.log(Level.WARNING, MessageFormat.format("Unable to save {0} tracking counters; will retry on the next flush", flushing.size()), e);
+		} finally {
+			synchronized (COUNTER_LOCK) {
+				//only the unwritten counts are left to re-add
+				flushing.forEach((counterId, counter) -> {
+					TrackingCounter pending = pendingCounters.putIfAbsent(counterId, counter);
+					if (pending != null) {
+						pending.setEventCount(pending.getEventCount() + counter.getEventCount());
+					}
+				});
+				flushRunning = false;
+				flushGeneration++;
+				COUNTER_LOCK.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * @return the loaded counters (empty until the drain thread loads them)
+	 */
+	private static Map<String, ComponentCounter> counters()
+	{
+		Map<String, ComponentCounter> counters = componentCounters;
+		if (counters == null) {
+			return Collections.emptyMap();
+		}
+		return counters;
+	}
+
+	/**
+	 * Loads the component counters and swaps them in. Only call on the drain
+	 * thread; the batch writes and counter flushes happen there as well so
+	 * nothing moves while the counters load.
+	 */
+	private static void reloadCounters()
+	{
+		try {
+			componentCounters = loadCounters();
+		} catch (Exception e) {
+			countersStale.set(true);
+			LOG.log(Level.WARNING, "Unable to load the tracking counters; will retry.", e);
+		}
+	}
+
+	private static Map<String, ComponentCounter> loadCounters()
+	{
+		Map<String, ComponentCounter> counters = new ConcurrentHashMap<>();
+
+		ServiceProxy service = new ServiceProxy();
+		if (isCounterBackfilled()) {
+			TrackingCounterStore.componentTotals(service.getPersistenceService()).forEach((componentId, totals) -> {
+				ComponentCounter counter = counters.computeIfAbsent(componentId, key -> new ComponentCounter());
+				totals.forEach(counter::add);
+			});
+			synchronized (COUNTER_LOCK) {
+				pendingCounters.values().stream()
+						.filter(pending -> pending.getComponentId() != null)
+						.forEach(pending -> counters.computeIfAbsent(pending.getComponentId(), key -> new ComponentCounter())
+						.add(pending.getTrackEventTypeCode(), pending.getEventCount()));
+			}
+		} else {
+			//Until the backfill is done the tracking rows are the full history
+			String query = "select count(*) as events, componentId, trackEventTypeCode, activeStatus from "
+					+ ComponentTracking.class.getSimpleName()
+					+ " group by componentId, trackEventTypeCode, activeStatus";
+			List<ODocument> documents = service.getPersistenceService().query(query, null);
+			for (ODocument document : documents) {
+				String componentId = document.field("componentId");
+				if (componentId != null && isCounted(document.field("trackEventTypeCode"), document.field("activeStatus"))) {
+					long events = ((Number) document.field("events")).longValue();
+					counters.computeIfAbsent(componentId, key -> new ComponentCounter())
+							.add(document.field("trackEventTypeCode"), events);
+				}
+			}
+		}
+		return counters;
+	}
+
+	/**
+	 * Live daily counting starts at this time; it is created the first time it
+	 * is needed.
+	 *
+	 * @return epoch
+	 */
+	public static Date getCounterEpoch()
+	{
+		Date epoch = counterEpoch;
+		if (epoch == null) {
+			synchronized (TrackingManager.class) {
+				epoch = counterEpoch;
+				if (epoch == null) {
+					ServiceProxy service = new ServiceProxy();
+					String epochValue = service.getSystemService().getPropertyValue(ApplicationProperty.TRACKING_COUNTER_EPOCH);
+					if (StringUtils.isNotBlank(epochValue)) {
+						epoch = new Date(Convert.toLong(epochValue));
+					} else {
+						epoch = TimeUtil.currentDate();
+						service.getSystemService().saveProperty(ApplicationProperty.TRACKING_COUNTER_EPOCH, Long.toString(epoch.getTime()));
+					}
+					counterEpoch = epoch;
+				}
+			}
+		}
+		return epoch;
+	}
+
+	/**
+	 * @return true once the events before the epoch have been counted
+	 */
+	public static boolean isCounterBackfilled()
+	{
+		Boolean backfilled = counterBackfilled;
+		if (backfilled == null) {
+			String backfillDts = new ServiceProxy().getSystemService().getPropertyValue(ApplicationProperty.TRACKING_COUNTER_BACKFILL_DTS);
+			backfilled = StringUtils.isNotBlank(backfillDts);
+			counterBackfilled = backfilled;
+		}
+		return backfilled;
+	}
+
+	/**
+	 * Records that the backfill is done; the component counters are reloaded
+	 * from the daily counters from then on.
+	 */
+	public static void completeBackfill()
+	{
+		new ServiceProxy().getSystemService().saveProperty(ApplicationProperty.TRACKING_COUNTER_BACKFILL_DTS, TimeUtil.dateToString(TimeUtil.currentDate()));
+		counterBackfilled = Boolean.TRUE;
+		resetCounters();
+	}
+
+	/**
+	 * Marks the counters to be reloaded by the drain thread; the current ones
+	 * are used until then. Call when tracking rows are removed outside of the
+	 * pipeline.
+	 */
+	public static void resetCounters()
+	{
+		countersStale.set(true);
+	}
+
+	public static void removeComponent(String componentId)
+	{
+		if (componentId == null) {
+			return;
+		}
+		Map<String, ComponentCounter> counters = componentCounters;
+		if (counters != null) {
+			counters.remove(componentId);
+		}
+		synchronized (COUNTER_LOCK) {
+			pendingCounters.values().removeIf(pending -> componentId.equals(pending.getComponentId()));
+		}
+		TrackingCounterStore.deleteComponent(new ServiceProxy().getPersistenceService(), componentId);
+	}
+
+	/**
+	 * @param componentId
+	 * @return the number of active view events
+	 */
+	public static long getComponentViews(String componentId)
+	{
+		return getComponentCount(componentId, TrackEventCode.VIEW);
+	}
+
+	/**
+	 * @param componentId
+	 * @param trackEventTypeCode
+	 * @return the number of active events of the type (all time)
+	 */
+	public static long getComponentCount(String componentId, String trackEventTypeCode)
+	{
+		ComponentCounter counter = counters().get(componentId);
+		return counter == null ? 0 : counter.count(trackEventTypeCode);
+	}
+
+	/**
+	 * Event counts per component from the daily counters (from the tracking
+	 * rows until the backfill is done). The range is applied by day.
+	 *
+	 * @param trackEventTypeCode
+	 * @param start (optional)
+	 * @param end (optional)
+	 * @return componentId to count
+	 */
+	public static Map<String, Long> getComponentCounts(String trackEventTypeCode, Date start, Date end)
+	{
+		return countsBy(TrackingCounter.FIELD_COMPONENT_ID, TrackingCounter::getComponentId, trackEventTypeCode, start, end);
+	}
+
+	/**
+	 * Event counts per user from the daily counters (from the tracking rows
+	 * until the backfill is done). The range is applied by day.
+	 *
+	 * @param trackEventTypeCode
+	 * @param start (optional)
+	 * @param end (optional)
+	 * @return username to count
+	 */
+	public static Map<String, Long> getUserCounts(String trackEventTypeCode, Date start, Date end)
+	{
+		return countsBy(TrackingCounter.FIELD_USERNAME, TrackingCounter::getUsername, trackEventTypeCode, start, end);
+	}
+
+	private static Map<String, Long> countsBy(String groupField, Function<TrackingCounter, String> keyOf, String trackEventTypeCode, Date start, Date end)
+	{
+		PersistenceService persistenceService = new ServiceProxy().getPersistenceService();
+		if (isCounterBackfilled() == false) {
+			//Until the backfill is done the tracking rows are the full history
+			return TrackingCounterStore.countTrackingBy(persistenceService, groupField, trackEventTypeCode, start, end);
+		}
+
+		//The stored and pending counts are read separately; if a flush moved
+		//counts between the two reads, read again
+		Map<String, Long> counts = null;
+		for (int attempt = 1; attempt <= COUNT_READ_ATTEMPTS; attempt++) {
+			long generation = awaitFlush();
+			counts = TrackingCounterStore.sumBy(persistenceService, groupField, trackEventTypeCode, start, end);
+			synchronized (COUNTER_LOCK) {
+				if (generation == flushGeneration || attempt == COUNT_READ_ATTEMPTS) {
+					addPendingCounts(counts, keyOf, trackEventTypeCode, start, end);
+					break;
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Waits for a running counter flush (without holding the lock while it
+	 * writes).
+	 *
+	 * @return the flush generation when no flush is running
+	 */
+	private static long awaitFlush()
+	{
+		synchronized (COUNTER_LOCK) {
+			while (flushRunning) {
+				try {
+					COUNTER_LOCK.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			return flushGeneration;
+		}
+	}
+
+	//Call with COUNTER_LOCK held
+	private static void addPendingCounts(Map<String, Long> counts, Function<TrackingCounter, String> keyOf, String trackEventTypeCode, Date start, Date end)
+	{
+		for (TrackingCounter pending : pendingCounters.values()) {
+			String key = keyOf.apply(pending);
+			if (key != null
+					&& trackEventTypeCode.equals(pending.getTrackEventTypeCode())
+					&& TrackingCounterStore.inRange(pending, start, end)) {
+				counts.merge(key, pending.getEventCount(), Long::sum);
+			}
+		}
+	}
+
+	/**
+	 * Components ordered by the number of tracking events (all types)
+	 *
+	 * @param maxRecords (null for all)
+	 * @return statistics with the component id and event count
+	 */
+	public static List<ComponentRecordStatistic> findTopComponentEvents(Integer maxRecords)
+	{
+		List<ComponentRecordStatistic> recordStatistics = new ArrayList<>();
+		counters().forEach((componentId, counter) -> {
+			ComponentRecordStatistic componentRecordStatistic = new ComponentRecordStatistic();
+			componentRecordStatistic.setComponentId(componentId);
+			componentRecordStatistic.setViews(counter.total());
+			recordStatistics.add(componentRecordStatistic);
+		});
+		recordStatistics.sort(Comparator.comparingLong(ComponentRecordStatistic::getViews).reversed());
+		if (maxRecords != null && recordStatistics.size() > maxRecords) {
+			return new ArrayList<>(recordStatistics.subList(0, Math.max(maxRecords, 0)));
+		}
+		return recordStatistics;
+	}
+
+	public static TrackingStatus status()
+	{
+		TrackingStatus status = new TrackingStatus();
+		status.setRunning(running);
+		status.setQueuedCount(queue == null ? 0 : queue.size());
+		status.setAcceptedCount(acceptedCount.get());
+		status.setWrittenCount(writtenCount.get());
+		status.setLostCount(lostCount.get());
+		status.setOverflowCount(overflowCount.get());
+		status.setFailedCount(failedCount.get());
+		status.setCountersLoaded(componentCounters != null);
+		synchronized (COUNTER_LOCK) {
+			status.setPendingCounterCount(pendingCounters.size());
+		}
+		status.setCountersBackfilled(Boolean.TRUE.equals(counterBackfilled));
+		return status;
+	}
+
+	@Override
+	public void initialize()
+	{
+		TrackingManager.init();
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		TrackingManager.cleanup();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+	private static class ComponentCounter
+	{
+
+		private final Map<String, LongAdder> eventCounts = new ConcurrentHashMap<>();
+
+		private void add(String trackEventTypeCode, long count)
+		{
+			eventCounts.computeIfAbsent(trackEventTypeCode, key -> new LongAdder()).add(count);
+		}
+
+		private long count(String trackEventTypeCode)
+		{
+			LongAdder count = eventCounts.get(trackEventTypeCode);
+			return count == null ? 0 : count.sum();
+		}
+
+		private long total()
+		{
+			return eventCounts.values().stream().mapToLong(LongAdder::sum).sum();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import java.util.Objects;
+
+/**
+ * A single cache invalidation sent between nodes
+ *
+ * @author dshurtleff
+ */
+public class CacheInvalidation
+{
+
+	public enum InvalidationType
+	{
+		/**
+		 * Component entries in all regions (key is the component id)
+		 */
+		COMPONENT,
+		/**
+		 * A single key in a region
+		 */
+		KEY,
+		/**
+		 * The whole region
+		 */
+		REGION
+	}
+
+	private InvalidationType type;
+	private String cacheName;
+	private String key;
+
+	public CacheInvalidation()
+	{
+	}
+
+	public CacheInvalidation(InvalidationType type, String cacheName, String key)
+	{
+		this.type = type;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+	public InvalidationType getType()
+	{
+		return type;
+	}
+
+	public void setType(InvalidationType type)
+	{
+		this.type = type;
+	}
+
+	public String getCacheName()
+	{
+		return cacheName;
+	}
+
+	public void setCacheName(String cacheName)
+	{
+		this.cacheName = cacheName;
+	}
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	public void setKey(String key)
+	{
+		this.key = key;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(type, cacheName, key);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		final CacheInvalidation other = (CacheInvalidation) obj;
+		return type == other.type
+				&& Objects.equals(cacheName, other.cacheName)
+				&& Objects.equals(key, other.key);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CacheInvalidation{" + "type=" + type + ", cacheName=" + cacheName + ", key=" + key + '}';
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+/**
+ * Holds DB log handler status
+ *
+ * @author dshurtleff
+ */
+public class DBLogStatus
+{
+
+	private boolean enabled;
+	private int bufferSize;
+	private int bufferedCount;
+	private String overflowPolicy;
+	private long acceptedCount;
+	private long writtenCount;
+	private long droppedCount;
+	private long failedCount;
+
+	public DBLogStatus()
+	{
+	}
+
+	public boolean getEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize)
+	{
+		this.bufferSize = bufferSize;
+	}
+
+	public int getBufferedCount()
+	{
+		return bufferedCount;
+	}
+
+	public void setBufferedCount(int bufferedCount)
+	{
+		this.bufferedCount = bufferedCount;
+	}
+
+	public String getOverflowPolicy()
+	{
+		return overflowPolicy;
+	}
+
+	public void setOverflowPolicy(String overflowPolicy)
+	{
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public long getAcceptedCount()
+	{
+		return acceptedCount;
+	}
+
+	public void setAcceptedCount(long acceptedCount)
+	{
+		this.acceptedCount = acceptedCount;
+	}
+
+	public long getWrittenCount()
+	{
+		return writtenCount;
+	}
+
+	public void setWrittenCount(long writtenCount)
+	{
+		this.writtenCount = writtenCount;
+	}
+
+	public long getDroppedCount()
+	{
+		return droppedCount;
+	}
+
+	public void setDroppedCount(long droppedCount)
+	{
+		this.droppedCount = droppedCount;
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	public void setFailedCount(long failedCount)
+	{
+		this.failedCount = failedCount;
+	}
+
+}
@@ -38,6 +38,7 @@ public class JobModel
 	private Date nextFiredTime;
 	private String jobData;
 	private String jobClass;
+	private String lastRunStatus;
 
 	public JobModel()
 	{
@@ -173,4 +174,14 @@ public class JobModel
 		this.jobClass = jobClass;
 	}
 
+	public String getLastRunStatus()
+	{
+		return lastRunStatus;
+	}
+
+	public void setLastRunStatus(String lastRunStatus)
+	{
+		this.lastRunStatus = lastRunStatus;
+	}
+
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import edu.usu.sdl.openstorefront.service.manager.resource.LatencyHistogram;
+
+/**
+ * Latency summary of one measured call (times in milliseconds)
+ *
+ * @author dshurtleff
+ */
+public class LatencyStat
+{
+
+	private String name;
+	private long count;
+	private double meanMillis;
+	private double p50Millis;
+	private double p90Millis;
+	private double p99Millis;
+	private double maxMillis;
+	private long rows;
+
+	public LatencyStat()
+	{
+	}
+
+	public static LatencyStat toStat(String name, LatencyHistogram histogram)
+	{
+		LatencyStat stat = new LatencyStat();
+		stat.setName(name);
+		stat.setCount(histogram.getCount());
+		stat.setMeanMillis(toMillis(histogram.getMeanMicros()));
+		long[] percentiles = histogram.getPercentilesMicros(50, 90, 99);
+		stat.setP50Millis(toMillis(percentiles[0]));
+		stat.setP90Millis(toMillis(percentiles[1]));
+		stat.setP99Millis(toMillis(percentiles[2]));
+		stat.setMaxMillis(toMillis(histogram.getMaxMicros()));
+		stat.setRows(histogram.getRows());
+		return stat;
+	}
+
+	private static double toMillis(double micros)
+	{
+		return Math.round(micros) / 1000.0;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public void setName(String name)
+	{
+		this.name = name;
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	public void setCount(long count)
+	{
+		this.count = count;
+	}
+
+	public double getMeanMillis()
+	{
+		return meanMillis;
+	}
+
+	public void setMeanMillis(double meanMillis)
+	{
+		this.meanMillis = meanMillis;
+	}
+
+	public double getP50Millis()
+	{
+		return p50Millis;
+	}
+
+	public void setP50Millis(double p50Millis)
+	{
+		this.p50Millis = p50Millis;
+	}
+
+	public double getP90Millis()
+	{
+		return p90Millis;
+	}
+
+	public void setP90Millis(double p90Millis)
+	{
+		this.p90Millis = p90Millis;
+	}
+
+	public double getP99Millis()
+	{
+		return p99Millis;
+	}
+
+	public void setP99Millis(double p99Millis)
+	{
+		this.p99Millis = p99Millis;
+	}
+
+	public double getMaxMillis()
+	{
+		return maxMillis;
+	}
+
+	public void setMaxMillis(double maxMillis)
+	{
+		this.maxMillis = maxMillis;
+	}
+
+	public long getRows()
+	{
+		return rows;
+	}
+
+	public void setRows(long rows)
+	{
+		this.rows = rows;
+	}
+
+}
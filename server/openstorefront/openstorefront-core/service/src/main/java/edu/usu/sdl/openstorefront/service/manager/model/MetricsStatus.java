@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+import edu.usu.sdl.openstorefront.core.view.CacheView;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Collected service, REST, query, cache and task pool metrics
+ *
+ * @author dshurtleff
+ */
+public class MetricsStatus
+{
+
+	private boolean enabled;
+	private Date collectingSince;
+	private List<LatencyStat> restMethods = new ArrayList<>();
+	private List<LatencyStat> serviceMethods = new ArrayList<>();
+	private List<LatencyStat> queries = new ArrayList<>();
+	private List<CacheView> caches = new ArrayList<>();
+	private TaskManagerStatus taskPool;
+
+	public MetricsStatus()
+	{
+	}
+
+	public boolean getEnabled()
+	{
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	public Date getCollectingSince()
+	{
+		return collectingSince;
+	}
+
+	public void setCollectingSince(Date collectingSince)
+	{
+		this.collectingSince = collectingSince;
+	}
+
+	public List<LatencyStat> getRestMethods()
+	{
+		return restMethods;
+	}
+
+	public void setRestMethods(List<LatencyStat> restMethods)
+	{
+		this.restMethods = restMethods;
+	}
+
+	public List<LatencyStat> getServiceMethods()
+	{
+		return serviceMethods;
+	}
+
+	public void setServiceMethods(List<LatencyStat> serviceMethods)
+	{
+		this.serviceMethods = serviceMethods;
+	}
+
+	public List<LatencyStat> getQueries()
+	{
+		return queries;
+	}
+
+	public void setQueries(List<LatencyStat> queries)
+	{
+		this.queries = queries;
+	}
+
+	public List<CacheView> getCaches()
+	{
+		return caches;
+	}
+
+	public void setCaches(List<CacheView> caches)
+	{
+		this.caches = caches;
+	}
+
+	public TaskManagerStatus getTaskPool()
+	{
+		return taskPool;
+	}
+
+	public void setTaskPool(TaskManagerStatus taskPool)
+	{
+		this.taskPool = taskPool;
+	}
+
+}
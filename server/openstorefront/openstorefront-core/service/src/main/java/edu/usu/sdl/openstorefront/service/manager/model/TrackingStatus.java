@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.model;
+
+/**
+ * Holds tracking pipeline status
+ *
+ * @author dshurtleff
+ */
+public class TrackingStatus
+{
+
+	private boolean running;
+	private int queuedCount;
+	private long acceptedCount;
+	private long writtenCount;
+	private long lostCount;
+	private long overflowCount;
+	private long failedCount;
+	private boolean countersLoaded;
+	private int pendingCounterCount;
+	private boolean countersBackfilled;
+
+	public TrackingStatus()
+	{
+	}
+
+	public boolean getRunning()
+	{
+		return running;
+	}
+
+	public void setRunning(boolean running)
+	{
+		this.running = running;
+	}
+
+	public int getQueuedCount()
+	{
+		return queuedCount;
+	}
+
+	public void setQueuedCount(int queuedCount)
+	{
+		this.queuedCount = queuedCount;
+	}
+
+	public long getAcceptedCount()
+	{
+		return acceptedCount;
+	}
+
+	public void setAcceptedCount(long acceptedCount)
+	{
+		this.acceptedCount = acceptedCount;
+	}
+
+	public long getWrittenCount()
+	{
+		return writtenCount;
+	}
+
+	public void setWrittenCount(long writtenCount)
+	{
+		this.writtenCount = writtenCount;
+	}
+
+	public long getLostCount()
+	{
+		return lostCount;
+	}
+
+	public void setLostCount(long lostCount)
+	{
+		this.lostCount = lostCount;
+	}
+
+	public long getOverflowCount()
+	{
+		return overflowCount;
+	}
+
+	public void setOverflowCount(long overflowCount)
+	{
+		this.overflowCount = overflowCount;
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	public void setFailedCount(long failedCount)
+	{
+		this.failedCount = failedCount;
+	}
+
+	public boolean getCountersLoaded()
+	{
+		return countersLoaded;
+	}
+
+	public void setCountersLoaded(boolean countersLoaded)
+	{
+		this.countersLoaded = countersLoaded;
+	}
+
+	public int getPendingCounterCount()
+	{
+		return pendingCounterCount;
+	}
+
+	public void setPendingCounterCount(int pendingCounterCount)
+	{
+		this.pendingCounterCount = pendingCounterCount;
+	}
+
+	public boolean getCountersBackfilled()
+	{
+		return countersBackfilled;
+	}
+
+	public void setCountersBackfilled(boolean countersBackfilled)
+	{
+		this.countersBackfilled = countersBackfilled;
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between nodes. Implementations need a public
+ * no-arg constructor so they can be configured by class name.
+ *
+ * @author dshurtleff
+ */
+public interface CacheInvalidationTransport
+{
+
+	/**
+	 * Starts receiving invalidations from the other nodes
+	 *
+	 * @param nodeId this node
+	 * @param receiver applies invalidations from other nodes (never this one)
+	 */
+	void start(String nodeId, Consumer<List<CacheInvalidation>> receiver);
+
+	/**
+	 * Sends a batch to the other nodes
+	 *
+	 * @param invalidations
+	 */
+	void publish(List<CacheInvalidation> invalidations);
+
+	void stop();
+
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.core.view.CacheView;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.PersistenceConfiguration;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.shiro.SecurityUtils;
+import org.apache.shiro.UnavailableSecurityManagerException;
+
+/**
+ * A named cache with its sizing read from properties (falling back to the
+ * coded defaults) and load timing on top of the ehcache statistics.
+ *
+ * Properties (per region): cache.[name].maxentries, cache.[name].ttl
+ * (seconds), cache.[name].maxbytes (e.g. 256M; sizes the region by heap
+ * instead of entry count which suits large object graphs) and
+ * cache.[name].refreshahead (fraction of the TTL; 0 is off).
+ *
+ * Loads through the region are single-flight: only one thread loads a key
+ * and concurrent misses wait for its result. With refresh-ahead, a hit on an
+ * entry past the refresh point returns the current value and reloads the
+ * entry in the background so hot entries don't expire. Invalidations bump the
+ * region generation; a load that started before one is returned but not
+ * cached so it can't put the old data back.
+ *
+ * @author dshurtleff
+ */
+public class CacheRegion
+		implements CacheRegionMXBean
+{
+
+	private static final Logger LOG = Logger.getLogger(CacheRegion.class.getName());
+
+	private static final String MAX_ENTRIES = ".maxentries";
+	private static final String TTL = ".ttl";
+	private static final String MAX_BYTES = ".maxbytes";
+	private static final String REFRESH_AHEAD = ".refreshahead";
+	private static final String LOAD_ALL_KEY = "__LOAD_ALL__";
+
+	private final String name;
+	private final int defaultMaxEntries;
+	private final long defaultTimeToLive;
+	private final boolean eternal;
+	private final boolean keyedByComponent;
+	private final ComponentKeyIndex componentKeyIndex;
+
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder loadNanos = new LongAdder();
+	private final LongAdder coalescedCount = new LongAdder();
+	private final LongAdder refreshCount = new LongAdder();
+
+	private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+	private final AtomicLong generation = new AtomicLong();
+	private double defaultRefreshAhead;
+	private double refreshAhead;
+	private Executor refreshExecutor;
+
+	private Cache cache;
+
+	/**
+	 * @param name
+	 * @param defaultMaxEntries
+	 * @param defaultTimeToLive seconds (ignored when eternal)
+	 * @param eternal
+	 * @param keyedByComponent the cache keys are component ids
+	 * @param componentIdsOf optional; maps a cached value to the components it
+	 * holds so the entry can be invalidated per component
+	 */
+	public CacheRegion(String name, int defaultMaxEntries, long defaultTimeToLive, boolean eternal, boolean keyedByComponent, Function<Object, Collection<String>> componentIdsOf)
+	{
+		this.name = name;
+		this.defaultMaxEntries = defaultMaxEntries;
+		this.defaultTimeToLive = defaultTimeToLive;
+		this.eternal = eternal;
+		this.keyedByComponent = keyedByComponent;
+		if (componentIdsOf != null) {
+			componentKeyIndex = new ComponentKeyIndex(componentIdsOf);
+		} else {
+			componentKeyIndex = null;
+		}
+	}
+
+	public static String propertyKey(String regionName, String setting)
+	{
+		return PropertiesManager.KEY_CACHE_REGION_PREFIX + regionName + setting;
+	}
+
+	/**
+	 * @param defaultRefreshAhead fraction of the TTL after which a hit reloads
+	 * the entry in the background (0 is off)
+	 */
+	public void setDefaultRefreshAhead(double defaultRefreshAhead)
+	{
+		this.defaultRefreshAhead = defaultRefreshAhead;
+	}
+
+	public Cache create(CacheManager cacheManager, Executor refreshExecutor)
+	{
+		this.refreshExecutor = refreshExecutor;
+		CacheConfiguration config = new CacheConfiguration();
+		config.setName(name);
+		config.setEternal(eternal);
+		config.persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE));
+
+		String maxBytes = PropertiesManager.getValue(propertyKey(name, MAX_BYTES));
+		if (StringUtils.isNotBlank(maxBytes)) {
+			config.setMaxBytesLocalHeap(maxBytes.trim());
+		} else {
+			config.setMaxEntriesLocalHeap(readLong(MAX_ENTRIES, defaultMaxEntries));
+		}
+
+		if (eternal == false) {
+			long timeToLive = readLong(TTL, defaultTimeToLive);
+			config.setTimeToLiveSeconds(timeToLive);
+			config.setTimeToIdleSeconds(timeToLive);
+
+			refreshAhead = readRefreshAhead();
+		}
+
+		cacheManager.addCache(new Cache(config));
+		cache = cacheManager.getCache(name);
+		if (componentKeyIndex != null) {
+			cache.getCacheEventNotificationService().registerListener(componentKeyIndex);
+		}
+		return cache;
+	}
+
+	private long readLong(String setting, long defaultValue)
+	{
+		String key = propertyKey(name, setting);
+		Long value = Convert.toLong(PropertiesManager.getValue(key, Long.toString(defaultValue)));
+		if (value == null || value < 0) {
+			LOG.log(Level.WARNING, MessageFormat.format("Invalid cache setting: {0} using default: {1}", key, defaultValue));
+			value = defaultValue;
+		}
+		return value;
+	}
+
+	private double readRefreshAhead()
+	{
+		String key = propertyKey(name, REFRESH_AHEAD);
+		try {
+			double fraction = Double.parseDouble(PropertiesManager.getValue(key, Double.toString(defaultRefreshAhead)));
+			if (fraction >= 0 && fraction < 1) {
+				return fraction;
+			}
+		} catch (NumberFormatException e) {
+			//fall through to the default
+		}
+		LOG.log(Level.WARNING, MessageFormat.format("Invalid cache setting: {0} using default: {1}", key, defaultRefreshAhead));
+		return defaultRefreshAhead;
+	}
+
+	public Cache getCache()
+	{
+		return cache;
+	}
+
+	/**
+	 * Gets the value or loads it (single-flight). Null values are not cached.
+	 *
+	 * @param key
+	 * @param loader builds the value on a miss
+	 * @return value (may be null)
+	 */
+	public Object get(Object key, Supplier<?> loader)
+	{
+		Element element = cache.get(key);
+		if (element != null) {
+			if (needsRefresh(element)) {
+				refreshAsync(key, loader);
+			}
+			return element.getObjectValue();
+		}
+		return singleFlight(key, () -> {
+			//another thread may have just finished loading it
+			Element loaded = cache.getQuiet(key);
+			if (loaded != null) {
+				return loaded.getObjectValue();
+			}
+			return loadAndPut(key, loader);
+		});
+	}
+
+	/**
+	 * For caches that are filled in bulk (one query loads every key). On a miss
+	 * the bulk loader runs once for all of the waiting threads; keys that are
+	 * still missing after the load are cached as null so they don't trigger
+	 * another bulk load.
+	 *
+	 * @param key
+	 * @param bulkLoader puts the entries in the cache
+	 * @return the cached value (may be null)
+	 */
+	public Object getOrLoadAll(Object key, Runnable bulkLoader)
+	{
+		Element element = cache.get(key);
+		if (element == null) {
+			singleFlight(LOAD_ALL_KEY, () -> {
+				if (cache.getQuiet(key) == null) {
+					long startNanos = System.nanoTime();
+					bulkLoader.run();
+					recordLoad(startNanos);
+				}
+				return null;
+			});
+			element = cache.getQuiet(key);
+			if (element == null) {
+				element = new Element(key, null);
+				cache.putIfAbsent(element);
+			}
+		}
+		return element.getObjectValue();
+	}
+
+	private Object loadAndPut(Object key, Supplier<?> loader)
+	{
+		long startGeneration = generation.get();
+		long startNanos = System.nanoTime();
+		Object value = loader.get();
+		if (value != null && startGeneration == generation.get()) {
+			cache.put(new Element(key, value));
+			recordLoad(startNanos);
+		}
+		return value;
+	}
+
+	private Object singleFlight(Object key, Supplier<Object> work)
+	{
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			coalescedCount.increment();
+			return await(existing);
+		}
+
+		try {
+			Object value = work.get();
+			future.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, future);
+		}
+	}
+
+	private Object await(CompletableFuture<Object> future)
+	{
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new OpenStorefrontRuntimeException("Interrupted waiting for cache load", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new OpenStorefrontRuntimeException("Cache load failed", ex.getCause());
+		}
+	}
+
+	private boolean needsRefresh(Element element)
+	{
+		if (refreshAhead <= 0 || refreshExecutor == null || element.getObjectValue() == null) {
+			return false;
+		}
+		long timeToLiveMillis = TimeUnit.SECONDS.toMillis(cache.getCacheConfiguration().getTimeToLiveSeconds());
+		long age = System.currentTimeMillis() - element.getLatestOfCreationAndUpdateTime();
+		return timeToLiveMillis > 0 && age >= timeToLiveMillis * refreshAhead;
+	}
+
+	private void refreshAsync(Object key, Supplier<?> loader)
+	{
+		if (inFlight.containsKey(key) || refreshing.add(key) == false) {
+			return;
+		}
+
+		Runnable refresh = () -> {
+			try {
+				singleFlight(key, () -> loadAndPut(key, loader));
+				refreshCount.increment();
+			} catch (Exception e) {
+				LOG.log(Level.FINE, MessageFormat.format("Unable to refresh cache entry: {0} in {1}", key, name), e);
+			} finally {
+				refreshing.remove(key);
+			}
+		};
+
+		try {
+			//load as the user that triggered it; same as a load on a miss
+			refreshExecutor.execute(SecurityUtils.getSubject().associateWith(refresh));
+		} catch (UnavailableSecurityManagerException | IllegalStateException e) {
+			executeRefresh(key, refresh);
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(key);
+		}
+	}
+
+	private void executeRefresh(Object key, Runnable refresh)
+	{
+		try {
+			refreshExecutor.execute(refresh);
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(key);
+		}
+	}
+
+	/**
+	 * Records the time it took to build a value that was put in the cache
+	 *
+	 * @param startNanos from System.nanoTime() before the load
+	 */
+	public void recordLoad(long startNanos)
+	{
+		loadCount.increment();
+		loadNanos.add(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Removes the entries that hold the component
+	 *
+	 * @param componentId
+	 */
+	public void invalidateComponent(String componentId)
+	{
+		if (cache == null) {
+			return;
+		}
+		generation.incrementAndGet();
+		if (keyedByComponent) {
+			cache.remove(componentId);
+		}
+		if (componentKeyIndex != null) {
+			List<Object> keys = componentKeyIndex.keysFor(componentId);
+			if (keys.isEmpty() == false) {
+				cache.removeAll(keys);
+			}
+		}
+	}
+
+	/**
+	 * Removes a key; loads already running won't be cached
+	 *
+	 * @param key
+	 */
+	public void remove(Object key)
+	{
+		generation.incrementAndGet();
+		cache.remove(key);
+	}
+
+	/**
+	 * Changes the cached value in place (when cached); loads already running
+	 * won't be cached as they may have read the data before the change
+	 *
+	 * @param key
+	 * @param change
+	 */
+	public void update(Object key, Consumer<Object> change)
+	{
+		generation.incrementAndGet();
+		Element element = cache.getQuiet(key);
+		if (element != null && element.getObjectValue() != null) {
+			change.accept(element.getObjectValue());
+		}
+	}
+
+	/**
+	 * Removes all of the entries; loads already running won't be cached
+	 */
+	public void removeAll()
+	{
+		generation.incrementAndGet();
+		cache.removeAll();
+	}
+
+	public CacheView toView()
+	{
+		CacheView cacheView = new CacheView();
+		cacheView.setName(name);
+		cacheView.setHitCount(getHitCount());
+		cacheView.setMissCount(getMissCount());
+		cacheView.setHitRatio(getHitRatio());
+		cacheView.setRoughCount(getSize());
+		cacheView.setEvictedCount(getEvictedCount());
+		cacheView.setExpiredCount(getExpiredCount());
+		cacheView.setLoadCount(getLoadCount());
+		cacheView.setAverageLoadMillis(getAverageLoadMillis());
+		cacheView.setCoalescedLoadCount(getCoalescedLoadCount());
+		cacheView.setRefreshCount(getRefreshCount());
+		cacheView.setMaxEntries(getMaxEntries());
+		cacheView.setMaxBytesLocalHeap(getMaxBytesLocalHeap());
+		cacheView.setTimeToLiveSeconds(getTimeToLiveSeconds());
+		return cacheView;
+	}
+
+	@Override
+	public String getName()
+	{
+		return name;
+	}
+
+	@Override
+	public long getMaxEntries()
+	{
+		return cache.getCacheConfiguration().getMaxEntriesLocalHeap();
+	}
+
+	@Override
+	public String getMaxBytesLocalHeap()
+	{
+		return cache.getCacheConfiguration().getMaxBytesLocalHeapAsString();
+	}
+
+	@Override
+	public long getTimeToLiveSeconds()
+	{
+		return cache.getCacheConfiguration().getTimeToLiveSeconds();
+	}
+
+	@Override
+	public long getSize()
+	{
+		return cache.getKeysNoDuplicateCheck().size();
+	}
+
+	@Override
+	public long getHitCount()
+	{
+		return cache.getStatistics().cacheHitCount();
+	}
+
+	@Override
+	public long getMissCount()
+	{
+		return cache.getStatistics().cacheMissCount();
+	}
+
+	@Override
+	public double getHitRatio()
+	{
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		if (total > 0) {
+			return (double) hits / (double) total;
+		}
+		return 0;
+	}
+
+	@Override
+	public long getEvictedCount()
+	{
+		return cache.getStatistics().cacheEvictedCount();
+	}
+
+	@Override
+	public long getExpiredCount()
+	{
+		return cache.getStatistics().cacheExpiredCount();
+	}
+
+	@Override
+	public long getLoadCount()
+	{
+		return loadCount.sum();
+	}
+
+	@Override
+	public double getAverageLoadMillis()
+	{
+		long loads = loadCount.sum();
+		if (loads > 0) {
+			return (double) loadNanos.sum() / loads / TimeUnit.MILLISECONDS.toNanos(1);
+		}
+		return 0;
+	}
+
+	@Override
+	public long getCoalescedLoadCount()
+	{
+		return coalescedCount.sum();
+	}
+
+	@Override
+	public long getRefreshCount()
+	{
+		return refreshCount.sum();
+	}
+
+	@Override
+	public double getRefreshAhead()
+	{
+		return refreshAhead;
+	}
+
+	@Override
+	public void flush()
+	{
+		removeAll();
+	}
+
+	/**
+	 * Tracks which keys hold a component; kept in step with the cache through
+	 * the cache events so evicted and expired entries drop out.
+	 */
+	private static class ComponentKeyIndex
+			extends CacheEventListenerAdapter
+	{
+
+		private final Function<Object, Collection<String>> componentIdsOf;
+		private final Map<String, Set<Object>> keysByComponent = new HashMap<>();
+		private final Map<Object, Collection<String>> componentsByKey = new HashMap<>();
+
+		public ComponentKeyIndex(Function<Object, Collection<String>> componentIdsOf)
+		{
+			this.componentIdsOf = componentIdsOf;
+		}
+
+		public synchronized List<Object> keysFor(String componentId)
+		{
+			Set<Object> keys = keysByComponent.get(componentId);
+			if (keys == null) {
+				return Collections.emptyList();
+			}
+			return new ArrayList<>(keys);
+		}
+
+		private synchronized void add(Element element)
+		{
+			remove(element);
+			Collection<String> componentIds = componentIdsOf.apply(element.getObjectValue());
+			if (componentIds == null || componentIds.isEmpty()) {
+				return;
+			}
+			componentsByKey.put(element.getObjectKey(), componentIds);
+			for (String componentId : componentIds) {
+				keysByComponent.computeIfAbsent(componentId, id -> new HashSet<>()).add(element.getObjectKey());
+			}
+		}
+
+		private synchronized void remove(Element element)
+		{
+			Collection<String> componentIds = componentsByKey.remove(element.getObjectKey());
+			if (componentIds != null) {
+				for (String componentId : componentIds) {
+					Set<Object> keys = keysByComponent.get(componentId);
+					if (keys != null) {
+						keys.remove(element.getObjectKey());
+						if (keys.isEmpty()) {
+							keysByComponent.remove(componentId);
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public void notifyElementPut(Ehcache cache, Element element)
+		{
+			add(element);
+		}
+
+		@Override
+		public void notifyElementUpdated(Ehcache cache, Element element)
+		{
+			add(element);
+		}
+
+		@Override
+		public void notifyElementRemoved(Ehcache cache, Element element)
+		{
+			remove(element);
+		}
+
+		@Override
+		public void notifyElementExpired(Ehcache cache, Element element)
+		{
+			remove(element);
+		}
+
+		@Override
+		public void notifyElementEvicted(Ehcache cache, Element element)
+		{
+			remove(element);
+		}
+
+		@Override
+		public synchronized void notifyRemoveAll(Ehcache cache)
+		{
+			keysByComponent.clear();
+			componentsByKey.clear();
+		}
+
+		@Override
+		public Object clone() throws CloneNotSupportedException
+		{
+			throw new CloneNotSupportedException("Index is tied to a single cache");
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+/**
+ * JMX view of a cache region
+ *
+ * @author dshurtleff
+ */
+public interface CacheRegionMXBean
+{
+
+	String getName();
+
+	long getMaxEntries();
+
+	String getMaxBytesLocalHeap();
+
+	long getTimeToLiveSeconds();
+
+	long getSize();
+
+	long getHitCount();
+
+	long getMissCount();
+
+	double getHitRatio();
+
+	long getEvictedCount();
+
+	long getExpiredCount();
+
+	long getLoadCount();
+
+	double getAverageLoadMillis();
+
+	long getCoalescedLoadCount();
+
+	long getRefreshCount();
+
+	double getRefreshAhead();
+
+	void flush();
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.entity.CacheInvalidationEvent;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shares invalidations through the database. Each published batch is one
+ * CacheInvalidationEvent row; every node polls for rows from the other nodes.
+ *
+ * The poll window reaches back before the previous poll by the configured
+ * overlap (cache.invalidation.poll.overlap.seconds) so rows that commit late
+ * or come from a node with a different clock are still picked up; seen
+ * events are tracked to avoid applying them twice. Rows from a node whose
+ * clock is behind by more than the overlap are missed, so the overlap needs
+ * to cover the clock difference between the nodes.
+ *
+ * @author dshurtleff
+ */
+public class DBCacheInvalidationTransport
+		implements CacheInvalidationTransport
+{
+
+	private static final Logger LOG = Logger.getLogger(DBCacheInvalidationTransport.class.getName());
+
+	private static final int CLEANUP_EVERY_POLLS = 100;
+
+	private final long pollMillis;
+	private final long overlapMillis;
+	private final long retainMillis;
+
+	private String nodeId;
+	private Consumer<List<CacheInvalidation>> receiver;
+	private volatile boolean running;
+	private Thread pollThread;
+
+	private Date lastPoll;
+	private final Map<String, Date> seenEvents = new HashMap<>();
+
+	public DBCacheInvalidationTransport()
+	{
+		pollMillis = Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_INVALIDATION_POLL)), 100);
+		overlapMillis = TimeUnit.SECONDS.toMillis(Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_INVALIDATION_POLL_OVERLAP)), 0));
+		retainMillis = TimeUnit.MINUTES.toMillis(Math.max(Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_CACHE_INVALIDATION_RETAIN)), 1));
+		if (retainMillis <= overlapMillis) {
+			LOG.log(Level.WARNING, MessageFormat.format("{0} should be longer than {1}; events are removed before the poll window has passed them", PropertiesManager.KEY_CACHE_INVALIDATION_RETAIN, PropertiesManager.KEY_CACHE_INVALIDATION_POLL_OVERLAP));
+		}
+	}
+
+	@Override
+	public void start(String nodeId, Consumer<List<CacheInvalidation>> receiver)
+	{
+		this.nodeId = nodeId;
+		this.receiver = receiver;
+		lastPoll = TimeUtil.currentDate();
+
+		running = true;
+		pollThread = new Thread(this::pollLoop, "CacheInvalidation-Poll");
+		pollThread.setDaemon(true);
+		pollThread.start();
+	}
+
+	@Override
+	public void publish(List<CacheInvalidation> invalidations)
+	{
+		ServiceProxy service = new ServiceProxy();
+
+		CacheInvalidationEvent event = new CacheInvalidationEvent();
+		event.setEventId(service.getPersistenceService().generateId());
+		event.setNodeId(nodeId);
+		try {
+			event.setInvalidations(StringProcessor.defaultObjectMapper().writeValueAsString(invalidations));
+		} catch (JsonProcessingException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to serialize cache invalidations", ex);
+		}
+		event.setCreateUser(OpenStorefrontConstant.SYSTEM_USER);
+		event.setUpdateUser(OpenStorefrontConstant.SYSTEM_USER);
+		event.populateBaseCreateFields();
+		service.getPersistenceService().persist(event);
+	}
+
+	private void pollLoop()
+	{
+		long polls = 0;
+		while (running) {
+			try {
+				Thread.sleep(pollMillis);
+				poll();
+				if (++polls % CLEANUP_EVERY_POLLS == 0) {
+					removeOldEvents();
+				}
+			} catch (InterruptedException ex) {
+				LOG.log(Level.FINE, "Cache invalidation poll interrupted");
+			} catch (Exception e) {
+				LOG.log(Level.WARNING, "Unable to poll for cache invalidations", e);
+			}
+		}
+	}
+
+	private void poll()
+	{
+		Date pollStart = TimeUtil.currentDate();
+		Date since = new Date(lastPoll.getTime() - overlapMillis);
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("sinceParam", since);
+		params.put("nodeIdParam", nodeId);
+
+		ServiceProxy service = new ServiceProxy();
+		List<CacheInvalidationEvent> events = service.getPersistenceService().query(
+				"select from " + CacheInvalidationEvent.class.getSimpleName() + " where createDts >= :sinceParam and nodeId <> :nodeIdParam order by createDts",
+				params);
+
+		for (CacheInvalidationEvent event : events) {
+			if (seenEvents.putIfAbsent(event.getEventId(), event.getCreateDts()) == null) {
+				try {
+					List<CacheInvalidation> invalidations = StringProcessor.defaultObjectMapper().readValue(event.getInvalidations(), new TypeReference<List<CacheInvalidation>>()
+					{
+					});
+					receiver.accept(invalidations);
+				} catch (IOException ex) {
+					LOG.log(Level.WARNING, MessageFormat.format("Unable to read cache invalidation event: {0}", event.getEventId()), ex);
+				}
+			}
+		}
+
+		seenEvents.values().removeIf(createDts -> createDts == null || createDts.before(since));
+		lastPoll = pollStart;
+	}
+
+	private void removeOldEvents()
+	{
+		Date cutoff = new Date(System.currentTimeMillis() - retainMillis);
+		ServiceProxy service = new ServiceProxy();
+		long removed = service.getPersistenceService().deleteOlderThan(CacheInvalidationEvent.class, "createDts", cutoff);
+		if (removed > 0) {
+			LOG.log(Level.FINE, MessageFormat.format("Removed {0} old cache invalidation events", removed));
+		}
+	}
+
+	@Override
+	public void stop()
+	{
+		running = false;
+		if (pollThread != null) {
+			pollThread.interrupt();
+			try {
+				pollThread.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			pollThread = null;
+		}
+	}
+
+}
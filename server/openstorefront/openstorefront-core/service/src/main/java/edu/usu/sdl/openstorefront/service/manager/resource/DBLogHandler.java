@@ -19,23 +19,106 @@ import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
 import edu.usu.sdl.openstorefront.common.util.Convert;
 import edu.usu.sdl.openstorefront.core.entity.DBLogRecord;
 import edu.usu.sdl.openstorefront.service.ServiceProxy;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.ErrorManager;
 import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 /**
  * Handles pushing records to the Database
  *
+ * Records are held in a fixed size ring buffer and a single drain thread
+ * writes them in batches (batch size records or max wait from the first
+ * record) with one transaction per batch. When the buffer is full the overflow
+ * policy decides what gives.
+ *
  * @author dshurtleff
  */
 public class DBLogHandler
 		extends Handler
 {
 
-	private final ExecutorService asyncLoggerService = Executors.newSingleThreadExecutor();
-	private boolean active = true;
+	public enum OverflowPolicy
+	{
+		/**
+		 * Evict the oldest buffered record
+		 */
+		DROP_OLDEST,
+		/**
+		 * Drop incoming records below the overflow level; evict the oldest for
+		 * the rest
+		 */
+		DROP_BELOW_LEVEL,
+		/**
+		 * Block the logging thread until there is room
+		 */
+		BLOCK
+	}
+
+	private static final String SECURITY_FILTER_CLASS = "edu.usu.sdl.openstorefront.web.rest.SecurityFilter";
+	private static final long CLOSE_WAIT_MILLIS = 3000;
+
+	private final DBLogRecord[] ring;
+	private int head;
+	private int count;
+
+	private final int batchSize;
+	private final long maxWaitNanos;
+	private final OverflowPolicy overflowPolicy;
+	private final Level overflowLevel;
+	private final boolean logSecurityFilter;
+	private final Consumer<List<DBLogRecord>> writer;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final Condition progress = lock.newCondition();
+	private int flushWaiters;
+	private volatile boolean active = true;
+
+	private final AtomicLong acceptedCount = new AtomicLong();
+	private final AtomicLong processedCount = new AtomicLong();
+	private final AtomicLong writtenCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private final Thread drainThread;
+
+	public DBLogHandler()
+	{
+		this(Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_BUFFER_SIZE)),
+				Convert.toInteger(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_BATCH_SIZE)),
+				Convert.toLong(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_BATCH_MAX_WAIT)),
+				OverflowPolicy.valueOf(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_OVERFLOW_POLICY).trim().toUpperCase()),
+				Level.parse(PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_DBLOG_OVERFLOW_LEVEL).trim().toUpperCase()),
+				Convert.toBoolean(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_LOG_SECURITY, "false")),
+				(logRecords) -> {
+					ServiceProxy serviceProxy = ServiceProxy.getThreadProxy();
+					serviceProxy.getSystemService().addLogRecords(logRecords);
+				});
+	}
+
+	DBLogHandler(int bufferSize, int batchSize, long maxWaitMillis, OverflowPolicy overflowPolicy, Level overflowLevel, boolean logSecurityFilter, Consumer<List<DBLogRecord>> writer)
+	{
+		this.ring = new DBLogRecord[Math.max(bufferSize, 1)];
+		this.batchSize = Math.max(Math.min(batchSize, ring.length), 1);
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWaitMillis, 0));
+		this.overflowPolicy = overflowPolicy;
+		this.overflowLevel = overflowLevel;
+		this.logSecurityFilter = logSecurityFilter;
+		this.writer = writer;
+
+		drainThread = new Thread(this::drain, "DBLogHandler-Drain");
+		drainThread.setDaemon(true);
+		drainThread.start();
+	}
 
 	@Override
 	public void publish(LogRecord record)
@@ -43,38 +126,226 @@ public class DBLogHandler
 		if (record != null && active) {
 			try {
 				//Filter Audit logging as it can fill the logs and it's better captured else where
-				boolean logSecurityFilter = Convert.toBoolean(PropertiesManager.getValue(PropertiesManager.KEY_DBLOG_LOG_SECURITY, "false"));
-				if (logSecurityFilter || record.getSourceClassName().equals("edu.usu.sdl.openstorefront.web.rest.SecurityFilter") == false) {
-					DBLogRecord logRecord = DBLogRecord.fromLogRecord(record);
-
-					Runnable task = () -> {
-						ServiceProxy serviceProxy = new ServiceProxy();
-						serviceProxy.getSystemService().addLogRecord(logRecord);
-					};
-					asyncLoggerService.submit(task);
+				if (logSecurityFilter || SECURITY_FILTER_CLASS.equals(record.getSourceClassName()) == false) {
+					enqueue(DBLogRecord.fromLogRecord(record), record.getLevel());
 				}
 			} catch (Exception e) {
-				getErrorManager().error("Failed to log Record", e, 1);
+				getErrorManager().error("Failed to log Record", e, ErrorManager.WRITE_FAILURE);
+			}
+		}
+	}
+
+	private void enqueue(DBLogRecord logRecord, Level level)
+	{
+		lock.lock();
+		try {
+			if (count == ring.length) {
+				if (OverflowPolicy.BLOCK.equals(overflowPolicy) && Thread.currentThread() != drainThread) {
+					//The drain thread can't wait on itself; it falls through to evicting
+					try {
+						while (count == ring.length && active) {
+							notFull.await();
+						}
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						droppedCount.incrementAndGet();
+						return;
+					}
+					if (active == false) {
+						droppedCount.incrementAndGet();
+						return;
+					}
+				} else if (OverflowPolicy.DROP_BELOW_LEVEL.equals(overflowPolicy)
+						&& level != null
+						&& level.intValue() < overflowLevel.intValue()) {
+					droppedCount.incrementAndGet();
+					return;
+				}
+
+				if (count == ring.length) {
+					evictOldest();
+				}
+			}
+
+			ring[(head + count) % ring.length] = logRecord;
+			count++;
+			acceptedCount.incrementAndGet();
+
+			//Only wake the drain thread when it has something new to do
+			if (count == 1 || count >= batchSize) {
+				notEmpty.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void evictOldest()
+	{
+		ring[head] = null;
+		head = (head + 1) % ring.length;
+		count--;
+		droppedCount.incrementAndGet();
+		processedCount.incrementAndGet();
+	}
+
+	@SuppressWarnings("try")
+	private void drain()
+	{
+		List<DBLogRecord> batch;
+		//the drain thread does all the writes so it can keep one service proxy
+		try (ServiceProxy.ThreadScope threadScope = ServiceProxy.openThreadScope()) {
+			while ((batch = nextBatch()) != null) {
+				try {
+					writer.accept(batch);
+					writtenCount.addAndGet(batch.size());
+				} catch (Exception e) {
+					failedCount.addAndGet(batch.size());
+					getErrorManager().error("Failed to write " + batch.size() + " log records", e, ErrorManager.WRITE_FAILURE);
+				}
+
+				lock.lock();
+				try {
+					processedCount.addAndGet(batch.size());
+					progress.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits for a batch; either batch size records, max wait since the first
+	 * record or a flush/close.
+	 *
+	 * @return batch or null once closed and empty
+	 */
+	private List<DBLogRecord> nextBatch()
+	{
+		lock.lock();
+		try {
+			while (count == 0) {
+				if (active == false) {
+					return null;
+				}
+				notEmpty.await();
 			}
+
+			long remaining = maxWaitNanos;
+			while (count < batchSize && active && flushWaiters == 0 && remaining > 0) {
+				remaining = notEmpty.awaitNanos(remaining);
+			}
+
+			int batchCount = Math.min(count, batchSize);
+			List<DBLogRecord> batch = new ArrayList<>(batchCount);
+			for (int i = 0; i < batchCount; i++) {
+				batch.add(ring[head]);
+				ring[head] = null;
+				head = (head + 1) % ring.length;
+			}
+			count -= batchCount;
+			notFull.signalAll();
+			return batch;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		} finally {
+			lock.unlock();
 		}
 	}
 
+	/**
+	 * Waits (up to the close wait) for the records accepted before the call to
+	 * be written.
+	 */
 	@Override
 	public void flush()
 	{
-		//Nothing is Buffered
+		if (Thread.currentThread() == drainThread) {
+			return;
+		}
+
+		lock.lock();
+		try {
+			long target = acceptedCount.get();
+			long remaining = TimeUnit.MILLISECONDS.toNanos(CLOSE_WAIT_MILLIS);
+			flushWaiters++;
+			try {
+				notEmpty.signal();
+				while (processedCount.get() < target && drainThread.isAlive() && remaining > 0) {
+					remaining = progress.awaitNanos(remaining);
+				}
+			} finally {
+				flushWaiters--;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
 	public void close() throws SecurityException
 	{
-		active = false;
-		asyncLoggerService.shutdown();
+		flush();
+
+		lock.lock();
 		try {
-			asyncLoggerService.awaitTermination(3, TimeUnit.SECONDS);
+			active = false;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+
+		try {
+			drainThread.join(CLOSE_WAIT_MILLIS);
 		} catch (InterruptedException ex) {
-			getErrorManager().error("Failed to shutdown db logger", ex, 2);
+			Thread.currentThread().interrupt();
+			getErrorManager().error("Failed to shutdown db logger", ex, ErrorManager.CLOSE_FAILURE);
 		}
 	}
 
+	public int getBufferSize()
+	{
+		return ring.length;
+	}
+
+	public int getBufferedCount()
+	{
+		lock.lock();
+		try {
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public OverflowPolicy getOverflowPolicy()
+	{
+		return overflowPolicy;
+	}
+
+	public long getAcceptedCount()
+	{
+		return acceptedCount.get();
+	}
+
+	public long getWrittenCount()
+	{
+		return writtenCount.get();
+	}
+
+	public long getDroppedCount()
+	{
+		return droppedCount.get();
+	}
+
+	public long getFailedCount()
+	{
+		return failedCount.get();
+	}
+
 }
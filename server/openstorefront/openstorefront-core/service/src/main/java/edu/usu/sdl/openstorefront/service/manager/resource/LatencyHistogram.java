@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR style log-linear buckets; each power
+ * of two is split into 32 buckets so percentiles are within about 3%.
+ * Values are kept in microseconds.
+ *
+ * @author dshurtleff
+ */
+public class LatencyHistogram
+{
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 40;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalMicros = new LongAdder();
+	private final LongAdder rows = new LongAdder();
+	private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+	public void recordNanos(long nanos)
+	{
+		recordNanos(nanos, 0);
+	}
+
+	/**
+	 * Records a call
+	 *
+	 * @param nanos elapsed time
+	 * @param rowCount rows returned (for queries)
+	 */
+	public void recordNanos(long nanos, int rowCount)
+	{
+		long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_VALUE);
+		buckets.incrementAndGet(bucketIndex(micros));
+		count.increment();
+		totalMicros.add(micros);
+		maxMicros.accumulate(micros);
+		if (rowCount > 0) {
+			rows.add(rowCount);
+		}
+	}
+
+	static int bucketIndex(long value)
+	{
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int mantissa = (int) (value >>> shift);
+		return (shift + 1) * SUB_BUCKET_COUNT + (mantissa - SUB_BUCKET_COUNT);
+	}
+
+	/**
+	 * @return highest value that lands in the bucket
+	 */
+	static long highestValue(int index)
+	{
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getRows()
+	{
+		return rows.sum();
+	}
+
+	public long getMaxMicros()
+	{
+		return maxMicros.get();
+	}
+
+	public double getMeanMicros()
+	{
+		long total = count.sum();
+		if (total == 0) {
+			return 0;
+		}
+		return (double) totalMicros.sum() / total;
+	}
+
+	/**
+	 * Values at the given percentiles
+	 *
+	 * @param percentiles (0-100; ascending)
+	 * @return micros for each percentile (0 when nothing is recorded)
+	 */
+	public long[] getPercentilesMicros(double... percentiles)
+	{
+		long[] values = new long[percentiles.length];
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return values;
+		}
+
+		long max = getMaxMicros();
+		int bucket = 0;
+		long seen = counts[0];
+		for (int p = 0; p < percentiles.length; p++) {
+			long target = Math.max(1, (long) Math.ceil(total * Math.min(percentiles[p], 100.0) / 100.0));
+			while (seen < target && bucket < BUCKET_COUNT - 1) {
+				seen += counts[++bucket];
+			}
+			values[p] = Math.min(highestValue(bucket), max);
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM transport; delivers to the other receivers started in the same JVM.
+ * For a single node this is effectively a no-op.
+ *
+ * @author dshurtleff
+ */
+public class LocalCacheInvalidationTransport
+		implements CacheInvalidationTransport
+{
+
+	private static final Map<String, Consumer<List<CacheInvalidation>>> RECEIVERS = new ConcurrentHashMap<>();
+
+	private String nodeId;
+
+	@Override
+	public void start(String nodeId, Consumer<List<CacheInvalidation>> receiver)
+	{
+		this.nodeId = nodeId;
+		RECEIVERS.put(nodeId, receiver);
+	}
+
+	@Override
+	public void publish(List<CacheInvalidation> invalidations)
+	{
+		RECEIVERS.forEach((receiverNode, receiver) -> {
+			if (receiverNode.equals(nodeId) == false) {
+				receiver.accept(invalidations);
+			}
+		});
+	}
+
+	@Override
+	public void stop()
+	{
+		if (nodeId != null) {
+			RECEIVERS.remove(nodeId);
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.service.manager.model.LatencyStat;
+import java.util.List;
+
+/**
+ * JMX view of the collected call metrics
+ *
+ * @author dshurtleff
+ */
+public interface MetricsMXBean
+{
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	List<LatencyStat> getRestMethods();
+
+	List<LatencyStat> getServiceMethods();
+
+	List<LatencyStat> getQueries();
+
+	void reset();
+
+}
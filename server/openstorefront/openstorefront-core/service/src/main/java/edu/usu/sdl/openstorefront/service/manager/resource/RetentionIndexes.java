@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.DBLogRecord;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the date index on the append-only entities (log and tracking) that
+ * retention removes with the chunked range delete (see
+ * PersistenceService.deleteOlderThan).
+ *
+ * @author dshurtleff
+ */
+public class RetentionIndexes
+{
+
+	private static final Logger LOG = Logger.getLogger(RetentionIndexes.class.getName());
+
+	public static final String DATE_FIELD = "eventDts";
+
+	private static final List<Class<?>> INDEXED_CLASSES = Collections.unmodifiableList(Arrays.asList(
+			DBLogRecord.class,
+			UserTracking.class,
+			ComponentTracking.class
+	));
+
+	private RetentionIndexes()
+	{
+	}
+
+	/**
+	 * Creates the date property and index where they are missing. Building
+	 * the index on a large existing table takes a while, so this is run in
+	 * the background (see DBManager); until it is done the range deletes
+	 * scan.
+	 *
+	 * @param db
+	 */
+	public static void ensureDateIndexes(OObjectDatabaseTx db)
+	{
+		for (Class<?> entityClass : INDEXED_CLASSES) {
+			OClass oClass = db.getMetadata().getSchema().getClass(entityClass.getSimpleName());
+			if (oClass == null) {
+				continue;
+			}
+
+			if (oClass.getProperty(DATE_FIELD) == null) {
+				oClass.createProperty(DATE_FIELD, OType.DATETIME);
+			}
+			String indexName = entityClass.getSimpleName() + "." + DATE_FIELD;
+			if (oClass.getClassIndex(indexName) == null) {
+				LOG.log(Level.INFO, MessageFormat.format("Building index: {0} (this may take a while on large tables)", indexName));
+				oClass.createIndex(indexName, OClass.INDEX_TYPE.NOTUNIQUE, DATE_FIELD);
+				LOG.log(Level.INFO, MessageFormat.format("Finished building index: {0}", indexName));
+			}
+		}
+	}
+
+}
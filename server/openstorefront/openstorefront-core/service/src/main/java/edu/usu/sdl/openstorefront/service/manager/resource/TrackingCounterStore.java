@@ -0,0 +1,397 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.OpenStorefrontConstant;
+import edu.usu.sdl.openstorefront.common.util.TimeUtil;
+import edu.usu.sdl.openstorefront.core.api.PersistenceService;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTracking;
+import edu.usu.sdl.openstorefront.core.entity.StandardEntity;
+import edu.usu.sdl.openstorefront.core.entity.TrackingCounter;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import java.text.MessageFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistence for the daily tracking counters. Live counts are added to their
+ * rows; the backfill writes its own rows (set, not added) so it can be re-run
+ * safely. Queries sum the rows, so a day may have both.
+ *
+ * @author dshurtleff
+ */
+public class TrackingCounterStore
+{
+
+	private static final Logger LOG = Logger.getLogger(TrackingCounterStore.class.getName());
+
+	public static final String SOURCE_LIVE = "L";
+	public static final String SOURCE_BACKFILL = "B";
+
+	private static final String KEY_SEPARATOR = "|";
+	private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+	private TrackingCounterStore()
+	{
+	}
+
+	/**
+	 * Creates the counter indexes. This changes the schema so it needs to run
+	 * outside of a transaction.
+	 *
+	 * @param db
+	 */
+	public static void ensureSchema(OObjectDatabaseTx db)
+	{
+		OClass oClass = db.getMetadata().getSchema().getClass(TrackingCounter.class.getSimpleName());
+		if (oClass == null) {
+			return;
+		}
+
+		String indexName = TrackingCounter.class.getSimpleName() + ".counterId";
+		if (oClass.getClassIndex(indexName) == null) {
+			oClass.createIndex(indexName, OClass.INDEX_TYPE.UNIQUE, "counterId");
+		}
+		indexName = TrackingCounter.class.getSimpleName() + ".counterDate";
+		if (oClass.getClassIndex(indexName) == null) {
+			oClass.createIndex(indexName, OClass.INDEX_TYPE.NOTUNIQUE, "counterDate");
+		}
+	}
+
+	/**
+	 * @param source (SOURCE_LIVE or SOURCE_BACKFILL)
+	 * @param trackEventTypeCode
+	 * @param componentId (optional)
+	 * @param username
+	 * @param eventDts (defaults to now)
+	 * @return a counter with a count of zero
+	 */
+	public static TrackingCounter newCounter(String source, String trackEventTypeCode, String componentId, String username, Date eventDts)
+	{
+		Date counterDate = TimeUtil.beginningOfDay(eventDts != null ? eventDts : TimeUtil.currentDate());
+
+		TrackingCounter counter = new TrackingCounter();
+		counter.setCounterId(String.join(KEY_SEPARATOR,
+				source,
+				trackEventTypeCode,
+				counterDate.toInstant().atZone(ZoneId.systemDefault()).format(DAY_FORMAT),
+				componentId != null ? componentId : "",
+				username != null ? username : ""));
+		counter.setTrackEventTypeCode(trackEventTypeCode);
+		counter.setComponentId(componentId);
+		counter.setUsername(username);
+		counter.setCounterDate(counterDate);
+		counter.setEventCount(0L);
+		return counter;
+	}
+
+	/**
+	 * Adds the counts to the stored counters (creating the missing ones). Each
+	 * counter is committed on its own and removed from the deltas once saved,
+	 * so after a failure the deltas hold only the counts that were not
+	 * written. This must run outside of a transaction: a create that loses to
+	 * another node is caught on the unique index and turned into an
+	 * increment, which only works when the persist commits right away.
+	 *
+	 * @param persistenceService
+	 * @param deltas (modifiable; saved counters are removed)
+	 */
+	public static void add(PersistenceService persistenceService, Collection<TrackingCounter> deltas)
+	{
+		if (persistenceService.isTransactionActive()) {
+			throw new OpenStorefrontRuntimeException("Unable to add tracking counters in a transaction.", "Call outside of a transaction; each counter is committed on its own.");
+		}
+
+		String incrementQuery = "update " + TrackingCounter.class.getSimpleName() + " increment eventCount = :countParam where counterId = :counterIdParam";
+		for (Iterator<TrackingCounter> iterator = deltas.iterator(); iterator.hasNext();) {
+			TrackingCounter delta = iterator.next();
+			Map<String, Object> params = new HashMap<>();
+			params.put("countParam", delta.getEventCount());
+			params.put("counterIdParam", delta.getCounterId());
+			if (persistenceService.runDbCommand(incrementQuery, params) == 0) {
+				try {
+					persistenceService.persist(copyOf(delta));
+				} catch (Exception e) {
+					//Another node created it first (unique index)
+					LOG.log(Level.FINEST, "Counter was created concurrently; incrementing", e);
+					if (persistenceService.runDbCommand(incrementQuery, params) == 0) {
+						throw new OpenStorefrontRuntimeException("Unable to save tracking counter: " + delta.getCounterId(), "Check the database", e);
+					}
+				}
+			}
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Sets the stored counters to the counts (used for backfill rows)
+	 *
+	 * @param persistenceService
+	 * @param counters
+	 */
+	public static void set(PersistenceService persistenceService, Collection<TrackingCounter> counters)
+	{
+		for (TrackingCounter counter : counters) {
+			TrackingCounter existing = persistenceService.findById(TrackingCounter.class, counter.getCounterId());
+			if (existing != null) {
+				existing.setEventCount(counter.getEventCount());
+				existing.setUpdateDts(TimeUtil.currentDate());
+				persistenceService.persist(existing);
+			} else {
+				persistenceService.persist(copyOf(counter));
+			}
+		}
+	}
+
+	private static TrackingCounter copyOf(TrackingCounter counter)
+	{
+		TrackingCounter newCounter = new TrackingCounter();
+		newCounter.setCounterId(counter.getCounterId());
+		newCounter.setTrackEventTypeCode(counter.getTrackEventTypeCode());
+		newCounter.setComponentId(counter.getComponentId());
+		newCounter.setUsername(counter.getUsername());
+		newCounter.setCounterDate(counter.getCounterDate());
+		newCounter.setEventCount(counter.getEventCount());
+		newCounter.setCreateUser(OpenStorefrontConstant.SYSTEM_USER);
+		newCounter.setUpdateUser(OpenStorefrontConstant.SYSTEM_USER);
+		newCounter.populateBaseCreateFields();
+		return newCounter;
+	}
+
+	/**
+	 * Sums the counters for an event type
+	 *
+	 * @param persistenceService
+	 * @param groupField TrackingCounter.FIELD_COMPONENT_ID or
+	 * TrackingCounter.FIELD_USERNAME
+	 * @param trackEventTypeCode
+	 * @param start (optional) the counter for the day it falls in is included
+	 * @param end (optional)
+	 * @return count per component or user
+	 */
+	public static Map<String, Long> sumBy(PersistenceService persistenceService, String groupField, String trackEventTypeCode, Date start, Date end)
+	{
+		if (TrackingCounter.FIELD_COMPONENT_ID.equals(groupField) == false
+				&& TrackingCounter.FIELD_USERNAME.equals(groupField) == false) {
+			throw new OpenStorefrontRuntimeException("Unsupported counter grouping: " + groupField, "Use componentId or username");
+		}
+
+		StringBuilder query = new StringBuilder();
+		query.append("select ").append(groupField).append(" as groupKey, sum(eventCount) as total from ")
+				.append(TrackingCounter.class.getSimpleName())
+				.append(" where trackEventTypeCode = :trackEventTypeCodeParam and ").append(groupField).append(" is not null");
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("trackEventTypeCodeParam", trackEventTypeCode);
+		if (start != null) {
+			query.append(" and counterDate >= :startParam");
+			params.put("startParam", TimeUtil.beginningOfDay(start));
+		}
+		if (end != null) {
+			query.append(" and counterDate <= :endParam");
+			params.put("endParam", end);
+		}
+		query.append(" group by ").append(groupField);
+
+		Map<String, Long> counts = new HashMap<>();
+		List<ODocument> documents = persistenceService.query(query.toString(), params);
+		for (ODocument document : documents) {
+			String key = document.field("groupKey");
+			Number total = document.field("total");
+			if (key != null && total != null) {
+				counts.merge(key, total.longValue(), Long::sum);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Same as sumBy but counted from the tracking rows; used until the
+	 * backfill is done as the counters don't have the older events.
+	 *
+	 * @param persistenceService
+	 * @param groupField componentId or username
+	 * @param trackEventTypeCode
+	 * @param start (optional)
+	 * @param end (optional)
+	 * @return group value to count
+	 */
+	public static Map<String, Long> countTrackingBy(PersistenceService persistenceService, String groupField, String trackEventTypeCode, Date start, Date end)
+	{
+		List<Class<?>> trackingClasses = new ArrayList<>();
+		String trackingField;
+		if (TrackingCounter.FIELD_COMPONENT_ID.equals(groupField)) {
+			trackingField = "componentId";
+			trackingClasses.add(ComponentTracking.class);
+		} else if (TrackingCounter.FIELD_USERNAME.equals(groupField)) {
+			trackingField = "createUser";
+			trackingClasses.add(ComponentTracking.class);
+			trackingClasses.add(UserTracking.class);
+		} else {
+			throw new OpenStorefrontRuntimeException("Unsupported counter grouping: " + groupField, "Use componentId or username");
+		}
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("trackEventTypeCodeParam", trackEventTypeCode);
+		params.put("activeStatusParam", StandardEntity.ACTIVE_STATUS);
+		StringBuilder where = new StringBuilder();
+		where.append(" where trackEventTypeCode = :trackEventTypeCodeParam and activeStatus = :activeStatusParam and ")
+				.append(trackingField).append(" is not null");
+		//match the counter days
+		if (start != null) {
+			where.append(" and eventDts >= :startParam");
+			params.put("startParam", TimeUtil.beginningOfDay(start));
+		}
+		if (end != null) {
+			where.append(" and eventDts <= :endParam");
+			params.put("endParam", TimeUtil.endOfDay(end));
+		}
+
+		Map<String, Long> counts = new HashMap<>();
+		for (Class<?> trackingClass : trackingClasses) {
+			String query = "select " + trackingField + " as groupKey, count(*) as total from " + trackingClass.getSimpleName()
+					+ where + " group by " + trackingField;
+			List<ODocument> documents = persistenceService.query(query, params);
+			for (ODocument document : documents) {
+				String key = document.field("groupKey");
+				Number total = document.field("total");
+				if (key != null && total != null) {
+					counts.merge(key, total.longValue(), Long::sum);
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * @param counter
+	 * @param start (optional)
+	 * @param end (optional)
+	 * @return true if the counter falls in the range (same rule as sumBy)
+	 */
+	public static boolean inRange(TrackingCounter counter, Date start, Date end)
+	{
+		if (start != null && counter.getCounterDate().before(TimeUtil.beginningOfDay(start))) {
+			return false;
+		}
+		return end == null || counter.getCounterDate().after(end) == false;
+	}
+
+	/**
+	 * All time totals per component and event type
+	 *
+	 * @param persistenceService
+	 * @return componentId to event type to count
+	 */
+	public static Map<String, Map<String, Long>> componentTotals(PersistenceService persistenceService)
+	{
+		String query = "select componentId, trackEventTypeCode, sum(eventCount) as total from "
+				+ TrackingCounter.class.getSimpleName()
+				+ " where componentId is not null group by componentId, trackEventTypeCode";
+
+		Map<String, Map<String, Long>> totals = new HashMap<>();
+		List<ODocument> documents = persistenceService.query(query, null);
+		for (ODocument document : documents) {
+			String componentId = document.field("componentId");
+			Number total = document.field("total");
+			if (componentId != null && total != null) {
+				totals.computeIfAbsent(componentId, key -> new HashMap<>())
+						.merge(document.field("trackEventTypeCode"), total.longValue(), Long::sum);
+			}
+		}
+		return totals;
+	}
+
+	public static int deleteComponent(PersistenceService persistenceService, String componentId)
+	{
+		Map<String, Object> params = new HashMap<>();
+		params.put("componentIdParam", componentId);
+		return persistenceService.deleteByQuery(TrackingCounter.class, "componentId = :componentIdParam", params);
+	}
+
+	/**
+	 * Oldest active tracking event of a class
+	 *
+	 * @param persistenceService
+	 * @param trackingClass ComponentTracking or UserTracking
+	 * @return date or null if there are none
+	 */
+	public static Date oldestEvent(PersistenceService persistenceService, Class<?> trackingClass)
+	{
+		List<ODocument> documents = persistenceService.query("select min(eventDts) as oldest from " + trackingClass.getSimpleName(), null);
+		if (documents.isEmpty()) {
+			return null;
+		}
+		return documents.get(0).field("oldest");
+	}
+
+	/**
+	 * Counts the active tracking events in a time window (one grouped query)
+	 *
+	 * @param persistenceService
+	 * @param trackingClass ComponentTracking or UserTracking
+	 * @param start inclusive
+	 * @param end exclusive
+	 * @return backfill counters for the window
+	 */
+	public static List<TrackingCounter> countEvents(PersistenceService persistenceService, Class<?> trackingClass, Date start, Date end)
+	{
+		boolean componentEvents = ComponentTracking.class.equals(trackingClass);
+		if (componentEvents == false && UserTracking.class.equals(trackingClass) == false) {
+			throw new OpenStorefrontRuntimeException("Unsupported tracking class: " + trackingClass.getSimpleName(), "Use ComponentTracking or UserTracking");
+		}
+		String groupFields = componentEvents ? "componentId, createUser, trackEventTypeCode" : "createUser, trackEventTypeCode";
+
+		String query = MessageFormat.format("select count(*) as events, {0} from {1} where eventDts >= :startParam and eventDts < :endParam and activeStatus = :activeStatusParam group by {0}",
+				groupFields, trackingClass.getSimpleName());
+		Map<String, Object> params = new HashMap<>();
+		params.put("startParam", start);
+		params.put("endParam", end);
+		params.put("activeStatusParam", StandardEntity.ACTIVE_STATUS);
+
+		Map<String, TrackingCounter> counters = new HashMap<>();
+		List<ODocument> documents = persistenceService.query(query, params);
+		for (ODocument document : documents) {
+			String trackEventTypeCode = document.field("trackEventTypeCode");
+			Number events = document.field("events");
+			if (trackEventTypeCode == null || events == null) {
+				continue;
+			}
+			String componentId = componentEvents ? document.field("componentId") : null;
+			TrackingCounter counter = newCounter(SOURCE_BACKFILL, trackEventTypeCode, componentId, document.field("createUser"), start);
+			TrackingCounter existing = counters.putIfAbsent(counter.getCounterId(), counter);
+			if (existing != null) {
+				counter = existing;
+			}
+			counter.setEventCount(counter.getEventCount() + events.longValue());
+		}
+		return new ArrayList<>(counters.values());
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.notification;
+
+import edu.usu.sdl.openstorefront.core.entity.NotificationEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory notification state for a user (their active events and which
+ * events they have read) or for the global events. Held in the notification
+ * cache and updated in place as events are posted and read.
+ *
+ * @author dshurtleff
+ */
+public class UserNotifications
+{
+
+	private final List<NotificationEvent> events;
+	private final Set<String> readEventIds;
+
+	public UserNotifications(List<NotificationEvent> events, Collection<String> readEventIds)
+	{
+		this.events = new ArrayList<>(events);
+		this.readEventIds = new HashSet<>(readEventIds);
+	}
+
+	public synchronized void addEvent(NotificationEvent notificationEvent)
+	{
+		events.add(notificationEvent);
+	}
+
+	/**
+	 * @param eventId
+	 * @return true if the event was held
+	 */
+	public synchronized boolean removeEvent(String eventId)
+	{
+		readEventIds.remove(eventId);
+		return events.removeIf(event -> event.getEventId().equals(eventId));
+	}
+
+	/**
+	 * @param eventId
+	 * @return true if the event wasn't already read
+	 */
+	public synchronized boolean markRead(String eventId)
+	{
+		return readEventIds.add(eventId);
+	}
+
+	/**
+	 * @param eventId
+	 * @return true if the event was read
+	 */
+	public synchronized boolean markUnread(String eventId)
+	{
+		return readEventIds.remove(eventId);
+	}
+
+	public synchronized List<NotificationEvent> getEvents()
+	{
+		return new ArrayList<>(events);
+	}
+
+	public synchronized Set<String> getReadEventIds()
+	{
+		return new HashSet<>(readEventIds);
+	}
+
+	/**
+	 * Counts the unread events held here plus the unread global events
+	 *
+	 * @param globalEvents
+	 * @return unread count
+	 */
+	public synchronized long unreadCount(List<NotificationEvent> globalEvents)
+	{
+		long count = 0;
+		for (NotificationEvent event : events) {
+			if (readEventIds.contains(event.getEventId()) == false) {
+				count++;
+			}
+		}
+		for (NotificationEvent event : globalEvents) {
+			if (readEventIds.contains(event.getEventId()) == false) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
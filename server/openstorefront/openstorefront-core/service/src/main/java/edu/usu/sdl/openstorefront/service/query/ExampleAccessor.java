@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.query;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Holds the readable properties of an example class. This is resolved once
+ * per class so statement generation doesn't need to re-introspect the bean on
+ * every query.
+ *
+ * @author dshurtleff
+ */
+public class ExampleAccessor
+{
+
+	private static final ConcurrentMap<Class<?>, ExampleAccessor> ACCESSORS = new ConcurrentHashMap<>();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final Class<?> exampleClass;
+	private final String[] propertyNames;
+	private final MethodHandle[] getters;
+
+	private ExampleAccessor(Class<?> exampleClass)
+	{
+		this.exampleClass = exampleClass;
+
+		//Keep the same property order that BeanUtils.describe() produces so the generated statements are unchanged
+		Map<String, Method> readMethods = new HashMap<>();
+		for (PropertyDescriptor descriptor : PropertyUtils.getPropertyDescriptors(exampleClass)) {
+			Method readMethod = PropertyUtils.getReadMethod(descriptor);
+			if (readMethod != null && "class".equalsIgnoreCase(descriptor.getName()) == false) {
+				readMethods.put(descriptor.getName(), readMethod);
+			}
+		}
+
+		List<String> names = new ArrayList<>();
+		List<MethodHandle> handles = new ArrayList<>();
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		for (String name : readMethods.keySet()) {
+			try {
+				handles.add(lookup.unreflect(readMethods.get(name)).asType(GETTER_TYPE));
+				names.add(name);
+			} catch (IllegalAccessException ex) {
+				throw new OpenStorefrontRuntimeException("Unable to access property: " + name + " on " + exampleClass.getName(), ex);
+			}
+		}
+		propertyNames = names.toArray(new String[names.size()]);
+		getters = handles.toArray(new MethodHandle[handles.size()]);
+	}
+
+	public static ExampleAccessor forClass(Class<?> exampleClass)
+	{
+		return ACCESSORS.computeIfAbsent(exampleClass, ExampleAccessor::new);
+	}
+
+	public int size()
+	{
+		return propertyNames.length;
+	}
+
+	public String getPropertyName(int index)
+	{
+		return propertyNames[index];
+	}
+
+	public Object getValue(Object example, int index)
+	{
+		try {
+			return getters[index].invokeExact(example);
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new OpenStorefrontRuntimeException("Unable to read property: " + propertyNames[index] + " on " + exampleClass.getName(), ex);
+		}
+	}
+
+	public Class<?> getExampleClass()
+	{
+		return exampleClass;
+	}
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.query;
+
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
+import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates the where/set clauses and name lists for query by example.
+ *
+ * The statement text only depends on the example class, which fields are
+ * set and the statement options; so that is compiled once into a plan and
+ * cached. Each call then only has to read the property values and bind the
+ * parameters.
+ *
+ * @author dshurtleff
+ */
+public class ExampleStatementCompiler
+{
+
+	private static final Logger LOG = Logger.getLogger(ExampleStatementCompiler.class.getName());
+
+	public static final String PARAM_NAME_SEPARATOR = "1";
+
+	private static final int MAX_CACHED_PLANS = 5000;
+	private static final String MODE_WHERE = "WHERE";
+	private static final String MODE_NAMES = "NAMES";
+
+	private static final ConcurrentMap<PlanKey, StatementPlan> PLANS = new ConcurrentHashMap<>();
+
+	private ExampleStatementCompiler()
+	{
+	}
+
+	/**
+	 * Generates a condition clause (where or set) for the example. Only
+	 * non-null properties are included.
+	 *
+	 * @param example
+	 * @param generateStatementOption default option for all fields
+	 * @param fieldOptions (optional) overrides by field name
+	 * @return clause and mapped parameters
+	 */
+	public static ExampleStatement whereClause(Object example, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		List<Object> shape = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		readExample(example, shape, values);
+
+		List<Object> keyParts = new ArrayList<>(shape.size() + 6);
+		keyParts.add(MODE_WHERE);
+		keyParts.add(generateStatementOption.getOperation());
+		keyParts.add(generateStatementOption.getCondition());
+		keyParts.add(generateStatementOption.getParameterSuffix());
+		keyParts.add(generateStatementOption.getMethod());
+		keyParts.add(fieldOptionsSignature(fieldOptions));
+		keyParts.addAll(shape);
+
+		PlanKey planKey = new PlanKey(keyParts.toArray());
+		StatementPlan plan = PLANS.get(planKey);
+		if (plan == null) {
+			List<String> parameterNames = new ArrayList<>();
+			String clause = compileWhere(shape.iterator(), new ComplexFieldStack(), generateStatementOption, fieldOptions, parameterNames);
+			plan = cachePlan(planKey, new StatementPlan(clause, parameterNames.toArray(new String[parameterNames.size()])));
+		}
+		return plan.bind(values);
+	}
+
+	/**
+	 * Generates a comma separated list of the non-null property names. (Used
+	 * for group by and order by)
+	 *
+	 * @param example
+	 * @return names
+	 */
+	public static String exampleNames(Object example)
+	{
+		List<Object> shape = new ArrayList<>();
+		readExample(example, shape, null);
+
+		List<Object> keyParts = new ArrayList<>(shape.size() + 1);
+		keyParts.add(MODE_NAMES);
+		keyParts.addAll(shape);
+
+		PlanKey planKey = new PlanKey(keyParts.toArray());
+		StatementPlan plan = PLANS.get(planKey);
+		if (plan == null) {
+			String clause = compileNames(shape.iterator(), new ComplexFieldStack());
+			plan = cachePlan(planKey, new StatementPlan(clause, new String[0]));
+		}
+		return plan.getClause();
+	}
+
+	public static int cachedPlanCount()
+	{
+		return PLANS.size();
+	}
+
+	public static void clearCache()
+	{
+		PLANS.clear();
+	}
+
+	private static StatementPlan cachePlan(PlanKey planKey, StatementPlan plan)
+	{
+		if (PLANS.size() >= MAX_CACHED_PLANS) {
+			LOG.log(Level.FINE, "Query plan cache is full; clearing cached plans.");
+			PLANS.clear();
+		}
+		StatementPlan existing = PLANS.putIfAbsent(planKey, plan);
+		if (existing != null) {
+			plan = existing;
+		}
+		return plan;
+	}
+
+	/**
+	 * Walks the example collecting the shape (accessor, set properties,
+	 * complex properties) for each level and the simple values in order.
+	 */
+	private static void readExample(Object example, List<Object> shape, List<Object> values)
+	{
+		ExampleAccessor accessor = ExampleAccessor.forClass(example.getClass());
+		BitSet present = new BitSet(accessor.size());
+		BitSet complex = new BitSet(accessor.size());
+		shape.add(accessor);
+		shape.add(present);
+		shape.add(complex);
+
+		for (int i = 0; i < accessor.size(); i++) {
+			Object value = accessor.getValue(example, i);
+			if (value != null) {
+				present.set(i);
+				if (ReflectionUtil.isComplexClass(value.getClass())) {
+					complex.set(i);
+					readExample(value, shape, values);
+				} else if (values != null) {
+					values.add(value);
+				}
+			}
+		}
+	}
+
+	private static String compileWhere(Iterator<Object> shape, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions, List<String> parameterNames)
+	{
+		ExampleAccessor accessor = (ExampleAccessor) shape.next();
+		BitSet present = (BitSet) shape.next();
+		BitSet complex = (BitSet) shape.next();
+
+		StringBuilder where = new StringBuilder();
+		boolean addAnd = false;
+		for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+			String field = accessor.getPropertyName(i);
+			GenerateStatementOption fieldOperation = generateStatementOption;
+			if (fieldOptions != null && fieldOptions.containsKey(field)) {
+				fieldOperation = fieldOptions.get(field);
+			}
+
+			if (addAnd) {
+				where.append(fieldOperation.getCondition());
+			} else {
+				addAnd = true;
+				where.append(" ");
+			}
+
+			if (complex.get(i)) {
+				complexFieldStack.getFieldStack().push(field);
+				where.append(compileWhere(shape, complexFieldStack, generateStatementOption, fieldOptions, parameterNames));
+				complexFieldStack.getFieldStack().pop();
+			} else {
+				String fieldName = complexFieldStack.getQueryFieldName() + field + fieldOperation.getMethod();
+				String fieldParamName = complexFieldStack.getQueryFieldName() + field;
+				where.append(fieldName)
+						.append(" ").append(fieldOperation.getOperation());
+
+				if (GenerateStatementOption.OPERATION_NULL.equals(fieldOperation.getOperation())
+						|| GenerateStatementOption.OPERATION_NOT_NULL.equals(fieldOperation.getOperation())) {
+					parameterNames.add(null);
+				} else {
+					String parameterName = fieldParamName.replace(".", PARAM_NAME_SEPARATOR) + fieldOperation.getParameterSuffix();
+					where.append(" :").append(parameterName);
+					parameterNames.add(parameterName);
+				}
+			}
+		}
+		return where.toString();
+	}
+
+	private static String compileNames(Iterator<Object> shape, ComplexFieldStack complexFieldStack)
+	{
+		ExampleAccessor accessor = (ExampleAccessor) shape.next();
+		BitSet present = (BitSet) shape.next();
+		BitSet complex = (BitSet) shape.next();
+
+		StringBuilder names = new StringBuilder();
+		boolean addComma = false;
+		for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+			String field = accessor.getPropertyName(i);
+			if (addComma) {
+				names.append(",");
+			} else {
+				addComma = true;
+				names.append(" ");
+			}
+
+			if (complex.get(i)) {
+				complexFieldStack.getFieldStack().push(field);
+				names.append(compileNames(shape, complexFieldStack));
+				complexFieldStack.getFieldStack().pop();
+			} else {
+				names.append(complexFieldStack.getQueryFieldName()).append(field);
+			}
+		}
+		return names.toString();
+	}
+
+	private static String fieldOptionsSignature(Map<String, GenerateStatementOption> fieldOptions)
+	{
+		if (fieldOptions == null || fieldOptions.isEmpty()) {
+			return "";
+		}
+
+		StringBuilder signature = new StringBuilder();
+		for (Map.Entry<String, GenerateStatementOption> entry : new TreeMap<>(fieldOptions).entrySet()) {
+			GenerateStatementOption option = entry.getValue();
+			signature.append(entry.getKey()).append('|')
+					.append(option.getOperation()).append('|')
+					.append(option.getCondition()).append('|')
+					.append(option.getParameterSuffix()).append('|')
+					.append(option.getMethod()).append(';');
+		}
+		return signature.toString();
+	}
+
+	private static class PlanKey
+	{
+
+		private final Object[] parts;
+		private final int hash;
+
+		public PlanKey(Object[] parts)
+		{
+			this.parts = parts;
+			this.hash = Arrays.hashCode(parts);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			PlanKey other = (PlanKey) obj;
+			return hash == other.hash && Arrays.equals(parts, other.parts);
+		}
+
+	}
+
+	private static class StatementPlan
+	{
+
+		private final String clause;
+		private final String[] parameterNames;
+
+		public StatementPlan(String clause, String[] parameterNames)
+		{
+			this.clause = clause;
+			this.parameterNames = parameterNames;
+		}
+
+		public String getClause()
+		{
+			return clause;
+		}
+
+		public ExampleStatement bind(List<Object> values)
+		{
+			Map<String, Object> parameters = new HashMap<>();
+			for (int i = 0; i < parameterNames.length; i++) {
+				if (parameterNames[i] != null) {
+					parameters.put(parameterNames[i], values.get(i));
+				}
+			}
+			return new ExampleStatement(clause, parameters);
+		}
+
+	}
+
+}
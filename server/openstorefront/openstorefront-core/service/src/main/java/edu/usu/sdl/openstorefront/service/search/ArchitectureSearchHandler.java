@@ -56,9 +56,9 @@ public class ArchitectureSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
@@ -104,11 +104,11 @@ public class ArchitectureSearchHandler
 				attributes = serviceProxy.getPersistenceService().query(componentAttributeQuery, params);
 			}
 
-			List<String> results = new ArrayList<>();
+			ComponentIdSet results = new ComponentIdSet();
 			for (ComponentAttribute attribute : attributes) {
 				results.add(attribute.getComponentId());
 			}
-			foundIds = mergeCondition.apply(foundIds, results);
+			foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 			mergeCondition = searchElement.getMergeCondition();
 
 		}
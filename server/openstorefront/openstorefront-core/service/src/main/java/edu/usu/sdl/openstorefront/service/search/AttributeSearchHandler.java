@@ -26,7 +26,6 @@ import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 
@@ -58,9 +57,9 @@ public class AttributeSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
@@ -133,14 +132,33 @@ public class AttributeSearchHandler
 			}
 
 			List<ComponentAttribute> attributes = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-			List<String> results = new ArrayList<>();
+			ComponentIdSet results = new ComponentIdSet();
 			for (ComponentAttribute attribute : attributes) {
 				results.add(attribute.getComponentId());
 			}
-			foundIds = mergeCondition.apply(foundIds, results);
+			foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 			mergeCondition = searchElement.getMergeCondition();
 		}
 		return foundIds;
 	}
 
+	@Override
+	public long estimateResultCount(SearchSelectivity selectivity)
+	{
+		long estimate = 0;
+		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
+		for (SearchElement searchElement : searchElements) {
+			long count;
+			if (StringUtils.isNotBlank(searchElement.getKeyValue())
+					&& SearchOperation.StringOperation.EQUALS.equals(searchElement.getStringOperation())) {
+				count = selectivity.attributeCodeCount(searchElement.getKeyField(), searchElement.getKeyValue());
+			} else {
+				count = selectivity.attributeTypeCount(searchElement.getKeyField());
+			}
+			estimate = mergeEstimate(mergeCondition, estimate, count);
+			mergeCondition = searchElement.getMergeCondition();
+		}
+		return estimate;
+	}
+
 }
@@ -58,9 +58,9 @@ public class AttributeSetSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 	
@@ -82,11 +82,11 @@ public class AttributeSetSearchHandler
 				attributes = serviceProxy.getPersistenceService().query(query, paramMap);
 			}
 			
-			List<String> results = new ArrayList<>();
+			ComponentIdSet results = new ComponentIdSet();
 			for (ComponentAttribute attribute : attributes) {
 				results.add(attribute.getComponentId());
 			}
-			foundIds = mergeCondition.apply(foundIds, results);
+			foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 			mergeCondition = searchElement.getMergeCondition();
 		}
 		return foundIds;
@@ -50,6 +50,52 @@ public abstract class BaseSearchHandler
 		return searchElements.get(searchElements.size() - 1).getMergeCondition();
 	}
 
+	public String getSearchType()
+	{
+		if (searchElements.isEmpty() || searchElements.get(0).getSearchType() == null) {
+			return null;
+		}
+		return searchElements.get(0).getSearchType().name();
+	}
+
+	public int getElementCount()
+	{
+		return searchElements.size();
+	}
+
+	/**
+	 * Estimates the number of components the handler will find. This is used
+	 * to order AND chains so the most selective handler is resolved first.
+	 * The default is the whole catalog. (Unknown)
+	 *
+	 * @param selectivity
+	 * @return estimated count
+	 */
+	public long estimateResultCount(SearchSelectivity selectivity)
+	{
+		return selectivity.getComponentCount();
+	}
+
+	/**
+	 * Combines estimates the same way the results are merged.
+	 *
+	 * @param mergeCondition
+	 * @param estimateA
+	 * @param estimateB
+	 * @return combined estimate
+	 */
+	protected static long mergeEstimate(MergeCondition mergeCondition, long estimateA, long estimateB)
+	{
+		switch (mergeCondition) {
+			case AND:
+				return Math.min(estimateA, estimateB);
+			case OR:
+				return estimateA + estimateB;
+			default:
+				return estimateB;
+		}
+	}
+
 	protected ValidationResult validateDefaults()
 	{
 		ValidationResult validationResult = new ValidationResult();
@@ -81,6 +127,6 @@ public abstract class BaseSearchHandler
 
 	protected abstract ValidationResult internalValidate();
 
-	public abstract List<String> processSearch();
+	public abstract ComponentIdSet processSearch();
 
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps component ids to dense int indexes so search results can be held and
+ * merged as bit sets. Indexes are assigned on first use and are stable for
+ * the life of the JVM. (Deleted components release their id but the index is
+ * not reused)
+ *
+ * @author dshurtleff
+ */
+public class ComponentIdDictionary
+{
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private static final Map<String, Integer> INDEXES = new ConcurrentHashMap<>();
+	private static volatile String[] componentIds = new String[INITIAL_CAPACITY];
+	private static int nextIndex = 0;
+
+	private ComponentIdDictionary()
+	{
+	}
+
+	/**
+	 * Gets the index for the component; assigning one if needed.
+	 *
+	 * @param componentId
+	 * @return index
+	 */
+	public static int indexOf(String componentId)
+	{
+		Objects.requireNonNull(componentId, "Component Id is required");
+
+		Integer index = INDEXES.get(componentId);
+		if (index == null) {
+			index = register(componentId);
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the index for the component without assigning one.
+	 *
+	 * @param componentId
+	 * @return index or -1 if the component is unknown
+	 */
+	public static int findIndex(String componentId)
+	{
+		Integer index = INDEXES.get(componentId);
+		if (index == null) {
+			return -1;
+		}
+		return index;
+	}
+
+	/**
+	 * @param index
+	 * @return component id or null if the index is unknown or the component
+	 * was removed
+	 */
+	public static String componentIdAt(int index)
+	{
+		String[] current = componentIds;
+		if (index < 0 || index >= current.length) {
+			return null;
+		}
+		return current[index];
+	}
+
+	/**
+	 * Adds a component to the dictionary (called on component create)
+	 *
+	 * @param componentId
+	 * @return index
+	 */
+	public static synchronized int register(String componentId)
+	{
+		Objects.requireNonNull(componentId, "Component Id is required");
+
+		Integer index = INDEXES.get(componentId);
+		if (index == null) {
+			index = nextIndex++;
+			String[] current = componentIds;
+			if (index >= current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+			}
+			current[index] = componentId;
+			componentIds = current;
+			INDEXES.put(componentId, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Removes a component from the dictionary (called on component delete)
+	 *
+	 * @param componentId
+	 */
+	public static synchronized void remove(String componentId)
+	{
+		if (componentId != null) {
+			Integer index = INDEXES.remove(componentId);
+			if (index != null) {
+				componentIds[index] = null;
+			}
+		}
+	}
+
+	public static int size()
+	{
+		return INDEXES.size();
+	}
+
+}
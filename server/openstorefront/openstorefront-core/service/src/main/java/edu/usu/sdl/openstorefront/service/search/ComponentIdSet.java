@@ -0,0 +1,122 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set of component ids backed by a bit set over the ComponentIdDictionary
+ * indexes. Merges are done a word at a time rather than by hashing strings.
+ *
+ * @author dshurtleff
+ */
+public class ComponentIdSet
+{
+
+	private final BitSet bits;
+
+	public ComponentIdSet()
+	{
+		bits = new BitSet();
+	}
+
+	private ComponentIdSet(BitSet bits)
+	{
+		this.bits = bits;
+	}
+
+	public static ComponentIdSet of(Collection<String> componentIds)
+	{
+		ComponentIdSet idSet = new ComponentIdSet();
+		componentIds.forEach(idSet::add);
+		return idSet;
+	}
+
+	public void add(String componentId)
+	{
+		if (componentId != null) {
+			bits.set(ComponentIdDictionary.indexOf(componentId));
+		}
+	}
+
+	public boolean contains(String componentId)
+	{
+		int index = ComponentIdDictionary.findIndex(componentId);
+		return index >= 0 && bits.get(index);
+	}
+
+	public boolean isEmpty()
+	{
+		return bits.isEmpty();
+	}
+
+	public int size()
+	{
+		return bits.cardinality();
+	}
+
+	/**
+	 * Merges two results the same way as MergeCondition.apply(); AND keeps the
+	 * ids in both, OR keeps the ids in either and NOT keeps the ids in setB
+	 * that are not in setA.
+	 *
+	 * Note: the passed sets may be modified; use the returned set.
+	 *
+	 * @param mergeCondition
+	 * @param setA (the accumulated results)
+	 * @param setB (the new results)
+	 * @return merged set
+	 */
+	public static ComponentIdSet merge(MergeCondition mergeCondition, ComponentIdSet setA, ComponentIdSet setB)
+	{
+		switch (mergeCondition) {
+			case AND:
+				setA.bits.and(setB.bits);
+				return setA;
+			case OR:
+				setA.bits.or(setB.bits);
+				return setA;
+			default:
+				setB.bits.andNot(setA.bits);
+				return setB;
+		}
+	}
+
+	public ComponentIdSet copy()
+	{
+		return new ComponentIdSet((BitSet) bits.clone());
+	}
+
+	/**
+	 * @return the component ids (skipping any that have since been removed)
+	 */
+	public List<String> toComponentIds()
+	{
+		List<String> componentIds = new ArrayList<>(bits.cardinality());
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			String componentId = ComponentIdDictionary.componentIdAt(i);
+			if (componentId != null) {
+				componentIds.add(componentId);
+			}
+		}
+		return componentIds;
+	}
+
+}
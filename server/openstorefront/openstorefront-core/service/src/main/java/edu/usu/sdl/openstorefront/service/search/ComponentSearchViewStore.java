@@ -0,0 +1,437 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.manager.FileSystemManager;
+import edu.usu.sdl.openstorefront.common.manager.Initializable;
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import edu.usu.sdl.openstorefront.common.util.Convert;
+import edu.usu.sdl.openstorefront.common.util.StringProcessor;
+import edu.usu.sdl.openstorefront.core.entity.ApprovalStatus;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentReview;
+import edu.usu.sdl.openstorefront.core.entity.ComponentTag;
+import edu.usu.sdl.openstorefront.core.view.ComponentSearchView;
+import edu.usu.sdl.openstorefront.service.OrientPersistenceService;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.CacheInvalidationManager;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation;
+import edu.usu.sdl.openstorefront.service.manager.model.CacheInvalidation.InvalidationType;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.beanutils.PropertyUtils;
+
+/**
+ * Maintained projection of the search views for active, approved components.
+ * Views are built on first use (in batch) and then kept up to date from the
+ * component update queue; changes evict the view right away so a stale view
+ * is never returned. The average rating is kept per component and only
+ * reloaded for components that changed. Evictions are repeated once the
+ * transaction on the thread commits and clearing all views goes to the other
+ * nodes as well.
+ *
+ * The views are not filtered; callers must apply the user's data
+ * restrictions. Callers get copies so they are free to modify them.
+ *
+ * Optionally (search.view.snapshot) the views are written to disk on shutdown
+ * and reloaded on startup; views whose component has changed since are
+ * dropped.
+ *
+ * @author dshurtleff
+ */
+public class ComponentSearchViewStore
+		implements Initializable
+{
+
+	private static final Logger LOG = Logger.getLogger(ComponentSearchViewStore.class.getName());
+
+	/**
+	 * Region name used for cache invalidations of the views
+	 */
+	public static final String VIEW_REGION = "componentSearchViews";
+
+	private static final String SNAPSHOT_FILE = "componentSearchViews.json";
+
+	private static final Map<String, ComponentSearchView> VIEWS = new ConcurrentHashMap<>();
+	private static final Map<String, Integer> AVERAGE_RATINGS = new ConcurrentHashMap<>();
+	private static final Set<String> DIRTY_RATINGS = ConcurrentHashMap.newKeySet();
+	private static final AtomicLong MODIFICATION_COUNT = new AtomicLong();
+
+	private static volatile boolean ratingsLoaded = false;
+	private static AtomicBoolean started = new AtomicBoolean(false);
+
+	/**
+	 * Gets the views for the components; building any that are missing.
+	 * Inactive or unapproved components are skipped.
+	 *
+	 * @param componentIds
+	 * @return copies of the views in the requested order
+	 */
+	public static List<ComponentSearchView> getViews(Collection<String> componentIds)
+	{
+		Objects.requireNonNull(componentIds, "Component Ids are required");
+
+		Set<String> uniqueIds = new LinkedHashSet<>(componentIds);
+		List<String> missingIds = new ArrayList<>();
+		for (String componentId : uniqueIds) {
+			if (VIEWS.containsKey(componentId) == false) {
+				missingIds.add(componentId);
+			}
+		}
+
+		Map<String, ComponentSearchView> loadedViews = new HashMap<>();
+		if (missingIds.isEmpty() == false) {
+			long modificationCount = MODIFICATION_COUNT.get();
+			loadedViews = loadViews(missingIds);
+			storeViews(loadedViews, modificationCount);
+		}
+
+		List<ComponentSearchView> views = new ArrayList<>();
+		for (String componentId : uniqueIds) {
+			ComponentSearchView view = VIEWS.get(componentId);
+			if (view == null) {
+				view = loadedViews.get(componentId);
+			}
+			if (view != null) {
+				views.add(copy(view));
+			}
+		}
+		return views;
+	}
+
+	/**
+	 * Rebuilds the views (called from the component update processing)
+	 *
+	 * @param componentIds
+	 */
+	public static void refresh(Collection<String> componentIds)
+	{
+		if (componentIds.isEmpty()) {
+			return;
+		}
+		long modificationCount = MODIFICATION_COUNT.get();
+		Map<String, ComponentSearchView> loadedViews = loadViews(new ArrayList<>(new LinkedHashSet<>(componentIds)));
+		for (String componentId : componentIds) {
+			if (loadedViews.containsKey(componentId) == false) {
+				VIEWS.remove(componentId);
+			}
+			DIRTY_RATINGS.add(componentId);
+		}
+		storeViews(loadedViews, modificationCount);
+		if (ratingsLoaded) {
+			refreshDirtyRatings();
+		}
+	}
+
+	/**
+	 * Evicts the view (called when the component or its children change)
+	 *
+	 * @param componentId
+	 */
+	public static void remove(String componentId)
+	{
+		removeLocal(componentId);
+		if (OrientPersistenceService.isThreadTransactionActive()) {
+			OrientPersistenceService.afterThreadCommit(() -> removeLocal(componentId));
+		}
+	}
+
+	/**
+	 * Evicts the view on this node only (invalidation from another node)
+	 *
+	 * @param componentId
+	 */
+	public static void removeLocal(String componentId)
+	{
+		MODIFICATION_COUNT.incrementAndGet();
+		VIEWS.remove(componentId);
+		DIRTY_RATINGS.add(componentId);
+	}
+
+	/**
+	 * Evicts all views on all nodes (called when shared data used by the views
+	 * changes; such as labels)
+	 */
+	public static void clear()
+	{
+		CacheInvalidationManager.invalidate(ComponentSearchViewStore::clearLocal, new CacheInvalidation(InvalidationType.REGION, VIEW_REGION, null));
+	}
+
+	/**
+	 * Evicts all views on this node only (invalidation from another node)
+	 */
+	public static void clearLocal()
+	{
+		MODIFICATION_COUNT.incrementAndGet();
+		VIEWS.clear();
+	}
+
+	public static int size()
+	{
+		return VIEWS.size();
+	}
+
+	/**
+	 * Gets the average (active) review rating for the components
+	 *
+	 * @param componentIds
+	 * @return component id to average; components without reviews are not
+	 * included
+	 */
+	public static Map<String, Integer> getAverageRatings(Collection<String> componentIds)
+	{
+		if (ratingsLoaded == false) {
+			loadRatings();
+		} else if (DIRTY_RATINGS.isEmpty() == false) {
+			refreshDirtyRatings();
+		}
+
+		Map<String, Integer> ratings = new HashMap<>();
+		for (String componentId : componentIds) {
+			Integer rating = AVERAGE_RATINGS.get(componentId);
+			if (rating != null) {
+				ratings.put(componentId, rating);
+			}
+		}
+		return ratings;
+	}
+
+	private static void storeViews(Map<String, ComponentSearchView> loadedViews, long modificationCount)
+	{
+		//skip storing if something changed while loading; they will be built on next use
+		if (MODIFICATION_COUNT.get() == modificationCount) {
+			VIEWS.putAll(loadedViews);
+		}
+	}
+
+	private static Map<String, ComponentSearchView> loadViews(List<String> componentIds)
+	{
+		ServiceProxy serviceProxy = ServiceProxy.getProxy();
+
+		StringBuilder componentQuery = new StringBuilder();
+		componentQuery.append("select from Component where activeStatus='")
+				.append(Component.ACTIVE_STATUS)
+				.append("'and approvalState='")
+				.append(ApprovalStatus.APPROVED)
+				.append("' and componentId IN :componentIdsParams");
+
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("componentIdsParams", componentIds);
+		List<Component> components = serviceProxy.getPersistenceService().query(componentQuery.toString(), paramMap, true);
+
+		Map<String, ComponentSearchView> views = new HashMap<>();
+		if (components.isEmpty()) {
+			return views;
+		}
+
+		List<String> foundIds = new ArrayList<>();
+		for (Component component : components) {
+			foundIds.add(component.getComponentId());
+		}
+		paramMap.put("componentIdsParams", foundIds);
+
+		String componentAttributeQuery = "select from ComponentAttribute where activeStatus='" + Component.ACTIVE_STATUS + "' and componentId IN :componentIdsParams";
+		List<ComponentAttribute> componentAttributes = serviceProxy.getPersistenceService().query(componentAttributeQuery, paramMap, true);
+		Map<String, List<ComponentAttribute>> attributeMap = new HashMap<>();
+		for (ComponentAttribute componentAttribute : componentAttributes) {
+			attributeMap.computeIfAbsent(componentAttribute.getComponentId(), key -> new ArrayList<>()).add(componentAttribute);
+		}
+
+		String componentReviewQuery = "select from ComponentReview where activeStatus='" + Component.ACTIVE_STATUS + "' and componentId IN :componentIdsParams";
+		List<ComponentReview> componentReviews = serviceProxy.getPersistenceService().query(componentReviewQuery, paramMap, true);
+		Map<String, List<ComponentReview>> reviewMap = new HashMap<>();
+		for (ComponentReview componentReview : componentReviews) {
+			reviewMap.computeIfAbsent(componentReview.getComponentId(), key -> new ArrayList<>()).add(componentReview);
+		}
+
+		String componentTagQuery = "select from ComponentTag where activeStatus='" + Component.ACTIVE_STATUS + "' and componentId IN :componentIdsParams";
+		List<ComponentTag> componentTags = serviceProxy.getPersistenceService().query(componentTagQuery, paramMap, true);
+		Map<String, List<ComponentTag>> tagMap = new HashMap<>();
+		for (ComponentTag componentTag : componentTags) {
+			tagMap.computeIfAbsent(componentTag.getComponentId(), key -> new ArrayList<>()).add(componentTag);
+		}
+
+		for (Component component : components) {
+			String componentId = component.getComponentId();
+			ComponentSearchView view = ComponentSearchView.toView(component,
+					attributeMap.getOrDefault(componentId, new ArrayList<>()),
+					reviewMap.getOrDefault(componentId, new ArrayList<>()),
+					tagMap.getOrDefault(componentId, new ArrayList<>()));
+			views.put(componentId, view);
+		}
+		return views;
+	}
+
+	private static synchronized void loadRatings()
+	{
+		if (ratingsLoaded == false) {
+			DIRTY_RATINGS.clear();
+			String query = "select componentId, sum(rating) as total, count(*) as reviews from "
+					+ ComponentReview.class.getSimpleName()
+					+ " where activeStatus='" + ComponentReview.ACTIVE_STATUS + "' group by componentId";
+			List<ODocument> results = ServiceProxy.getProxy().getPersistenceService().query(query, new HashMap<>());
+			for (ODocument doc : results) {
+				putRating(doc);
+			}
+			ratingsLoaded = true;
+		}
+	}
+
+	private static synchronized void refreshDirtyRatings()
+	{
+		List<String> componentIds = new ArrayList<>(DIRTY_RATINGS);
+		if (componentIds.isEmpty()) {
+			return;
+		}
+		DIRTY_RATINGS.removeAll(componentIds);
+
+		String query = "select componentId, sum(rating) as total, count(*) as reviews from "
+				+ ComponentReview.class.getSimpleName()
+				+ " where activeStatus='" + ComponentReview.ACTIVE_STATUS + "' and componentId IN :componentIdsParams group by componentId";
+		Map<String, Object> paramMap = new HashMap<>();
+		paramMap.put("componentIdsParams", componentIds);
+		List<ODocument> results = ServiceProxy.getProxy().getPersistenceService().query(query, paramMap);
+
+		AVERAGE_RATINGS.keySet().removeAll(componentIds);
+		for (ODocument doc : results) {
+			putRating(doc);
+		}
+	}
+
+	private static void putRating(ODocument doc)
+	{
+		long reviews = ((Number) doc.field("reviews")).longValue();
+		if (reviews > 0) {
+			long total = ((Number) doc.field("total")).longValue();
+			AVERAGE_RATINGS.put(doc.field("componentId").toString(), (int) (total / reviews));
+		}
+	}
+
+	private static ComponentSearchView copy(ComponentSearchView view)
+	{
+		ComponentSearchView copy = new ComponentSearchView();
+		try {
+			PropertyUtils.copyProperties(copy, view);
+		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+			throw new OpenStorefrontRuntimeException("Unable to copy search view", ex);
+		}
+		copy.setTags(new ArrayList<>(view.getTags()));
+		copy.setAttributes(new ArrayList<>(view.getAttributes()));
+		return copy;
+	}
+
+	private static boolean useSnapshot()
+	{
+		return Convert.toBoolean(PropertiesManager.getValue(PropertiesManager.KEY_SEARCH_VIEW_SNAPSHOT, "false"));
+	}
+
+	private static File snapshotFile()
+	{
+		return new File(FileSystemManager.getDir(FileSystemManager.MAIN_TEMP_DIR), SNAPSHOT_FILE);
+	}
+
+	private static void loadSnapshot()
+	{
+		File snapshot = snapshotFile();
+		if (snapshot.exists() == false) {
+			return;
+		}
+
+		try {
+			List<ComponentSearchView> views = StringProcessor.defaultObjectMapper().readValue(snapshot, new TypeReference<List<ComponentSearchView>>()
+			{
+			});
+
+			//only keep views where the component hasn't changed
+			String query = "select componentId, lastActivityDts from " + Component.class.getSimpleName()
+					+ " where activeStatus='" + Component.ACTIVE_STATUS + "' and approvalState='" + ApprovalStatus.APPROVED + "'";
+			List<ODocument> results = ServiceProxy.getProxy().getPersistenceService().query(query, new HashMap<>());
+			Map<String, Date> lastActivity = new HashMap<>();
+			for (ODocument doc : results) {
+				lastActivity.put(doc.field("componentId"), doc.field("lastActivityDts"));
+			}
+
+			int kept = 0;
+			for (ComponentSearchView view : views) {
+				Date current = lastActivity.get(view.getComponentId());
+				if (current != null && current.equals(view.getLastActivityDts())) {
+					VIEWS.put(view.getComponentId(), view);
+					kept++;
+				}
+			}
+			LOG.log(Level.INFO, "Loaded {0} of {1} search views from snapshot", new Object[]{kept, views.size()});
+		} catch (IOException | RuntimeException ex) {
+			LOG.log(Level.WARNING, "Unable to load search view snapshot; views will be rebuilt on use.", ex);
+		}
+		if (snapshot.delete() == false) {
+			LOG.log(Level.WARNING, "Unable to remove search view snapshot: {0}", snapshot.getPath());
+		}
+	}
+
+	private static void saveSnapshot()
+	{
+		try {
+			StringProcessor.defaultObjectMapper().writeValue(snapshotFile(), new ArrayList<>(VIEWS.values()));
+		} catch (IOException ex) {
+			LOG.log(Level.WARNING, "Unable to save search view snapshot.", ex);
+		}
+	}
+
+	@Override
+	public void initialize()
+	{
+		if (useSnapshot()) {
+			loadSnapshot();
+		}
+		started.set(true);
+	}
+
+	@Override
+	public void shutdown()
+	{
+		if (useSnapshot()) {
+			saveSnapshot();
+		}
+		VIEWS.clear();
+		started.set(false);
+	}
+
+	@Override
+	public boolean isStarted()
+	{
+		return started.get();
+	}
+
+}
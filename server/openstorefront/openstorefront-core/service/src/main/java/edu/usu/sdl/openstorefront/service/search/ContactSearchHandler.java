@@ -25,7 +25,6 @@ import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 
@@ -65,9 +64,9 @@ public class ContactSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
@@ -110,11 +109,11 @@ public class ContactSearchHandler
 			}
 
 			List<ComponentContact> componentContacts = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-			List<String> results = new ArrayList<>();
+			ComponentIdSet results = new ComponentIdSet();
 			for (ComponentContact contact : componentContacts) {
 				results.add(contact.getComponentId());
 			}
-			foundIds = mergeCondition.apply(foundIds, results);
+			foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 			mergeCondition = searchElement.getMergeCondition();
 		}
 		return foundIds;
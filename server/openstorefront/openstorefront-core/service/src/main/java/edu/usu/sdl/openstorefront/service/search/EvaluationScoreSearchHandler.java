@@ -23,7 +23,6 @@ import edu.usu.sdl.openstorefront.core.entity.ComponentEvaluationSectionPk;
 import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 
@@ -59,9 +58,9 @@ public class EvaluationScoreSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 			
@@ -75,7 +74,7 @@ public class EvaluationScoreSearchHandler
 				QueryByExample queryByExample = new QueryByExample(evaluationSection);
 
 				List<ComponentEvaluationSection> sections = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-				List<String> results = new ArrayList<>();
+				ComponentIdSet results = new ComponentIdSet();
 				for (ComponentEvaluationSection section : sections) {
 					if (Convert.toBoolean(section.getNotAvailable()) == false) {
 						if (searchElement.getNumberOperation().pass(section.getActualScore(), Convert.toBigDecimal(searchElement.getValue()))) {
@@ -83,7 +82,7 @@ public class EvaluationScoreSearchHandler
 						}
 					}
 				}
-				foundIds = mergeCondition.apply(foundIds, results);
+				foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 				mergeCondition = searchElement.getMergeCondition();
 
 			} catch (SecurityException | IllegalArgumentException | OpenStorefrontRuntimeException e) {
@@ -19,7 +19,6 @@ import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,20 +43,20 @@ public class IndexSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
 			IndexSearchResult searchResult = serviceProxy.getSearchServicePrivate().doIndexSearch(searchElement.getValue(), FilterQueryParams.defaultFilter());
 
-			List<String> results = new ArrayList<>();
+			ComponentIdSet results = new ComponentIdSet();
 			for (SolrComponentModel componentModel : searchResult.getResultsList()) {
 				results.add(componentModel.getId());
 			}
 
-			foundIds = mergeCondition.apply(foundIds, results);
+			foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 			mergeCondition = searchElement.getMergeCondition();
 		}
 		return foundIds;
@@ -27,7 +27,6 @@ import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
@@ -89,9 +88,9 @@ public class QuestionResponseSearchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
@@ -162,11 +161,11 @@ public class QuestionResponseSearchHandler
 				}
 
 				List<ComponentQuestionResponse> responses = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-				List<String> results = new ArrayList<>();
+				ComponentIdSet results = new ComponentIdSet();
 				for (ComponentQuestionResponse response : responses) {
 					results.add(response.getComponentId());
 				}
-				foundIds = mergeCondition.apply(foundIds, results);
+				foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 				mergeCondition = searchElement.getMergeCondition();
 			} catch (SecurityException | IllegalArgumentException | IllegalAccessException | OpenStorefrontRuntimeException e) {
 				throw new OpenStorefrontRuntimeException("Unable to handle search request", e);
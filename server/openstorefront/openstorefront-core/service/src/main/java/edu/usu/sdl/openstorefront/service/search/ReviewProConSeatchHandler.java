@@ -27,7 +27,6 @@ import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation;
 import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.SearchType;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 
@@ -60,9 +59,9 @@ public class ReviewProConSeatchHandler
 	}
 
 	@Override
-	public List<String> processSearch()
+	public ComponentIdSet processSearch()
 	{
-		List<String> foundIds = new ArrayList<>();
+		ComponentIdSet foundIds = new ComponentIdSet();
 		SearchOperation.MergeCondition mergeCondition = SearchOperation.MergeCondition.OR;
 		for (SearchElement searchElement : searchElements) {
 
@@ -108,11 +107,11 @@ public class ReviewProConSeatchHandler
 
 
 					List<ComponentReviewPro> pros = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-					List<String> results = new ArrayList<>();
+					ComponentIdSet results = new ComponentIdSet();
 					for (ComponentReviewPro pro : pros) {
 						results.add(pro.getComponentId());
 					}
-					foundIds = mergeCondition.apply(foundIds, results);
+					foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 					mergeCondition = searchElement.getMergeCondition();
 				} catch (SecurityException | IllegalArgumentException | OpenStorefrontRuntimeException e) {
 					throw new OpenStorefrontRuntimeException("Unable to handle search request", e);
@@ -158,11 +157,11 @@ public class ReviewProConSeatchHandler
 					}
 
 					List<ComponentReviewCon> cons = serviceProxy.getPersistenceService().queryByExample(queryByExample);
-					List<String> results = new ArrayList<>();
+					ComponentIdSet results = new ComponentIdSet();
 					for (ComponentReviewCon con : cons) {
 						results.add(con.getComponentId());
 					}
-					foundIds = mergeCondition.apply(foundIds, results);
+					foundIds = ComponentIdSet.merge(mergeCondition, foundIds, results);
 					mergeCondition = searchElement.getMergeCondition();
 				} catch (SecurityException | IllegalArgumentException | OpenStorefrontRuntimeException e) {
 					throw new OpenStorefrontRuntimeException("Unable to handle search request", e);
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.core.model.search.SearchHandlerTiming;
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.shiro.SecurityUtils;
+
+/**
+ * Runs the advance search handlers and merges the results.
+ *
+ * The handlers are merged left to right (the same as running them in order)
+ * but the handlers are independent queries so they are submitted to the pool
+ * at once; cheapest estimate first. The handlers in a run of AND merges can be
+ * resolved in any order so they are resolved most selective first and once
+ * the intermediate result is empty the rest of the run is skipped.
+ *
+ * @author dshurtleff
+ */
+public class SearchExecutionPlanner
+{
+
+	private static final Logger LOG = Logger.getLogger(SearchExecutionPlanner.class.getName());
+
+	private final List<BaseSearchHandler> handlers;
+	private final boolean collectTimings;
+	private final Supplier<SearchSelectivity> selectivitySupplier;
+	private final List<SearchHandlerTiming> timings = new ArrayList<>();
+
+	public SearchExecutionPlanner(List<BaseSearchHandler> handlers, boolean collectTimings)
+	{
+		this(handlers, collectTimings, SearchSelectivity::current);
+	}
+
+	public SearchExecutionPlanner(List<BaseSearchHandler> handlers, boolean collectTimings, Supplier<SearchSelectivity> selectivitySupplier)
+	{
+		this.handlers = handlers;
+		this.collectTimings = collectTimings;
+		this.selectivitySupplier = selectivitySupplier;
+	}
+
+	/**
+	 * Runs the handlers
+	 *
+	 * @param executorService (if null the handlers run on the calling thread)
+	 * @return merged component ids
+	 */
+	public ComponentIdSet execute(ExecutorService executorService)
+	{
+		List<PlannedHandler> planned = new ArrayList<>();
+		SearchSelectivity selectivity = null;
+		if (handlers.size() > 1 || collectTimings) {
+			selectivity = selectivitySupplier.get();
+		}
+
+		MergeCondition mergeCondition = MergeCondition.OR;
+		for (BaseSearchHandler handler : handlers) {
+			PlannedHandler plannedHandler = new PlannedHandler(handler, mergeCondition);
+			if (selectivity != null) {
+				plannedHandler.estimate = handler.estimateResultCount(selectivity);
+			}
+			planned.add(plannedHandler);
+			mergeCondition = handler.getNextMergeCondition();
+		}
+
+		//Split into runs; the first handler of the run merges with what came before and the rest are ANDed
+		List<List<PlannedHandler>> runs = new ArrayList<>();
+		List<PlannedHandler> run = null;
+		for (PlannedHandler plannedHandler : planned) {
+			if (run == null || MergeCondition.AND.equals(plannedHandler.mergeCondition) == false) {
+				run = new ArrayList<>();
+				runs.add(run);
+			}
+			run.add(plannedHandler);
+		}
+		for (List<PlannedHandler> runLocal : runs) {
+			if (runLocal.size() > 2) {
+				runLocal.subList(1, runLocal.size()).sort(Comparator.comparingLong(plannedHandler -> plannedHandler.estimate));
+			}
+		}
+
+		try {
+			if (executorService != null && planned.size() > 1) {
+				List<PlannedHandler> submitOrder = new ArrayList<>(planned);
+				submitOrder.sort(Comparator.comparingLong(plannedHandler -> plannedHandler.estimate));
+				for (PlannedHandler plannedHandler : submitOrder) {
+					plannedHandler.submit(executorService);
+				}
+			}
+
+			ComponentIdSet componentIds = new ComponentIdSet();
+			for (List<PlannedHandler> runLocal : runs) {
+				PlannedHandler first = runLocal.get(0);
+				componentIds = ComponentIdSet.merge(first.mergeCondition, componentIds, first.getResult());
+				for (PlannedHandler plannedHandler : runLocal.subList(1, runLocal.size())) {
+					if (componentIds.isEmpty()) {
+						plannedHandler.skip();
+					} else {
+						componentIds = ComponentIdSet.merge(MergeCondition.AND, componentIds, plannedHandler.getResult());
+					}
+				}
+			}
+			return componentIds;
+		} finally {
+			for (PlannedHandler plannedHandler : planned) {
+				plannedHandler.cancel();
+				if (collectTimings) {
+					timings.add(plannedHandler.toTiming());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return timings in handler order (only when collecting timings)
+	 */
+	public List<SearchHandlerTiming> getTimings()
+	{
+		return timings;
+	}
+
+	private static class PlannedHandler
+	{
+
+		private final BaseSearchHandler handler;
+		private final MergeCondition mergeCondition;
+		private long estimate = Long.MAX_VALUE;
+		private Future<ComponentIdSet> future;
+		private volatile long submitTime;
+		private volatile long queueNanos;
+		private volatile long executionNanos;
+		private long resultCount;
+		private boolean skipped;
+
+		public PlannedHandler(BaseSearchHandler handler, MergeCondition mergeCondition)
+		{
+			this.handler = handler;
+			this.mergeCondition = mergeCondition;
+		}
+
+		private ComponentIdSet run()
+		{
+			long startTime = System.nanoTime();
+			queueNanos = startTime - submitTime;
+			try {
+				return handler.processSearch();
+			} finally {
+				executionNanos = System.nanoTime() - startTime;
+			}
+		}
+
+		public void submit(ExecutorService executorService)
+		{
+			Callable<ComponentIdSet> task = this::run;
+			try {
+				//keep the user's security context on the pool thread
+				task = SecurityUtils.getSubject().associateWith(task);
+			} catch (Exception e) {
+				LOG.log(Level.FINEST, "No subject to associate with the search handler", e);
+			}
+
+			submitTime = System.nanoTime();
+			try {
+				future = executorService.submit(task);
+			} catch (RejectedExecutionException e) {
+				LOG.log(Level.FINE, "Search handler pool rejected the handler; running on the request thread.", e);
+				future = null;
+			}
+		}
+
+		public ComponentIdSet getResult()
+		{
+			ComponentIdSet result;
+			if (future == null) {
+				submitTime = System.nanoTime();
+				result = run();
+			} else {
+				try {
+					result = future.get();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new OpenStorefrontRuntimeException("Interrupted while waiting on the search handler: " + handler.getSearchType(), ex);
+				} catch (ExecutionException ex) {
+					if (ex.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) ex.getCause();
+					}
+					throw new OpenStorefrontRuntimeException("Search handler failed: " + handler.getSearchType(), ex.getCause());
+				}
+			}
+			resultCount = result.size();
+			return result;
+		}
+
+		public void skip()
+		{
+			skipped = true;
+			cancel();
+		}
+
+		public void cancel()
+		{
+			if (future != null && future.isDone() == false) {
+				future.cancel(false);
+			}
+		}
+
+		public SearchHandlerTiming toTiming()
+		{
+			SearchHandlerTiming timing = new SearchHandlerTiming();
+			timing.setSearchType(handler.getSearchType());
+			timing.setElementCount(handler.getElementCount());
+			timing.setEstimatedCount(estimate == Long.MAX_VALUE ? -1 : estimate);
+			timing.setResultCount(resultCount);
+			timing.setSkipped(skipped);
+			timing.setQueueTime(TimeUnit.NANOSECONDS.toMillis(queueNanos));
+			timing.setExecutionTime(TimeUnit.NANOSECONDS.toMillis(executionNanos));
+			return timing;
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.service.ServiceProxy;
+import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.sf.ehcache.Element;
+
+/**
+ * Row counts used to estimate how selective a search handler is. The counts
+ * are kept per attribute type and per attribute type/code and are refreshed
+ * when the search stat cache expires; they are estimates only.
+ *
+ * @author dshurtleff
+ */
+public class SearchSelectivity
+{
+
+	private static final String STAT_KEY = "SELECTIVITY";
+
+	private long componentCount;
+	private final Map<String, Long> typeCounts = new HashMap<>();
+	private final Map<String, Long> codeCounts = new HashMap<>();
+
+	public SearchSelectivity()
+	{
+	}
+
+	/**
+	 * Gets the current counts; loading them if they are not cached.
+	 *
+	 * @return counts
+	 */
+	public static SearchSelectivity current()
+	{
+		SearchSelectivity selectivity;
+		if (OSFCacheManager.getSearchStatCache() == null) {
+			return load();
+		}
+
+		Element element = OSFCacheManager.getSearchStatCache().get(STAT_KEY);
+		if (element != null) {
+			selectivity = (SearchSelectivity) element.getObjectValue();
+		} else {
+			selectivity = load();
+			OSFCacheManager.getSearchStatCache().put(new Element(STAT_KEY, selectivity));
+		}
+		return selectivity;
+	}
+
+	private static SearchSelectivity load()
+	{
+		SearchSelectivity selectivity = new SearchSelectivity();
+		ServiceProxy serviceProxy = ServiceProxy.getProxy();
+
+		String query = "select count(*) as total from " + Component.class.getSimpleName() + " where activeStatus='" + Component.ACTIVE_STATUS + "'";
+		List<ODocument> results = serviceProxy.getPersistenceService().query(query, new HashMap<>());
+		for (ODocument doc : results) {
+			selectivity.componentCount = ((Number) doc.field("total")).longValue();
+		}
+
+		query = "select componentAttributePk.attributeType as attributeType, componentAttributePk.attributeCode as attributeCode, count(*) as total from "
+				+ ComponentAttribute.class.getSimpleName()
+				+ " where activeStatus='" + ComponentAttribute.ACTIVE_STATUS + "'"
+				+ " group by componentAttributePk.attributeType, componentAttributePk.attributeCode";
+		results = serviceProxy.getPersistenceService().query(query, new HashMap<>());
+		for (ODocument doc : results) {
+			selectivity.addAttributeCount(doc.field("attributeType"), doc.field("attributeCode"), ((Number) doc.field("total")).longValue());
+		}
+		return selectivity;
+	}
+
+	public static void invalidate()
+	{
+		if (OSFCacheManager.getSearchStatCache() != null) {
+			OSFCacheManager.invalidateKey(OSFCacheManager.getSearchStatCache(), STAT_KEY);
+		}
+	}
+
+	public void addAttributeCount(String attributeType, String attributeCode, long count)
+	{
+		typeCounts.merge(attributeType, count, Long::sum);
+		codeCounts.merge(codeKey(attributeType, attributeCode), count, Long::sum);
+	}
+
+	private static String codeKey(String attributeType, String attributeCode)
+	{
+		return attributeType + "|" + attributeCode;
+	}
+
+	public long getComponentCount()
+	{
+		return componentCount;
+	}
+
+	public void setComponentCount(long componentCount)
+	{
+		this.componentCount = componentCount;
+	}
+
+	public long attributeTypeCount(String attributeType)
+	{
+		return typeCounts.getOrDefault(attributeType, 0L);
+	}
+
+	public long attributeCodeCount(String attributeType, String attributeCode)
+	{
+		return codeCounts.getOrDefault(codeKey(attributeType, attributeCode), 0L);
+	}
+
+}
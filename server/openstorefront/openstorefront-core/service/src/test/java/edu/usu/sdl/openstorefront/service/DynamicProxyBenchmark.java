@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service;
+
+import edu.usu.sdl.openstorefront.core.api.ProxyContext;
+import edu.usu.sdl.openstorefront.core.api.ProxyInterceptor;
+import edu.usu.sdl.openstorefront.core.api.ServiceInterceptor;
+import edu.usu.sdl.openstorefront.core.api.StatelessInterceptor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the service call overhead of the original proxy handler to the
+ * current DynamicProxy. Run the main method from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicProxyBenchmark
+{
+
+	private BenchmarkService legacyService;
+	private BenchmarkService dynamicService;
+
+	@Setup
+	public void setup()
+	{
+		legacyService = LegacyDynamicProxy.newInstance(new BenchmarkServiceImpl());
+		dynamicService = DynamicProxy.newInstance(new BenchmarkServiceImpl());
+	}
+
+	@Benchmark
+	public int legacyPlainCall()
+	{
+		return legacyService.plain(1);
+	}
+
+	@Benchmark
+	public int dynamicPlainCall()
+	{
+		return dynamicService.plain(1);
+	}
+
+	@Benchmark
+	public int legacyInterceptedCall()
+	{
+		return legacyService.intercepted(1);
+	}
+
+	@Benchmark
+	public int dynamicInterceptedCall()
+	{
+		return dynamicService.intercepted(1);
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		Options options = new OptionsBuilder()
+				.include(DynamicProxyBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+	public interface BenchmarkService
+	{
+
+		int plain(int value);
+
+		@ServiceInterceptor(NoOpInterceptor.class)
+		int intercepted(int value);
+
+	}
+
+	public static class BenchmarkServiceImpl
+			extends ServiceProxy
+			implements BenchmarkService
+	{
+
+		@Override
+		public int plain(int value)
+		{
+			return value + 1;
+		}
+
+		@Override
+		public int intercepted(int value)
+		{
+			return value + 1;
+		}
+
+	}
+
+	@StatelessInterceptor
+	public static class NoOpInterceptor
+			implements ProxyInterceptor
+	{
+
+		@Override
+		public boolean before(Object proxy, Method m, Object[] args, ProxyContext context)
+		{
+			return false;
+		}
+
+		@Override
+		public void after(Object proxy, Method m, Object[] args, ProxyContext context)
+		{
+		}
+
+		@Override
+		public void handleException(Object proxy, Method m, Object[] args, ProxyContext context)
+		{
+		}
+
+		@Override
+		public void requiredAfterRun(Object proxy, Method m, Object[] args, ProxyContext context)
+		{
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.manager.resource;
+
+import edu.usu.sdl.openstorefront.core.entity.DBLogRecord;
+import edu.usu.sdl.openstorefront.service.manager.resource.DBLogHandler.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class DBLogHandlerTest
+{
+
+	@Test
+	public void testFlushWritesBatches()
+	{
+		List<List<DBLogRecord>> batches = Collections.synchronizedList(new ArrayList<>());
+		DBLogHandler handler = new DBLogHandler(100, 10, 60000, OverflowPolicy.BLOCK, Level.WARNING, false, batches::add);
+		for (int i = 0; i < 25; i++) {
+			handler.publish(logRecord(Level.INFO, "message " + i));
+		}
+		handler.flush();
+
+		assertEquals(25, handler.getWrittenCount());
+		assertEquals(0, handler.getDroppedCount());
+		assertTrue(batches.size() >= 3);
+		for (List<DBLogRecord> batch : batches) {
+			assertTrue(batch.size() <= 10);
+		}
+		handler.close();
+	}
+
+	@Test
+	public void testOverflowPolicies() throws InterruptedException
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		List<DBLogRecord> written = Collections.synchronizedList(new ArrayList<>());
+		DBLogHandler handler = new DBLogHandler(4, 1, 0, OverflowPolicy.DROP_BELOW_LEVEL, Level.WARNING, false, (batch) -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			written.addAll(batch);
+		});
+
+		//first record is held by the (stalled) writer; the next four fill the buffer
+		handler.publish(logRecord(Level.INFO, "held"));
+		Thread.sleep(100);
+		for (int i = 0; i < 4; i++) {
+			handler.publish(logRecord(Level.INFO, "info " + i));
+		}
+		handler.publish(logRecord(Level.FINE, "dropped"));
+		handler.publish(logRecord(Level.SEVERE, "kept"));
+		assertEquals(2, handler.getDroppedCount());
+
+		release.countDown();
+		handler.close();
+		assertEquals(5, handler.getWrittenCount());
+		assertEquals("held", written.get(0).getMessage());
+		assertEquals("info 1", written.get(1).getMessage());
+		assertEquals("kept", written.get(4).getMessage());
+	}
+
+	private LogRecord logRecord(Level level, String message)
+	{
+		LogRecord record = new LogRecord(level, message);
+		record.setLoggerName("test");
+		record.setSourceClassName(DBLogHandlerTest.class.getName());
+		return record;
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.query;
+
+import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOptionBuilder;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the reflective query by example statement generation to the
+ * compiled plans. Run the main method from the test classpath.
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExampleStatementBenchmark
+{
+
+	private Component component;
+	private ComponentAttribute componentAttribute;
+	private UserTracking userTracking;
+	private GenerateStatementOption option;
+	private Map<String, GenerateStatementOption> fieldOptions;
+
+	@Setup
+	public void setup()
+	{
+		component = ExampleStatementCompilerTest.componentExample();
+		componentAttribute = ExampleStatementCompilerTest.componentAttributeExample();
+		userTracking = ExampleStatementCompilerTest.userTrackingExample();
+		option = new GenerateStatementOptionBuilder().build();
+		fieldOptions = new HashMap<>();
+	}
+
+	@Benchmark
+	public void legacyComponent(Blackhole blackhole)
+	{
+		legacy(component, blackhole);
+	}
+
+	@Benchmark
+	public void compiledComponent(Blackhole blackhole)
+	{
+		blackhole.consume(ExampleStatementCompiler.whereClause(component, option, fieldOptions));
+	}
+
+	@Benchmark
+	public void legacyComponentAttribute(Blackhole blackhole)
+	{
+		legacy(componentAttribute, blackhole);
+	}
+
+	@Benchmark
+	public void compiledComponentAttribute(Blackhole blackhole)
+	{
+		blackhole.consume(ExampleStatementCompiler.whereClause(componentAttribute, option, fieldOptions));
+	}
+
+	@Benchmark
+	public void legacyUserTracking(Blackhole blackhole)
+	{
+		legacy(userTracking, blackhole);
+	}
+
+	@Benchmark
+	public void compiledUserTracking(Blackhole blackhole)
+	{
+		blackhole.consume(ExampleStatementCompiler.whereClause(userTracking, option, fieldOptions));
+	}
+
+	private void legacy(Object example, Blackhole blackhole)
+	{
+		blackhole.consume(LegacyExampleStatementGenerator.generateWhereClause(example, new ComplexFieldStack(), option, fieldOptions));
+		blackhole.consume(LegacyExampleStatementGenerator.mapParameters(example, new ComplexFieldStack(ExampleStatementCompiler.PARAM_NAME_SEPARATOR), option, fieldOptions));
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		Options options = new OptionsBuilder()
+				.include(ExampleStatementBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.query;
+
+import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOptionBuilder;
+import edu.usu.sdl.openstorefront.core.entity.Component;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttribute;
+import edu.usu.sdl.openstorefront.core.entity.ComponentAttributePk;
+import edu.usu.sdl.openstorefront.core.entity.TrackEventCode;
+import edu.usu.sdl.openstorefront.core.entity.UserTracking;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ExampleStatementCompilerTest
+{
+
+	@Before
+	public void setup()
+	{
+		ExampleStatementCompiler.clearCache();
+	}
+
+	public static Component componentExample()
+	{
+		Component component = new Component();
+		component.setName("Test Component");
+		component.setComponentType("COMP");
+		component.setActiveStatus(Component.ACTIVE_STATUS);
+		return component;
+	}
+
+	public static ComponentAttribute componentAttributeExample()
+	{
+		ComponentAttribute componentAttribute = new ComponentAttribute();
+		ComponentAttributePk componentAttributePk = new ComponentAttributePk();
+		componentAttributePk.setComponentId("A-COMPONENT");
+		componentAttributePk.setAttributeType("DI2ELEVEL");
+		componentAttribute.setComponentAttributePk(componentAttributePk);
+		componentAttribute.setActiveStatus(ComponentAttribute.ACTIVE_STATUS);
+		return componentAttribute;
+	}
+
+	public static UserTracking userTrackingExample()
+	{
+		UserTracking userTracking = new UserTracking();
+		userTracking.setTrackEventTypeCode(TrackEventCode.LOGIN);
+		userTracking.setCreateUser("admin");
+		userTracking.setActiveStatus(UserTracking.ACTIVE_STATUS);
+		return userTracking;
+	}
+
+	@Test
+	public void testWhereClauseMatchesLegacy()
+	{
+		checkWhere(componentExample(), new GenerateStatementOptionBuilder().build(), new HashMap<>());
+		checkWhere(componentAttributeExample(), new GenerateStatementOptionBuilder().build(), new HashMap<>());
+		checkWhere(userTrackingExample(), new GenerateStatementOptionBuilder().build(), new HashMap<>());
+	}
+
+	@Test
+	public void testFieldOptionsMatchesLegacy()
+	{
+		Map<String, GenerateStatementOption> fieldOptions = new HashMap<>();
+		fieldOptions.put(Component.FIELD_NAME, new GenerateStatementOptionBuilder()
+				.setOperation(GenerateStatementOption.OPERATION_LIKE)
+				.setMethod(GenerateStatementOption.METHOD_LOWER_CASE)
+				.build());
+		checkWhere(componentExample(), new GenerateStatementOptionBuilder().build(), fieldOptions);
+
+		GenerateStatementOption notEquals = new GenerateStatementOptionBuilder()
+				.setOperation(GenerateStatementOption.OPERATION_NOT_EQUALS)
+				.setCondition(GenerateStatementOption.CONDITION_OR)
+				.build();
+		checkWhere(componentAttributeExample(), notEquals, new HashMap<>());
+	}
+
+	@Test
+	public void testExampleNamesMatchesLegacy()
+	{
+		assertEquals(LegacyExampleStatementGenerator.generateExampleNames(componentExample(), new ComplexFieldStack()),
+				ExampleStatementCompiler.exampleNames(componentExample()));
+		assertEquals(LegacyExampleStatementGenerator.generateExampleNames(componentAttributeExample(), new ComplexFieldStack()),
+				ExampleStatementCompiler.exampleNames(componentAttributeExample()));
+	}
+
+	@Test
+	public void testPlanReuse()
+	{
+		GenerateStatementOption option = new GenerateStatementOptionBuilder().build();
+		ExampleStatementCompiler.whereClause(componentExample(), option, null);
+		ExampleStatementCompiler.whereClause(componentExample(), option, null);
+		assertEquals(1, ExampleStatementCompiler.cachedPlanCount());
+
+		Component other = componentExample();
+		other.setName("Other Component");
+		ExampleStatement statement = ExampleStatementCompiler.whereClause(other, option, null);
+		assertEquals(1, ExampleStatementCompiler.cachedPlanCount());
+		assertEquals("Other Component", statement.getParameters().get("nameParam"));
+
+		other.setComponentType(null);
+		ExampleStatementCompiler.whereClause(other, option, null);
+		assertEquals(2, ExampleStatementCompiler.cachedPlanCount());
+	}
+
+	private void checkWhere(Object example, GenerateStatementOption option, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		String expectedClause = LegacyExampleStatementGenerator.generateWhereClause(example, new ComplexFieldStack(), option, fieldOptions);
+		Map<String, Object> expectedParameters = LegacyExampleStatementGenerator.mapParameters(example, new ComplexFieldStack(ExampleStatementCompiler.PARAM_NAME_SEPARATOR), option, fieldOptions);
+
+		ExampleStatement statement = ExampleStatementCompiler.whereClause(example, option, fieldOptions);
+		assertEquals(expectedClause, statement.getClause());
+		assertEquals(expectedParameters, statement.getParameters());
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.query;
+
+import edu.usu.sdl.openstorefront.common.exception.OpenStorefrontRuntimeException;
+import edu.usu.sdl.openstorefront.common.util.ReflectionUtil;
+import edu.usu.sdl.openstorefront.core.api.query.ComplexFieldStack;
+import edu.usu.sdl.openstorefront.core.api.query.GenerateStatementOption;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The original reflective statement generation from OrientPersistenceService;
+ * kept as the baseline for the compiler test and benchmark.
+ *
+ * @author dshurtleff
+ */
+public class LegacyExampleStatementGenerator
+{
+
+	private static final String PARAM_NAME_SEPARATOR = "1";
+
+	public static <T> String generateWhereClause(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		StringBuilder where = new StringBuilder();
+
+		try {
+			Map fieldMap = BeanUtils.describe(example);
+			boolean addAnd = false;
+			for (Object field : fieldMap.keySet()) {
+
+				if ("class".equalsIgnoreCase(field.toString()) == false) {
+					Object value = fieldMap.get(field);
+					if (value != null) {
+						GenerateStatementOption fieldOperation = generateStatementOption;
+						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
+							fieldOperation = fieldOptions.get(field.toString());
+						}
+
+						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
+						Object returnObj = method.invoke(example, (Object[]) null);
+						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
+							complexFieldStack.getFieldStack().push(field.toString());
+							if (addAnd) {
+								where.append(fieldOperation.getCondition());
+							} else {
+								addAnd = true;
+								where.append(" ");
+							}
+
+							where.append(generateWhereClause(returnObj, complexFieldStack, generateStatementOption, fieldOptions));
+							complexFieldStack.getFieldStack().pop();
+						} else {
+
+							if (addAnd) {
+								where.append(fieldOperation.getCondition());
+							} else {
+								addAnd = true;
+								where.append(" ");
+							}
+
+							String fieldName = complexFieldStack.getQueryFieldName() + field.toString() + fieldOperation.getMethod();
+							String fieldParamName = complexFieldStack.getQueryFieldName() + field.toString();
+							where.append(fieldName)
+									.append(" ").append(fieldOperation.getOperation());
+
+							boolean addParameter = true;
+							if (GenerateStatementOption.OPERATION_NULL.equals(fieldOperation.getOperation())
+									|| GenerateStatementOption.OPERATION_NOT_NULL.equals(fieldOperation.getOperation())) {
+								addParameter = false;
+							}
+
+							if (addParameter) {
+								where.append(" :")
+										.append(fieldParamName.replace(".", PARAM_NAME_SEPARATOR))
+										.append(fieldOperation.getParameterSuffix());
+							}
+						}
+					}
+				}
+			}
+		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+			throw new OpenStorefrontRuntimeException(ex);
+		}
+		return where.toString();
+	}
+
+	public static <T> String generateExampleNames(T example, ComplexFieldStack complexFieldStack)
+	{
+		StringBuilder where = new StringBuilder();
+
+		try {
+			Map fieldMap = BeanUtils.describe(example);
+			boolean addAnd = false;
+			for (Object field : fieldMap.keySet()) {
+
+				if ("class".equalsIgnoreCase(field.toString()) == false) {
+					Object value = fieldMap.get(field);
+					if (value != null) {
+
+						Method method = example.getClass().getMethod("get" + StringUtils.capitalize(field.toString()), (Class<?>[]) null);
+						Object returnObj = method.invoke(example, (Object[]) null);
+						if (ReflectionUtil.isComplexClass(returnObj.getClass())) {
+							complexFieldStack.getFieldStack().push(field.toString());
+							if (addAnd) {
+								where.append(",");
+							} else {
+								addAnd = true;
+								where.append(" ");
+							}
+
+							where.append(generateExampleNames(returnObj, complexFieldStack));
+							complexFieldStack.getFieldStack().pop();
+						} else {
+							if (addAnd) {
+								where.append(",");
+							} else {
+								addAnd = true;
+								where.append(" ");
+							}
+							String fieldName = complexFieldStack.getQueryFieldName() + field.toString();
+
+							where.append(fieldName);
+						}
+					}
+				}
+			}
+		} catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
+			throw new OpenStorefrontRuntimeException(ex);
+		}
+		return where.toString();
+	}
+
+	public static <T> Map<String, Object> mapParameters(T example, ComplexFieldStack complexFieldStack, GenerateStatementOption generateStatementOption, Map<String, GenerateStatementOption> fieldOptions)
+	{
+		Map<String, Object> parameterMap = new HashMap<>();
+		try {
+			List<Field> fields = ReflectionUtil.getAllFields(example.getClass());
+			for (Field field : fields) {
+
+				if ("class".equalsIgnoreCase(field.getName()) == false) {
+					field.setAccessible(true);
+					Object value = field.get(example);
+					if (value != null) {
+						GenerateStatementOption fieldOperation = generateStatementOption;
+						if (fieldOptions != null && fieldOptions.containsKey(field.toString())) {
+							fieldOperation = fieldOptions.get(field.toString());
+						}
+
+						if (ReflectionUtil.isComplexClass(value.getClass())) {
+							complexFieldStack.getFieldStack().push(field.getName());
+							parameterMap.putAll(mapParameters(value, complexFieldStack, generateStatementOption, fieldOptions));
+							complexFieldStack.getFieldStack().pop();
+						} else {
+							String fieldName = complexFieldStack.getQueryFieldName() + field.getName();
+							parameterMap.put(fieldName + fieldOperation.getParameterSuffix(), value);
+						}
+					}
+				}
+			}
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+		return parameterMap;
+	}
+
+}
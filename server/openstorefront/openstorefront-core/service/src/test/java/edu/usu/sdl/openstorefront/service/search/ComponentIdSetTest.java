@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class ComponentIdSetTest
+{
+
+	private static final List<String> SET_A = Arrays.asList("A", "B", "C", "D");
+	private static final List<String> SET_B = Arrays.asList("C", "D", "E", "F");
+
+	@Test
+	public void testMergeMatchesMergeCondition()
+	{
+		for (MergeCondition mergeCondition : MergeCondition.values()) {
+			ComponentIdSet merged = ComponentIdSet.merge(mergeCondition, ComponentIdSet.of(SET_A), ComponentIdSet.of(SET_B));
+			assertEquals(mergeCondition.name(),
+					new HashSet<>(mergeCondition.apply(SET_A, SET_B)),
+					new HashSet<>(merged.toComponentIds()));
+		}
+	}
+
+	@Test
+	public void testRemovedComponent()
+	{
+		ComponentIdSet idSet = ComponentIdSet.of(Arrays.asList("REMOVE-1", "KEEP-1"));
+		assertTrue(idSet.contains("REMOVE-1"));
+
+		ComponentIdDictionary.remove("REMOVE-1");
+		assertFalse(idSet.contains("REMOVE-1"));
+		assertEquals(Arrays.asList("KEEP-1"), idSet.toComponentIds());
+	}
+
+}
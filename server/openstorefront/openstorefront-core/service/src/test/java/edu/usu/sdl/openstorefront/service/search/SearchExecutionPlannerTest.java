@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.model.search.SearchElement;
+import edu.usu.sdl.openstorefront.core.model.search.SearchHandlerTiming;
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.SearchType;
+import edu.usu.sdl.openstorefront.validation.ValidationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author dshurtleff
+ */
+public class SearchExecutionPlannerTest
+{
+
+	private static ExecutorService executorService;
+
+	@BeforeClass
+	public static void setupPool()
+	{
+		executorService = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void shutdownPool()
+	{
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testMergeMatchesSequential()
+	{
+		List<List<String>> results = Arrays.asList(
+				Arrays.asList("A", "B", "C", "D"),
+				Arrays.asList("C", "D", "E"),
+				Arrays.asList("B", "C", "D", "F"),
+				Arrays.asList("D", "G")
+		);
+
+		for (MergeCondition first : MergeCondition.values()) {
+			for (MergeCondition second : MergeCondition.values()) {
+				for (MergeCondition third : MergeCondition.values()) {
+					List<MergeCondition> conditions = Arrays.asList(first, second, third, MergeCondition.OR);
+
+					List<String> expected = new ArrayList<>();
+					MergeCondition mergeCondition = MergeCondition.OR;
+					for (int i = 0; i < results.size(); i++) {
+						expected = mergeCondition.apply(expected, results.get(i));
+						mergeCondition = conditions.get(i);
+					}
+
+					String message = first + " " + second + " " + third;
+					assertEquals(message, new HashSet<>(expected), new HashSet<>(plan(results, conditions, false).execute(executorService).toComponentIds()));
+					assertEquals(message, new HashSet<>(expected), new HashSet<>(plan(results, conditions, false).execute(null).toComponentIds()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAndShortCircuit()
+	{
+		List<TestHandler> handlers = new ArrayList<>();
+		handlers.add(new TestHandler(Arrays.asList("A", "B"), MergeCondition.AND, 2));
+		handlers.add(new TestHandler(Arrays.asList("C"), MergeCondition.AND, 1));
+		handlers.add(new TestHandler(Arrays.asList("A", "B", "C"), MergeCondition.OR, 100));
+
+		SearchExecutionPlanner planner = new SearchExecutionPlanner(new ArrayList<>(handlers), true, this::selectivity);
+		ComponentIdSet componentIds = planner.execute(null);
+
+		assertTrue(componentIds.isEmpty());
+		assertEquals(0, handlers.get(2).calls.get());
+
+		List<SearchHandlerTiming> timings = planner.getTimings();
+		assertEquals(3, timings.size());
+		assertFalse(timings.get(0).getSkipped());
+		assertTrue(timings.get(2).getSkipped());
+		assertEquals(100, timings.get(2).getEstimatedCount());
+	}
+
+	private SearchExecutionPlanner plan(List<List<String>> results, List<MergeCondition> conditions, boolean collectTimings)
+	{
+		List<BaseSearchHandler> handlers = new ArrayList<>();
+		for (int i = 0; i < results.size(); i++) {
+			handlers.add(new TestHandler(results.get(i), conditions.get(i), results.size() - i));
+		}
+		return new SearchExecutionPlanner(handlers, collectTimings, this::selectivity);
+	}
+
+	private SearchSelectivity selectivity()
+	{
+		SearchSelectivity selectivity = new SearchSelectivity();
+		selectivity.setComponentCount(1000);
+		return selectivity;
+	}
+
+	private static class TestHandler
+			extends BaseSearchHandler
+	{
+
+		private final List<String> results;
+		private final long estimate;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		public TestHandler(List<String> results, MergeCondition nextMergeCondition, long estimate)
+		{
+			super(Arrays.asList(searchElement(nextMergeCondition)));
+			this.results = results;
+			this.estimate = estimate;
+		}
+
+		private static SearchElement searchElement(MergeCondition mergeCondition)
+		{
+			SearchElement searchElement = new SearchElement();
+			searchElement.setSearchType(SearchType.COMPONENT);
+			searchElement.setMergeCondition(mergeCondition);
+			return searchElement;
+		}
+
+		@Override
+		protected ValidationResult internalValidate()
+		{
+			return new ValidationResult();
+		}
+
+		@Override
+		public ComponentIdSet processSearch()
+		{
+			calls.incrementAndGet();
+			return ComponentIdSet.of(results);
+		}
+
+		@Override
+		public long estimateResultCount(SearchSelectivity selectivity)
+		{
+			return estimate;
+		}
+
+	}
+
+}
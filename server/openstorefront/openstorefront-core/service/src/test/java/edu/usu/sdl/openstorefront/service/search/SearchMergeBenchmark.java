@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.service.search;
+
+import edu.usu.sdl.openstorefront.core.model.search.SearchOperation.MergeCondition;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Pushes a 20 element mixed AND/OR/NOT search over a 40k component catalog
+ * through the list merge and the bit set merge. (Handler results are
+ * simulated; both paths start from the component id strings)
+ *
+ * @author dshurtleff
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchMergeBenchmark
+{
+
+	private static final int CATALOG_SIZE = 40000;
+	private static final int SEARCH_ELEMENTS = 20;
+
+	private List<List<String>> elementResults;
+	private List<MergeCondition> mergeConditions;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		List<String> catalog = new ArrayList<>();
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			catalog.add(UUID.randomUUID().toString());
+		}
+
+		elementResults = new ArrayList<>();
+		mergeConditions = new ArrayList<>();
+		MergeCondition[] conditions = {MergeCondition.OR, MergeCondition.AND, MergeCondition.OR, MergeCondition.NOT};
+		for (int i = 0; i < SEARCH_ELEMENTS; i++) {
+			int hits = 500 + random.nextInt(CATALOG_SIZE / 2);
+			List<String> results = new ArrayList<>();
+			for (int h = 0; h < hits; h++) {
+				results.add(catalog.get(random.nextInt(CATALOG_SIZE)));
+			}
+			elementResults.add(results);
+			mergeConditions.add(conditions[i % conditions.length]);
+		}
+	}
+
+	@Benchmark
+	public Set<String> listMerge()
+	{
+		List<String> componentIds = new ArrayList<>();
+		MergeCondition mergeCondition = MergeCondition.OR;
+		for (int i = 0; i < SEARCH_ELEMENTS; i++) {
+			componentIds = mergeCondition.apply(componentIds, new ArrayList<>(elementResults.get(i)));
+			mergeCondition = mergeConditions.get(i);
+		}
+		Set<String> masterResults = new HashSet<>();
+		masterResults.addAll(componentIds);
+		return masterResults;
+	}
+
+	@Benchmark
+	public List<String> bitSetMerge()
+	{
+		ComponentIdSet componentIds = new ComponentIdSet();
+		MergeCondition mergeCondition = MergeCondition.OR;
+		for (int i = 0; i < SEARCH_ELEMENTS; i++) {
+			componentIds = ComponentIdSet.merge(mergeCondition, componentIds, ComponentIdSet.of(elementResults.get(i)));
+			mergeCondition = mergeConditions.get(i);
+		}
+		return componentIds.toComponentIds();
+	}
+
+	public static void main(String[] args) throws RunnerException
+	{
+		Options options = new OptionsBuilder()
+				.include(SearchMergeBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+
+}
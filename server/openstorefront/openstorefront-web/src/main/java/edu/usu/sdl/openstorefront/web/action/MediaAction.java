@@ -36,9 +36,9 @@ import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
 import edu.usu.sdl.openstorefront.validation.ValidationUtil;
+import edu.usu.sdl.openstorefront.web.action.resolution.RangeResolution;
 import edu.usu.sdl.openstorefront.web.action.resolution.RangeResolutionBuilder;
 import java.io.ByteArrayInputStream;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -48,6 +48,7 @@ import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -136,24 +137,41 @@ public class MediaAction
 			throw new OpenStorefrontRuntimeException("Media not Found", "Check media Id");
 		}
 
-		InputStream in;
-		long length;
 		Path path = componentMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			return mediaResolution(path, componentMedia.getMimeType(), componentMedia.getOriginalName(), componentMedia.getUpdateDts());
 		} else {
 			Component component = service.getPersistenceService().findById(Component.class, componentMedia.getComponentId());
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check media record: {1} on component {2} ({3}) ", new Object[]{componentMedia.pathToMedia(), mediaId, component.getName(), component.getComponentId()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			return missingMediaResolution(componentMedia.getMimeType(), componentMedia.getOriginalName());
 		}
+	}
+
+	private Resolution mediaResolution(Path path, String mimeType, String originalFilename, Date updateDts) throws FileNotFoundException
+	{
+		//Use the later of the record and the file in case the file was replaced outside of the application
+		Date lastModified = new Date(path.toFile().lastModified());
+		if (updateDts != null && updateDts.after(lastModified)) {
+			lastModified = updateDts;
+		}
+		return new RangeResolutionBuilder()
+				.setContentType(mimeType)
+				.setFile(path)
+				.setLastModified(lastModified)
+				.setEntityTag(RangeResolution.entityTag(path.getFileName().toString(), lastModified, path.toFile().length()))
+				.setRequest(getContext().getRequest())
+				.setFilename(originalFilename)
+				.createRangeResolution();
+	}
+
+	private Resolution missingMediaResolution(String mimeType, String originalFilename)
+	{
 		return new RangeResolutionBuilder()
-				.setContentType(componentMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
+				.setContentType(mimeType)
+				.setInputStream(new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE))
+				.setTotalLength(MISSING_MEDIA_IMAGE_SIZE)
 				.setRequest(getContext().getRequest())
-				.setFilename(componentMedia.getOriginalName())
+				.setFilename(originalFilename)
 				.createRangeResolution();
 	}
 
@@ -250,25 +268,13 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
 		Path path = generalMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			return mediaResolution(path, generalMedia.getMimeType(), generalMedia.getOriginalFileName(), generalMedia.getUpdateDts());
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check general media record: {1} ", new Object[]{generalMedia.pathToMedia(), generalMedia.getName()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			return missingMediaResolution(generalMedia.getMimeType(), generalMedia.getOriginalFileName());
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(generalMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(generalMedia.getOriginalFileName())
-				.createRangeResolution();
 	}
 
 	@RequireSecurity(SecurityPermission.ADMIN_MEDIA)
@@ -328,25 +334,13 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
 		Path path = temporaryMediaFound.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			return mediaResolution(path, temporaryMediaFound.getMimeType(), temporaryMediaFound.getOriginalFileName(), temporaryMediaFound.getUpdateDts());
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check temporary media record: {1} ", new Object[]{temporaryMediaFound.pathToMedia(), temporaryMediaFound.getName()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			return missingMediaResolution(temporaryMediaFound.getMimeType(), temporaryMediaFound.getOriginalFileName());
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(temporaryMediaFound.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(temporaryMediaFound.getOriginalFileName())
-				.createRangeResolution();
 	}
 
 	@HandlesEvent("UploadTemporaryMedia")
@@ -472,25 +466,13 @@ public class MediaAction
 			}.setFilename("MediaNotFound.png");
 		}
 
-		InputStream in;
-		long length;
 		Path path = sectionMedia.pathToMedia();
 		if (path != null && path.toFile().exists()) {
-			in = new FileInputStream(path.toFile());
-			length = path.toFile().length();
+			return mediaResolution(path, sectionMedia.getMimeType(), sectionMedia.getOriginalName(), sectionMedia.getUpdateDts());
 		} else {
 			log.log(Level.WARNING, MessageFormat.format("Media not on disk: {0} Check section media record: {1} ", new Object[]{sectionMedia.pathToMedia(), sectionMedia.getContentSectionMediaId()}));
-			in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-			length = MISSING_MEDIA_IMAGE_SIZE;
+			return missingMediaResolution(sectionMedia.getMimeType(), sectionMedia.getOriginalName());
 		}
-
-		return new RangeResolutionBuilder()
-				.setContentType(sectionMedia.getMimeType())
-				.setInputStream(in)
-				.setTotalLength(length)
-				.setRequest(getContext().getRequest())
-				.setFilename(sectionMedia.getOriginalName())
-				.createRangeResolution();
 	}
 
 	@RequireSecurity(SecurityPermission.ADMIN_ORGANIZATION)
@@ -533,25 +515,13 @@ public class MediaAction
 		Organization organization = organizationExample.find();
 
 		if (organization != null) {
-			InputStream in;
-			long length;
 			Path path = organization.pathToLogo();
 			if (path != null && path.toFile().exists()) {
-				in = new FileInputStream(path.toFile());
-				length = path.toFile().length();
+				return mediaResolution(path, organization.getLogoMimeType(), organization.getLogoOriginalFileName(), organization.getUpdateDts());
 			} else {
 				log.log(Level.WARNING, MessageFormat.format("Organization logo not on disk: {0} Check organization media record: {1} ", new Object[]{organization.pathToLogo(), organization.getOrganizationId()}));
-				in = new FileSystemManager().getClass().getResourceAsStream(MISSING_IMAGE);
-				length = MISSING_MEDIA_IMAGE_SIZE;
+				return missingMediaResolution(organization.getLogoMimeType(), organization.getLogoOriginalFileName());
 			}
-
-			return new RangeResolutionBuilder()
-					.setContentType(organization.getLogoMimeType())
-					.setInputStream(in)
-					.setTotalLength(length)
-					.setRequest(getContext().getRequest())
-					.setFilename(organization.getLogoOriginalFileName())
-					.createRangeResolution();
 		} else {
 			log.log(Level.FINE, MessageFormat.format("Organization with id: {0} is not found.", organizationId));
 			return new StreamingResolution("image/png")
@@ -15,9 +15,15 @@
  */
 package edu.usu.sdl.openstorefront.web.action.resolution;
 
+import edu.usu.sdl.openstorefront.common.manager.PropertiesManager;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.text.MessageFormat;
+import java.util.Date;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,7 +35,15 @@ import net.sourceforge.stripes.util.Range;
 import org.apache.commons.lang3.StringUtils;
 
 /**
- * Handles media streams with client aborts
+ * Handles media streams with client aborts. File streams are sent with
+ * FileChannel.transferTo (ranges are read from their offset) and the ETag /
+ * Last-Modified validators are used to answer conditional requests with 304.
+ *
+ * The servlet output stream is not a file or socket channel, so transferTo
+ * still copies each chunk through a heap buffer; it saves the range skips,
+ * not the copies. True zero-copy would need the container's sendfile support
+ * (e.g. the Tomcat NIO/APR connector's org.apache.tomcat.sendfile.*
+ * request attributes).
  *
  * @author dshurtleff
  */
@@ -40,12 +54,22 @@ public class RangeResolution
 	private static final Logger log = Logger.getLogger(RangeResolution.class.getName());
 
 	private static final String MULTIPART_BOUNDARY = "BOUNDARY_F7C98B76AEF711DF86D1B4FCDFD72085";
+	private static final int BUFFER_SIZE = 8192;
+
 	private long totalLength = 0;
 	private InputStream in;
 	private HttpServletRequest request;
 	private String contentType;
+	private Date lastModified;
+	private String entityTag;
+	private boolean notModified;
 
 	public RangeResolution(String contentType, InputStream inputStream, long totalLength, HttpServletRequest request, String filename)
+	{
+		this(contentType, inputStream, totalLength, request, filename, null, null);
+	}
+
+	public RangeResolution(String contentType, InputStream inputStream, long totalLength, HttpServletRequest request, String filename, Date lastModified, String entityTag)
 	{
 		super(contentType, inputStream);
 		this.contentType = contentType;
@@ -60,14 +84,186 @@ public class RangeResolution
 		setRangeSupport(true);
 		setLength(totalLength);
 		this.request = request;
+		this.lastModified = lastModified;
+		this.entityTag = entityTag;
+	}
+
+	/**
+	 * Creates a strong entity tag from the stored file name and the
+	 * modification date and size of the media.
+	 *
+	 * @param key (stored file name)
+	 * @param lastModified
+	 * @param length
+	 * @return quoted entity tag
+	 */
+	public static String entityTag(String key, Date lastModified, long length)
+	{
+		StringBuilder tag = new StringBuilder();
+		tag.append("\"");
+		tag.append(StringUtils.replaceChars(key, "\"\\", ""));
+		if (lastModified != null) {
+			tag.append("-").append(Long.toHexString(lastModified.getTime()));
+		}
+		tag.append("-").append(Long.toHexString(length));
+		tag.append("\"");
+		return tag.toString();
+	}
+
+	/**
+	 * Finds the Cache-Control value for the content type; checks
+	 * media.cachecontrol.{type/subtype} then media.cachecontrol.{type} then
+	 * media.cachecontrol
+	 *
+	 * @param contentType
+	 * @return header value
+	 */
+	public static String cacheControl(String contentType)
+	{
+		String cacheControl = null;
+		if (StringUtils.isNotBlank(contentType)) {
+			String mimeType = StringUtils.substringBefore(contentType, ";").trim().toLowerCase();
+			cacheControl = PropertiesManager.getValue(PropertiesManager.KEY_MEDIA_CACHE_CONTROL + "." + mimeType);
+			if (cacheControl == null) {
+				cacheControl = PropertiesManager.getValue(PropertiesManager.KEY_MEDIA_CACHE_CONTROL + "." + StringUtils.substringBefore(mimeType, "/"));
+			}
+		}
+		if (cacheControl == null) {
+			cacheControl = PropertiesManager.getValueDefinedDefault(PropertiesManager.KEY_MEDIA_CACHE_CONTROL);
+		}
+		return cacheControl;
+	}
+
+	private boolean checkNotModified()
+	{
+		if (request == null || (entityTag == null && lastModified == null)) {
+			return false;
+		}
+
+		//If-None-Match takes precedence over If-Modified-Since (RFC 7232 section 6)
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			if (entityTag == null) {
+				return false;
+			}
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = StringUtils.removeStart(tag.trim(), "W/");
+				if ("*".equals(tag) || entityTag.equals(tag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		if (lastModified != null) {
+			long ifModifiedSince;
+			try {
+				ifModifiedSince = request.getDateHeader("If-Modified-Since");
+			} catch (IllegalArgumentException e) {
+				log.log(Level.FINEST, "Unable to parse If-Modified-Since", e);
+				return false;
+			}
+			//HTTP dates only have second precision
+			return ifModifiedSince != -1 && lastModified.getTime() / 1000 <= ifModifiedSince / 1000;
+		}
+		return false;
+	}
+
+	@Override
+	protected void applyHeaders(HttpServletResponse response)
+	{
+		notModified = checkNotModified();
+		if (notModified) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		} else {
+			super.applyHeaders(response);
+		}
+
+		if (entityTag != null) {
+			response.setHeader("ETag", entityTag);
+		}
+		if (entityTag != null || lastModified != null) {
+			if (lastModified != null) {
+				response.setDateHeader("Last-Modified", lastModified.getTime());
+			}
+			String cacheControl = cacheControl(contentType);
+			if (StringUtils.isNotBlank(cacheControl)) {
+				response.setHeader("Cache-Control", cacheControl);
+			}
+		}
 	}
 
 	@Override
 	protected void stream(HttpServletResponse response) throws Exception
+	{
+		if (notModified) {
+			closeInput();
+		} else if (in instanceof FileInputStream) {
+			streamFile(response);
+		} else {
+			streamInput(response);
+		}
+	}
+
+	private void streamFile(HttpServletResponse response)
+	{
+		try (FileChannel channel = ((FileInputStream) in).getChannel()) {
+			ServletOutputStream out = response.getOutputStream();
+			WritableByteChannel outChannel = Channels.newChannel(out);
+
+			List<Range<Long>> byteRanges = parseRangeHeader(request.getHeader("Range"));
+			if (byteRanges == null) {
+				transfer(channel, 0, totalLength, outChannel);
+			} else {
+				for (Range<Long> byteRange : byteRanges) {
+					// See RFC 2616 section 14.16
+					if (byteRanges.size() > 1) {
+						writePartHeader(out, byteRange);
+					}
+					transfer(channel, byteRange.getStart(), byteRange.getEnd() + 1 - byteRange.getStart(), outChannel);
+					if (byteRanges.size() > 1) {
+						out.print("\r\n");
+					}
+				}
+				if (byteRanges.size() > 1) {
+					out.print("--" + MULTIPART_BOUNDARY + "--\r\n");
+				}
+			}
+		} catch (IOException io) {
+			//Ignore Client Abort
+			log.log(Level.FINEST, "Range Resolution Error ", io);
+		} finally {
+			closeInput();
+		}
+	}
+
+	private void transfer(FileChannel channel, long position, long count, WritableByteChannel out) throws IOException
+	{
+		long remaining = count;
+		while (remaining > 0) {
+			long transferred = channel.transferTo(position, remaining, out);
+			if (transferred <= 0) {
+				break;
+			}
+			position += transferred;
+			remaining -= transferred;
+		}
+	}
+
+	private void writePartHeader(ServletOutputStream out, Range<Long> byteRange) throws IOException
+	{
+		out.print("--" + MULTIPART_BOUNDARY + "\r\n");
+		out.print("Content-Type: " + contentType + "\r\n");
+		out.print("Content-Range: bytes " + byteRange.getStart() + "-"
+				+ byteRange.getEnd() + "/" + totalLength + "\r\n");
+		out.print("\r\n");
+	}
+
+	private void streamInput(HttpServletResponse response)
 	{
 		int bufferLength;
 		if (in != null && totalLength >= 0) {
-			byte[] buffer = new byte[512];
+			byte[] buffer = new byte[BUFFER_SIZE];
 			long count = 0;
 
 			try {
@@ -82,11 +278,7 @@ public class RangeResolution
 					for (Range<Long> byteRange : byteRanges) {
 						// See RFC 2616 section 14.16
 						if (byteRanges.size() > 1) {
-							out.print("--" + MULTIPART_BOUNDARY + "\r\n");
-							out.print("Content-Type: " + contentType + "\r\n");
-							out.print("Content-Range: bytes " + byteRange.getStart() + "-"
-									+ byteRange.getEnd() + "/" + totalLength + "\r\n");
-							out.print("\r\n");
+							writePartHeader(out, byteRange);
 						}
 						if (count < byteRange.getStart()) {
 							long skip;
@@ -121,14 +313,21 @@ public class RangeResolution
 				//Ignore Client Abort
 				log.log(Level.FINEST, "Range Resolution Error ", io);
 			} finally {
-				try {
-					in.close();
-				} catch (Exception e) {
-					log.log(Level.WARNING, "Error closing input stream", e);
-				}
+				closeInput();
 			}
 		}
 
 	}
 
+	private void closeInput()
+	{
+		if (in != null) {
+			try {
+				in.close();
+			} catch (Exception e) {
+				log.log(Level.WARNING, "Error closing input stream", e);
+			}
+		}
+	}
+
 }
@@ -15,7 +15,11 @@
  */
 package edu.usu.sdl.openstorefront.web.action.resolution;
 
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Date;
 import javax.servlet.http.HttpServletRequest;
 
 public class RangeResolutionBuilder
@@ -26,6 +30,8 @@ public class RangeResolutionBuilder
 	private long totalLength;
 	private HttpServletRequest request;
 	private String filename = null;
+	private Date lastModified;
+	private String entityTag;
 
 	public RangeResolutionBuilder()
 	{
@@ -61,9 +67,35 @@ public class RangeResolutionBuilder
 		return this;
 	}
 
+	/**
+	 * Opens the file as the input stream and sets the total length
+	 *
+	 * @param file
+	 * @return
+	 * @throws FileNotFoundException
+	 */
+	public RangeResolutionBuilder setFile(Path file) throws FileNotFoundException
+	{
+		this.inputStream = new FileInputStream(file.toFile());
+		this.totalLength = file.toFile().length();
+		return this;
+	}
+
+	public RangeResolutionBuilder setLastModified(Date lastModified)
+	{
+		this.lastModified = lastModified;
+		return this;
+	}
+
+	public RangeResolutionBuilder setEntityTag(String entityTag)
+	{
+		this.entityTag = entityTag;
+		return this;
+	}
+
 	public RangeResolution createRangeResolution()
 	{
-		return new RangeResolution(contentType, inputStream, totalLength, request, filename);
+		return new RangeResolution(contentType, inputStream, totalLength, request, filename, lastModified, entityTag);
 	}
 
 }
@@ -16,6 +16,7 @@
 package edu.usu.sdl.openstorefront.web.atmosphere;
 
 import edu.usu.sdl.openstorefront.core.entity.NotificationEvent;
+import edu.usu.sdl.openstorefront.core.model.NotificationCountMessage;
 import edu.usu.sdl.openstorefront.core.model.NotificationMessage;
 import edu.usu.sdl.openstorefront.core.spi.NotificationEventListerner;
 import java.util.logging.Level;
@@ -58,15 +59,16 @@ public class AtmosphereNotificationListerner
 			sendToAll = true;
 		}
 
-		NotificationMessage notificationMessage = NotificationMessage.toMessage(notificationEvent);
+		//serialize once for every broadcaster
+		String message = NotificationMessage.toMessage(notificationEvent).messageToJson();
 
 		if (sendToAll) {
 			for (Broadcaster broadcasterInstance : atmosphereFramework.getBroadcasterFactory().lookupAll()) {
-				broadcasterInstance.broadcast(notificationMessage.messageToJson());
+				broadcasterInstance.broadcast(message);
 			}
 		} else {
 			if (broadcaster != null) {
-				broadcaster.broadcast(notificationMessage.messageToJson());
+				broadcaster.broadcast(message);
 			} else {
 				log.log(Level.FINEST, "Unable to find broadcaster");
 			}
@@ -75,4 +77,13 @@ public class AtmosphereNotificationListerner
 		return success;
 	}
 
+	@Override
+	public void processUnreadCount(String username, long unreadCount)
+	{
+		Broadcaster broadcaster = atmosphereFramework.getBroadcasterFactory().lookup(username);
+		if (broadcaster != null) {
+			broadcaster.broadcast(NotificationCountMessage.toMessage(username, unreadCount).messageToJson());
+		}
+	}
+
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Space Dynamics Laboratory - Utah State University Research Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.usu.sdl.openstorefront.web.rest;
+
+import edu.usu.sdl.openstorefront.service.manager.MetricsManager;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Times resource methods (including writing the response) when metrics are
+ * being collected
+ *
+ * @author dshurtleff
+ */
+@Provider
+public class MetricsFilter
+		implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor
+{
+
+	private static final String START_PROPERTY = "metrics.startNanos";
+	private static final String NAME_PROPERTY = "metrics.name";
+
+	@Context
+	ResourceInfo resourceInfo;
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException
+	{
+		if (MetricsManager.isEnabled()) {
+			Method method = resourceInfo.getResourceMethod();
+			if (method != null) {
+				requestContext.setProperty(NAME_PROPERTY, resourceInfo.getResourceClass().getSimpleName() + "." + method.getName());
+				requestContext.setProperty(START_PROPERTY, System.nanoTime());
+			}
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException
+	{
+		//with an entity the time is recorded once it's written
+		if (responseContext.hasEntity() == false) {
+			Object start = requestContext.getProperty(START_PROPERTY);
+			if (start != null) {
+				requestContext.removeProperty(START_PROPERTY);
+				MetricsManager.recordRest((String) requestContext.getProperty(NAME_PROPERTY), System.nanoTime() - (Long) start);
+			}
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException
+	{
+		try {
+			context.proceed();
+		} finally {
+			Object start = context.getProperty(START_PROPERTY);
+			if (start != null) {
+				context.removeProperty(START_PROPERTY);
+				MetricsManager.recordRest((String) context.getProperty(NAME_PROPERTY), System.nanoTime() - (Long) start);
+			}
+		}
+	}
+
+}
@@ -891,8 +891,8 @@ public class ComponentRESTResource
 			componentTracking.setCreateUser(SecurityUtil.getCurrentUserName());
 			componentTracking.setUpdateUser(SecurityUtil.getCurrentUserName());
 			service.getComponentService().saveComponentTracking(componentTracking);
+			service.getComponentService().setLastViewDts(componentId, SecurityUtil.getCurrentUserName());
 		}
-		service.getComponentService().setLastViewDts(componentId, SecurityUtil.getCurrentUserName());
 		if (componentDetail != null) {
 			return sendSingleEntityResponse(componentDetail);
 		} else if (componentPrint != null) {
@@ -29,9 +29,9 @@ import edu.usu.sdl.openstorefront.core.entity.FileDataMap;
 import edu.usu.sdl.openstorefront.core.entity.FileFormat;
 import edu.usu.sdl.openstorefront.core.entity.FileHistory;
 import edu.usu.sdl.openstorefront.core.entity.FileHistoryError;
-import edu.usu.sdl.openstorefront.core.entity.FileHistoryErrorType;
 import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.model.DataMapModel;
+import edu.usu.sdl.openstorefront.core.model.ImportProgress;
 import edu.usu.sdl.openstorefront.core.sort.BeanComparator;
 import edu.usu.sdl.openstorefront.core.view.FileHistoryView;
 import edu.usu.sdl.openstorefront.core.view.FileHistoryViewWrapper;
@@ -130,17 +130,57 @@ public class FileHistoryResource
 		//gather warnings and errors
 		Map<String, List<FileHistoryError>> errorMap = service.getImportService().fileHistoryErrorMap();
 		fileHistoryViewWrapper.getData().forEach(record -> {
-			List<FileHistoryError> errors = errorMap.get(record.getFileHistoryId());
-			if (errors != null) {
-				long warningCount = errors.stream().filter(error -> error.getFileHistoryErrorType().equals(FileHistoryErrorType.WARNING)).count();
-				record.setWarningsCount(warningCount);
-				record.setErrorsCount(errors.size() - warningCount);
+			//running imports only save progress on an interval
+			ImportProgress importProgress = service.getImportService().getImportProgress(record.getFileHistoryId());
+			if (importProgress != null) {
+				record.setNumberRecords(importProgress.getNumberRecords());
+				record.setRecordsProcessed(importProgress.getRecordsProcessed());
+				record.setRecordsStored(importProgress.getRecordsStored());
+				record.setWarningsCount(importProgress.getWarningsCount());
+				record.setErrorsCount(importProgress.getErrorsCount());
+			} else {
+				List<FileHistoryError> errors = errorMap.get(record.getFileHistoryId());
+				if (errors != null) {
+					long warningCount = FileHistoryError.countWarnings(errors);
+					record.setWarningsCount(warningCount);
+					record.setErrorsCount(errors.size() - warningCount);
+				}
 			}
 		});
 
 		return sendSingleEntityResponse(fileHistoryViewWrapper);
 	}
 
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_DATA_IMPORT_EXPORT)
+	@APIDescription("Gets the progress of an import (live counts while it is running)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(ImportProgress.class)
+	@Path("/{fileHistoryId}/progress")
+	public Response getImportProgress(
+			@PathParam("fileHistoryId") String fileHistoryId
+	)
+	{
+		ImportProgress importProgress = service.getImportService().getImportProgress(fileHistoryId);
+		if (importProgress == null) {
+			FileHistory fileHistory = new FileHistory();
+			fileHistory.setFileHistoryId(fileHistoryId);
+			fileHistory = fileHistory.find();
+			if (fileHistory != null) {
+				importProgress = new ImportProgress(fileHistoryId);
+				importProgress.setNumberRecords(fileHistory.getNumberRecords());
+				if (fileHistory.getRecordsProcessed() != null) {
+					importProgress.setRecordsProcessed(fileHistory.getRecordsProcessed());
+				}
+				if (fileHistory.getRecordsStored() != null) {
+					importProgress.setRecordsStored(fileHistory.getRecordsStored());
+				}
+				importProgress.setLastPublishDts(fileHistory.getUpdateDts());
+			}
+		}
+		return sendSingleEntityResponse(importProgress);
+	}
+
 	@GET
 	@RequireSecurity(SecurityPermission.ADMIN_DATA_IMPORT_EXPORT)
 	@APIDescription("Gets errors for a file")
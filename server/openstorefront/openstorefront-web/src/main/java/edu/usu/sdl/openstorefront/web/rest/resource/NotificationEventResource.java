@@ -24,6 +24,7 @@ import edu.usu.sdl.openstorefront.core.entity.SecurityPermission;
 import edu.usu.sdl.openstorefront.core.view.FilterQueryParams;
 import edu.usu.sdl.openstorefront.core.view.NotificationEventView;
 import edu.usu.sdl.openstorefront.core.view.NotificationEventWrapper;
+import edu.usu.sdl.openstorefront.core.view.NotificationUnreadView;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
 import edu.usu.sdl.openstorefront.security.SecurityUtil;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
@@ -83,6 +84,17 @@ public class NotificationEventResource
 		return sendSingleEntityResponse(notificationEventWrapper);
 	}
 
+	@GET
+	@APIDescription("Gets the unread notification count for the current user (the count is also pushed over the event socket when it changes)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(NotificationUnreadView.class)
+	@Path("/unreadcount")
+	public Response getUnreadCount()
+	{
+		String username = SecurityUtil.getCurrentUserName();
+		return sendSingleEntityResponse(NotificationUnreadView.toView(username, service.getNotificationService().getUnreadCount(username)));
+	}
+
 	@GET
 	@APIDescription("Gets a notification event record")
 	@Produces({MediaType.APPLICATION_JSON})
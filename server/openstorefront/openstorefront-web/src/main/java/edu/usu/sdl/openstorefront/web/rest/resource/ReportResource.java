@@ -176,7 +176,7 @@ public class ReportResource
 				java.nio.file.Path path = report.pathToReport();
 
 				if (path.toFile().exists()) {
-					String extenstion = OpenStorefrontConstant.getFileExtensionForMime(ReportFormat.mimeType(report.getReportFormat()));
+					String extenstion = ReportFormat.fileExtension(report.getReportFormat());
 					Response.ResponseBuilder responseBuilder = Response.ok(new StreamingOutput()
 					{
 
@@ -45,7 +45,13 @@ import edu.usu.sdl.openstorefront.core.view.SystemStatusView;
 import edu.usu.sdl.openstorefront.core.view.ThreadStatus;
 import edu.usu.sdl.openstorefront.doc.annotation.RequiredParam;
 import edu.usu.sdl.openstorefront.doc.security.RequireSecurity;
+import edu.usu.sdl.openstorefront.service.manager.DBLogManager;
+import edu.usu.sdl.openstorefront.service.manager.MetricsManager;
 import edu.usu.sdl.openstorefront.service.manager.OSFCacheManager;
+import edu.usu.sdl.openstorefront.service.manager.TrackingManager;
+import edu.usu.sdl.openstorefront.service.manager.model.DBLogStatus;
+import edu.usu.sdl.openstorefront.service.manager.model.MetricsStatus;
+import edu.usu.sdl.openstorefront.service.manager.model.TrackingStatus;
 import edu.usu.sdl.openstorefront.validation.CleanKeySanitizer;
 import edu.usu.sdl.openstorefront.validation.ValidationModel;
 import edu.usu.sdl.openstorefront.validation.ValidationResult;
@@ -496,6 +502,28 @@ public class Application
 		service.getSystemService().clearAllLogRecord();
 	}
 
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Gets the status of the Database logger buffer (written and dropped counts)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(DBLogStatus.class)
+	@Path("/dblogger/status")
+	public Response getDBLoggerStatus()
+	{
+		return sendSingleEntityResponse(DBLogManager.status());
+	}
+
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Gets the status of the tracking write pipeline (written and lost counts)")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(TrackingStatus.class)
+	@Path("/tracking/status")
+	public Response getTrackingStatus()
+	{
+		return sendSingleEntityResponse(TrackingManager.status());
+	}
+
 	@PUT
 	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
 	@APIDescription("Toggle Database logging; pass use=true or use=false")
@@ -509,6 +537,39 @@ public class Application
 		return Response.ok().build();
 	}
 
+	@GET
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Gets the latency metrics (REST methods, service methods, queries), cache and task pool stats")
+	@Produces({MediaType.APPLICATION_JSON})
+	@DataType(MetricsStatus.class)
+	@Path("/metrics")
+	public Response getMetrics()
+	{
+		return sendSingleEntityResponse(MetricsManager.status());
+	}
+
+	@PUT
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Clears the collected latency metrics")
+	@Path("/metrics/reset")
+	public Response resetMetrics()
+	{
+		MetricsManager.reset();
+		return Response.ok().build();
+	}
+
+	@PUT
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Toggle latency metrics collection; pass use=true or use=false")
+	@Path("/metrics/{use}")
+	public Response toggleMetrics(
+			@PathParam("use") String use
+	)
+	{
+		MetricsManager.setEnabled(Convert.toBoolean(use));
+		return Response.ok().build();
+	}
+
 	@GET
 	@APIDescription("Gets information about whether the Jira User Feedback is available or not.")
 	@Produces({MediaType.APPLICATION_JSON})
@@ -533,24 +594,7 @@ public class Application
 	@Path("/caches")
 	public Response getCaches()
 	{
-		List<CacheView> cacheViews = new ArrayList<>();
-		for (String cacheName : OSFCacheManager.getCacheManager().getCacheNames()) {
-			CacheView cacheView = new CacheView();
-			cacheView.setName(cacheName);
-
-			Cache cache = OSFCacheManager.getCacheManager().getCache(cacheName);
-			cacheView.setHitCount(cache.getStatistics().cacheHitCount());
-			cacheView.setRoughCount(cache.getKeysNoDuplicateCheck().size());
-
-			long total = cache.getStatistics().cacheHitCount() + cache.getStatistics().cacheMissCount();
-			if (total > 0) {
-				cacheView.setHitRatio((double) cache.getStatistics().cacheHitCount() / (double) total);
-			} else {
-				cacheView.setHitRatio(0);
-			}
-			cacheView.setMissCount(cache.getStatistics().cacheMissCount());
-			cacheViews.add(cacheView);
-		}
+		List<CacheView> cacheViews = OSFCacheManager.getCacheViews();
 
 		GenericEntity<List<CacheView>> entity = new GenericEntity<List<CacheView>>(cacheViews)
 		{
@@ -568,13 +612,43 @@ public class Application
 	{
 		Cache cache = OSFCacheManager.getCacheManager().getCache(cacheName);
 		if (cache != null) {
-			cache.removeAll();
+			OSFCacheManager.invalidateRegion(cache);
+			return Response.ok().build();
+		}
+
+		return sendSingleEntityResponse(null);
+	}
+
+	@PUT
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Removes a single record from a cache")
+	@Path("/caches/{name}/keys/{key}/flush")
+	public Response flushCacheKey(
+			@PathParam("name") String cacheName,
+			@PathParam("key") String key
+	)
+	{
+		Cache cache = OSFCacheManager.getCacheManager().getCache(cacheName);
+		if (cache != null) {
+			OSFCacheManager.invalidateKey(cache, key);
 			return Response.ok().build();
 		}
 
 		return sendSingleEntityResponse(null);
 	}
 
+	@PUT
+	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
+	@APIDescription("Removes a component from all caches (including cached search results that contain it)")
+	@Path("/caches/components/{componentId}/flush")
+	public Response flushComponentCaches(
+			@PathParam("componentId") String componentId
+	)
+	{
+		OSFCacheManager.invalidateComponent(componentId);
+		return Response.ok().build();
+	}
+
 	@GET
 	@RequireSecurity(SecurityPermission.ADMIN_SYSTEM_MANAGEMENT)
 	@APIDescription("Gets information resource managers")
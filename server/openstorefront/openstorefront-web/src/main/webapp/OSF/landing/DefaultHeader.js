@@ -116,16 +116,10 @@ Ext.define('OSF.landing.DefaultHeader', {
 		
 		var checkNotifications = function(){
 			Ext.Ajax.request({
-				url: 'api/v1/resource/notificationevent',
+				url: 'api/v1/resource/notificationevent/unreadcount',
 				success: function(response, opts) {
 					var data = Ext.decode(response.responseText);
-
-					var unreadCount = 0;
-					Ext.Array.each(data.data, function(item){
-						if (!item.readMessage) {
-							unreadCount++;
-						}
-					});
+					var unreadCount = data.unreadCount;
 
 					if (unreadCount > 0) {
 						Ext.toast({
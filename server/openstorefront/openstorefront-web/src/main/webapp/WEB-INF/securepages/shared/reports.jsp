@@ -1270,7 +1270,8 @@
 							Ext.getCmp('historyViewButton').setDisabled(true);
 							Ext.getCmp('historyExportButton').setDisabled(true);	
 						} else {
-							Ext.getCmp('historyViewButton').setDisabled(false);
+							//compressed reports can only be downloaded
+							Ext.getCmp('historyViewButton').setDisabled(record.get('reportFormat') === 'application-gzip');
 							Ext.getCmp('historyExportButton').setDisabled(false);							
 						}						
 						
@@ -1306,6 +1307,15 @@
 						var selectedObj = Ext.getCmp('historyGrid').getSelection()[0];
 						var formattedDate = Ext.util.Format.date(selectedObj.data.createDts,'m/d/y H:i:s');
 						historyTitle="View Report Data - "+selectedObj.data.reportTypeDescription +' '+formattedDate;
+						if (selectedObj.data.reportFormat === 'application-gzip') {
+							var gzipFrame = Ext.getDom('contentFrame');
+							if (gzipFrame) {
+								gzipFrame.contentWindow.document.open();
+								gzipFrame.contentWindow.document.write('This report is compressed; use Download to get it.');
+								gzipFrame.contentWindow.document.close();
+							}
+							return;
+						}
 						Ext.Ajax.request({
 							url: 'api/v1/resource/reports/' + selectedObj.data.reportId + '/report',
 							method: 'GET',
@@ -1434,7 +1444,11 @@
 				var viewHistory = function () {
 					var record = historyGrid.getSelectionModel().getSelection()[0]; 
 					if (record.get('runStatus') === 'C') {
-						historyViewWin();
+						if (record.get('reportFormat') === 'application-gzip') {
+							historyExport();
+						} else {
+							historyViewWin();
+						}
 					}
 				};
 
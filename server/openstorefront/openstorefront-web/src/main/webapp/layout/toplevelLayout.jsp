@@ -112,43 +112,61 @@
 				
 				var eventState = {
 					eventIds: [],
+					unreadCount: null,
 					initalPoll: true
 				};
+				var loadRecentEvents = function(){
+					Ext.Ajax.request({
+						url: 'api/v1/resource/notificationevent',
+						method: 'GET',
+						params: {
+							max: 5, 
+							sortField: 'createDts',
+							sortOrder: 'DESC'
+						},
+						success: function(response, opts) {
+							var data = Ext.decode(response.responseText);
+
+							if (eventState.initalPoll) {									
+								Ext.Array.each(data.data, function(event){
+									eventState.eventIds.push(event.eventId);
+								});
+								eventState.initalPoll = false;
+							} else {
+								Ext.Array.each(data.data, function(event){
+									if (Ext.Array.contains(eventState.eventIds, event.eventId) === false) {
+										eventState.eventIds.push(event.eventId);
+
+										handleAlert({
+											eventId: event.eventId,
+											msg: event.message,
+											type: event.entityMetaDataStatus ? alertStatus(event.entityMetaDataStatus) : event.eventTypeDescription
+										}, {
+											eventType: event.eventType
+										});
+									} 
+								});
+							}
+						}
+					});	
+				};
 				Ext.util.TaskManager.start({
 					run: function(){
-						//poll events
+						//poll the count; only pull events when it goes up
 						Ext.Ajax.request({
-							url: 'api/v1/resource/notificationevent',
+							url: 'api/v1/resource/notificationevent/unreadcount',
 							method: 'GET',
-							params: {
-								max: 5, 
-								sortField: 'createDts'
-							},
 							success: function(response, opts) {
 								var data = Ext.decode(response.responseText);
-								
-								if (eventState.initalPoll) {									
-									Ext.Array.each(data.data, function(event){
-										eventState.eventIds.push(event.eventId);
-									});
-									eventState.initalPoll = false;
-								} else {
-									Ext.Array.each(data.data, function(event){
-										if (Ext.Array.contains(eventState.eventIds, event.eventId) === false) {
-											eventState.eventIds.push(event.eventId);
-											
-											handleAlert({
-												eventId: event.eventId,
-												msg: event.message,
-												type: event.entityMetaDataStatus ? alertStatus(event.entityMetaDataStatus) : event.eventTypeDescription
-											}, {
-												eventType: event.eventType
-											});
-										} 
-									});
+								if (eventState.unreadCount === null || data.unreadCount > eventState.unreadCount) {
+									loadRecentEvents();
+								}
+								if (eventState.unreadCount !== data.unreadCount) {
+									eventState.unreadCount = data.unreadCount;
+									Ext.GlobalEvents.fireEvent('notificationunreadcount', data.unreadCount);
 								}
 							}
-						});	
+						});
 					},
 					interval: 20000,
 					fireOnStart: true
@@ -192,6 +210,9 @@
 					var alert = {'type': args.entityMetaDataStatus ? alertStatus(args.entityMetaDataStatus): 'report', 'msg': args.message + '<i>View/Download the report <a href="UserTool.action?load=Reports"><strong>here</strong></a></i>.', 'id': 'report_'+ args.eventId};					
 					handleAlert(alert, args);
 				  });
+				  socket.on('UNREAD_COUNT', function (args) {
+					Ext.GlobalEvents.fireEvent('notificationunreadcount', args.unreadCount);
+				  });
 				  socket.on('ADMIN', function (args) {					
 					var alert = {'type': args.entityMetaDataStatus ? alertStatus(args.entityMetaDataStatus): 'admin', 'msg': '<i class="fa fa-warning"></i>&nbsp;' + args.message, 'id': 'admin_'+ args.eventId};
 					handleAlert(alert, args);
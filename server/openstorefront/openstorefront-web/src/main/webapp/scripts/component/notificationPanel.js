@@ -69,6 +69,17 @@ Ext.define('OSF.component.NotificationPanel', {
 			}
 		});
 
+		//refresh when the server pushes a count change
+		notPanel.mon(Ext.GlobalEvents, 'notificationunreadcount', function () {
+			if (notPanel.isVisible()) {
+				dataStore.load({
+					params: {
+						all: notPanel.loadAll
+					}
+				});
+			}
+		});
+
 		var actionMarkAsRead = function (record) {
 			CoreService.userservice.getCurrentUser().then(function (usercontext) {		
 				Ext.Ajax.request({